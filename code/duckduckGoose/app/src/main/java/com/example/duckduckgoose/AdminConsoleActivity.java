@@ -59,6 +59,7 @@ public class AdminConsoleActivity extends AppCompatActivity {
 
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin_console);
+        StartupTimer.markFirstFrame(this);
 
         auth = FirebaseAuth.getInstance();
 
@@ -68,6 +69,7 @@ public class AdminConsoleActivity extends AppCompatActivity {
         MaterialButton btnLogout = findViewById(R.id.btnBack);
         btnLogout.setOnClickListener(v -> {
             auth.signOut();
+            SessionCache.clear(this);
             Intent intent = new Intent(AdminConsoleActivity.this, LoginActivity.class);
             intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
             intent.putExtra("startOn", "LOGIN");
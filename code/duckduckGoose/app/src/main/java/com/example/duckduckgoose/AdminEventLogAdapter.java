@@ -22,6 +22,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -73,8 +74,10 @@ public class AdminEventLogAdapter extends RecyclerView.Adapter<AdminEventLogAdap
         holder.txtNotifTitle.setText(eventLog.getTitle());
         holder.txtOrganizer.setText(eventLog.getOrganizer());
 
+        holder.btnRecipients.setText("Recipients (" + eventLog.getRecipientCount() + ")");
+
         // Set up Recipients button click listener
-        holder.btnRecipients.setOnClickListener(v -> showRecipientsDialog(eventLog.getRecipients()));
+        holder.btnRecipients.setOnClickListener(v -> showRecipientsDialog(eventLog));
     }
 
     /**
@@ -90,9 +93,12 @@ public class AdminEventLogAdapter extends RecyclerView.Adapter<AdminEventLogAdap
     /**
      * Shows a dialog displaying the list of recipients.
      *
-     * @param recipientIds - List of recipient user IDs
+     * Summarized sends read their first recipient page when the dialog opens
+     * and further pages on "Load more"; names come from the shared user cache.
+     *
+     * @param eventLog - Log item whose recipients to show
      */
-    private void showRecipientsDialog(List<String> recipientIds) {
+    private void showRecipientsDialog(AdminEventLogsActivity.EventLogItem eventLog) {
         Dialog dialog = new Dialog(context);
         dialog.setContentView(R.layout.dialog_recipients);
 
@@ -108,33 +114,33 @@ public class AdminEventLogAdapter extends RecyclerView.Adapter<AdminEventLogAdap
         // Set up RecyclerView in dialog
         RecyclerView recyclerRecipients = dialog.findViewById(R.id.recyclerRecipients);
         recyclerRecipients.setLayoutManager(new LinearLayoutManager(context));
-        
-        // Fetch recipient names from Firestore
-        List<String> recipientNames = new java.util.ArrayList<>();
+
+        List<String> recipientNames = new ArrayList<>();
         RecipientAdapter recipientAdapter = new RecipientAdapter(recipientNames);
         recyclerRecipients.setAdapter(recipientAdapter);
-        
-        // Load user IDs for each recipient
-        com.google.firebase.firestore.FirebaseFirestore db = com.google.firebase.firestore.FirebaseFirestore.getInstance();
-        for (String userId : recipientIds) {
-            android.util.Log.d("AdminEventLogs", "Loading recipient: " + userId);
-            db.collection("users").document(userId).get()
-                    .addOnSuccessListener(userDoc -> {
-                        if (userDoc.exists()) {
-                            String userIdField = userDoc.getString("userId");
-                            android.util.Log.d("AdminEventLogs", "Recipient found: " + userIdField);
-                            recipientNames.add(userIdField != null && !userIdField.isEmpty() ? userIdField : userId);
-                        } else {
-                            android.util.Log.d("AdminEventLogs", "Recipient user not found");
-                            recipientNames.add(userId);
-                        }
-                        recipientAdapter.notifyDataSetChanged();
-                    })
-                    .addOnFailureListener(e -> {
-                        android.util.Log.e("AdminEventLogs", "Error loading recipient", e);
-                        recipientNames.add(userId);
-                        recipientAdapter.notifyDataSetChanged();
-                    });
+
+        Button btnMore = dialog.findViewById(R.id.btnMoreRecipients);
+        if (eventLog.getBatchId() == null) {
+            addRecipients(eventLog.getRecipients(), recipientNames, recipientAdapter);
+        } else {
+            int[] nextPage = {0};
+            Runnable loadPage = () -> {
+                btnMore.setEnabled(false);
+                NotificationRepository.get().batchRecipients(eventLog.getBatchId(), nextPage[0])
+                        .addOnSuccessListener(ids -> {
+                            nextPage[0]++;
+                            addRecipients(ids, recipientNames, recipientAdapter);
+                            btnMore.setEnabled(true);
+                            btnMore.setVisibility(nextPage[0] < eventLog.getPageCount() ? View.VISIBLE : View.GONE);
+                        })
+                        .addOnFailureListener(e -> {
+                            android.util.Log.e("AdminEventLogs", "Error loading recipients", e);
+                            btnMore.setEnabled(true);
+                            btnMore.setVisibility(View.VISIBLE);
+                        });
+            };
+            btnMore.setOnClickListener(v -> loadPage.run());
+            loadPage.run();
         }
 
         // Set up close button
@@ -144,6 +150,27 @@ public class AdminEventLogAdapter extends RecyclerView.Adapter<AdminEventLogAdap
         dialog.show();
     }
 
+    /**
+     * Appends recipients to the dialog list, showing each id until its name loads.
+     *
+     * @param userIds - Recipient uids to append
+     * @param names - Backing list of the recipient adapter
+     * @param recipientAdapter - Adapter to notify
+     */
+    private void addRecipients(List<String> userIds, List<String> names, RecipientAdapter recipientAdapter) {
+        int start = names.size();
+        names.addAll(userIds);
+        recipientAdapter.notifyItemRangeInserted(start, userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            final int index = start + i;
+            UserRepository.get().getFullName(userIds.get(i)).addOnSuccessListener(name -> {
+                if (name == null || name.isEmpty()) return;
+                names.set(index, name);
+                recipientAdapter.notifyItemChanged(index);
+            });
+        }
+    }
+
     /**
      * ViewHolder for event log item views.
      */
@@ -25,7 +25,7 @@ import com.google.android.material.textfield.MaterialAutoCompleteTextView;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.google.firebase.Timestamp;
 
@@ -35,8 +35,6 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Displays event logs in a scrollable list with sorting capability.
@@ -56,15 +54,15 @@ public class AdminEventLogsActivity extends AppCompatActivity {
     /** List of event logs loaded from Firestore. */
     private List<EventLogItem> eventLogs;
 
-    /** Firestore instance for loading notifications. */
-    private FirebaseFirestore db;
-
     /** Event ID for which to load logs. */
     private String eventId;
 
     /** Empty state text view. */
     private TextView txtEmptyPlaceholder;
 
+    /** Live query for this event's send summaries, detached while the screen is stopped. */
+    private LiveQuery notificationsQuery;
+
     /**
      * Initializes the event logs screen and populates with mock data.
      *
@@ -92,7 +90,6 @@ public class AdminEventLogsActivity extends AppCompatActivity {
         // Attach top bar profile sheet
         TopBarWiring.attachProfileSheet(this);
 
-        db = FirebaseFirestore.getInstance();
         eventLogs = new ArrayList<>();
 
         // Get eventId from intent
@@ -137,15 +134,17 @@ public class AdminEventLogsActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads all notifications sent by organizers for this specific event.
-     * Groups notifications by message and timestamp to show unique sends with recipient lists.
+     * Loads the send summaries for this event, one document per send. Sends
+     * made before summaries were written have them from the
+     * backfillNotificationBatches function, so per-recipient notifications
+     * (which admins cannot list) are never read here. Recipient lists are
+     * not read either; the recipients dialog pages them in.
      */
     private void loadEventNotifications() {
-        if (db == null) db = FirebaseFirestore.getInstance();
+        if (notificationsQuery != null) notificationsQuery.remove();
 
-        db.collection("notifications")
-                .whereEqualTo("eventId", eventId)
-                .addSnapshotListener((value, error) -> {
+        notificationsQuery = LiveQuery.observe(this, NotificationRepository.get().batchesForEvent(eventId),
+                (value, error) -> {
                     if (error != null) {
                         android.util.Log.e("AdminEventLogs", "Error loading notifications", error);
                         Toast.makeText(this, "Error loading notifications", Toast.LENGTH_SHORT).show();
@@ -153,98 +152,51 @@ public class AdminEventLogsActivity extends AppCompatActivity {
                     }
 
                     eventLogs.clear();
-
-                    if (value != null && !value.isEmpty()) {
-                        android.util.Log.d("AdminEventLogs", "Found " + value.size() + " notifications");
-                        // Group notifications by message and sentBy to show batches
-                        Map<String, EventLogItem> groupedNotifs = new HashMap<>();
-
-                        for (QueryDocumentSnapshot doc : value) {
-                            String message = doc.getString("message");
-                            String sentBy = doc.getString("sentBy");
-                            String userId = doc.getString("userId");
-                            Timestamp ts = doc.getTimestamp("timestamp");
-                            
-                            android.util.Log.d("AdminEventLogs", "Notification: message=" + message + ", sentBy=" + sentBy + ", userId=" + userId);
-
-                            if (message == null) message = "(no message)";
-
-                            // Create a key for grouping (message + sentBy + rough timestamp)
-                            String key = message + "_" + (sentBy != null ? sentBy : "unknown");
-
-                            if (!groupedNotifs.containsKey(key)) {
-                                EventLogItem item = new EventLogItem(message, "From: Loading...", new ArrayList<>());
-                                item.setSentBy(sentBy);
-                                item.setTimestamp(ts != null ? ts.toDate() : new Date());
-                                groupedNotifs.put(key, item);
-
-                                // Fetch organizer userId via event -> organizerId -> user
-                                final EventLogItem finalItem = item;
-                                android.util.Log.d("AdminEventLogs", "Fetching event: " + eventId);
-                                db.collection("events").document(eventId).get()
-                                        .addOnSuccessListener(eventDoc -> {
-                                            if (eventDoc.exists()) {
-                                                String organizerId = eventDoc.getString("organizerId");
-                                                android.util.Log.d("AdminEventLogs", "Event organizerId: " + organizerId);
-                                                
-                                                if (organizerId != null && !organizerId.isEmpty()) {
-                                                    db.collection("users").document(organizerId).get()
-                                                            .addOnSuccessListener(userDoc -> {
-                                                                if (userDoc.exists()) {
-                                                                    String userIdField = userDoc.getString("userId");
-                                                                    android.util.Log.d("AdminEventLogs", "Organizer userId: " + userIdField);
-                                                                    if (userIdField != null && !userIdField.isEmpty()) {
-                                                                        finalItem.setOrganizer("From: " + userIdField);
-                                                                    } else {
-                                                                        finalItem.setOrganizer("From: " + organizerId);
-                                                                    }
-                                                                } else {
-                                                                    android.util.Log.d("AdminEventLogs", "Organizer user not found");
-                                                                    finalItem.setOrganizer("From: (organizer not found)");
-                                                                }
-                                                                adapter.notifyDataSetChanged();
-                                                            })
-                                                            .addOnFailureListener(e -> {
-                                                                android.util.Log.e("AdminEventLogs", "Error fetching organizer", e);
-                                                                finalItem.setOrganizer("From: (error loading organizer)");
-                                                                adapter.notifyDataSetChanged();
-                                                            });
-                                                } else {
-                                                    finalItem.setOrganizer("From: (no organizer)");
-                                                    adapter.notifyDataSetChanged();
-                                                }
-                                            } else {
-                                                android.util.Log.d("AdminEventLogs", "Event not found");
-                                                finalItem.setOrganizer("From: (event not found)");
-                                                adapter.notifyDataSetChanged();
-                                            }
-                                        })
-                                        .addOnFailureListener(e -> {
-                                            android.util.Log.e("AdminEventLogs", "Error fetching event", e);
-                                            finalItem.setOrganizer("From: (error loading event)");
-                                            adapter.notifyDataSetChanged();
-                                        });
-                            }
-
-                            // Add recipient user ID to the list (will fetch names later)
-                            if (userId != null) {
-                                EventLogItem item = groupedNotifs.get(key);
-                                if (item != null && !item.getRecipients().contains(userId)) {
-                                    item.getRecipients().add(userId);
-                                }
-                            }
-                        }
-
-                        eventLogs.addAll(groupedNotifs.values());
-                        // Sort by timestamp (newest first)
-                        eventLogs.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+                    if (value != null) {
+                        for (QueryDocumentSnapshot doc : value) eventLogs.add(summaryItem(doc));
                     }
-
                     adapter.notifyDataSetChanged();
                     updateEmptyState();
                 });
     }
 
+    /**
+     * Builds the log item for one send summary and starts resolving its sender.
+     *
+     * @param doc - notification_batches document
+     * @return Log item for the send
+     */
+    private EventLogItem summaryItem(DocumentSnapshot doc) {
+        String message = doc.getString("message");
+        EventLogItem item = new EventLogItem(message != null ? message : "(no message)",
+                "From: Loading...", new ArrayList<>());
+        item.setSentBy(doc.getString("sentBy"));
+        Timestamp ts = doc.getTimestamp("timestamp");
+        item.setTimestamp(ts != null ? ts.toDate() : new Date());
+        item.setBatchId(doc.getId());
+        Long count = doc.getLong("recipientCount");
+        Long pages = doc.getLong("pageCount");
+        item.setRecipientCount(count != null ? count.intValue() : 0);
+        item.setPageCount(pages != null ? pages.intValue() : 0);
+        resolveSender(item);
+        return item;
+    }
+
+    /**
+     * Fills in the "From:" line of a log item. Names come from the shared
+     * repositories, so many sends by one organizer cost one profile read.
+     *
+     * @param item - Log item whose sender to resolve
+     */
+    private void resolveSender(EventLogItem item) {
+        NotificationRepository.get().senderName(item.getSentBy(), eventId)
+                .addOnCompleteListener(t -> {
+                    String name = t.isSuccessful() ? t.getResult() : null;
+                    item.setOrganizer("From: " + (name != null && !name.isEmpty() ? name : "(unknown sender)"));
+                    adapter.notifyDataSetChanged();
+                });
+    }
+
     /**
      * Updates the empty state visibility based on whether there are logs.
      */
@@ -277,6 +229,15 @@ public class AdminEventLogsActivity extends AppCompatActivity {
         /** Timestamp when the notification was sent. */
         private Date timestamp;
 
+        /** notification_batches document id, or null for a pre-summary send. */
+        private String batchId;
+
+        /** Number of recipients recorded on the summary. */
+        private int recipientCount;
+
+        /** Number of recipient pages recorded on the summary. */
+        private int pageCount;
+
         /**
          * Creates a new event log item.
          *
@@ -309,7 +270,8 @@ public class AdminEventLogsActivity extends AppCompatActivity {
         }
 
         /**
-         * Gets the list of recipients.
+         * Gets the in-memory list of recipients. Only filled for pre-summary
+         * sends; summarized sends page their recipients in on demand.
          *
          * @return List of recipient user IDs
          */
@@ -361,5 +323,59 @@ public class AdminEventLogsActivity extends AppCompatActivity {
         public void setTimestamp(Date timestamp) {
             this.timestamp = timestamp;
         }
+
+        /**
+         * Gets the summary document id of this send.
+         *
+         * @return notification_batches id, or null for a pre-summary send
+         */
+        public String getBatchId() {
+            return batchId;
+        }
+
+        /**
+         * Sets the summary document id of this send.
+         *
+         * @param batchId - notification_batches id
+         */
+        public void setBatchId(String batchId) {
+            this.batchId = batchId;
+        }
+
+        /**
+         * Gets the number of recipients of this send.
+         *
+         * @return Recipient count
+         */
+        public int getRecipientCount() {
+            return batchId != null ? recipientCount : recipients.size();
+        }
+
+        /**
+         * Sets the number of recipients recorded on the summary.
+         *
+         * @param recipientCount - Recipient count
+         */
+        public void setRecipientCount(int recipientCount) {
+            this.recipientCount = recipientCount;
+        }
+
+        /**
+         * Gets the number of recipient pages recorded on the summary.
+         *
+         * @return Page count
+         */
+        public int getPageCount() {
+            return pageCount;
+        }
+
+        /**
+         * Sets the number of recipient pages recorded on the summary.
+         *
+         * @param pageCount - Page count
+         */
+        public void setPageCount(int pageCount) {
+            this.pageCount = pageCount;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+/**
+ * Application-wide thread pools for background and UI work.
+ *
+ * Provides an IO pool for blocking disk or network calls, a bounded compute
+ * pool for CPU-bound list work (filtering, parsing, sorting), and a main-thread
+ * executor for posting results back to the UI.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton holder for the io, compute, and main executors.
+ *
+ * Activities should never create their own threads; they submit work here so
+ * the number of background threads stays bounded for the whole process.
+ */
+public final class AppExecutors {
+
+    /** Lazily created process-wide instance. */
+    private static volatile AppExecutors instance;
+
+    /** Pool for blocking IO (SQLite, files, synchronous Tasks.await calls). */
+    private final ExecutorService io;
+
+    /** Pool sized to the CPU count for filter/sort/parse work. */
+    private final ExecutorService compute;
+
+    /** Executor that runs tasks on the Android main thread. */
+    private final Executor main;
+
+    /**
+     * Creates the executors. Use {@link #get()} instead of calling this directly.
+     */
+    private AppExecutors() {
+        int cpus = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.io = Executors.newFixedThreadPool(4, namedFactory("app-io", false));
+        this.compute = Executors.newFixedThreadPool(cpus - 1, namedFactory("app-compute", true));
+        this.main = new MainThreadExecutor();
+    }
+
+    /**
+     * Returns the shared executors instance, creating it on first use.
+     *
+     * @return The process-wide AppExecutors
+     */
+    public static AppExecutors get() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) instance = new AppExecutors();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the executor for blocking IO work.
+     *
+     * @return IO executor service
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * Returns the executor for CPU-bound work such as filtering and sorting.
+     *
+     * @return Compute executor service
+     */
+    public ExecutorService compute() {
+        return compute;
+    }
+
+    /**
+     * Returns an executor that runs tasks on the main (UI) thread.
+     *
+     * @return Main-thread executor
+     */
+    public Executor main() {
+        return main;
+    }
+
+    /**
+     * Builds a thread factory that names threads and optionally lowers their priority.
+     *
+     * @param prefix - Thread name prefix
+     * @param background - True to run threads at background priority
+     * @return Thread factory producing daemon threads
+     */
+    private static ThreadFactory namedFactory(String prefix, boolean background) {
+        AtomicInteger count = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(() -> {
+                if (background) {
+                    android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+                }
+                r.run();
+            }, prefix + "-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Executor that posts runnables to the main looper.
+     */
+    private static class MainThreadExecutor implements Executor {
+        /** Handler bound to the main looper. */
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+}
@@ -11,6 +11,7 @@ package com.example.duckduckgoose;
 
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.view.WindowInsetsController;
 import android.widget.ArrayAdapter;
@@ -21,6 +22,7 @@ import android.widget.Toast;
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -28,7 +30,10 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.duckduckgoose.user.User;
 import android.content.Intent;
 
+import com.example.duckduckgoose.waitlist.EntrantStatus;
 import com.example.duckduckgoose.waitlist.WaitlistEntry;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.android.material.button.MaterialButton;
 
 import androidx.appcompat.app.AlertDialog;
@@ -40,7 +45,9 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -86,6 +93,9 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     /** TextView displaying the count of active participants. */
     private TextView txtInCircle;
 
+    /** TextView showing whether queued outbox writes are pending or committed. */
+    private TextView txtSyncStatus;
+
     /** Button to export attendee data as CSV. */
     private MaterialButton btnExportCSV;
 
@@ -107,6 +117,9 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     /** Dropdown menu for filtering attendees by status. */
     private AutoCompleteTextView dropFilterAttendees;
 
+    /** Loads the next page of a filtered list; hidden when there are none. */
+    private MaterialButton btnLoadMoreAttendees;
+
     /** Map view for displaying attendee geographic locations. */
     private MapView map;
 
@@ -123,9 +136,19 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     private Map<String, String> entrantDocIds = new HashMap<>();
 
     /** Map of user IDs to their current waitlist status. */
-    private Map<String, String> entrantStatusMap = new HashMap<>();
+    private Map<String, EntrantStatus> entrantStatusMap = new HashMap<>();
 
     private FirebaseUser currentUser;
+
+    /** Status filter shown, or null for every entrant. */
+    private RosterFilter activeFilter;
+
+    /** Waitlist listener and organizer check, retained across configuration changes. */
+    private AttendeeManagerViewModel viewModel;
+
+    /** Span until the first roster is fully populated; ended once. */
+    private PerfTrace.Span rosterSpan;
+
     /**
      * Initializes the attendee manager screen and sets up all components.
      *
@@ -168,6 +191,34 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
         setupRecyclerView();
 
         loadWaitlistEntrants();
+        observeOutbox();
+    }
+
+    /**
+     * Shows the outbox state under the counts: how many writes are waiting,
+     * whether any were rejected (tap to retry), or that everything is synced.
+     */
+    private void observeOutbox() {
+        if (txtSyncStatus == null) return;
+        WriteOutbox outbox = WriteOutbox.get(this);
+        txtSyncStatus.setOnClickListener(v -> outbox.retryFailed());
+        outbox.getStatus().observe(this, status -> {
+            if (status.failed > 0) {
+                txtSyncStatus.setText(status.failed + " change(s) could not be saved"
+                        + (status.error != null ? ": " + status.error : "") + " - tap to retry");
+                txtSyncStatus.setVisibility(View.VISIBLE);
+            } else if (status.pending > 0) {
+                txtSyncStatus.setText("Syncing " + (status.label != null ? status.label + " " : "")
+                        + "(" + status.pending + " change(s) pending)");
+                txtSyncStatus.setVisibility(View.VISIBLE);
+            } else if (status.lastCommittedAt > 0) {
+                txtSyncStatus.setText("All changes synced at " + new java.text.SimpleDateFormat("HH:mm",
+                        java.util.Locale.getDefault()).format(new java.util.Date(status.lastCommittedAt)));
+                txtSyncStatus.setVisibility(View.VISIBLE);
+            } else {
+                txtSyncStatus.setVisibility(View.GONE);
+            }
+        });
     }
 
     /**
@@ -212,6 +263,7 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
         mapPopupBackground = findViewById(R.id.mapPopupBackground);
         txtCount = findViewById(R.id.txtCount);
         txtInCircle = findViewById(R.id.txtInCircle);
+        txtSyncStatus = findViewById(R.id.txtSyncStatus);
         btnExportCSV = findViewById(R.id.btnExportCSV);
         btnRevokeTicket = findViewById(R.id.btnRevokeTicket);
         btnSendMessage = findViewById(R.id.btnSendMessage);
@@ -219,6 +271,7 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
         btnSelectRandom = findViewById(R.id.btnSelectRandom);
         btnRedrawDucks = findViewById(R.id.btnRedrawDucks);
         dropFilterAttendees = findViewById(R.id.dropFilterAttendees);
+        btnLoadMoreAttendees = findViewById(R.id.btnLoadMoreAttendees);
     }
 
     /**
@@ -226,10 +279,16 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
      */
     private void setupDropdownFilter() {
         if (dropFilterAttendees != null) {
-            String[] filters = {"Selected/Waiting", "Not Selected", "Duck", "Goose"};
+            String[] filters = RosterFilter.labels();
             ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, filters);
             dropFilterAttendees.setAdapter(adapter);
-            dropFilterAttendees.setOnItemClickListener((parent, view, position, id) -> applyFilter(filters[position]));
+            dropFilterAttendees.setOnItemClickListener((parent, view, position, id) ->
+                    applyFilter(RosterFilter.fromLabel(filters[position])));
+        }
+        if (btnLoadMoreAttendees != null) {
+            btnLoadMoreAttendees.setOnClickListener(v -> {
+                if (viewModel != null) viewModel.loadMoreFiltered();
+            });
         }
     }
 
@@ -243,20 +302,13 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
                     Toast.makeText(this, "No attendees to export", Toast.LENGTH_SHORT).show();
                     return;
                 }
-                StringBuilder csv = new StringBuilder();
-                csv.append("UserId,FullName,Email,AccountType\n");
-                for (User u : attendees) {
-                    csv.append(u.getUserId() != null ? u.getUserId() : "").append(",")
-                            .append(u.getFullName() != null ? u.getFullName() : "").append(",")
-                            .append(u.getEmail() != null ? u.getEmail() : "").append(",")
-                            .append(u.getAccountType() != null ? u.getAccountType() : "").append("\n");
-                }
+                String csv = AttendeeCsv.build(attendees);
                 try {
                     String fileName = "attendees_" + (eventId != null ? eventId : "event") + ".csv";
                     java.io.File downloads = android.os.Environment.getExternalStoragePublicDirectory(android.os.Environment.DIRECTORY_DOWNLOADS);
                     java.io.File file = new java.io.File(downloads, fileName);
                     java.io.FileOutputStream fos = new java.io.FileOutputStream(file);
-                    fos.write(csv.toString().getBytes());
+                    fos.write(csv.getBytes(java.nio.charset.StandardCharsets.UTF_8));
                     fos.close();
                     Toast.makeText(this, "CSV exported to Downloads/" + fileName, Toast.LENGTH_LONG).show();
                 } catch (Exception ex) {
@@ -314,20 +366,17 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
      */
     private void sendBatchMessage(String message, String targetGroup) {
         FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (currentUser == null) return;
+        if (currentUser == null || !requireFullRoster()) return;
 
-        int count = 0;
-        com.google.firebase.firestore.WriteBatch batch = db.batch();
-        boolean hasUpdates = false;
+        WriteOutbox.Batch batch = WriteOutbox.get(this).batch("message");
+        NotificationBatch send = new NotificationBatch(eventId, message, currentUser.getUid(), null);
 
         for (User u : allAttendees) {
             String uid = u.getUserId();
             if (uid == null) continue;
 
-            String status = entrantStatusMap.get(uid);
-            if (status == null) status = "waiting";
-
-            boolean isGoose = status.equals("selected") || status.equals("accepted");
+            EntrantStatus status = entrantStatusMap.get(uid);
+            boolean isGoose = status != null && status.isGoose();
             boolean shouldSend = false;
 
             if (targetGroup.equals("GOOSE") && isGoose) {
@@ -337,24 +386,15 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
             }
 
             if (shouldSend) {
-                Map<String, Object> notif = new HashMap<>();
-                notif.put("userId", uid);
-                notif.put("message", message);
-                notif.put("eventId", eventId);
-                notif.put("sentBy", currentUser.getUid());
-                notif.put("timestamp", com.google.firebase.Timestamp.now());
-
-                batch.set(db.collection("notifications").document(), notif);
-                hasUpdates = true;
-                count++;
+                send.addRecipient(batch, uid);
             }
         }
 
-        if (hasUpdates) {
-            int finalCount = count;
-            batch.commit()
-                    .addOnSuccessListener(v -> Toast.makeText(this, "sent to " + finalCount + " people", Toast.LENGTH_SHORT).show())
-                    .addOnFailureListener(e -> Toast.makeText(this, "Error sending: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+        if (send.getRecipientCount() > 0) {
+            send.finish(batch);
+            // Queued durably; the status line reports when it reaches the server
+            batch.commit();
+            Toast.makeText(this, "sending to " + send.getRecipientCount() + " people", Toast.LENGTH_SHORT).show();
         } else {
             Toast.makeText(this, "No users found in that group.", Toast.LENGTH_SHORT).show();
         }
@@ -380,140 +420,135 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
 
     /**
      * Loads waitlist entrants from Firestore and sets up real-time updates.
+     * The listener lives in the ViewModel, so it is attached once and survives
+     * rotation; later calls are no-ops since it already reflects every change
+     * (including this screen's own draws).
      */
     private void loadWaitlistEntrants() {
         if (db == null) db = FirebaseFirestore.getInstance();
         if (eventId == null || eventId.isEmpty()) return;
+        if (viewModel != null) return;
 
-        db.collection("events").document(eventId).get().addOnSuccessListener(doc -> {
-            if (doc != null && doc.exists()) {
-                String organizerId = doc.getString("organizerId");
-                FirebaseUser cur = FirebaseAuth.getInstance().getCurrentUser();
-                isOrganizer = (cur != null && organizerId != null && organizerId.equals(cur.getUid()));
-                if (btnSendMessage != null) btnSendMessage.setEnabled(isOrganizer);
-            }
+        rosterSpan = PerfTrace.get().begin(PerfTrace.ROSTER_POPULATED);
+        viewModel = new ViewModelProvider(this).get(AttendeeManagerViewModel.class);
+        viewModel.init(eventId);
+
+        viewModel.isOrganizer().observe(this, organizer -> {
+            isOrganizer = organizer;
+            if (btnSendMessage != null) btnSendMessage.setEnabled(isOrganizer);
         });
 
         // Listen for live updates to waitlist entries for this event so organizer sees accept/decline in real time
-        db.collection("waitlist")
-                .whereEqualTo("eventId", eventId)
-                .addSnapshotListener((QuerySnapshot snapshot, com.google.firebase.firestore.FirebaseFirestoreException e) -> {
-                    if (e != null) {
-                        Toast.makeText(this, "Error loading entrants: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    allAttendees.clear();
-                    attendees.clear();
-                    entrantDocIds.clear();
-                    entrantStatusMap.clear();
-
-                    if (adapter != null) adapter.notifyDataSetChanged();
-
-                    if (snapshot != null && !snapshot.isEmpty()) {
-                        for (DocumentSnapshot entryDoc : snapshot.getDocuments()) {
-                            String uid = entryDoc.getString("userId");
-                            String rawStatus = entryDoc.getString("status");
-
-                            if (uid == null) continue;
-
-                            entrantDocIds.put(uid, entryDoc.getId());
-                            entrantStatusMap.put(uid, rawStatus != null ? rawStatus.toLowerCase() : "waiting");
-
-                            // Load user profile and add to lists if not already present
-                            db.collection("users").document(uid).get().addOnSuccessListener(userDoc -> {
-                                User u = userDoc != null ? userDoc.toObject(User.class) : null;
-                                if (u == null) u = new User();
-                                u.setUserId(uid);
-
-                                // Replace or add user in allAttendees
-                                if (!containsUser(allAttendees, uid)) {
-                                    allAttendees.add(u);
-                                }
-
-                                String currentFilter = dropFilterAttendees != null ? dropFilterAttendees.getText().toString() : "Value";
-                                // Re-evaluate whether the user should be shown under current filter
-                                if (shouldShowUser(u, currentFilter)) {
-                                    // avoid duplicates in attendees
-                                    if (!containsUser(attendees, uid)) {
-                                        attendees.add(u);
-                                    }
-                                } else {
-                                    // remove if present but no longer matches
-                                    final String removeId = uid;
-                                    attendees.removeIf(x -> x.getUserId() != null && x.getUserId().equals(removeId));
-                                }
-
-                                if (adapter != null) adapter.notifyDataSetChanged();
-                                updateCountDisplay();
-                            });
-                        }
-                    } else {
-                        updateCountDisplay();
-                    }
-                });
+        viewModel.getWaitlist().getError().observe(this, e ->
+                Toast.makeText(this, "Error loading entrants: " + e.getMessage(), Toast.LENGTH_SHORT).show());
+        viewModel.getRoster().observe(this, this::showWaitlist);
+
+        // A status filter pages its entries from the server instead of filtering the roster
+        activeFilter = viewModel.getFilter();
+        viewModel.getFiltered().observe(this, this::showFiltered);
+        viewModel.canLoadMoreFiltered().observe(this, more -> {
+            if (btnLoadMoreAttendees != null) {
+                btnLoadMoreAttendees.setVisibility(Boolean.TRUE.equals(more) ? View.VISIBLE : View.GONE);
+            }
+        });
+        viewModel.getFilterError().observe(this, e ->
+                Toast.makeText(this, "Error loading entrants: " + e.getMessage(), Toast.LENGTH_SHORT).show());
     }
 
     /**
-     * Determines if a user should be displayed based on the current filter.
+     * Rebuilds the attendee lists from a waitlist snapshot and its profiles.
+     * The ViewModel loads the profiles in batches before publishing, so the
+     * roster is filled in one pass.
      *
-     * @param user - The user to check
-     * @param filter - The current filter string
-     * @return true if the user matches the filter criteria, false otherwise
+     * @param roster - Current waitlist entries for the event with their profiles
      */
-    private boolean shouldShowUser(User user, String filter) {
-        if (filter == null || filter.equals("Value") || filter.isEmpty()) return true;
+    private void showWaitlist(AttendeeManagerViewModel.Roster roster) {
+        allAttendees.clear();
+        attendees.clear();
+        entrantDocIds.clear();
+        entrantStatusMap.clear();
 
-        // Get status from our local map
-        String status = entrantStatusMap.get(user.getUserId());
-        if (status == null) status = "waiting";
+        QuerySnapshot snapshot = roster.entries;
+        if (snapshot != null) {
+            for (DocumentSnapshot entryDoc : snapshot.getDocuments()) {
+                String uid = entryDoc.getString("userId");
+                String rawStatus = entryDoc.getString("status");
 
-        switch (filter) {
-            case "Selected/Waiting":
-                return status.equals("selected") || status.equals("waiting");
+                if (uid == null) continue;
 
-            case "Not Selected":
-                return status.equals("cancelled") || status.equals("declined");
+                entrantDocIds.put(uid, entryDoc.getId());
+                entrantStatusMap.put(uid, EntrantStatus.of(rawStatus));
+            }
+        }
 
-            case "Goose":
-                return status.equals("selected") || status.equals("accepted");
+        for (User u : roster.profiles.values()) {
+            if (!entrantDocIds.containsKey(u.getUserId())) continue;
+            allAttendees.add(u);
+        }
 
-            case "Duck":
-                return !status.equals("selected") && !status.equals("accepted");
+        // The ViewModel only publishes rosters while no filter is set
+        attendees.addAll(allAttendees);
+        if (adapter != null) adapter.notifyDataSetChanged();
+        updateCountDisplay();
 
-            default:
-                return true;
+        if (rosterSpan != null) {
+            rosterSpan.end();
+            rosterSpan = null;
         }
     }
 
     /**
-     * Checks if a user list contains a specific user ID.
+     * Shows the filtered pages loaded so far. Tickets and statuses come from
+     * the pages themselves; the full roster is not loaded while filtering.
      *
-     * @param list - The list of users to search
-     * @param userId - The user ID to find
-     * @return true if the user is in the list, false otherwise
+     * @param page - Filtered entries and profiles, or null
      */
-    private boolean containsUser(List<User> list, String userId) {
-        for (User u : list) {
-            if (u.getUserId() != null && u.getUserId().equals(userId)) return true;
+    private void showFiltered(AttendeeManagerViewModel.FilteredRoster page) {
+        if (activeFilter == null || page == null || page.filter != activeFilter) return;
+        attendees.clear();
+        entrantDocIds.clear();
+        entrantStatusMap.clear();
+        for (DocumentSnapshot entry : page.entries) {
+            String uid = entry.getString("userId");
+            User u = uid != null ? page.profiles.get(uid) : null;
+            if (u == null) continue;
+            entrantDocIds.put(uid, entry.getId());
+            entrantStatusMap.put(uid, EntrantStatus.of(entry.getString("status")));
+            attendees.add(u);
         }
-        return false;
+        if (adapter != null) adapter.notifyDataSetChanged();
+        updateCountDisplay();
     }
 
     /**
-     * Applies a filter to the attendee list.
+     * Applies a filter to the attendee list. A status filter pages matching
+     * entries from the server; no filter shows the whole live roster, which
+     * the ViewModel republishes once its listener is back.
      *
-     * @param filter - The filter criteria to apply
+     * @param filter - Filter to apply, or null for every entrant
      */
-    private void applyFilter(String filter) {
-        attendees.clear();
-        for (User user : allAttendees) {
-            if (shouldShowUser(user, filter)) {
-                attendees.add(user);
-            }
+    private void applyFilter(RosterFilter filter) {
+        activeFilter = filter;
+        if (viewModel == null) return;
+        viewModel.setFilter(filter);
+        if (filter == null) {
+            attendees.clear();
+            attendees.addAll(allAttendees);
+            if (adapter != null) adapter.notifyDataSetChanged();
+            updateCountDisplay();
         }
-        if (adapter != null) adapter.notifyDataSetChanged();
-        updateCountDisplay();
+    }
+
+    /**
+     * Checks that the whole live roster is shown, which draws and group
+     * messages work from; a filtered view only holds the pages it loaded.
+     *
+     * @return True if no filter is set; otherwise tells the organizer to clear it
+     */
+    private boolean requireFullRoster() {
+        if (activeFilter == null) return true;
+        Toast.makeText(this, "Show all entrants first", Toast.LENGTH_SHORT).show();
+        return false;
     }
 
     /**
@@ -526,8 +561,8 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
             // Count Geese (Selected/Accepted) vs Ducks (Waiting/Rest)
             long activeCount = 0;
             for (User user : attendees) {
-                String s = entrantStatusMap.get(user.getUserId());
-                if (s != null && (s.equals("waiting") || s.equals("selected") || s.equals("accepted"))) {
+                EntrantStatus s = entrantStatusMap.get(user.getUserId());
+                if (s != null && s.isInCircle()) {
                     activeCount++;
                 }
             }
@@ -539,6 +574,7 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
      * Prompts the organizer to select a random number of attendees from the waiting pool.
      */
     private void selectRandomAttendees() {
+        if (!requireFullRoster()) return;
         List<User> waitingPool = new ArrayList<>(allAttendees);
         if (waitingPool.isEmpty()) {
             Toast.makeText(this, "No entrants in waiting pool", Toast.LENGTH_SHORT).show();
@@ -564,8 +600,9 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     }
 
     /**
-     * Redraws for declined positions. Gets the redrawCount from the event,
-     * selects that many users from the waiting pool, and resets the count to 0.
+     * Redraws for declined positions. Reads the redrawCount from the event,
+     * confirms with the organizer, then draws from the waiting entries on the
+     * server (see EventRedraw), so the roster does not need to be loaded.
      */
     private void redrawDucks() {
         if (eventId == null || eventId.isEmpty()) {
@@ -574,7 +611,7 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
         }
 
         // First, fetch the current redrawCount from the event document
-        db.collection("events").document(eventId).get()
+        Metered.get(db.collection("events").document(eventId))
                 .addOnSuccessListener(doc -> {
                     if (doc == null || !doc.exists()) {
                         Toast.makeText(this, "Event not found", Toast.LENGTH_SHORT).show();
@@ -589,30 +626,13 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
                         return;
                     }
 
-                    // Get all users with "waiting" status (still in the pool, not yet selected)
-                    List<User> waitingPool = new ArrayList<>();
-                    for (User u : allAttendees) {
-                        String status = entrantStatusMap.get(u.getUserId());
-                        if (status != null && status.equals("waiting")) {
-                            waitingPool.add(u);
-                        }
-                    }
-
-                    if (waitingPool.isEmpty()) {
-                        Toast.makeText(this, "No waiting entrants available for redraw", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
                     // Confirm with the organizer before proceeding
-                    int actualRedrawCount = Math.min(redrawCount, waitingPool.size());
                     new AlertDialog.Builder(this)
                             .setTitle("Redraw Ducks")
                             .setMessage("There are " + redrawCount + " declined position(s). " +
-                                    "This will select " + actualRedrawCount + " new entrant(s) from " +
-                                    waitingPool.size() + " waiting. Proceed?")
-                            .setPositiveButton("Redraw", (dialog, which) -> {
-                                performRedraw(waitingPool, actualRedrawCount);
-                            })
+                                    "This will select up to " + redrawCount +
+                                    " new entrant(s) from the waiting list. Proceed?")
+                            .setPositiveButton("Redraw", (dialog, which) -> performRedraw())
                             .setNegativeButton("Cancel", null)
                             .show();
                 })
@@ -622,59 +642,29 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     }
 
     /**
-     * Performs the actual redraw lottery and resets redrawCount to 0.
-     *
-     * @param pool - List of users eligible for redraw
-     * @param count - Number of users to select
+     * Performs the redraw. redrawCount is decremented by the number actually
+     * selected, so declines made meanwhile stay open.
      */
-    private void performRedraw(List<User> pool, int count) {
-        if (pool.isEmpty() || count <= 0) return;
-
-        java.util.Collections.shuffle(pool);
-        List<User> winners = pool.subList(0, Math.min(count, pool.size()));
-
-        com.google.firebase.firestore.WriteBatch batch = db.batch();
-        boolean hasUpdates = false;
-
-        // Process winners - update their status to "selected"
-        for (User winner : winners) {
-            String docId = entrantDocIds.get(winner.getUserId());
-
-            if (docId != null) {
-                batch.update(db.collection("waitlist").document(docId), "status", "selected");
-                hasUpdates = true;
-
-                Map<String, Object> notif = new HashMap<>();
-                notif.put("userId", winner.getUserId());
-                notif.put("eventId", eventId);
-                String title = getIntent().getStringExtra("eventTitle");
-                notif.put("message", "Congratulations! You have been selected in a redraw for " + (title != null ? title : "an event"));
-                notif.put("sentBy", currentUser.getUid());
-                notif.put("timestamp", com.google.firebase.Timestamp.now());
-                notif.put("type", "selected");
-                batch.set(db.collection("notifications").document(), notif);
-            }
-        }
-
-        // Reset redrawCount to 0
-        batch.update(db.collection("events").document(eventId), "redrawCount", 0);
-
-        if (hasUpdates) {
-            batch.commit()
-                    .addOnSuccessListener(v -> {
-                        Toast.makeText(this, "Redraw complete! " + winners.size() + " new entrant(s) selected.", Toast.LENGTH_LONG).show();
-                        loadWaitlistEntrants();
-                    })
-                    .addOnFailureListener(e ->
-                            Toast.makeText(this, "Redraw failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                    );
-        } else {
-            Toast.makeText(this, "No valid entrants found to update", Toast.LENGTH_SHORT).show();
-        }
+    private void performRedraw() {
+        EventRedraw.run(this, eventId, getIntent().getStringExtra("eventTitle"), currentUser.getUid())
+                .addOnSuccessListener(this, outcome -> {
+                    if (outcome.selected == 0) {
+                        Toast.makeText(this, "No waiting entrants available for redraw", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    // Roster refreshes through the live waitlist query
+                    Toast.makeText(this, "Redraw complete! " + outcome.selected + " new entrant(s) selected.",
+                            Toast.LENGTH_LONG).show();
+                })
+                .addOnFailureListener(this, e ->
+                        Toast.makeText(this, "Redraw failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
+                );
     }
 
     /**
      * Performs a lottery draw to randomly select winners from the pool.
+     * Entrants who lost this organizer's earlier draws get a larger chance
+     * (see DrawHistory); if the history cannot be read everyone weighs the same.
      *
      * @param pool - List of users in the lottery pool
      * @param count - Number of winners to select
@@ -682,88 +672,113 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     private void lotterydraw(List<User> pool, int count) {
         if (pool.isEmpty() || count <= 0) return;
 
-        java.util.Collections.shuffle(pool);
-        List<User> winners = pool.subList(0, count);
-        List<User> losers = pool.subList(count, pool.size());
+        PerfTrace.Span span = PerfTrace.get().begin(PerfTrace.DRAW_COMMITTED);
+        DrawHistory.load(currentUser.getUid()).addOnCompleteListener(this, t -> {
+            DrawHistory history = t.isSuccessful() ? t.getResult() : DrawHistory.empty();
+            commitDraw(pool, count, WeightedLottery.newSeed(), history, span);
+        });
+    }
+
+    /**
+     * Draws winners with the given seed and weights and queues the results.
+     *
+     * @param pool - List of users in the lottery pool
+     * @param count - Number of winners to select
+     * @param seed - Draw seed, recorded on the event and in its DrawLog record
+     * @param history - Organizer's loss history
+     * @param span - Draw latency span
+     */
+    private void commitDraw(List<User> pool, int count, long seed, DrawHistory history, PerfTrace.Span span) {
+        WeightedLottery<User> lottery = new WeightedLottery<>(count, seed);
+        Map<String, Integer> lossesUsed = new HashMap<>();
+        for (User u : pool) {
+            int losses = history.lossesOf(u.getUserId());
+            if (losses > 0) lossesUsed.put(u.getUserId(), losses);
+            lottery.offer(u.getUserId(), u, DrawHistory.weight(losses));
+        }
+        List<User> winners = lottery.winners();
+        Set<String> winnerIds = new HashSet<>();
+        for (User winner : winners) winnerIds.add(winner.getUserId());
+        List<User> losers = new ArrayList<>();
+        List<String> loserIds = new ArrayList<>();
+        for (User u : pool) {
+            if (winnerIds.contains(u.getUserId())) continue;
+            losers.add(u);
+            loserIds.add(u.getUserId());
+        }
 
-        com.google.firebase.firestore.WriteBatch batch = db.batch();
+        WriteOutbox.Batch batch = WriteOutbox.get(this).batch("lottery draw");
         boolean hasUpdates = false;
+        String title = getIntent().getStringExtra("eventTitle");
+        // Keyed by the draw's seed, so a replayed commit does not notify anyone twice
+        String drawId = Long.toHexString(seed);
+        NotificationBatch selected = NotificationBatch.once(eventId,
+                "congratulation! you are selected for " + (title != null ? title : "an event"),
+                currentUser.getUid(), "selected", drawId);
+        NotificationBatch notSelected = NotificationBatch.once(eventId,
+                (title != null ? title : "event") + ": L you were not selected",
+                currentUser.getUid(), "not_selected", drawId);
 
         // process winner winner chicken dinners
         for (User winner : winners) {
             String docId = entrantDocIds.get(winner.getUserId());
 
             if (docId != null) {
-                batch.update(db.collection("waitlist").document(docId), "status", "selected");
+                batch.update(db.collection("waitlist").document(docId), "status", EntrantStatus.SELECTED.value());
                 hasUpdates = true;
-
-                Map<String, Object> notif = new HashMap<>();
-                notif.put("userId", winner.getUserId());
-                notif.put("eventId", eventId);
-                String title = getIntent().getStringExtra("eventTitle");
-                notif.put("message", "congratulation! you are selected for " + (title != null ? title : "an event"));
-                notif.put("sentBy", currentUser.getUid());
-                notif.put("timestamp", com.google.firebase.Timestamp.now());
-                notif.put("type", "selected");
-                batch.set(db.collection("notifications").document(), notif);
+                selected.addRecipient(batch, winner.getUserId());
             }
         }
 
         // process LOSERS
         for (User loser : losers) {
-            Map<String, Object> notif = new HashMap<>();
-            notif.put("userId", loser.getUserId());
-            notif.put("eventId", eventId);
-            String title = getIntent().getStringExtra("eventTitle");
-            notif.put("message",(title != null ? title : "event") + ": L you were not selected");
-            notif.put("sentBy", currentUser.getUid());
-            notif.put("timestamp", com.google.firebase.Timestamp.now());
-            batch.set(db.collection("notifications").document(), notif);
+            notSelected.addRecipient(batch, loser.getUserId());
             hasUpdates = true;
         }
+        selected.finish(batch);
+        notSelected.finish(batch);
 
         if (hasUpdates) {
-            batch.commit()
-                    .addOnSuccessListener(v -> {
-                        Toast.makeText(this, "lottery complete and notifications sent", Toast.LENGTH_LONG).show();
-                        loadWaitlistEntrants();
-                    })
-                    .addOnFailureListener(e ->
-                            Toast.makeText(this, "lottery failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                    );
+            // Recorded before the history changes, so the draw can be reproduced
+            DrawLog.record(batch, eventId, DrawLog.KIND_DRAW, seed, currentUser.getUid(),
+                    pool.size(), winnerIds, lossesUsed);
+            DrawHistory.record(batch, currentUser.getUid(), winnerIds, loserIds);
+            batch.update(db.collection("events").document(eventId), "drawSeed", seed);
+            // Queued durably; the roster refreshes through the live waitlist query as writes land
+            batch.commit(span::end);
+            Toast.makeText(this, "lottery drawn, sending results", Toast.LENGTH_LONG).show();
         } else {
+            span.cancel();
             Toast.makeText(this, "no valid entrants found to update", Toast.LENGTH_SHORT).show();
         }
     }
 
     /**
-     * Sends notifications to all cancelled or declined entrants.
+     * Sends notifications to all cancelled or declined entrants. Each entrant
+     * gets the notice once; pressing again only reaches entrants cancelled
+     * since.
      */
     private void notifyCancelledEntrants() {
-        db.collection("waitlist")
-                .whereEqualTo("eventId", eventId)
-                .whereIn("status", java.util.Arrays.asList("cancelled", "declined"))
-                .get()
+        Metered.get(db.collection("waitlist")
+                        .whereEqualTo("eventId", eventId)
+                        .whereIn("status", java.util.Arrays.asList(
+                                EntrantStatus.CANCELLED.value(), EntrantStatus.DECLINED.value())))
                 .addOnSuccessListener(snapshot -> {
                     if (snapshot.isEmpty()) {
                         Toast.makeText(this, "No cancelled entrants found", Toast.LENGTH_SHORT).show();
                         return;
                     }
-                    com.google.firebase.firestore.WriteBatch batch = db.batch();
+                    WriteOutbox.Batch batch = WriteOutbox.get(this).batch("cancellation notices");
+                    String title = getIntent().getStringExtra("eventTitle");
+                    NotificationBatch send = NotificationBatch.once(eventId,
+                            (title != null ? title : "Event") + ": your spot has been cancelled or declined",
+                            currentUser.getUid(), "cancelled", null);
                     for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                        String uid = doc.getString("userId");
-                        Map<String, Object> notif = new HashMap<>();
-                        notif.put("userId", uid);
-                        notif.put("eventId", eventId);
-                        String title = getIntent().getStringExtra("eventTitle");
-                        notif.put("message", (title != null ? title : "Event") + ": your spot has been cancelled or declined");
-                        notif.put("sentBy", currentUser.getUid());
-                        notif.put("timestamp", com.google.firebase.Timestamp.now());
-                        batch.set(db.collection("notifications").document(), notif);
+                        send.addRecipient(batch, doc.getString("userId"));
                     }
-                    batch.commit().addOnSuccessListener(v ->
-                            Toast.makeText(this, "notifications sent to cancelled entrants", Toast.LENGTH_SHORT).show()
-                    );
+                    send.finish(batch);
+                    batch.commit();
+                    Toast.makeText(this, "sending notifications to cancelled entrants", Toast.LENGTH_SHORT).show();
                 });
     }
 
@@ -786,53 +801,56 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
 
     /**
      * Loads and displays markers on the map for all attendee locations.
+     * Uses the live waitlist snapshot when it is available instead of re-reading it;
+     * while a filter is set the listener is detached, so its snapshot may be stale.
      */
     private void loadMapMarkers() {
         if (map == null || eventId == null) return;
         map.getOverlays().clear();
-        db.collection("waitlist")
-                .whereEqualTo("eventId", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    double minLat = 90, maxLat = -90, minLon = 180, maxLon = -180;
-                    boolean hasPoints = false;
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        WaitlistEntry entry = doc.toObject(WaitlistEntry.class);
-                        if (entry != null && entry.getLatitude() != null && entry.getLongitude() != null) {
-                            double lat = entry.getLatitude();
-                            double lon = entry.getLongitude();
-                            String uid = entry.getUserId();
-
-                            if (lat < minLat) minLat = lat;
-                            if (lat > maxLat) maxLat = lat;
-                            if (lon < minLon) minLon = lon;
-                            if (lon > maxLon) maxLon = lon;
-                            hasPoints = true;
-
-                            db.collection("users").document(uid).get().addOnSuccessListener(userDoc -> {
-                                User u = userDoc.toObject(User.class);
-                                String realName = (u != null && u.getFullName() != null) ? u.getFullName() : "Entrant";
-                                GeoPoint point = new GeoPoint(lat, lon);
-                                Marker marker = new Marker(map);
-                                marker.setPosition(point);
-                                marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
-                                marker.setTitle(realName);
-                                marker.setSnippet("Status: " + entry.getStatus());
-                                map.getOverlays().add(marker);
-                                map.invalidate();
-                            });
-                        }
-                    }
-                    if (hasPoints) {
-                        if (minLat == maxLat && minLon == maxLon) {
-                            mapController.setCenter(new GeoPoint(minLat, minLon));
-                            mapController.setZoom(15.0);
-                        } else {
-                            mapController.setCenter(new GeoPoint((minLat + maxLat)/2, (minLon + maxLon)/2));
-                            mapController.setZoom(10.0);
-                        }
-                    }
-                });
+        QuerySnapshot live = viewModel != null && viewModel.getFilter() == null
+                ? viewModel.getWaitlist().getValue() : null;
+        Task<QuerySnapshot> entries = live != null
+                ? Tasks.forResult(live)
+                : WaitlistRepository.get().getForEvent(eventId);
+        entries.addOnSuccessListener(querySnapshot -> {
+            double minLat = 90, maxLat = -90, minLon = 180, maxLon = -180;
+            boolean hasPoints = false;
+            for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                WaitlistEntry entry = doc.toObject(WaitlistEntry.class);
+                if (entry != null && entry.getLatitude() != null && entry.getLongitude() != null) {
+                    double lat = entry.getLatitude();
+                    double lon = entry.getLongitude();
+                    String uid = entry.getUserId();
+
+                    if (lat < minLat) minLat = lat;
+                    if (lat > maxLat) maxLat = lat;
+                    if (lon < minLon) minLon = lon;
+                    if (lon > maxLon) maxLon = lon;
+                    hasPoints = true;
+
+                    UserRepository.get().getFullName(uid).addOnSuccessListener(fullName -> {
+                        String realName = fullName != null ? fullName : "Entrant";
+                        GeoPoint point = new GeoPoint(lat, lon);
+                        Marker marker = new Marker(map);
+                        marker.setPosition(point);
+                        marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
+                        marker.setTitle(realName);
+                        marker.setSnippet("Status: " + entry.getStatus());
+                        map.getOverlays().add(marker);
+                        map.invalidate();
+                    });
+                }
+            }
+            if (hasPoints) {
+                if (minLat == maxLat && minLon == maxLon) {
+                    mapController.setCenter(new GeoPoint(minLat, minLon));
+                    mapController.setZoom(15.0);
+                } else {
+                    mapController.setCenter(new GeoPoint((minLat + maxLat)/2, (minLon + maxLon)/2));
+                    mapController.setZoom(10.0);
+                }
+            }
+        });
     }
 
     /**
@@ -845,10 +863,9 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
         if (identifier == null || eventId == null) return;
 
         if (identifier.contains("@")) {
-            db.collection("users")
-                    .whereEqualTo("email", identifier)
-                    .limit(1)
-                    .get()
+            Metered.get(db.collection("users")
+                            .whereEqualTo("email", identifier)
+                            .limit(1))
                     .addOnSuccessListener(userSnap -> {
                         if (!userSnap.isEmpty()) {
                             String realUserId = userSnap.getDocuments().get(0).getId();
@@ -869,15 +886,23 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
     /**
      * Removes a user from the event waitlist by their user ID.
      *
+     * Uses the ticket from the live roster when it is loaded, so a kick needs
+     * no read and can be queued offline.
+     *
      * @param userId - The user ID to remove
      * @param displayId - The display identifier for user feedback
      */
     private void performKickByUserId(String userId, String displayId) {
-        db.collection("waitlist")
-                .whereEqualTo("userId", userId)
-                .whereEqualTo("eventId", eventId)
-                .limit(1)
-                .get()
+        String knownTicket = entrantDocIds.get(userId);
+        if (knownTicket != null) {
+            queueKick(userId, knownTicket, entrantStatusMap.get(userId));
+            return;
+        }
+
+        Metered.get(db.collection("waitlist")
+                        .whereEqualTo("userId", userId)
+                        .whereEqualTo("eventId", eventId)
+                        .limit(1))
                 .addOnSuccessListener(ticketSnap -> {
                     if (ticketSnap.isEmpty()) {
                         Toast.makeText(this, "Ticket not found in DB.", Toast.LENGTH_SHORT).show();
@@ -886,51 +911,52 @@ public class AttendeeManagerActivity extends AppCompatActivity implements Profil
                     }
 
                     DocumentSnapshot ticketDoc = ticketSnap.getDocuments().get(0);
-                    String ticketDocId = ticketDoc.getId();
-                    String currentStatus = ticketDoc.getString("status");
-                    if (currentStatus == null) currentStatus = "waiting";
-                    currentStatus = currentStatus.toLowerCase();
-
-                    // Check if user was selected or accepted (had choice to be duck/goose or chose goose)
-                    boolean wasSelectedOrAccepted = currentStatus.equals("selected") || currentStatus.equals("accepted");
+                    queueKick(userId, ticketDoc.getId(), EntrantStatus.of(ticketDoc.getString("status")));
+                })
+                .addOnFailureListener(e ->
+                        Toast.makeText(this, "DB Error: " + e.getMessage(), Toast.LENGTH_SHORT).show()
+                );
+    }
 
-                    com.google.firebase.firestore.WriteBatch batch = db.batch();
+    /**
+     * Queues the writes that remove a user from the event and notify them.
+     *
+     * @param userId - The user ID to remove
+     * @param ticketDocId - The user's waitlist document id
+     * @param status - The ticket's current status, may be null
+     */
+    private void queueKick(String userId, String ticketDocId, EntrantStatus status) {
+        // Check if user was selected or accepted (had choice to be duck/goose or chose goose)
+        boolean wasSelectedOrAccepted = status != null && status.isGoose();
 
-                    batch.update(db.collection("waitlist").document(ticketDocId), "status", "cancelled");
+        WriteOutbox.Batch batch = WriteOutbox.get(this).batch("removal");
 
-                    batch.update(db.collection("events").document(eventId),
-                            "waitingList", com.google.firebase.firestore.FieldValue.arrayRemove(userId));
+        batch.update(db.collection("waitlist").document(ticketDocId), "status", EntrantStatus.CANCELLED.value());
 
-                    // If they were selected or accepted, increment redrawCount so organizer can redraw for this spot
-                    if (wasSelectedOrAccepted) {
-                        batch.update(db.collection("events").document(eventId),
-                                "redrawCount", com.google.firebase.firestore.FieldValue.increment(1));
-                    }
+        batch.update(db.collection("events").document(eventId),
+                "waitingList", FieldOp.arrayRemove(userId));
 
-                    batch.update(db.collection("users").document(userId),
-                            "waitlistedEventIds", com.google.firebase.firestore.FieldValue.arrayRemove(eventId));
+        // If they were selected or accepted, increment redrawCount so organizer can redraw for this spot
+        if (wasSelectedOrAccepted) {
+            batch.update(db.collection("events").document(eventId),
+                    "redrawCount", FieldOp.increment(1));
+        }
 
-                    java.util.Map<String, Object> notif = new java.util.HashMap<>();
-                    notif.put("userId", userId);
-                    notif.put("eventId", eventId);
-                    String title = getIntent().getStringExtra("eventTitle");
-                    notif.put("message", "You have been removed from " + (title != null ? title : "the event") + " by the organizer.");
-                    notif.put("sentBy", currentUser.getUid());
-                    notif.put("timestamp", com.google.firebase.Timestamp.now());
-
-                    batch.set(db.collection("notifications").document(), notif);
-
-                    batch.commit()
-                            .addOnSuccessListener(v -> {
-                                removeFromLocalList(userId);
-                            })
-                            .addOnFailureListener(e ->
-                                    Toast.makeText(this, "Kick failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                            );
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "DB Error: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                );
+        batch.update(db.collection("users").document(userId),
+                "waitlistedEventIds", FieldOp.arrayRemove(eventId));
+
+        String title = getIntent().getStringExtra("eventTitle");
+        NotificationBatch send = new NotificationBatch(eventId,
+                "You have been removed from " + (title != null ? title : "the event") + " by the organizer.",
+                currentUser.getUid(), null);
+        send.addRecipient(batch, userId);
+        send.finish(batch);
+
+        // Queued durably, so the row can go now; the status line shows when it syncs.
+        // The counter slot is released once the cancelled status is written.
+        batch.commit(() -> WaitlistAdmission.release(eventId, ticketDocId).addOnFailureListener(e ->
+                Log.w("AttendeeManager", "Could not release waitlist slot of " + ticketDocId, e)));
+        removeFromLocalList(userId);
     }
 
     /**
@@ -0,0 +1,378 @@
+/**
+ * ViewModel for AttendeeManagerActivity.
+ *
+ * Holds the event's waitlist listener and the organizer check across
+ * configuration changes, so rotating the screen re-renders from memory.
+ * Each waitlist snapshot is paired with its entrants' profiles, loaded in
+ * batches through UserRepository.getUsers. A status filter is served by
+ * paged server queries, one status at a time, so a filtered view downloads
+ * only the entries it shows: while a filter is set the waitlist listener is
+ * not a source of the roster, so it detaches and no profiles are loaded for
+ * entries the filter hides.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.example.duckduckgoose.user.User;
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Waitlist and permission state for one event's attendee screen.
+ */
+public class AttendeeManagerViewModel extends ViewModel {
+
+    /**
+     * A waitlist snapshot together with its entrants' profiles.
+     */
+    public static final class Roster {
+        /** Waitlist entries for the event. */
+        public final QuerySnapshot entries;
+        /** Profiles by uid, in entry order; entrants whose profile failed to load are absent. */
+        public final Map<String, User> profiles;
+
+        /**
+         * Creates a roster.
+         *
+         * @param entries - Waitlist snapshot
+         * @param profiles - Loaded profiles by uid
+         */
+        Roster(QuerySnapshot entries, Map<String, User> profiles) {
+            this.entries = entries;
+            this.profiles = Collections.unmodifiableMap(profiles);
+        }
+    }
+
+    /** Entries loaded per filtered page. */
+    static final int FILTER_PAGE_SIZE = 50;
+
+    /**
+     * Filtered entries loaded so far together with their profiles.
+     */
+    public static final class FilteredRoster {
+        /** Filter the entries were loaded for. */
+        public final RosterFilter filter;
+        /** Entries in load order (status by status, then document id). */
+        public final List<DocumentSnapshot> entries;
+        /** Profiles by uid; entrants whose profile failed to load are absent. */
+        public final Map<String, User> profiles;
+
+        /**
+         * Creates a filtered roster.
+         *
+         * @param filter - Filter in use
+         * @param entries - Loaded entries
+         * @param profiles - Loaded profiles by uid
+         */
+        FilteredRoster(RosterFilter filter, List<DocumentSnapshot> entries, Map<String, User> profiles) {
+            this.filter = filter;
+            this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+            this.profiles = Collections.unmodifiableMap(new LinkedHashMap<>(profiles));
+        }
+    }
+
+    /** Event this model was initialized for. */
+    private String eventId;
+
+    /** Live waitlist entries for the event. */
+    private QueryLiveData waitlist;
+
+    /** Whether the signed-in user organizes the event. */
+    private final MutableLiveData<Boolean> organizer = new MutableLiveData<>();
+
+    /** Waitlist snapshots with profiles loaded. */
+    private final MediatorLiveData<Roster> roster = new MediatorLiveData<>();
+
+    /** Bumped per snapshot so a slow profile load cannot replace a newer roster. */
+    private int rosterVersion;
+
+    /** Whether the waitlist listener currently feeds the roster (no filter set). */
+    private boolean rosterAttached;
+
+    /** Filter being paged, or null for the full roster. */
+    private RosterFilter filter;
+
+    /** Index into the filter's statuses of the status being paged. */
+    private int statusIndex;
+
+    /** Last entry read for the current status, or null at its start. */
+    private DocumentSnapshot cursor;
+
+    /** Filtered entries loaded so far. */
+    private final List<DocumentSnapshot> filteredEntries = new ArrayList<>();
+
+    /** Profiles of the filtered entries. */
+    private final Map<String, User> filteredProfiles = new LinkedHashMap<>();
+
+    /** Whether a filtered page is loading. */
+    private boolean loadingFiltered;
+
+    /** Bumped per filter change so a page for an old filter is dropped. */
+    private int filterVersion;
+
+    /** Filtered pages; null while no filter is set. */
+    private final MutableLiveData<FilteredRoster> filtered = new MutableLiveData<>();
+
+    /** Whether another filtered page may exist. */
+    private final MutableLiveData<Boolean> canLoadMoreFiltered = new MutableLiveData<>(false);
+
+    /** Filtered page read errors. */
+    private final MutableLiveData<Exception> filterError = new MutableLiveData<>();
+
+    /**
+     * Starts loading for an event. Later calls (e.g. after rotation) are no-ops.
+     *
+     * @param eventId - Event document id
+     */
+    public void init(String eventId) {
+        if (waitlist != null) return;
+        this.eventId = eventId;
+        waitlist = WaitlistRepository.get().observeEvent(eventId);
+        // The waitlist listener is only attached while the roster is observed and unfiltered
+        if (filter == null) attachRoster();
+        EventRepository.get().getEventDoc(eventId).addOnSuccessListener(doc -> {
+            if (doc == null || !doc.exists()) return;
+            String organizerId = doc.getString("organizerId");
+            FirebaseUser cur = FirebaseAuth.getInstance().getCurrentUser();
+            organizer.setValue(cur != null && organizerId != null && organizerId.equals(cur.getUid()));
+        });
+    }
+
+    /**
+     * Returns the event this model serves.
+     *
+     * @return Event document id, or null before init
+     */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Returns the live waitlist for the event.
+     *
+     * @return Waitlist snapshots; null before init
+     */
+    public QueryLiveData getWaitlist() {
+        return waitlist;
+    }
+
+    /**
+     * Returns the waitlist with profiles loaded. Nothing is published while a
+     * status filter is set.
+     *
+     * @return Rosters, one per waitlist snapshot; empty before init
+     */
+    public LiveData<Roster> getRoster() {
+        return roster;
+    }
+
+    /**
+     * Returns whether the signed-in user organizes the event.
+     *
+     * @return LiveData set once the event document is loaded
+     */
+    public LiveData<Boolean> isOrganizer() {
+        return organizer;
+    }
+
+    /**
+     * Returns the status filter being paged.
+     *
+     * @return Filter, or null for the full roster
+     */
+    public RosterFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the filtered pages loaded so far.
+     *
+     * @return LiveData of the filtered roster; null while no filter is set
+     */
+    public LiveData<FilteredRoster> getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * Returns whether another filtered page may exist.
+     *
+     * @return LiveData of the "load more" availability
+     */
+    public LiveData<Boolean> canLoadMoreFiltered() {
+        return canLoadMoreFiltered;
+    }
+
+    /**
+     * Returns filtered page read errors.
+     *
+     * @return LiveData of the latest error
+     */
+    public LiveData<Exception> getFilterError() {
+        return filterError;
+    }
+
+    /**
+     * Switches the status filter and loads its first page. Choosing the same
+     * filter again reloads it from the start. Setting a filter stops the full
+     * roster; clearing it resumes the roster from the waitlist listener.
+     *
+     * @param filter - Filter to page, or null for the full roster
+     */
+    public void setFilter(RosterFilter filter) {
+        this.filter = filter;
+        filterVersion++;
+        statusIndex = 0;
+        cursor = null;
+        filteredEntries.clear();
+        filteredProfiles.clear();
+        loadingFiltered = false;
+        canLoadMoreFiltered.setValue(false);
+        if (filter == null) {
+            filtered.setValue(null);
+            if (waitlist != null) attachRoster();
+            return;
+        }
+        detachRoster();
+        loadMoreFiltered();
+    }
+
+    /**
+     * Makes the waitlist listener a source of the roster. Its latest snapshot,
+     * if any, is published again.
+     */
+    private void attachRoster() {
+        if (rosterAttached) return;
+        rosterAttached = true;
+        roster.addSource(waitlist, this::loadProfiles);
+    }
+
+    /**
+     * Stops feeding the roster, which lets the waitlist listener detach, and
+     * drops any profile load still in flight.
+     */
+    private void detachRoster() {
+        if (!rosterAttached) return;
+        rosterAttached = false;
+        roster.removeSource(waitlist);
+        rosterVersion++;
+    }
+
+    /**
+     * Fetches the next filtered page. Ignored while a page is loading, when
+     * no filter is set or when every status has been read.
+     */
+    public void loadMoreFiltered() {
+        if (filter == null || eventId == null || loadingFiltered) return;
+        if (statusIndex >= filter.statuses().size()) return;
+        loadingFiltered = true;
+        fetchFiltered(filterVersion, FILTER_PAGE_SIZE, new ArrayList<>());
+    }
+
+    /**
+     * Reads up to want entries of the current status, moving on to the next
+     * status when one runs out, until the page is full or every status is read.
+     *
+     * @param version - Filter version the page belongs to
+     * @param want - Entries still needed for the page
+     * @param page - Entries read so far for the page
+     */
+    private void fetchFiltered(int version, int want, List<DocumentSnapshot> page) {
+        EntrantStatus status = filter.statuses().get(statusIndex);
+        Query query = WaitlistRepository.get().byStatus(eventId, status);
+        if (cursor != null) query = query.startAfter(cursor);
+        Metered.get(query.limit(want)).addOnCompleteListener(t -> {
+            if (version != filterVersion) return;
+            if (!t.isSuccessful()) {
+                loadingFiltered = false;
+                filterError.setValue(t.getException());
+                return;
+            }
+            List<DocumentSnapshot> docs = t.getResult().getDocuments();
+            page.addAll(docs);
+            if (docs.size() < want) {
+                statusIndex++;
+                cursor = null;
+            } else {
+                cursor = docs.get(docs.size() - 1);
+            }
+            int left = want - docs.size();
+            if (left > 0 && statusIndex < filter.statuses().size()) {
+                fetchFiltered(version, left, page);
+            } else {
+                loadFilteredProfiles(version, page);
+            }
+        });
+    }
+
+    /**
+     * Loads the profiles for a filtered page and publishes it.
+     *
+     * @param version - Filter version the page belongs to
+     * @param page - Entries of the page
+     */
+    private void loadFilteredProfiles(int version, List<DocumentSnapshot> page) {
+        List<String> uids = new ArrayList<>();
+        for (DocumentSnapshot entry : page) {
+            String uid = entry.getString("userId");
+            if (uid != null) uids.add(uid);
+        }
+        UserRepository.get().getUsers(uids).addOnCompleteListener(t -> {
+            if (version != filterVersion) return;
+            loadingFiltered = false;
+            filteredEntries.addAll(page);
+            if (t.isSuccessful()) {
+                for (User u : t.getResult()) filteredProfiles.put(u.getUserId(), u);
+            }
+            canLoadMoreFiltered.setValue(statusIndex < filter.statuses().size());
+            filtered.setValue(new FilteredRoster(filter, filteredEntries, filteredProfiles));
+        });
+    }
+
+    /**
+     * Loads the profiles for a waitlist snapshot and publishes the roster.
+     *
+     * @param snapshot - New waitlist snapshot
+     */
+    private void loadProfiles(QuerySnapshot snapshot) {
+        int version = ++rosterVersion;
+        List<String> uids = new ArrayList<>();
+        if (snapshot != null) {
+            for (DocumentSnapshot entry : snapshot.getDocuments()) {
+                String uid = entry.getString("userId");
+                if (uid != null) uids.add(uid);
+            }
+        }
+        UserRepository.get().getUsers(uids).addOnCompleteListener(t -> {
+            if (version != rosterVersion) return;
+            Map<String, User> profiles = new LinkedHashMap<>();
+            if (t.isSuccessful()) {
+                for (User u : t.getResult()) profiles.put(u.getUserId(), u);
+            }
+            roster.setValue(new Roster(snapshot, profiles));
+        });
+    }
+
+    /**
+     * Releases the waitlist listener when the screen is finished for good.
+     */
+    @Override
+    protected void onCleared() {
+        if (waitlist != null) waitlist.close();
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Destination for a group of document writes.
+ *
+ * Implemented over a Firestore WriteBatch (commit now) and by the outbox
+ * (commit when connectivity allows), so code that builds a write set, such as
+ * NotificationBatch, does not care which one it is given.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write operations shared by WriteBatch and the outbox.
+ *
+ * Field values may be plain values, Timestamps, lists, maps or FieldOp
+ * transforms; do not pass FieldValue sentinels directly.
+ */
+public interface BatchWriter {
+
+    /**
+     * Overwrites a document.
+     *
+     * @param ref - Target document
+     * @param data - Full document contents
+     */
+    void set(DocumentReference ref, Map<String, Object> data);
+
+    /**
+     * Merges fields into a document, creating it if missing.
+     *
+     * @param ref - Target document
+     * @param data - Fields to merge
+     */
+    void merge(DocumentReference ref, Map<String, Object> data);
+
+    /**
+     * Updates fields of an existing document.
+     *
+     * @param ref - Target document
+     * @param data - Fields to update
+     */
+    void update(DocumentReference ref, Map<String, Object> data);
+
+    /**
+     * Deletes a document.
+     *
+     * @param ref - Target document
+     */
+    void delete(DocumentReference ref);
+
+    /**
+     * Updates a single field of an existing document.
+     *
+     * @param ref - Target document
+     * @param field - Field name
+     * @param value - New value or FieldOp
+     */
+    default void update(DocumentReference ref, String field, Object value) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(field, value);
+        update(ref, data);
+    }
+
+    /**
+     * Returns a writer whose writes apply only if a document does not exist
+     * when they are committed, e.g. a notification with a deterministic id
+     * and the writes that go with it. Writing the guard document
+     * itself through the returned writer gives create-if-absent semantics.
+     * Only the outbox can check the guard; other writers do not support it.
+     *
+     * @param guard - Document that must be missing
+     * @return Writer for the guarded writes
+     * @throws UnsupportedOperationException if the writer cannot read before writing
+     */
+    default BatchWriter ifAbsent(DocumentReference guard) {
+        throw new UnsupportedOperationException("Guarded writes need the write outbox");
+    }
+
+    /**
+     * Adapts a Firestore WriteBatch.
+     *
+     * @param batch - Batch to write into
+     * @return Writer that adds to the batch
+     */
+    static BatchWriter of(WriteBatch batch) {
+        return new BatchWriter() {
+            @Override
+            public void set(DocumentReference ref, Map<String, Object> data) {
+                batch.set(ref, toFirestore(data));
+            }
+
+            @Override
+            public void merge(DocumentReference ref, Map<String, Object> data) {
+                batch.set(ref, toFirestore(data), SetOptions.merge());
+            }
+
+            @Override
+            public void update(DocumentReference ref, Map<String, Object> data) {
+                batch.update(ref, toFirestore(data));
+            }
+
+            @Override
+            public void delete(DocumentReference ref) {
+                batch.delete(ref);
+            }
+        };
+    }
+
+    /**
+     * Adapts a metered Firestore transaction. All of the transaction's reads
+     * must be made before the first write is added.
+     *
+     * @param tx - Transaction to write into
+     * @return Writer that adds to the transaction
+     */
+    static BatchWriter of(Metered.Tx tx) {
+        return new BatchWriter() {
+            @Override
+            public void set(DocumentReference ref, Map<String, Object> data) {
+                tx.set(ref, toFirestore(data));
+            }
+
+            @Override
+            public void merge(DocumentReference ref, Map<String, Object> data) {
+                tx.set(ref, toFirestore(data), SetOptions.merge());
+            }
+
+            @Override
+            public void update(DocumentReference ref, Map<String, Object> data) {
+                tx.update(ref, toFirestore(data));
+            }
+
+            @Override
+            public void delete(DocumentReference ref) {
+                tx.delete(ref);
+            }
+        };
+    }
+
+    /**
+     * Replaces FieldOp values with Firestore sentinels, including inside
+     * nested maps (a merge may transform fields of a map field).
+     *
+     * @param data - Fields that may contain FieldOp values
+     * @return Copy safe to hand to Firestore
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> toFirestore(Map<String, Object> data) {
+        Map<String, Object> out = new HashMap<>(data.size());
+        for (Map.Entry<String, Object> e : data.entrySet()) {
+            Object v = e.getValue();
+            if (v instanceof FieldOp) v = ((FieldOp) v).toFieldValue();
+            else if (v instanceof Map) v = toFirestore((Map<String, Object>) v);
+            out.put(e.getKey(), v);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Lottery draws for many events in one run.
+ *
+ * Each event's waiting entries are streamed a page at a time and winners are
+ * drawn with WeightedLottery as the pages arrive, weighted by the organizer's
+ * DrawHistory (read once per run), so no profiles are read and no roster is
+ * built. The winners' status updates, both result notifications, the history
+ * update, the draw seed and its DrawLog record are queued in the write
+ * outbox, like a single draw from AttendeeManagerActivity. At most
+ * {@link #PARALLELISM} events are drawn at once on the IO pool, and every
+ * event reports its progress (entries scanned, winners, outbox written, or
+ * the error) on the main thread.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bulk draw run over a fixed list of events.
+ */
+public class BulkDraw {
+
+    /** Log tag. */
+    private static final String TAG = "BulkDraw";
+
+    /** Events drawn at once; leaves an IO thread free for the outbox. */
+    static final int PARALLELISM = 3;
+
+    /** A history read that has not finished by then is skipped. */
+    private static final long HISTORY_TIMEOUT_SECONDS = 30;
+
+    /**
+     * One event to draw for.
+     */
+    public static final class Target {
+        /** Event document id. */
+        public final String eventId;
+        /** Event name for messages. */
+        public final String title;
+        /** Winners to draw. */
+        public final int spots;
+
+        /**
+         * Creates a target.
+         *
+         * @param eventId - Event document id
+         * @param title - Event name
+         * @param spots - Winners to draw
+         */
+        public Target(String eventId, String title, int spots) {
+            this.eventId = eventId;
+            this.title = title;
+            this.spots = spots;
+        }
+    }
+
+    /**
+     * Stage of one event's draw.
+     */
+    public enum State {
+        /** Waiting for a free slot. */
+        QUEUED,
+        /** Streaming waiting entries. */
+        READING,
+        /** Results queued; waiting for the outbox to write them. */
+        WRITING,
+        /** Every result written. */
+        DONE,
+        /** Stopped; see {@link Progress#error}. */
+        FAILED
+    }
+
+    /**
+     * Immutable progress of one event's draw.
+     */
+    public static final class Progress {
+        /** Event drawn for. */
+        public final Target target;
+        /** Current stage. */
+        public final State state;
+        /** Waiting entries read so far. */
+        public final int scanned;
+        /** Winners drawn (set once reading is done). */
+        public final int selected;
+        /** Failure message, or null. */
+        public final String error;
+
+        /**
+         * Creates a progress value.
+         *
+         * @param target - Event drawn for
+         * @param state - Stage
+         * @param scanned - Entries read
+         * @param selected - Winners drawn
+         * @param error - Failure message, or null
+         */
+        Progress(Target target, State state, int scanned, int selected, String error) {
+            this.target = target;
+            this.state = state;
+            this.scanned = scanned;
+            this.selected = selected;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Receives progress on the main thread.
+     */
+    public interface Listener {
+        /**
+         * Called whenever an event's draw moves on.
+         *
+         * @param index - Position of the event in the run
+         * @param progress - Its new progress
+         */
+        void onProgress(int index, Progress progress);
+    }
+
+    /** Application context for the outbox. */
+    private final Context context;
+
+    /** Organizer running the draws, recorded as the sender. */
+    private final String senderUid;
+
+    /** Events in run order. */
+    private final List<Target> targets;
+
+    /** Progress receiver. */
+    private final Listener listener;
+
+    /** Next event to start. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Organizer's loss history, read by the first draw that needs it. Guarded by this. */
+    private DrawHistory history;
+
+    /**
+     * Prepares a run. Nothing is read until {@link #start()}.
+     *
+     * @param context - Any context
+     * @param senderUid - Organizer's uid
+     * @param targets - Events to draw for
+     * @param listener - Progress receiver
+     */
+    public BulkDraw(Context context, String senderUid, List<Target> targets, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.senderUid = senderUid;
+        this.targets = new ArrayList<>(targets);
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the run: up to PARALLELISM IO workers each take the next
+     * queued event until none are left.
+     */
+    public void start() {
+        for (int i = 0; i < targets.size(); i++) {
+            report(i, new Progress(targets.get(i), State.QUEUED, 0, 0, null));
+        }
+        int workers = Math.min(PARALLELISM, targets.size());
+        for (int w = 0; w < workers; w++) {
+            AppExecutors.get().io().execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < targets.size()) drawOne(i);
+            });
+        }
+    }
+
+    /**
+     * Draws one event on the calling IO thread.
+     *
+     * @param index - Position in the run
+     */
+    private void drawOne(int index) {
+        Target target = targets.get(index);
+        long seed = WeightedLottery.newSeed();
+        WeightedLottery<DocumentSnapshot> winners = new WeightedLottery<>(target.spots, seed);
+        List<String> entrants = new ArrayList<>();
+        Map<String, Integer> lossesUsed = new HashMap<>();
+        try {
+            DrawHistory weights = history();
+            report(index, new Progress(target, State.READING, 0, 0, null));
+            WaitlistRepository.get().streamWaiting(target.eventId, page -> {
+                for (DocumentSnapshot doc : page) {
+                    String uid = doc.getString("userId");
+                    if (uid == null) continue;
+                    entrants.add(uid);
+                    int losses = weights.lossesOf(uid);
+                    if (losses > 0) lossesUsed.put(uid, losses);
+                    winners.offer(uid, doc, DrawHistory.weight(losses));
+                }
+                report(index, new Progress(target, State.READING, entrants.size(), 0, null));
+            });
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            Log.e(TAG, "Reading the waitlist of " + target.eventId + " failed", e);
+            report(index, new Progress(target, State.FAILED, entrants.size(), 0,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            return;
+        }
+
+        List<DocumentSnapshot> drawn = winners.winners();
+        if (drawn.isEmpty()) {
+            report(index, new Progress(target, State.DONE, entrants.size(), 0, null));
+            return;
+        }
+        report(index, new Progress(target, State.WRITING, entrants.size(), drawn.size(), null));
+
+        WriteOutbox.Batch batch = WriteOutbox.get(context).batch("Lottery draw: " + target.title);
+        String drawId = Long.toHexString(seed);
+        NotificationBatch selected = NotificationBatch.once(target.eventId,
+                "congratulation! you are selected for " + target.title, senderUid, "selected", drawId);
+        NotificationBatch notSelected = NotificationBatch.once(target.eventId,
+                target.title + ": L you were not selected", senderUid, "not_selected", drawId);
+        Set<String> winnerIds = new HashSet<>();
+        for (DocumentSnapshot doc : drawn) {
+            batch.update(doc.getReference(), "status", EntrantStatus.SELECTED.value());
+            winnerIds.add(doc.getString("userId"));
+            selected.addRecipient(batch, doc.getString("userId"));
+        }
+        List<String> loserIds = new ArrayList<>();
+        for (String uid : entrants) {
+            if (!winnerIds.contains(uid)) {
+                notSelected.addRecipient(batch, uid);
+                loserIds.add(uid);
+            }
+        }
+        selected.finish(batch);
+        notSelected.finish(batch);
+        DrawLog.record(batch, target.eventId, DrawLog.KIND_DRAW, seed, senderUid,
+                entrants.size(), winnerIds, lossesUsed);
+        DrawHistory.record(batch, senderUid, winnerIds, loserIds);
+        batch.update(FirebaseFirestore.getInstance().collection("events").document(target.eventId),
+                "drawSeed", seed);
+        int scanned = entrants.size();
+        int count = drawn.size();
+        batch.commit(() -> {
+            WaitlistRepository.get().invalidate(target.eventId);
+            report(index, new Progress(target, State.DONE, scanned, count, null));
+        });
+    }
+
+    /**
+     * Returns the organizer's loss history, reading it on first use. A run
+     * whose history cannot be read draws everyone at equal weight.
+     *
+     * @return History shared by every draw in the run
+     * @throws InterruptedException if interrupted while reading it
+     */
+    private synchronized DrawHistory history() throws InterruptedException {
+        if (history == null) {
+            try {
+                history = Tasks.await(DrawHistory.load(senderUid), HISTORY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                Log.w(TAG, "Draw history unavailable; drawing unweighted", e);
+                history = DrawHistory.empty();
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Posts progress to the listener on the main thread.
+     *
+     * @param index - Position in the run
+     * @param progress - New progress
+     */
+    private void report(int index, Progress progress) {
+        AppExecutors.get().main().execute(() -> listener.onProgress(index, progress));
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Organizer screen for drawing many events at once.
+ *
+ * Lists the organizer's events with a spots count each (defaulting to the
+ * event's maximum); the picked events are drawn by a BulkDraw run in the
+ * background, with per-event progress and failures shown in the list.
+ *
+ * Expected extras: organizerId.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.view.View;
+import android.view.WindowInsetsController;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk lottery draw screen.
+ */
+public class BulkDrawActivity extends AppCompatActivity {
+
+    /** Screen state. */
+    private BulkDrawViewModel viewModel;
+
+    /** Row adapter. */
+    private BulkDrawAdapter adapter;
+
+    /** Run summary line. */
+    private TextView txtSummary;
+
+    /** Empty list placeholder. */
+    private TextView txtEmpty;
+
+    /** Starts the run. */
+    private View btnRun;
+
+    /**
+     * Sets up the list and starts loading the organizer's events.
+     *
+     * @param savedInstanceState - Saved state bundle
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_bulk_draw);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            WindowInsetsController controller = getWindow().getInsetsController();
+            if (controller != null) {
+                controller.setSystemBarsAppearance(
+                        WindowInsetsController.APPEARANCE_LIGHT_STATUS_BARS,
+                        WindowInsetsController.APPEARANCE_LIGHT_STATUS_BARS
+                );
+            }
+        }
+
+        String organizerId = getIntent().getStringExtra("organizerId");
+        if (organizerId == null || organizerId.isEmpty()) {
+            Toast.makeText(this, "Organizer ID not found.", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+
+        txtSummary = findViewById(R.id.txtBulkSummary);
+        txtEmpty = findViewById(R.id.txtEmptyPlaceholder);
+        btnRun = findViewById(R.id.btnRunDraws);
+
+        RecyclerView rv = findViewById(R.id.rvBulkDraw);
+        rv.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new BulkDrawAdapter();
+        rv.setAdapter(adapter);
+
+        viewModel = new ViewModelProvider(this).get(BulkDrawViewModel.class);
+        viewModel.init(organizerId);
+        viewModel.getRows().observe(this, this::showRows);
+        viewModel.isRunning().observe(this, running -> {
+            btnRun.setEnabled(!Boolean.TRUE.equals(running));
+            List<BulkDrawViewModel.Row> rows = viewModel.getRows().getValue();
+            if (rows != null) showRows(rows);
+        });
+        btnRun.setOnClickListener(v -> confirmRun());
+    }
+
+    /**
+     * Navigates back to the previous screen. The run keeps going.
+     *
+     * @param view - The View that triggered this navigation
+     */
+    public void goBack(View view) {
+        finish();
+    }
+
+    /**
+     * Shows the rows and the run summary.
+     *
+     * @param rows - Event rows
+     */
+    private void showRows(List<BulkDrawViewModel.Row> rows) {
+        boolean running = Boolean.TRUE.equals(viewModel.isRunning().getValue());
+        adapter.setRows(rows, running);
+        txtEmpty.setVisibility(rows.isEmpty() ? View.VISIBLE : View.GONE);
+        if (!running) return;
+
+        int total = 0, done = 0, failed = 0;
+        for (BulkDrawViewModel.Row r : rows) {
+            if (r.progress == null) continue;
+            total++;
+            if (r.progress.state == BulkDraw.State.DONE) done++;
+            if (r.progress.state == BulkDraw.State.FAILED) failed++;
+        }
+        txtSummary.setText(String.format(Locale.ROOT, "%d of %d events done%s", done, total,
+                failed > 0 ? ", " + failed + " failed" : ""));
+    }
+
+    /**
+     * Asks for confirmation, then starts drawing the picked events.
+     */
+    private void confirmRun() {
+        List<BulkDrawViewModel.Row> rows = viewModel.getRows().getValue();
+        int picked = 0;
+        if (rows != null) {
+            for (BulkDrawViewModel.Row r : rows) if (r.checked && r.spots > 0) picked++;
+        }
+        if (picked == 0) {
+            Toast.makeText(this, "Pick at least one event with spots to draw", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String uid = FirebaseAuth.getInstance().getUid();
+        if (uid == null) {
+            Toast.makeText(this, "Not logged in", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Draw Lottery")
+                .setMessage("Draw " + picked + " event(s) now? Entrants are notified of the results.")
+                .setPositiveButton("Draw", (d, w) -> viewModel.start(this, uid))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+}
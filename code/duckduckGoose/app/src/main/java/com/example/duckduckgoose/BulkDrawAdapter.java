@@ -0,0 +1,160 @@
+/**
+ * RecyclerView adapter for the bulk draw screen.
+ *
+ * Each row shows an event with a pick box and a spots field before the run,
+ * and the event's draw progress once it has started.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Adapter binding BulkDrawViewModel rows; picks and spots are written back
+ * into the rows.
+ */
+public class BulkDrawAdapter extends RecyclerView.Adapter<BulkDrawAdapter.ViewHolder> {
+
+    /** Rows shown. */
+    private List<BulkDrawViewModel.Row> rows = new ArrayList<>();
+
+    /** Whether picks are locked because a run has started. */
+    private boolean locked;
+
+    /**
+     * Replaces the rows.
+     *
+     * @param rows - Rows to show
+     * @param locked - Whether picks and spots can no longer be edited
+     */
+    public void setRows(List<BulkDrawViewModel.Row> rows, boolean locked) {
+        this.rows = rows;
+        this.locked = locked;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Inflates a row.
+     *
+     * @param parent - Parent ViewGroup
+     * @param viewType - View type (unused)
+     * @return New ViewHolder
+     */
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_bulk_draw, parent, false);
+        return new ViewHolder(view);
+    }
+
+    /**
+     * Binds a row.
+     *
+     * @param holder - ViewHolder
+     * @param position - Row position
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        BulkDrawViewModel.Row row = rows.get(position);
+        holder.row = null; // Mute the listeners while binding
+        holder.txtTitle.setText(row.event.getName() != null ? row.event.getName() : "Untitled event");
+        holder.txtStatus.setText(statusText(row));
+        holder.chkDraw.setChecked(row.checked);
+        holder.edtSpots.setText(row.spots > 0 ? String.valueOf(row.spots) : "");
+        holder.chkDraw.setEnabled(!locked);
+        holder.edtSpots.setEnabled(!locked);
+        holder.row = row;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return Row count
+     */
+    @Override
+    public int getItemCount() {
+        return rows.size();
+    }
+
+    /**
+     * Describes a row's state.
+     *
+     * @param row - Row
+     * @return Status line
+     */
+    static String statusText(BulkDrawViewModel.Row row) {
+        BulkDraw.Progress p = row.progress;
+        if (p == null) return row.checked ? "Picked" : "Not picked";
+        switch (p.state) {
+            case QUEUED:
+                return "Queued";
+            case READING:
+                return String.format(Locale.ROOT, "Reading entrants (%d so far)", p.scanned);
+            case WRITING:
+                return String.format(Locale.ROOT, "Sending results: %d of %d selected", p.selected, p.scanned);
+            case DONE:
+                return p.scanned == 0 ? "Done: nobody is waiting"
+                        : String.format(Locale.ROOT, "Done: %d of %d selected", p.selected, p.scanned);
+            default:
+                return "Failed: " + p.error;
+        }
+    }
+
+    /**
+     * ViewHolder for a bulk draw row.
+     */
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        CheckBox chkDraw;
+        TextView txtTitle;
+        TextView txtStatus;
+        EditText edtSpots;
+        /** Row currently bound, or null while binding. */
+        BulkDrawViewModel.Row row;
+
+        /**
+         * Initializes view references and writes edits back into the bound row.
+         *
+         * @param itemView - Row root view
+         */
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            chkDraw = itemView.findViewById(R.id.chkDraw);
+            txtTitle = itemView.findViewById(R.id.txtDrawTitle);
+            txtStatus = itemView.findViewById(R.id.txtDrawStatus);
+            edtSpots = itemView.findViewById(R.id.edtDrawSpots);
+
+            chkDraw.setOnCheckedChangeListener((b, checked) -> {
+                if (row == null) return;
+                row.checked = checked;
+                txtStatus.setText(statusText(row));
+            });
+            edtSpots.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+                @Override
+                public void afterTextChanged(Editable s) {
+                    if (row != null) row.spots = EventFieldParser.parseSpots(s.toString());
+                }
+            });
+        }
+    }
+}
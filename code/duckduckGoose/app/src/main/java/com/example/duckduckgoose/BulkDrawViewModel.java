@@ -0,0 +1,137 @@
+/**
+ * ViewModel for BulkDrawActivity.
+ *
+ * Loads the organizer's events once, keeps which ones are picked and how
+ * many spots each draws, and holds the running BulkDraw so its progress
+ * survives configuration changes.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event picks and draw progress for the bulk draw screen.
+ */
+public class BulkDrawViewModel extends ViewModel {
+
+    /** Log tag. */
+    private static final String TAG = "BulkDraw";
+
+    /**
+     * One event row. Edited in place by the adapter until a run starts.
+     */
+    public static final class Row {
+        /** The event. */
+        public final Event event;
+        /** Whether the event is picked for the run. */
+        public boolean checked;
+        /** Winners to draw. */
+        public int spots;
+        /** Progress once the run has started, else null. */
+        public BulkDraw.Progress progress;
+
+        /**
+         * Creates a row, defaulting the spots to the event's maximum.
+         *
+         * @param event - The event
+         */
+        Row(Event event) {
+            this.event = event;
+            this.spots = EventFieldParser.parseSpots(event.getMaxSpots());
+        }
+    }
+
+    /** Rows; the same list is republished after each change. */
+    private final MutableLiveData<List<Row>> rows = new MutableLiveData<>();
+
+    /** Whether a run has been started. */
+    private final MutableLiveData<Boolean> running = new MutableLiveData<>(false);
+
+    /** Whether loading has been started. */
+    private boolean started;
+
+    /**
+     * Loads the organizer's events once per ViewModel; later calls are no-ops.
+     *
+     * @param organizerId - Organizer's uid
+     */
+    public void init(String organizerId) {
+        if (started) return;
+        started = true;
+        Metered.get(FirebaseFirestore.getInstance().collection("events").whereEqualTo("organizerId", organizerId))
+                .addOnSuccessListener(snap -> {
+                    List<Row> list = new ArrayList<>();
+                    for (DocumentSnapshot doc : snap.getDocuments()) {
+                        Event e = doc.toObject(Event.class);
+                        if (e == null) continue;
+                        if (e.getEventId() == null) e.setEventId(doc.getId());
+                        list.add(new Row(e));
+                    }
+                    rows.setValue(list);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load events", e);
+                    rows.setValue(new ArrayList<>());
+                });
+    }
+
+    /**
+     * Returns the event rows.
+     *
+     * @return LiveData of rows; null until loaded
+     */
+    public LiveData<List<Row>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns whether a run has been started.
+     *
+     * @return LiveData of the running flag
+     */
+    public LiveData<Boolean> isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts drawing the picked events. Ignored while a run exists or when
+     * nothing with at least one spot is picked.
+     *
+     * @param context - Any context
+     * @param senderUid - Organizer's uid
+     * @return Number of events queued
+     */
+    public int start(Context context, String senderUid) {
+        List<Row> list = rows.getValue();
+        if (list == null || Boolean.TRUE.equals(running.getValue())) return 0;
+        List<Row> picked = new ArrayList<>();
+        List<BulkDraw.Target> targets = new ArrayList<>();
+        for (Row r : list) {
+            if (!r.checked || r.spots <= 0) continue;
+            String title = r.event.getName() != null ? r.event.getName() : "an event";
+            picked.add(r);
+            targets.add(new BulkDraw.Target(r.event.getEventId(), title, r.spots));
+        }
+        if (targets.isEmpty()) return 0;
+        running.setValue(true);
+        // Runs to completion even if the screen is closed; results land through the outbox
+        new BulkDraw(context, senderUid, targets, (index, progress) -> {
+            picked.get(index).progress = progress;
+            rows.setValue(list);
+        }).start();
+        return targets.size();
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Lottery history used to weight draws in favour of repeat losers.
+ *
+ * Each organizer keeps a count of consecutive lost draws per entrant in a
+ * few shard documents (draw_history/{organizerId}_{n}, a map of uid to
+ * count), so a draw reads the whole history in SHARDS document reads however
+ * many entrants it has, and records its results in one merge per shard. A
+ * loss increments the entrant's count; a win removes it. In memory the
+ * history is held as a sorted uid array with a parallel count array, which
+ * stays small and is looked up by binary search while entrants stream past.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable per-organizer loss counts.
+ */
+public final class DrawHistory {
+
+    /** History collection. */
+    static final String COLLECTION = "draw_history";
+
+    /** Shard documents per organizer; each holds roughly 20k entrants under the document size limit. */
+    static final int SHARDS = 16;
+
+    /** Losses beyond this do not raise the weight further. */
+    static final int MAX_COUNTED_LOSSES = 4;
+
+    /** History with no losses; every entrant weighs 1. */
+    private static final DrawHistory EMPTY = new DrawHistory(new String[0], new byte[0]);
+
+    /** Entrant uids, sorted. */
+    private final String[] uids;
+
+    /** Loss count of uids[i], capped at MAX_COUNTED_LOSSES. */
+    private final byte[] losses;
+
+    /**
+     * Wraps sorted arrays.
+     *
+     * @param uids - Sorted uids
+     * @param losses - Parallel loss counts
+     */
+    private DrawHistory(String[] uids, byte[] losses) {
+        this.uids = uids;
+        this.losses = losses;
+    }
+
+    /**
+     * Returns the empty history.
+     *
+     * @return History in which nobody has lost
+     */
+    public static DrawHistory empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a history from loss counts.
+     *
+     * @param counts - Losses by uid; null and non-positive counts are dropped
+     * @return Compact history
+     */
+    public static DrawHistory of(Map<String, ? extends Number> counts) {
+        List<String> ids = new ArrayList<>(counts.size());
+        for (Map.Entry<String, ? extends Number> e : counts.entrySet()) {
+            if (e.getKey() != null && e.getValue() != null && e.getValue().longValue() > 0) ids.add(e.getKey());
+        }
+        if (ids.isEmpty()) return EMPTY;
+        String[] sorted = ids.toArray(new String[0]);
+        Arrays.sort(sorted);
+        byte[] capped = new byte[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            capped[i] = (byte) Math.min(MAX_COUNTED_LOSSES, counts.get(sorted[i]).longValue());
+        }
+        return new DrawHistory(sorted, capped);
+    }
+
+    /**
+     * Returns an entrant's counted losses.
+     *
+     * @param uid - Entrant's uid
+     * @return Consecutive losses, at most MAX_COUNTED_LOSSES
+     */
+    public int lossesOf(String uid) {
+        int i = uid != null ? Arrays.binarySearch(uids, uid) : -1;
+        return i >= 0 ? losses[i] : 0;
+    }
+
+    /**
+     * Returns an entrant's draw weight.
+     *
+     * @param uid - Entrant's uid
+     * @return Weight for WeightedLottery
+     */
+    public double weightOf(String uid) {
+        return weight(lossesOf(uid));
+    }
+
+    /**
+     * Returns the number of entrants with at least one loss.
+     *
+     * @return Entrants in the history
+     */
+    public int size() {
+        return uids.length;
+    }
+
+    /**
+     * Maps losses to a weight: every lost draw adds one more share, so an
+     * entrant who lost twice is three times as likely to be drawn first as
+     * a newcomer.
+     *
+     * @param losses - Consecutive losses
+     * @return Weight, at least 1
+     */
+    static double weight(int losses) {
+        return 1 + Math.max(0, Math.min(MAX_COUNTED_LOSSES, losses));
+    }
+
+    /**
+     * Reads an organizer's history.
+     *
+     * @param organizerId - Organizer running the draw
+     * @return Task resolving to the history (empty if none was recorded)
+     */
+    public static Task<DrawHistory> load(String organizerId) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>(SHARDS);
+        for (int s = 0; s < SHARDS; s++) reads.add(Metered.get(shardRef(db, organizerId, s)));
+        return Tasks.whenAllSuccess(reads).continueWith(t -> {
+            Map<String, Number> counts = new HashMap<>();
+            for (Object o : t.getResult()) {
+                Object map = ((DocumentSnapshot) o).get("losses");
+                if (!(map instanceof Map)) continue;
+                for (Map.Entry<?, ?> e : ((Map<?, ?>) map).entrySet()) {
+                    if (e.getValue() instanceof Number) counts.put((String) e.getKey(), (Number) e.getValue());
+                }
+            }
+            return of(counts);
+        });
+    }
+
+    /**
+     * Adds a draw's results to the organizer's history: winners are
+     * cleared and losers gain one loss.
+     *
+     * @param batch - Writes go here, alongside the draw's own writes
+     * @param organizerId - Organizer running the draw
+     * @param winners - uids drawn
+     * @param losers - uids not drawn
+     */
+    public static void record(BatchWriter batch, String organizerId,
+                              Collection<String> winners, Collection<String> losers) {
+        List<Map<String, Object>> shards = new ArrayList<>(SHARDS);
+        for (int s = 0; s < SHARDS; s++) shards.add(new HashMap<>());
+        for (String uid : winners) {
+            if (uid != null) shards.get(shardOf(uid)).put(uid, FieldOp.delete());
+        }
+        for (String uid : losers) {
+            if (uid != null) shards.get(shardOf(uid)).put(uid, FieldOp.increment(1));
+        }
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        for (int s = 0; s < SHARDS; s++) {
+            if (shards.get(s).isEmpty()) continue;
+            Map<String, Object> data = new HashMap<>();
+            data.put("losses", shards.get(s));
+            batch.merge(shardRef(db, organizerId, s), data);
+        }
+    }
+
+    /**
+     * Returns the shard an entrant's count is kept in.
+     *
+     * @param uid - Entrant's uid
+     * @return Shard index in [0, SHARDS)
+     */
+    static int shardOf(String uid) {
+        return (uid.hashCode() & Integer.MAX_VALUE) % SHARDS;
+    }
+
+    /**
+     * Returns a history shard document.
+     *
+     * @param db - Firestore
+     * @param organizerId - Organizer
+     * @param shard - Shard index
+     * @return draw_history/{organizerId}_{shard}
+     */
+    private static DocumentReference shardRef(FirebaseFirestore db, String organizerId, int shard) {
+        return db.collection(COLLECTION).document(organizerId + "_" + shard);
+    }
+}
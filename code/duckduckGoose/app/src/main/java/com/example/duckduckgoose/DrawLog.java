@@ -0,0 +1,114 @@
+/**
+ * Record of each lottery draw and redraw, so its result can be reproduced.
+ *
+ * WeightedLottery's winners depend only on the seed, the entrants and their
+ * weights, but the weights come from DrawHistory, which the draw itself
+ * updates in the same batch. Each draw therefore writes
+ * events/{eventId}/draws/{seed in hex} with the seed, the winners, and the
+ * loss count it used for every entrant who had one (entrants not listed
+ * weighed 1). Loss counts beyond LOSSES_PER_DOC spill into the record's
+ * losses subcollection, one document per further page, so a large pool
+ * stays under the document size limit.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Static helpers for writing draw records.
+ */
+public final class DrawLog {
+
+    /** Subcollection of an event holding its draw records. */
+    static final String COLLECTION = "draws";
+
+    /** A first draw over the waiting list. */
+    public static final String KIND_DRAW = "draw";
+
+    /** A redraw for positions given up. */
+    public static final String KIND_REDRAW = "redraw";
+
+    /** Loss counts per document; like a DrawHistory shard, well under the size limit. */
+    static final int LOSSES_PER_DOC = 20000;
+
+    /** Prevents instantiation. */
+    private DrawLog() {}
+
+    /**
+     * Adds a draw's record to a batch, alongside the draw's own writes.
+     *
+     * @param batch - Batch (or outbox batch) that also writes the draw
+     * @param eventId - Event drawn for
+     * @param kind - KIND_DRAW or KIND_REDRAW
+     * @param seed - Draw seed
+     * @param organizerId - Organizer running the draw
+     * @param entrants - Waiting entrants offered to the lottery
+     * @param winners - uids selected
+     * @param losses - Loss counts the weights were computed from, by uid (positive only)
+     */
+    public static void record(BatchWriter batch, String eventId, String kind, long seed, String organizerId,
+                              int entrants, Collection<String> winners, Map<String, Integer> losses) {
+        DocumentReference ref = ref(eventId, seed);
+        List<Map<String, Integer>> pages = pages(losses);
+
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("kind", kind);
+        doc.put("seed", seed);
+        doc.put("organizerId", organizerId);
+        doc.put("entrants", entrants);
+        doc.put("winners", new ArrayList<>(winners));
+        doc.put("losses", pages.isEmpty() ? new HashMap<>() : pages.get(0));
+        doc.put("lossPages", Math.max(1, pages.size()));
+        doc.put("maxCountedLosses", DrawHistory.MAX_COUNTED_LOSSES);
+        doc.put("timestamp", Timestamp.now());
+        batch.set(ref, doc);
+        for (int p = 1; p < pages.size(); p++) {
+            Map<String, Object> page = new HashMap<>();
+            page.put("index", p);
+            page.put("losses", pages.get(p));
+            batch.set(ref.collection("losses").document(String.valueOf(p)), page);
+        }
+    }
+
+    /**
+     * Returns a draw's record document.
+     *
+     * @param eventId - Event drawn for
+     * @param seed - Draw seed
+     * @return events/{eventId}/draws/{seed in hex}
+     */
+    public static DocumentReference ref(String eventId, long seed) {
+        return FirebaseFirestore.getInstance().collection("events").document(eventId)
+                .collection(COLLECTION).document(Long.toHexString(seed));
+    }
+
+    /**
+     * Splits loss counts into pages of at most LOSSES_PER_DOC, in uid order.
+     *
+     * @param losses - Loss counts by uid
+     * @return Pages; empty if there are no counts
+     */
+    static List<Map<String, Integer>> pages(Map<String, Integer> losses) {
+        List<Map<String, Integer>> pages = new ArrayList<>();
+        Map<String, Integer> page = null;
+        for (Map.Entry<String, Integer> e : new TreeMap<>(losses).entrySet()) {
+            if (page == null || page.size() == LOSSES_PER_DOC) {
+                page = new HashMap<>();
+                pages.add(page);
+            }
+            page.put(e.getKey(), e.getValue());
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Application entry point.
+ *
+ * Installs process-wide debug tooling before the first activity starts and
+ * picks up work a previous process left unfinished.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.app.Application;
+
+/**
+ * Application subclass registered in the manifest.
+ */
+public class DuckDuckGooseApp extends Application {
+
+    /**
+     * Starts Firestore metering (debuggable builds only) and resumes event
+     * deletions that were cut short.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        FirestoreMeter.get().install(this);
+        EventDeletionPipeline.resumePending(this);
+    }
+}
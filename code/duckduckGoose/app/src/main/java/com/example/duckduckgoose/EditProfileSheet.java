@@ -102,7 +102,7 @@ public class EditProfileSheet extends BottomSheetDialogFragment {
         // load current values from firestore into the fields
         if (auth.getCurrentUser() != null) {
             String uid = auth.getCurrentUser().getUid();
-            db.collection("users").document(uid).get()
+            Metered.get(db.collection("users").document(uid))
                     .addOnSuccessListener(ds -> {
                         if (ds.exists()) {
 
@@ -188,6 +188,9 @@ public class EditProfileSheet extends BottomSheetDialogFragment {
         db.collection("users").document(uid)
                 .set(updates, SetOptions.merge())
                 .addOnSuccessListener(aVoid -> {
+                    UserRepository.get().invalidate(uid);
+                    SessionCache.updateProfile(requireContext(), uid, fullName,
+                            TextUtils.isEmpty(email) ? null : email);
                     Toast.makeText(requireContext(), "Profile updated", Toast.LENGTH_SHORT).show();
 
                     // tell whoever opened us that we saved successfully
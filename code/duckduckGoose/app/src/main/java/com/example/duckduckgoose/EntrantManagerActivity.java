@@ -146,7 +146,7 @@ public class EntrantManagerActivity extends AppCompatActivity implements Profile
      * and updates the RecyclerView with the results.
      */
     private void loadEntrantsFromFirestore() {
-        usersRef.get()
+        Metered.get(usersRef)
                 .addOnSuccessListener((QuerySnapshot querySnapshot) -> {
                     allEntrants.clear();
                     for (DocumentSnapshot ds : querySnapshot.getDocuments()) {
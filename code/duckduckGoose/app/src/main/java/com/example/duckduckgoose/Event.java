@@ -9,13 +9,12 @@
 package com.example.duckduckgoose;
 
 import android.util.Log;
-import com.example.duckduckgoose.waitlist.WaitlistEntry;
-import com.google.firebase.firestore.DocumentReference;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -46,6 +45,9 @@ public class Event {
     /** Maximum number of spots (string form). */
     private String maxSpots;
 
+    /** Most entrants the waiting list accepts, or null for no limit. */
+    private Integer waitlistCap;
+
     /** Cost string (e.g., "$10" or "Free"). */
     private String cost;
 
@@ -73,6 +75,12 @@ public class Event {
     /** Number of people who declined and are pending redraw. */
     private int redrawCount;
 
+    /** Seed of the last lottery draw, so its winners can be reproduced; null before any draw. */
+    private Long drawSeed;
+
+    /** Interest tags (labels from R.array.interest_values) used for server-side filtering. */
+    private List<String> tags;
+
     /**
      * No-arg constructor for Firestore deserialization.
      */
@@ -81,6 +89,7 @@ public class Event {
         this.acceptedFromWaitlist = new ArrayList<>();
         this.registeredUsers = new ArrayList<>();
         this.imagePaths = new ArrayList<>();
+        this.tags = new ArrayList<>();
         this.signupCount = 0;
         this.redrawCount = 0;
     }
@@ -123,6 +132,7 @@ public class Event {
         this.waitingList = new ArrayList<>();
         this.acceptedFromWaitlist = new ArrayList<>();
         this.registeredUsers = new ArrayList<>();
+        this.tags = new ArrayList<>();
         this.signupCount = 0;
         this.redrawCount = 0;
     }
@@ -229,6 +239,24 @@ public class Event {
         return maxSpots;
     }
 
+    /**
+     * Returns the waiting-list cap.
+     *
+     * @return Most entrants allowed on the waiting list, or null for no limit
+     */
+    public Integer getWaitlistCap() {
+        return waitlistCap;
+    }
+
+    /**
+     * Sets the waiting-list cap.
+     *
+     * @param waitlistCap - Most entrants allowed, or null for no limit
+     */
+    public void setWaitlistCap(Integer waitlistCap) {
+        this.waitlistCap = waitlistCap;
+    }
+
     /**
      * Returns the event cost.
      *
@@ -282,39 +310,34 @@ public class Event {
      * Updates both the event's waitlist and the user's waitlisted events.
      *
      * @param userId - The unique identifier of the user to add to waitlist
+     * @return Task resolving to the admission outcome
      */
-    public void addToWaitingList(String userId) {
-        addToWaitingList(userId, null, null);
+    public Task<WaitlistAdmission.Result> addToWaitingList(String userId) {
+        return addToWaitingList(userId, null, null);
     }
 
     /**
      * Adds a user to the waitlist with optional location data and synchronizes with Firestore.
      * Updates both the event's waitlist and the user's waitlisted events.
      *
+     * The duplicate check and the cap are enforced by the server-side
+     * admission transaction (see {@link WaitlistAdmission}), not by the
+     * local list, which may be stale.
+     *
      * @param userId - The unique identifier of the user to add to waitlist
      * @param latitude - Optional latitude coordinate
      * @param longitude - Optional longitude coordinate
+     * @return Task resolving to the admission outcome
      */
-    public void addToWaitingList(String userId, Double latitude, Double longitude) {
-        if (waitingList.contains(userId)) return;
-
-        waitingList.add(userId);
-
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
-
-        WaitlistEntry entry = new WaitlistEntry(userId, eventId, latitude, longitude);
-        batch.set(db.collection("waitlist").document(userId + "_" + eventId), entry);
-
-        batch.update(db.collection("events").document(eventId),
-                "waitingList", FieldValue.arrayUnion(userId));
-
-        batch.update(db.collection("users").document(userId),
-                "waitlistedEventIds", FieldValue.arrayUnion(eventId));
-
-        batch.commit().addOnFailureListener(e ->
-                Log.e("Event", "Failed to add to waiting list", e)
-        );
+    public Task<WaitlistAdmission.Result> addToWaitingList(String userId, Double latitude, Double longitude) {
+        return WaitlistAdmission.join(this, userId, latitude, longitude).addOnCompleteListener(t -> {
+            if (t.isSuccessful() && (t.getResult() == WaitlistAdmission.Result.JOINED
+                    || t.getResult() == WaitlistAdmission.Result.ALREADY_JOINED)) {
+                if (!waitingList.contains(userId)) waitingList.add(userId);
+            } else if (!t.isSuccessful()) {
+                Log.e("Event", "Failed to add to waiting list", t.getException());
+            }
+        });
     }
 
     /**
@@ -328,15 +351,8 @@ public class Event {
         waitingList.remove(userId);
         if (eventId == null) return;
 
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
-
-        batch.update(db.collection("events").document(eventId),
-                "waitingList", FieldValue.arrayRemove(userId));
-        batch.update(db.collection("users").document(userId),
-                "waitlistedEventIds", FieldValue.arrayRemove(eventId));
-        batch.delete(db.collection("waitlist").document(userId + "_" + eventId));
-        batch.commit().addOnFailureListener(e ->
+        // Also releases the entrant's counter slot, even if the cap was cleared since they joined
+        WaitlistAdmission.leave(eventId, userId).addOnFailureListener(e ->
                 Log.e("Event", "Failed to remove from waiting list", e)
         );
     }
@@ -375,21 +391,7 @@ public class Event {
 
         if (eventId == null) return;
 
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
-
-        DocumentReference waitlistRef = db.collection("waitlist").document(userId + "_" + eventId);
-        batch.update(waitlistRef, "status", "accepted");
-
-        batch.update(db.collection("events").document(eventId),
-                "waitingList", FieldValue.arrayRemove(userId),
-                "acceptedFromWaitlist", FieldValue.arrayUnion(userId));
-
-        batch.update(db.collection("users").document(userId),
-                "waitlistedEventIds", FieldValue.arrayRemove(eventId),
-                "acceptedEventIds", FieldValue.arrayUnion(eventId));
-
-        batch.commit()
+        WaitlistAdmission.accept(eventId, userId, Collections.emptyMap())
                 .addOnSuccessListener(aVoid -> Log.d("Event", "User accepted from waitlist"))
                 .addOnFailureListener(e -> Log.e("Event", "Failed to accept user", e));
     }
@@ -406,7 +408,7 @@ public class Event {
         if (eventId == null) return;
 
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        WriteBatch batch = db.batch();
+        Metered.Batch batch = Metered.batch();
 
         batch.update(db.collection("events").document(eventId),
                 "acceptedFromWaitlist", FieldValue.arrayRemove(userId));
@@ -455,6 +457,42 @@ public class Event {
         this.redrawCount = redrawCount;
     }
 
+    /**
+     * Returns the seed of the last lottery draw.
+     *
+     * @return Seed passed to WeightedLottery, or null before any draw
+     */
+    public Long getDrawSeed() {
+        return drawSeed;
+    }
+
+    /**
+     * Sets the seed of the last lottery draw.
+     *
+     * @param drawSeed - Seed passed to WeightedLottery
+     */
+    public void setDrawSeed(Long drawSeed) {
+        this.drawSeed = drawSeed;
+    }
+
+    /**
+     * Returns the event's interest tags.
+     *
+     * @return List of tag labels (never null)
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Sets the event's interest tags.
+     *
+     * @param tags - Tag labels; null clears all tags
+     */
+    public void setTags(List<String> tags) {
+        this.tags = tags != null ? tags : new ArrayList<>();
+    }
+
     /**
      * Adds a user to the registered list and increments the signup count.
      * Only adds the user if they are not already registered.
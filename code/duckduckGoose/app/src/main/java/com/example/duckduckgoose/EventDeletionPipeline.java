@@ -0,0 +1,158 @@
+/**
+ * Deletes an event together with everything that refers to it.
+ *
+ * The client asks the deleteEvent Cloud Function to delete the event
+ * document; the function lets the event's organizer or an administrator do
+ * so. The dependents (the event's waitlist entries, its notifications except
+ * the deletion notice sent to entrants, its waiting list counter shards, and
+ * the event id in users' waitlistedEventIds, acceptedEventIds and
+ * ownedEvents) belong to other users, whom the rules do not let a client
+ * touch. The cascadeEventDeletion function removes them with the admin SDK
+ * once the event document is gone, in batches of 500, and is retried by
+ * Cloud Functions until it completes.
+ *
+ * A deletion whose call fails for a transient reason (no connection, a
+ * timeout, an overloaded backend) is remembered on the device and retried on
+ * the next launch (see {@link #resumePending}). One the function refuses,
+ * such as a caller who is neither organizer nor administrator, is dropped.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.functions.FirebaseFunctions;
+import com.google.firebase.functions.FirebaseFunctionsException;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Requests and resumes event deletions.
+ */
+public final class EventDeletionPipeline {
+
+    /** Log tag. */
+    private static final String TAG = "EventDeletion";
+
+    /**
+     * Type of the notice telling entrants an event was deleted; kept by the
+     * cascade. Keep in sync with DELETION_NOTICE in functions/src/index.ts.
+     */
+    public static final String DELETION_NOTICE = "event_deleted";
+
+    /** Region the deletion functions are deployed to. */
+    private static final String REGION = "us-central1";
+
+    /** SharedPreferences file holding the uid that requested each unfinished deletion. */
+    private static final String PREFS = "event_deletions";
+
+    /** Prevents instantiation. */
+    private EventDeletionPipeline() {}
+
+    /**
+     * Deletes an event; its dependents are removed server-side afterwards.
+     * Deleting an event that is already gone succeeds.
+     *
+     * @param context - Any context
+     * @param eventId - Event document id
+     * @return Task resolving (on the main thread) once the event document is deleted
+     */
+    public static Task<Void> delete(Context context, String eventId) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return Tasks.forException(new IllegalStateException("Not signed in"));
+        SharedPreferences prefs = prefs(context);
+        prefs.edit().putString(eventId, user.getUid()).apply();
+
+        Map<String, Object> data = Collections.singletonMap("eventId", eventId);
+        return FirebaseFunctions.getInstance(REGION)
+                .getHttpsCallable("deleteEvent")
+                .call(data)
+                .continueWithTask(t -> {
+                    if (!t.isSuccessful()) {
+                        Exception e = t.getException();
+                        if (isPermanent(e)) {
+                            prefs.edit().remove(eventId).apply();
+                            Log.e(TAG, "Deleting event " + eventId + " was refused", e);
+                        } else {
+                            Log.e(TAG, "Deleting event " + eventId + " failed; it is retried on the next launch", e);
+                        }
+                        return Tasks.forException(e);
+                    }
+                    prefs.edit().remove(eventId).apply();
+                    EventRepository.get().invalidate(eventId);
+                    WaitlistRepository.get().invalidate(eventId);
+                    Log.i(TAG, "Deleted event " + eventId);
+                    return Tasks.forResult(null);
+                });
+    }
+
+    /**
+     * Retries the signed-in user's unfinished deletions. Cheap when there
+     * are none (a local preferences read).
+     *
+     * @param context - Any context
+     */
+    public static void resumePending(Context context) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return;
+        Context app = context.getApplicationContext();
+        AppExecutors.get().io().execute(() -> {
+            for (Map.Entry<String, ?> e : prefs(app).getAll().entrySet()) {
+                if (!user.getUid().equals(e.getValue())) continue;
+                Log.i(TAG, "Retrying deletion of " + e.getKey());
+                delete(app, e.getKey());
+            }
+        });
+    }
+
+    /**
+     * Returns whether a failed call will fail again if retried: the function
+     * refused the request rather than being unreachable or overloaded.
+     *
+     * @param e - Failure of the deleteEvent call, may be null
+     * @return True for refusals such as PERMISSION_DENIED
+     */
+    static boolean isPermanent(Exception e) {
+        return e instanceof FirebaseFunctionsException
+                && isPermanent(((FirebaseFunctionsException) e).getCode());
+    }
+
+    /**
+     * Returns whether a callable error code is a refusal.
+     *
+     * @param code - Error code
+     * @return False for codes a later retry may clear
+     */
+    static boolean isPermanent(FirebaseFunctionsException.Code code) {
+        switch (code) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+            case ABORTED:
+            case INTERNAL:
+            case UNKNOWN:
+            case CANCELLED:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the pending deletion store.
+     *
+     * @param context - Any context
+     * @return Preferences mapping event id to the requesting uid
+     */
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+}
@@ -28,24 +28,18 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
+import com.example.duckduckgoose.waitlist.EntrantStatus;
 import com.example.duckduckgoose.waitlist.WaitlistEntry;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.WriteBatch;
 import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.content.ClipboardManager;
 import android.content.ClipData;
 import android.content.Context;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.BarcodeFormat;
 
 import com.bumptech.glide.Glide;
 
@@ -100,6 +94,9 @@ public class EventDetailActivity extends AppCompatActivity {
     /** Launcher for requesting location permission. */
     private ActivityResultLauncher<String> requestPermissionLauncher;
 
+    /** Span for the detail load in flight, or null. */
+    private PerfTrace.Span detailSpan;
+
     /**
      * Initializes the layout, reads Intent extras, and wires button actions.
      *
@@ -274,8 +271,15 @@ public class EventDetailActivity extends AppCompatActivity {
     private void loadEventDetails() {
         if (db == null || eventId == null) return;
 
-        db.collection("events").document(eventId).get()
+        // A reload on resume supersedes one still in flight
+        if (detailSpan != null) detailSpan.cancel();
+        PerfTrace.Span span = PerfTrace.get().begin(PerfTrace.DETAIL_READY);
+        detailSpan = span;
+
+        Metered.get(db.collection("events").document(eventId))
                 .addOnSuccessListener(doc -> {
+                    // Nothing to show for a deleted event; drop the span
+                    if (doc == null || !doc.exists()) span.cancel();
                     if (doc != null && doc.exists()) {
                         this.currentEvent = doc.toObject(Event.class);
                         if (currentEvent != null) {
@@ -348,18 +352,16 @@ public class EventDetailActivity extends AppCompatActivity {
                             if (currentUser != null) {
                                 String uid = currentUser.getUid();
                                 // Check explicit waitlist entry for this user/event to determine status
-                                db.collection("waitlist").document(uid + "_" + eventId).get()
+                                Metered.get(db.collection("waitlist").document(uid + "_" + eventId))
                                         .addOnSuccessListener(d -> {
                                             if (d != null && d.exists()) {
-                                                String status = d.getString("status");
-                                                if (status == null) status = "waiting";
-                                                status = status.toLowerCase();
-                                                if (status.equals("selected") || status.equals("invited")) {
+                                                EntrantStatus status = EntrantStatus.of(d.getString("status"));
+                                                if (status == EntrantStatus.SELECTED || status == EntrantStatus.INVITED) {
                                                     // Organizer has selected/invited this user — show Accept / Decline
                                                     currentState = State.UNDECIDED;
-                                                } else if (status.equals("accepted")) {
+                                                } else if (status == EntrantStatus.ACCEPTED) {
                                                     currentState = State.GOOSE;
-                                                } else if (status.equals("declined") || status.equals("cancelled")) {
+                                                } else if (status == EntrantStatus.DECLINED || status == EntrantStatus.CANCELLED) {
                                                     currentState = State.DUCK;
                                                 } else if (currentEvent.isOnWaitingList(uid)) {
                                                     currentState = State.LEAVE_WAITING_LIST;
@@ -371,22 +373,27 @@ public class EventDetailActivity extends AppCompatActivity {
                                                 else currentState = State.WAITING_LIST;
                                             }
                                             applyState(currentState);
+                                            span.end();
                                         })
                                         .addOnFailureListener(e -> {
                                             if (currentEvent.isOnWaitingList(uid)) currentState = State.LEAVE_WAITING_LIST;
                                             else currentState = State.WAITING_LIST;
                                             applyState(currentState);
+                                            span.end();
                                         });
                             } else {
                                 // Not signed in
                                 currentState = State.WAITING_LIST;
                                 applyState(currentState);
+                                span.end();
                             }
                         }
                     }
                 })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Error loading event details", Toast.LENGTH_SHORT).show());
+                .addOnFailureListener(e -> {
+                    span.cancel();
+                    Toast.makeText(this, "Error loading event details", Toast.LENGTH_SHORT).show();
+                });
     }
 
     /**
@@ -536,10 +543,32 @@ public class EventDetailActivity extends AppCompatActivity {
      */
     private void performJoin(String uid, String eid, Double lat, Double lon) {
         if (currentEvent == null) return;
-        currentEvent.addToWaitingList(uid, lat, lon);
-        Toast.makeText(this, "Joined waiting list", Toast.LENGTH_SHORT).show();
-        currentState = State.LEAVE_WAITING_LIST;
-        applyState(currentState);
+        // Disabled until admitted; joins right after registration opens may be spread out
+        MaterialButton btn = findViewById(R.id.btnSingleCta);
+        if (btn != null) btn.setEnabled(false);
+        currentEvent.addToWaitingList(uid, lat, lon).addOnCompleteListener(this, t -> {
+            if (btn != null) btn.setEnabled(true);
+            if (!t.isSuccessful()) {
+                Toast.makeText(this, "Could not join the waiting list, please try again", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            switch (t.getResult()) {
+                case FULL:
+                    Toast.makeText(this, "The waiting list is full", Toast.LENGTH_SHORT).show();
+                    return;
+                case CLOSED:
+                    Toast.makeText(this, "You can no longer join this waiting list", Toast.LENGTH_SHORT).show();
+                    return;
+                case ALREADY_JOINED:
+                    Toast.makeText(this, "You are already on the waiting list", Toast.LENGTH_SHORT).show();
+                    break;
+                default:
+                    Toast.makeText(this, "Joined waiting list", Toast.LENGTH_SHORT).show();
+                    break;
+            }
+            currentState = State.LEAVE_WAITING_LIST;
+            applyState(currentState);
+        });
     }
 
     /**
@@ -552,20 +581,16 @@ public class EventDetailActivity extends AppCompatActivity {
         }
 
         // Deep link (optional): apps can register a handler for this scheme. Also provide an https fallback.
-        String deepLink = "duckduckgoose://event?eventId=" + this.eventId;
+        String deepLink = EventQr.deepLink(this.eventId);
         String webLink = "https://example.com/event?eventId=" + this.eventId;
         final String link = deepLink; // use deep link by default
 
         int size = (int) (240 * getResources().getDisplayMetrics().density);
-        QRCodeWriter writer = new QRCodeWriter();
         try {
-            BitMatrix matrix = writer.encode(link, BarcodeFormat.QR_CODE, size, size);
-            Bitmap bmp = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
-            for (int x = 0; x < size; x++) {
-                for (int y = 0; y < size; y++) {
-                    bmp.setPixel(x, y, matrix.get(x, y) ? Color.BLACK : Color.WHITE);
-                }
-            }
+            // One bulk copy instead of a setPixel call per pixel
+            int[] pixels = EventQr.encodePixels(link, size);
+            int side = (int) Math.sqrt(pixels.length);
+            Bitmap bmp = Bitmap.createBitmap(pixels, side, side, Bitmap.Config.ARGB_8888);
 
             ImageView iv = new ImageView(this);
             iv.setImageBitmap(bmp);
@@ -602,11 +627,8 @@ public class EventDetailActivity extends AppCompatActivity {
         if (currentEvent != null) {
             currentEvent.removeFromWaitingList(currentUser.getUid());
         } else {
-            WriteBatch batch = db.batch();
-            batch.update(db.collection("events").document(eventId), "waitingList", FieldValue.arrayRemove(currentUser.getUid()));
-            batch.update(db.collection("users").document(currentUser.getUid()), "waitlistedEventIds", FieldValue.arrayRemove(eventId));
-            batch.delete(db.collection("waitlist").document(currentUser.getUid() + "_" + eventId));
-            batch.commit();
+            // Releases the entrant's counter slot along with the entry
+            WaitlistAdmission.leave(eventId, currentUser.getUid());
         }
         Toast.makeText(this, "Left waiting list", Toast.LENGTH_SHORT).show();
         finish();
@@ -630,39 +652,17 @@ public class EventDetailActivity extends AppCompatActivity {
         }
 
         FirebaseFirestore firestore = db;
-        firestore.collection("users").document(uid).get()
+        Metered.get(firestore.collection("users").document(uid))
                 .addOnSuccessListener(userDoc -> {
                     final String userName = userDoc.getString("fullName");
                     final String eventName = (currentEvent != null) ? currentEvent.getName() : "Event";
 
-                    WriteBatch batch = firestore.batch();
-
-                    // Update WaitlistEntry
-                    DocumentReference waitRef = firestore.collection("waitlist").document(uid + "_" + eid);
-
-                    java.util.Map<String, Object> updates = new java.util.HashMap<>();
-                    updates.put("status", "accepted");
-                    updates.put("acceptedAt", com.google.firebase.Timestamp.now());
-                    if (userName != null) updates.put("userName", userName);
-                    if (eventName != null) updates.put("eventName", eventName);
-
-                    batch.update(waitRef, updates);
+                    java.util.Map<String, Object> fields = new java.util.HashMap<>();
+                    if (userName != null) fields.put("userName", userName);
+                    if (eventName != null) fields.put("eventName", eventName);
 
-                    // 2. Update event arrays
-                    DocumentReference eventRef = firestore.collection("events").document(eid);
-                    batch.update(eventRef,
-                            "waitingList", FieldValue.arrayRemove(uid),
-                            "acceptedFromWaitlist", FieldValue.arrayUnion(uid)
-                    );
-
-                    // 3. Update user arrays
-                    DocumentReference userRef = firestore.collection("users").document(uid);
-                    batch.update(userRef,
-                            "waitlistedEventIds", FieldValue.arrayRemove(eid),
-                            "acceptedEventIds", FieldValue.arrayUnion(eid)
-                    );
-
-                    batch.commit()
+                    // Entry, event and user arrays in one transaction that also releases the counter slot
+                    WaitlistAdmission.accept(eid, uid, fields)
                             .addOnSuccessListener(aVoid -> {
                                 Toast.makeText(this, "Successfully accepted the event!", Toast.LENGTH_SHORT).show();
                                 currentState = State.GOOSE;
@@ -786,23 +786,11 @@ public class EventDetailActivity extends AppCompatActivity {
         String uid = currentUser.getUid();
         String eid = currentEvent.getEventId();
 
-        // firestore: change status to declined
-        // we do NOT remove the document, because we want to keep a record that they declined
-        db.collection("waitlist").document(uid + "_" + eid)
-                .update("status", "declined")
+        // The entry is kept as declined (a record of the answer); the counter slot
+        // is released and redrawCount incremented so the organizer can redraw the spot
+        WaitlistAdmission.decline(eid, uid)
                 .addOnSuccessListener(v -> {
                     Toast.makeText(this, "You have declined the invitation.", Toast.LENGTH_SHORT).show();
-
-                    WriteBatch batch = db.batch();
-                    batch.update(db.collection("events").document(eid),
-                            "waitingList", FieldValue.arrayRemove(uid));
-                    // Increment redrawCount so organizer can redraw for this declined spot
-                    batch.update(db.collection("events").document(eid),
-                            "redrawCount", FieldValue.increment(1));
-                    batch.update(db.collection("users").document(uid),
-                            "waitlistedEventIds", FieldValue.arrayRemove(eid));
-                    batch.commit();
-
                     currentState = State.DUCK;
                     applyState(currentState);
                 })
@@ -11,7 +11,6 @@ package com.example.duckduckgoose;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.view.WindowInsetsController;
 import android.widget.ImageView;
@@ -27,15 +26,10 @@ import com.google.android.material.button.MaterialButton;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.WriteBatch;
-import com.google.firebase.firestore.FieldValue;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
 
 /**
  * Activity for administrative actions on a specific event.
@@ -186,7 +180,7 @@ public class EventDetailsAdminActivity extends AppCompatActivity {
      */
     private void loadEvent() {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        db.collection("events").document(this.eventId).get()
+        Metered.get(db.collection("events").document(this.eventId))
                 .addOnSuccessListener((DocumentSnapshot doc) -> {
                     if (doc != null && doc.exists()) {
                         Event event = doc.toObject(Event.class);
@@ -288,7 +282,7 @@ public class EventDetailsAdminActivity extends AppCompatActivity {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
 
         // Fetch event to gather entrant lists
-        db.collection("events").document(eventId).get()
+        Metered.get(db.collection("events").document(eventId))
                 .addOnSuccessListener(doc -> {
                     if (doc == null || !doc.exists()) {
                         Toast.makeText(this, "Event not found", Toast.LENGTH_SHORT).show();
@@ -314,59 +308,39 @@ public class EventDetailsAdminActivity extends AppCompatActivity {
                     List<String> unique = new ArrayList<>();
                     for (String u : recipients) if (!unique.contains(u)) unique.add(u);
 
-                    final int total = unique.size();
-                    final int[] done = {0};
-
                     String message = "The event '" + (title != null ? title : "(untitled)") + "' has been deleted by an administrator.";
 
-                    if (total == 0) {
+                    if (unique.isEmpty()) {
                         // No recipients; proceed to delete
                         deleteEventDoc(db, eventId, title);
                         return;
                     }
 
-                    for (String uid : unique) {
-                        Map<String, Object> notif = new HashMap<>();
-                        notif.put("userId", uid);
-                        notif.put("message", message);
-                        notif.put("eventId", eventId);
-                        notif.put("sentBy", adminUid);
-                        notif.put("timestamp", com.google.firebase.Timestamp.now());
-
-                        db.collection("notifications").add(notif)
-                                .addOnSuccessListener(r -> {
-                                    done[0]++;
-                                    if (done[0] >= total) {
-                                        // After notifications created, delete the event
-                                        deleteEventDoc(db, eventId, title);
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    done[0]++;
-                                    // even on failure continue; once all attempted, delete event
-                                    if (done[0] >= total) {
-                                        deleteEventDoc(db, eventId, title);
-                                    }
-                                });
-                    }
+                    Metered.Batch batch = Metered.batch();
+                    // Typed as the deletion notice so the cascade keeps it
+                    NotificationBatch send = new NotificationBatch(eventId, message, adminUid,
+                            EventDeletionPipeline.DELETION_NOTICE);
+                    for (String uid : unique) send.addRecipient(batch, uid);
+                    send.finish(batch);
+
+                    // After notifications are created (or failed), delete the event
+                    batch.commit().addOnCompleteListener(t -> deleteEventDoc(db, eventId, title));
                 })
                 .addOnFailureListener(e -> Toast.makeText(this, "Failed to fetch event: " + e.getMessage(), Toast.LENGTH_SHORT).show());
     }
 
     /**
-     * Deletes the event document from Firestore and returns a result to the caller.
-     * Sets the activity result to indicate successful deletion before finishing.
+     * Deletes the event through EventDeletionPipeline (its dependents are removed
+     * server-side) and returns a result to the caller. Sets the activity result to
+     * indicate successful deletion before finishing.
      *
      * @param db - Firestore database instance
      * @param eventId - The unique identifier of the event to delete
      * @param title - The event title to include in the result
      */
     private void deleteEventDoc(FirebaseFirestore db, String eventId, String title) {
-        db.collection("events").document(eventId).delete()
-                .addOnSuccessListener(aVoid -> {
-                    // Remove this event from all users' lists
-                    cleanupUsersForDeletedEvent(eventId);
-
+        EventDeletionPipeline.delete(this, eventId)
+                .addOnSuccessListener(written -> {
                     Toast.makeText(this, "Event deleted and entrants notified", Toast.LENGTH_SHORT).show();
                     Intent result = new Intent();
                     result.putExtra("eventId", eventId);
@@ -376,56 +350,7 @@ public class EventDetailsAdminActivity extends AppCompatActivity {
                     finish();
                 })
                 .addOnFailureListener(e ->
-                        Toast.makeText(this, "Failed to delete event: " + e.getMessage(), Toast.LENGTH_LONG).show());
-    }
-
-
-    private void cleanupUsersForDeletedEvent(String eventId) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        CollectionReference usersRef = db.collection("users");
-
-        // 1) Remove from waitlistedEventIds
-        usersRef.whereArrayContains("waitlistedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "waitlistedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean waitlistedEventIds", e));
-                });
-
-        // 2) Remove from acceptedEventIds
-        usersRef.whereArrayContains("acceptedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "acceptedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean acceptedEventIds", e));
-                });
-      
-        usersRef.whereArrayContains("ownedEvents", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "ownedEvents",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean ownedEvents", e));
-                });
+                        Toast.makeText(this, "Failed to delete event: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show());
     }
 }
\ No newline at end of file
@@ -20,9 +20,8 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.bumptech.glide.Glide;
-import com.google.firebase.firestore.CollectionReference;
+import com.example.duckduckgoose.waitlist.EntrantStatus;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import androidx.activity.EdgeToEdge;
@@ -32,7 +31,6 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.material.button.MaterialButton;
-import com.google.firebase.firestore.WriteBatch;
 
 import java.util.List;
 
@@ -164,14 +162,9 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
                         .setTitle("Delete event?")
                         .setMessage("This will permanently delete the event and its details. This action cannot be undone.")
                         .setPositiveButton("Delete", (DialogInterface dlg, int which) -> {
-                            FirebaseFirestore db = FirebaseFirestore.getInstance();
-                            db.collection("events")
-                                    .document(eventId)
-                                    .delete()
-                                    .addOnSuccessListener(aVoid -> {
-                                        // 🔥 clean up user arrays (waitlisted, accepted, owned)
-                                        cleanupUsersForDeletedEvent(eventId);
-
+                            // Deletes the event; its waitlist, notifications and user references follow server-side
+                            EventDeletionPipeline.delete(this, eventId)
+                                    .addOnSuccessListener(written -> {
                                         Intent data = new Intent();
                                         data.putExtra("eventId", eventId);
                                         data.putExtra("deleted", true);
@@ -180,7 +173,8 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
                                         finish();
                                     })
                                     .addOnFailureListener(e ->
-                                            Toast.makeText(this, "Failed to delete: " + e.getMessage(), Toast.LENGTH_LONG).show()
+                                            Toast.makeText(this, "Failed to delete event: " + e.getMessage(),
+                                                    Toast.LENGTH_LONG).show()
                                     );
                         })
                         .setNegativeButton("Cancel", null)
@@ -212,7 +206,7 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
      */
     private void loadEvent() {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
-        db.collection("events").document(this.eventId).get()
+        Metered.get(db.collection("events").document(this.eventId))
                 .addOnSuccessListener((DocumentSnapshot doc) -> {
                     if (doc != null && doc.exists()) {
                         Event event = doc.toObject(Event.class);
@@ -294,9 +288,8 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
                             });
                         }
                         // Also load a quick invitation summary for organizer: invited/accepted/rejected counts
-                        db.collection("waitlist")
-                                .whereEqualTo("eventId", this.eventId)
-                                .get()
+                        Metered.get(db.collection("waitlist")
+                                .whereEqualTo("eventId", this.eventId))
                                 .addOnSuccessListener(snap -> {
                                     if (snap == null || snap.isEmpty()) {
                                         if (txtInviteSummary != null) txtInviteSummary.setVisibility(View.GONE);
@@ -304,12 +297,10 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
                                     }
                                     int invited = 0, accepted = 0, rejected = 0;
                                     for (DocumentSnapshot d : snap.getDocuments()) {
-                                        String status = d.getString("status");
-                                        if (status == null) status = "waiting";
-                                        status = status.toLowerCase();
-                                        if (status.equals("selected") || status.equals("invited")) invited++;
-                                        else if (status.equals("accepted")) accepted++;
-                                        else if (status.equals("declined") || status.equals("cancelled")) rejected++;
+                                        EntrantStatus status = EntrantStatus.of(d.getString("status"));
+                                        if (status == EntrantStatus.SELECTED || status == EntrantStatus.INVITED) invited++;
+                                        else if (status == EntrantStatus.ACCEPTED) accepted++;
+                                        else if (status == EntrantStatus.DECLINED || status == EntrantStatus.CANCELLED) rejected++;
                                     }
                                     if (txtInviteSummary != null) {
                                         txtInviteSummary.setText("Invited: " + invited + "  Accepted: " + accepted + "  Rejected: " + rejected);
@@ -334,55 +325,6 @@ public class EventDetailsOrganizerActivity extends AppCompatActivity {
                 );
     }
 
-    private void cleanupUsersForDeletedEvent(String eventId) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        CollectionReference usersRef = db.collection("users");
-
-        // 1) Remove from waitlistedEventIds
-        usersRef.whereArrayContains("waitlistedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "waitlistedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    android.util.Log.e("EventCleanup", "Failed to clean waitlistedEventIds", e));
-                });
-
-        // 2) Remove from acceptedEventIds
-        usersRef.whereArrayContains("acceptedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "acceptedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    android.util.Log.e("EventCleanup", "Failed to clean acceptedEventIds", e));
-                });
-
-        // 3) Also strip it from ownedEvents everywhere
-        usersRef.whereArrayContains("ownedEvents", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "ownedEvents",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    android.util.Log.e("EventCleanup", "Failed to clean ownedEvents", e));
-                });
-    }
     /**
      * Handles the optional XML onClick to navigate back.
      *
@@ -38,13 +38,14 @@ import androidx.cardview.widget.CardView;
 
 import com.bumptech.glide.Glide;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
@@ -88,6 +89,9 @@ public class EventEditActivity extends AppCompatActivity {
     /** Text input field for maximum number of spots. */
     private EditText edtSpots;
 
+    /** Text input field for the optional waiting-list limit. */
+    private EditText edtWaitlistCap;
+
     /** Text input field for event cost. */
     private EditText edtCost;
 
@@ -103,6 +107,9 @@ public class EventEditActivity extends AppCompatActivity {
     /** Checkbox to toggle geolocation requirement for the event. */
     private CheckBox chkGeolocation;
 
+    /** Chip group of selectable interest tags. */
+    private ChipGroup chipGroupTags;
+
     /** Container layout for displaying selected images. */
     private LinearLayout imageContainer;
 
@@ -228,11 +235,14 @@ public class EventEditActivity extends AppCompatActivity {
         edtEventName = findViewById(R.id.edtEventName);
         edtDescription = findViewById(R.id.edtDescription);
         edtSpots = findViewById(R.id.edtSpots);
+        edtWaitlistCap = findViewById(R.id.edtWaitlistCap);
         edtCost = findViewById(R.id.edtCost);
         txtEventDate = findViewById(R.id.txtEventDate);
         txtRegOpens = findViewById(R.id.txtRegOpens);
         txtRegCloses = findViewById(R.id.txtRegCloses);
         chkGeolocation = findViewById(R.id.chkGeolocation);
+        chipGroupTags = findViewById(R.id.chipGroupTags);
+        buildTagChips();
 
         imageContainer = findViewById(R.id.imageContainer);
         sheetImageSelect = findViewById(R.id.sheetImageSelect);
@@ -245,6 +255,63 @@ public class EventEditActivity extends AppCompatActivity {
         btnAddImage = findViewById(R.id.btnAddImage);
     }
 
+    /**
+     * Adds one checkable chip per interest (skipping the "All" filter entry).
+     */
+    private void buildTagChips() {
+        if (chipGroupTags == null) return;
+        for (String interest : getResources().getStringArray(R.array.interest_values)) {
+            if (interest.equals("All")) continue;
+            Chip chip = new Chip(this);
+            chip.setText(interest);
+            chip.setCheckable(true);
+            chipGroupTags.addView(chip);
+        }
+    }
+
+    /**
+     * Returns the waiting-list limit entered, if any.
+     *
+     * @return Limit, null when left blank, or 0 when it is not a valid number
+     */
+    private Integer getWaitlistCap() {
+        String cap = edtWaitlistCap.getText().toString().trim();
+        if (cap.isEmpty()) return null;
+        try {
+            return Integer.parseInt(cap);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the labels of all checked tag chips.
+     *
+     * @return Selected tags, possibly empty
+     */
+    private List<String> getSelectedTags() {
+        List<String> tags = new ArrayList<>();
+        if (chipGroupTags == null) return tags;
+        for (int i = 0; i < chipGroupTags.getChildCount(); i++) {
+            Chip chip = (Chip) chipGroupTags.getChildAt(i);
+            if (chip.isChecked()) tags.add(chip.getText().toString());
+        }
+        return tags;
+    }
+
+    /**
+     * Checks the chips matching the given tags.
+     *
+     * @param tags - Tags stored on the event
+     */
+    private void setSelectedTags(List<String> tags) {
+        if (chipGroupTags == null || tags == null) return;
+        for (int i = 0; i < chipGroupTags.getChildCount(); i++) {
+            Chip chip = (Chip) chipGroupTags.getChildAt(i);
+            chip.setChecked(tags.contains(chip.getText().toString()));
+        }
+    }
+
     /**
      * Wires up button and field click listeners for UI actions.
      */
@@ -393,7 +460,7 @@ public class EventEditActivity extends AppCompatActivity {
         Intent intent = getIntent();
 
         if (eventId != null) {
-            eventsRef.document(eventId).get()
+            Metered.get(eventsRef.document(eventId))
                     .addOnSuccessListener(doc -> {
                         if (doc != null && doc.exists()) {
                             Event event = doc.toObject(Event.class);
@@ -404,6 +471,8 @@ public class EventEditActivity extends AppCompatActivity {
                                     edtDescription.setText(event.getDescription());
                                 if (event.getMaxSpots() != null)
                                     edtSpots.setText(event.getMaxSpots());
+                                if (event.getWaitlistCap() != null)
+                                    edtWaitlistCap.setText(String.valueOf(event.getWaitlistCap()));
                                 if (event.getCost() != null) {
                                     String cost = event.getCost().replace("$", "").trim();
                                     if (!cost.equals("Free") && !cost.equals("—")) edtCost.setText(cost);
@@ -412,6 +481,7 @@ public class EventEditActivity extends AppCompatActivity {
                                 if (event.getRegistrationOpens() != null) txtRegOpens.setText(event.getRegistrationOpens());
                                 if (event.getRegistrationCloses() != null) txtRegCloses.setText(event.getRegistrationCloses());
                                 chkGeolocation.setChecked(event.isGeolocationEnabled());
+                                setSelectedTags(event.getTags());
 
                                 if (event.getImagePaths() != null) {
                                     imagePaths.clear();
@@ -476,6 +546,8 @@ public class EventEditActivity extends AppCompatActivity {
         Event newEvent = new Event(
                 newEventId, name, description, eventDateStr, regOpensStr, regClosesStr, spots, cost, geolocation, imagePaths
         );
+        newEvent.setTags(getSelectedTags());
+        newEvent.setWaitlistCap(getWaitlistCap());
 
         // Attach organizerId to event if user is logged in
         FirebaseUser fu = null;
@@ -489,7 +561,7 @@ public class EventEditActivity extends AppCompatActivity {
         }
 
         // Use a batch so event creation + ownedEvents update happen together
-        WriteBatch batch = db.batch();
+        Metered.Batch batch = Metered.batch();
 
         DocumentReference eventRef = eventsRef.document(newEventId);
         batch.set(eventRef, newEvent);
@@ -500,8 +572,11 @@ public class EventEditActivity extends AppCompatActivity {
             batch.update(userRef, "ownedEvents", FieldValue.arrayUnion(newEventId));
         }
 
+        final String ownerUid = fu != null ? fu.getUid() : null;
         batch.commit()
                 .addOnSuccessListener(aVoid -> {
+                    EventRepository.get().invalidate(newEventId);
+                    UserRepository.get().invalidate(ownerUid);
                     Intent result = new Intent();
                     result.putExtra("eventId", newEventId);
                     setResult(RESULT_OK, result);
@@ -536,6 +611,8 @@ public class EventEditActivity extends AppCompatActivity {
                 Event updated = new Event(
                         eventId, name, description, eventDateStr, regOpensStr, regClosesStr, spots, cost, geolocation, imagePaths
                 );
+                updated.setTags(getSelectedTags());
+                updated.setWaitlistCap(getWaitlistCap());
 
                 try {
                     com.google.firebase.auth.FirebaseUser fu =
@@ -546,6 +623,7 @@ public class EventEditActivity extends AppCompatActivity {
                 eventsRef.document(eventId)
                         .set(updated)
                         .addOnSuccessListener(aVoid -> {
+                            EventRepository.get().invalidate(eventId);
                             Intent result = new Intent();
                             result.putExtra("eventId", eventId);
                             setResult(RESULT_OK, result);
@@ -561,12 +639,13 @@ public class EventEditActivity extends AppCompatActivity {
     }
 
     /**
-     * Deletes the current event document from Firestore.
+     * Deletes the current event along with its waitlist, notifications and
+     * user references (see EventDeletionPipeline).
      */
     private void deleteEvent() {
         if (eventId != null) {
-            eventsRef.document(eventId).delete()
-                    .addOnSuccessListener(aVoid -> {
+            EventDeletionPipeline.delete(this, eventId)
+                    .addOnSuccessListener(written -> {
                         Intent result = new Intent();
                         result.putExtra("eventId", eventId);
                         result.putExtra("deleted", true);
@@ -575,7 +654,8 @@ public class EventEditActivity extends AppCompatActivity {
                         finish();
                     })
                     .addOnFailureListener(e ->
-                            Toast.makeText(this, "Failed to delete: " + e.getMessage(), Toast.LENGTH_LONG).show());
+                            Toast.makeText(this, "Failed to delete event: " + e.getMessage(),
+                                    Toast.LENGTH_LONG).show());
         } else {
             Toast.makeText(this, "Event deleted", Toast.LENGTH_SHORT).show();
             finish();
@@ -624,6 +704,14 @@ public class EventEditActivity extends AppCompatActivity {
             return false;
         }
 
+        // the waiting list limit is optional, but must be at least 1 when given
+        Integer waitlistCap = getWaitlistCap();
+        if (waitlistCap != null && waitlistCap < 1) {
+            Toast.makeText(this, "Waiting list limit must be at least 1", Toast.LENGTH_SHORT).show();
+            edtWaitlistCap.requestFocus();
+            return false;
+        }
+
         // verify that the Cost field is not empty
         if (cost.isEmpty()) {
             Toast.makeText(this, "Please enter the event cost (or enter 0 for free)", Toast.LENGTH_SHORT).show();
@@ -0,0 +1,104 @@
+/**
+ * Parsing for the free-text date and cost fields stored on events.
+ *
+ * Kept free of Android and Firebase types so the same code runs in the app
+ * and in the JVM benchmarks module.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Static date and cost parsers with per-thread formatters.
+ */
+public final class EventFieldParser {
+
+    /** Date patterns accepted for event and registration dates, tried in order. */
+    private static final String[] DATE_PATTERNS =
+            {"MM/dd/yy", "MM/dd/yyyy", "MMM d, yyyy", "MMM d", "MMM dd", "yyyy-MM-dd"};
+
+    /** Sentinel for a missing or unparseable date. */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    /**
+     * Per-thread formatters; SimpleDateFormat is not thread-safe. An
+     * initialValue override rather than ThreadLocal.withInitial, which needs
+     * API 26.
+     */
+    private static final ThreadLocal<SimpleDateFormat[]> FORMATTERS = new ThreadLocal<SimpleDateFormat[]>() {
+        @Override
+        protected SimpleDateFormat[] initialValue() {
+            SimpleDateFormat[] fmts = new SimpleDateFormat[DATE_PATTERNS.length];
+            for (int i = 0; i < DATE_PATTERNS.length; i++) {
+                fmts[i] = new SimpleDateFormat(DATE_PATTERNS[i], Locale.US);
+                fmts[i].setLenient(false);
+            }
+            return fmts;
+        }
+    };
+
+    /** Prevents instantiation. */
+    private EventFieldParser() {}
+
+    /**
+     * Parses a date string using the first matching supported pattern.
+     *
+     * @param s - Date string (e.g. "03/14/25" or "Mar 14, 2025")
+     * @return Epoch millis, or {@link #NO_DATE} if missing or unparseable
+     */
+    public static long parseDateMillis(String s) {
+        if (s == null) return NO_DATE;
+        String trimmed = s.trim();
+        if (trimmed.isEmpty()) return NO_DATE;
+        for (SimpleDateFormat fmt : FORMATTERS.get()) {
+            ParsePosition pos = new ParsePosition(0);
+            Date d = fmt.parse(trimmed, pos);
+            if (d != null && pos.getIndex() == trimmed.length()) return d.getTime();
+        }
+        return NO_DATE;
+    }
+
+    /**
+     * Parses a cost label (for example, "$25" or "Free") into a numeric value.
+     *
+     * @param costStr - Cost label
+     * @return Numeric cost (Free -> 0); unknown or invalid values -> Double.MAX_VALUE
+     */
+    public static double parseCost(String costStr) {
+        if (costStr == null) return Double.MAX_VALUE;
+        String s = costStr.trim().toLowerCase(Locale.ROOT);
+        if (s.isEmpty()) return Double.MAX_VALUE;
+        if (s.contains("free") || s.equals("—")) return 0.0;
+        // remove currency symbols and non-numeric except dot
+        String num = s.replaceAll("[^0-9.]", "");
+        if (num.isEmpty()) return Double.MAX_VALUE;
+        try {
+            return Double.parseDouble(num);
+        } catch (NumberFormatException ex) {
+            return Double.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Parses a spots value (for example, "20", or "5/20" as passed between screens).
+     *
+     * @param spotsStr - Spots string
+     * @return Maximum spots; 0 when missing or invalid
+     */
+    public static int parseSpots(String spotsStr) {
+        if (spotsStr == null) return 0;
+        String s = spotsStr.trim();
+        int slash = s.lastIndexOf('/');
+        if (slash >= 0) s = s.substring(slash + 1).trim();
+        try {
+            return Math.max(0, Integer.parseInt(s));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
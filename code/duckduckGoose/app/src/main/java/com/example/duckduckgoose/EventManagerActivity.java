@@ -21,16 +21,10 @@ import android.widget.AutoCompleteTextView;
 import androidx.activity.EdgeToEdge;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import android.util.Log;
-import java.util.Collections;
-import java.util.Comparator;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.widget.EditText;
@@ -38,11 +32,6 @@ import android.widget.Toast;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
-import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QuerySnapshot;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -61,6 +50,9 @@ public class EventManagerActivity extends AppCompatActivity {
     /** Request code for launching event details expecting a result. */
     private static final int EVENT_DETAILS_REQUEST = 1;
 
+    /** Maximum number of search suggestions shown in the dropdown. */
+    private static final int MAX_SUGGESTIONS = 20;
+
     /** Working list backing the RecyclerView (changes with search/sort). */
     private List<Event> events;
 
@@ -70,20 +62,30 @@ public class EventManagerActivity extends AppCompatActivity {
     /** RecyclerView adapter responsible for binding event data to views. */
     private EventManagerAdapter adapter;
 
-    /** Firestore database instance. */
-    private FirebaseFirestore db;
-
-    /** Reference to the "events" collection in Firestore. */
-    private CollectionReference eventsRef;
-
     /** Search dropdown for quick navigation to an event by name. */
     private AutoCompleteTextView dropSearch;
 
     /** Optional organizer filter: if non-null, only show events owned by this organizer. */
     private String filterOrganizerEmail;
 
-    /** Reference to the "users" collection (for ownedEvents lookup). */
-    private CollectionReference usersRef;
+    /**
+     * Background runner applying search and sort together; each new search text,
+     * sort selection or load supersedes the previous request, so only the
+     * newest result reaches the list.
+     */
+    private final FilterSortPipeline<Event> listPipeline = new FilterSortPipeline<>();
+
+    /** Selected sort label, or null to keep search rank (or load) order. */
+    private String sortLabel;
+
+    /** Trigram/prefix index over event names and descriptions. */
+    private final EventSearchIndex searchIndex = new EventSearchIndex();
+
+    /** Number of the latest event list handed to the search index; main thread only. */
+    private long indexVersion;
+
+    /** Loaded events, retained across configuration changes. */
+    private EventManagerViewModel viewModel;
 
     /**
      * Initializes the activity and sets up UI components.
@@ -121,8 +123,8 @@ public class EventManagerActivity extends AppCompatActivity {
             finish();
             return;
         }
-        // Optionally verify accountType == Admin from users collection
-        FirebaseFirestore.getInstance().collection("users").document(currentUser.getUid()).get()
+        // Optionally verify accountType == Admin from users collection (cached across rotations)
+        UserRepository.get().getUserDoc(currentUser.getUid())
                 .addOnSuccessListener(doc -> {
                     if (doc != null && doc.exists()) {
                         String acct = doc.getString("accountType");
@@ -157,40 +159,16 @@ public class EventManagerActivity extends AppCompatActivity {
             dropSort.setOnItemClickListener((parent, view, position, id) -> {
                 String sel = (String) parent.getItemAtPosition(position);
                 if (sel == null) return;
-                switch (sel) {
-                    case "Date (Soonest)":
-                        sortByEventDate(true);
-                        break;
-                    case "Date (Latest)":
-                        sortByEventDate(false);
-                        break;
-                    case "Registration Opens":
-                        sortByRegistrationOpens();
-                        break;
-                    case "Registration Deadline":
-                        sortByRegistrationCloses();
-                        break;
-                    case "Cost":
-                        sortByCost();
-                        break;
-                }
-                adapter.notifyDataSetChanged();
-                if (allEvents != null) {
-                    // keep search list in same order
-                    allEvents.clear();
-                    allEvents.addAll(events);
-                    if (dropSearch != null) {
-                        List<String> names = new ArrayList<>();
-                        for (Event ev : allEvents) if (ev.getName() != null) names.add(ev.getName());
-                        ArrayAdapter<String> searchAdapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, names);
-                        dropSearch.setAdapter(searchAdapter);
-                    }
-                }
+                sortLabel = sel;
+                applySearchAndSort();
             });
         }
 
-        // Search dropdown (admin)
+        // Search dropdown (admin): suggestions are ranked by the search index
         dropSearch = findViewById(R.id.dropSearchEvents);
+        if (dropSearch != null) {
+            dropSearch.setAdapter(new EventSuggestionAdapter(this, searchIndex, MAX_SUGGESTIONS));
+        }
 
         // Event list
         RecyclerView rv = findViewById(R.id.rvEvents);
@@ -208,11 +186,6 @@ public class EventManagerActivity extends AppCompatActivity {
             });
             rv.setAdapter(adapter);
 
-            // Initialize Firestore and collections
-            db = FirebaseFirestore.getInstance();
-            eventsRef = db.collection("events");
-            usersRef = db.collection("users");
-
             // Load events (filtered or all)
             loadEventsFromFirestore();
 
@@ -238,18 +211,7 @@ public class EventManagerActivity extends AppCompatActivity {
                 edt.addTextChangedListener(new TextWatcher() {
                     @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
                     @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                        String q = s.toString().toLowerCase();
-                        events.clear();
-                        if (q.isEmpty()) {
-                            events.addAll(allEvents);
-                        } else {
-                            for (Event ev : allEvents) {
-                                if (ev.getName() != null && ev.getName().toLowerCase().contains(q)) {
-                                    events.add(ev);
-                                }
-                            }
-                        }
-                        adapter.notifyDataSetChanged();
+                        applySearchAndSort();
                     }
                     @Override public void afterTextChanged(Editable s) {}
                 });
@@ -258,243 +220,88 @@ public class EventManagerActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads events from Firestore.
-     * If filterOrganizerUserId is set, only loads events in that user's ownedEvents list.
-     * Otherwise, loads all events.
+     * Loads events through the ViewModel, which keeps them across rotations.
+     * If filterOrganizerEmail is set, only that organizer's ownedEvents are shown;
+     * otherwise all events.
      */
     private void loadEventsFromFirestore() {
-        // If we have a userId to filter by, load that user's ownedEvents
-        if (filterOrganizerEmail != null && !filterOrganizerEmail.trim().isEmpty()) {
-            usersRef.whereEqualTo("email", filterOrganizerEmail)
-                    .limit(1)
-                    .get()
-                    .addOnSuccessListener(userSnap -> {
-                        if (userSnap.isEmpty()) {
-                            // No such user -> just show empty list
-                            events.clear();
-                            if (allEvents == null) allEvents = new ArrayList<>();
-                            allEvents.clear();
-                            adapter.notifyDataSetChanged();
-                            if (dropSearch != null) {
-                                dropSearch.setAdapter(null);
-                                dropSearch.setEnabled(false);
-                            }
-                            return;
-                        }
-
-                        DocumentSnapshot userDoc = userSnap.getDocuments().get(0);
-
-                        @SuppressWarnings("unchecked")
-                        List<String> ownedEvents = (List<String>) userDoc.get("ownedEvents");
-
-                        if (ownedEvents == null || ownedEvents.isEmpty()) {
-                            // User has no owned events
-                            events.clear();
-                            if (allEvents == null) allEvents = new ArrayList<>();
-                            allEvents.clear();
-                            adapter.notifyDataSetChanged();
-                            if (dropSearch != null) {
-                                dropSearch.setAdapter(null);
-                                dropSearch.setEnabled(false);
-                            }
-                            return;
-                        }
-
-                        // Fetch each event by its document ID in ownedEvents
-                        events.clear();
-                        if (allEvents == null) allEvents = new ArrayList<>();
-                        allEvents.clear();
-
-                        final int total = ownedEvents.size();
-                        final List<Event> temp = new ArrayList<>();
-
-                        for (String eventId : ownedEvents) {
-                            if (eventId == null || eventId.trim().isEmpty()) continue;
-
-                            eventsRef.document(eventId)
-                                    .get()
-                                    .addOnSuccessListener(evDoc -> {
-                                        if (evDoc != null && evDoc.exists()) {
-                                            Event e = evDoc.toObject(Event.class);
-                                            if (e != null) {
-                                                if (e.getEventId() == null) e.setEventId(evDoc.getId());
-                                                temp.add(e);
-                                            }
-                                        }
-                                    })
-                                    .addOnCompleteListener(task -> {
-                                        // When all requests have completed, update UI
-                                        if (temp.size() + (total - ownedEvents.size()) >= total) {
-                                            events.clear();
-                                            allEvents.clear();
-                                            events.addAll(temp);
-                                            allEvents.addAll(temp);
-                                            adapter.notifyDataSetChanged();
-
-                                            if (dropSearch != null) {
-                                                List<String> names = new ArrayList<>();
-                                                for (Event ev : allEvents)
-                                                    if (ev.getName() != null) names.add(ev.getName());
-                                                ArrayAdapter<String> searchAdapter =
-                                                        new ArrayAdapter<>(this,
-                                                                android.R.layout.simple_dropdown_item_1line,
-                                                                names);
-                                                dropSearch.setAdapter(searchAdapter);
-                                                dropSearch.setEnabled(true);
-                                            }
-                                        }
-                                    });
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e("EventManager", "Failed to load ownedEvents user", e);
-                        Toast.makeText(this, "Failed to load organizer's events", Toast.LENGTH_SHORT).show();
-                    });
-
-        } else {
-            // Original behavior: load all events
-            eventsRef.get()
-                    .addOnSuccessListener((QuerySnapshot querySnapshot) -> {
-                        events.clear();
-                        if (allEvents == null) allEvents = new ArrayList<>();
-                        allEvents.clear();
-                        for (DocumentSnapshot ds : querySnapshot.getDocuments()) {
-                            Event e = ds.toObject(Event.class);
-                            if (e != null) {
-                                // Ensure eventId is populated from the document id
-                                if (e.getEventId() == null) e.setEventId(ds.getId());
-                                events.add(e);
-                                allEvents.add(e);
-                            } else {
-                                Log.w("EventManager", "Document returned null Event: " + ds.getId());
-                            }
-                        }
-                        adapter.notifyDataSetChanged();
-
-                        // Populate search suggestions (event names)
-                        if (dropSearch != null && allEvents != null) {
-                            List<String> names = new ArrayList<>();
-                            for (Event ev : allEvents) if (ev.getName() != null) names.add(ev.getName());
-                            ArrayAdapter<String> searchAdapter = new ArrayAdapter<>(this,
-                                    android.R.layout.simple_dropdown_item_1line, names);
-                            dropSearch.setAdapter(searchAdapter);
-                            dropSearch.setEnabled(true);
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e("EventManager", "Failed to load events", e);
-                    });
-        }
+        viewModel = new ViewModelProvider(this).get(EventManagerViewModel.class);
+        viewModel.load(filterOrganizerEmail);
+        viewModel.getEvents().observe(this, this::showEvents);
+        viewModel.getError().observe(this, msg -> Toast.makeText(this, msg, Toast.LENGTH_SHORT).show());
     }
 
     /**
-     * Attempts to parse a date string using several common formats.
-     * Supported formats include "MM/dd/yy", "MM/dd/yyyy", "MMM d, yyyy",
-     * "MMM d", "MMM dd", and "yyyy-MM-dd".
+     * Replaces the displayed events, keeping any search text and sort applied.
      *
-     * @param s - The date string to parse
-     * @return A Date object if parsing succeeds, null otherwise
+     * @param loaded - Events from the ViewModel (not modified here)
      */
-    private Date parseDate(String s) {
-        if (s == null) return null;
-        String trimmed = s.trim();
-        String[] patterns = {"MM/dd/yy", "MM/dd/yyyy", "MMM d, yyyy", "MMM d", "MMM dd", "yyyy-MM-dd"};
-        for (String p : patterns) {
-            try {
-                SimpleDateFormat fmt = new SimpleDateFormat(p, Locale.US);
-                return fmt.parse(trimmed);
-            } catch (ParseException ignored) {}
-        }
-        return null;
-    }
+    private void showEvents(List<Event> loaded) {
+        if (allEvents == null) allEvents = new ArrayList<>();
+        allEvents.clear();
+        allEvents.addAll(loaded);
 
-    /**
-     * Normalizes a cost string to a numeric value for sorting purposes.
-     * Handles currency symbols, "Free", and invalid formats.
-     *
-     * @param s - Cost string (e.g., "$15", "Free", "CAD 12.50")
-     * @return Numeric value of the cost, 0.0 for "Free", MAX_VALUE for invalid/null
-     */
-    private double parseCost(String s) {
-        if (s == null) return Double.MAX_VALUE;
-        String trimmed = s.trim();
-        if (trimmed.equalsIgnoreCase("free") || trimmed.equalsIgnoreCase("—")) return 0.0;
-        // remove non-digit and non-dot
-        String cleaned = trimmed.replaceAll("[^0-9.]", "");
-        if (cleaned.isEmpty()) return Double.MAX_VALUE;
-        try {
-            return Double.parseDouble(cleaned);
-        } catch (NumberFormatException ex) {
-            return Double.MAX_VALUE;
-        }
+        // Index names and descriptions for search suggestions
+        syncSearchIndex();
     }
 
     /**
-     * Sorts the events list by event date.
-     * Null dates are sorted to the end of the list.
-     *
-     * @param ascending - true for chronological order (soonest first),
-     *                    false for reverse chronological order
+     * Rebuilds the displayed list from allEvents with the current search text and
+     * sort selection, on the compute pool. Search and sort run as one request, so
+     * a search result can never overwrite a later sort or the other way round.
      */
-    private void sortByEventDate(boolean ascending) {
-        Comparator<Event> cmp = (a, b) -> {
-            Date da = parseDate(a.getEventDate());
-            Date db = parseDate(b.getEventDate());
-            if (da == null && db == null) return 0;
-            if (da == null) return 1;
-            if (db == null) return -1;
-            return da.compareTo(db);
-        };
-        if (!ascending) cmp = cmp.reversed();
-        Collections.sort(events, cmp);
+    private void applySearchAndSort() {
+        if (allEvents == null || events == null) return;
+        String q = dropSearch != null ? dropSearch.getText().toString().trim() : "";
+        String sort = sortLabel;
+        listPipeline.submit(allEvents, snapshot -> {
+            // Ranked index lookup instead of a substring scan over every name
+            List<Event> matches = q.isEmpty() ? snapshot : searchIndex.search(q, Integer.MAX_VALUE);
+            return sort != null ? sortEvents(matches, sort) : matches;
+        }, result -> {
+            events.clear();
+            events.addAll(result);
+            adapter.notifyDataSetChanged();
+        });
     }
 
     /**
-     * Sorts the events list by registration opening date.
-     * Events are sorted in chronological order with earliest opening dates first.
-     * Events with null registration dates are sorted to the end of the list.
+     * Brings the search index in line with allEvents on the compute pool,
+     * indexing only added or changed events, then enables the search box if
+     * there is anything to find and re-applies the search.
      */
-    private void sortByRegistrationOpens() {
-        Comparator<Event> cmp = (a, b) -> {
-            Date da = parseDate(a.getRegistrationOpens());
-            Date db = parseDate(b.getRegistrationOpens());
-            if (da == null && db == null) return 0;
-            if (da == null) return 1;
-            if (db == null) return -1;
-            return da.compareTo(db);
-        };
-        Collections.sort(events, cmp);
+    private void syncSearchIndex() {
+        List<Event> snapshot = new ArrayList<>(allEvents);
+        long version = ++indexVersion;
+        AppExecutors.get().compute().execute(() -> {
+            if (!searchIndex.sync(snapshot, version)) return;
+            AppExecutors.get().main().execute(() -> {
+                if (isDestroyed() || version != indexVersion) return;
+                if (dropSearch != null) dropSearch.setEnabled(searchIndex.size() > 0);
+                applySearchAndSort();
+            });
+        });
     }
 
     /**
-     * Sorts the events list by registration closing date.
-     * Events are sorted in chronological order with earliest closing dates first.
-     * Events with null registration dates are sorted to the end of the list.
+     * Sorts a list of events by the given sort label using precomputed keys.
+     * Runs on the compute pool, so it only touches the list it is given.
+     *
+     * @param list - Events to sort in place
+     * @param sortLabel - One of the sort dropdown labels
+     * @return The same list, sorted (unchanged for an unknown label)
      */
-    private void sortByRegistrationCloses() {
-        Comparator<Event> cmp = (a, b) -> {
-            Date da = parseDate(a.getRegistrationCloses());
-            Date db = parseDate(b.getRegistrationCloses());
-            if (da == null && db == null) return 0;
-            if (da == null) return 1;
-            if (db == null) return -1;
-            return da.compareTo(db);
-        };
-        Collections.sort(events, cmp);
+    private static List<Event> sortEvents(List<Event> list, String sortLabel) {
+        return EventSortEngine.get().sort(list, EventSortEngine.forLabel(sortLabel));
     }
 
     /**
-     * Sorts the events list by cost in ascending order.
-     * Free events are sorted first, followed by events with numeric costs.
-     * Events with unparseable or missing costs are sorted to the end.
+     * Cancels pending sort/search work so results are not applied after teardown.
      */
-    private void sortByCost() {
-        Comparator<Event> cmp = (a, b) -> {
-            double ca = parseCost(a.getCost());
-            double cb = parseCost(b.getCost());
-            return Double.compare(ca, cb);
-        };
-        Collections.sort(events, cmp);
+    @Override
+    protected void onDestroy() {
+        listPipeline.cancel();
+        super.onDestroy();
     }
 
     /**
@@ -513,8 +320,8 @@ public class EventManagerActivity extends AppCompatActivity {
             if (eventTitleToDelete != null) {
                 for (int i = 0; i < events.size(); i++) {
                     if (events.get(i).getName().equals(eventTitleToDelete)) {
-                        events.remove(i);
-                        adapter.notifyItemRemoved(i);
+                        // ViewModel republishes the list without it, which re-renders and re-indexes
+                        viewModel.removeEvent(events.get(i).getEventId());
                         break;
                     }
                 }
@@ -0,0 +1,117 @@
+/**
+ * ViewModel for EventManagerActivity.
+ *
+ * Loads the admin event list (all events, or one organizer's owned events)
+ * once and keeps it across configuration changes.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event list state for the admin event manager.
+ */
+public class EventManagerViewModel extends ViewModel {
+
+    /** Log tag. */
+    private static final String TAG = "EventManager";
+
+    /** Loaded events; never mutated after being published. */
+    private final MutableLiveData<List<Event>> events = new MutableLiveData<>();
+
+    /** User-facing load error messages. */
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+
+    /** Whether a load has been started. */
+    private boolean started;
+
+    /**
+     * Loads events once per ViewModel; later calls are no-ops.
+     *
+     * @param filterOrganizerEmail - If non-empty, only that organizer's owned events
+     */
+    public void load(String filterOrganizerEmail) {
+        if (started) return;
+        started = true;
+
+        if (filterOrganizerEmail == null || filterOrganizerEmail.trim().isEmpty()) {
+            EventRepository.get().getAllEvents()
+                    .addOnSuccessListener(events::setValue)
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to load events", e));
+            return;
+        }
+
+        UserRepository.get().findByEmail(filterOrganizerEmail)
+                .addOnSuccessListener(userDoc -> {
+                    List<String> owned = ownedEvents(userDoc);
+                    if (owned.isEmpty()) {
+                        events.setValue(Collections.emptyList());
+                        return;
+                    }
+                    EventRepository.get().getEvents(owned).addOnSuccessListener(events::setValue);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load ownedEvents user", e);
+                    error.setValue("Failed to load organizer's events");
+                });
+    }
+
+    /**
+     * Returns the loaded events.
+     *
+     * @return LiveData of an unmodifiable-by-convention event list
+     */
+    public LiveData<List<Event>> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns load error messages.
+     *
+     * @return LiveData of error text
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Removes a deleted event from the held list and drops it from the cache.
+     *
+     * @param eventId - Deleted event id
+     */
+    public void removeEvent(String eventId) {
+        EventRepository.get().invalidate(eventId);
+        List<Event> current = events.getValue();
+        if (current == null || eventId == null) return;
+        List<Event> next = new ArrayList<>(current.size());
+        for (Event e : current) {
+            if (!eventId.equals(e.getEventId())) next.add(e);
+        }
+        events.setValue(next);
+    }
+
+    /**
+     * Reads the ownedEvents array from a user document.
+     *
+     * @param userDoc - User snapshot, may be null
+     * @return Owned event ids, empty if none
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> ownedEvents(DocumentSnapshot userDoc) {
+        if (userDoc == null) return Collections.emptyList();
+        List<String> owned = (List<String>) userDoc.get("ownedEvents");
+        return owned != null ? owned : Collections.emptyList();
+    }
+}
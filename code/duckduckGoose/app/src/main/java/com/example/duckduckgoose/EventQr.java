@@ -0,0 +1,63 @@
+/**
+ * QR code rendering for the event share dialog.
+ *
+ * Kept free of Android types so the same code runs in the app and in the JVM
+ * benchmarks module; the caller wraps the pixels in a Bitmap.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+/**
+ * Encodes text into a square ARGB pixel buffer.
+ */
+public final class EventQr {
+
+    /** Opaque black (same value as android.graphics.Color.BLACK). */
+    public static final int BLACK = 0xFF000000;
+
+    /** Opaque white (same value as android.graphics.Color.WHITE). */
+    public static final int WHITE = 0xFFFFFFFF;
+
+    /** Prevents instantiation. */
+    private EventQr() {}
+
+    /**
+     * Returns the deep link encoded in an event's QR code.
+     *
+     * @param eventId - Event id
+     * @return Deep link URI
+     */
+    public static String deepLink(String eventId) {
+        return "duckduckgoose://event?eventId=" + eventId;
+    }
+
+    /**
+     * Encodes content as a QR code and renders it row by row into one array,
+     * ready for Bitmap.createBitmap(pixels, size, size, ARGB_8888).
+     *
+     * @param content - Text to encode
+     * @param size - Width and height in pixels
+     * @return Square ARGB pixel buffer, row-major; size * size unless size is
+     *         smaller than the code itself, in which case the matrix is larger
+     * @throws WriterException if the content cannot be encoded
+     */
+    public static int[] encodePixels(String content, int size) throws WriterException {
+        BitMatrix matrix = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, size, size);
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = matrix.get(x, y) ? BLACK : WHITE;
+            }
+        }
+        return pixels;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Redraw for positions given up by declined or cancelled winners.
+ *
+ * The waiting pool is read from the server rather than from the attendee
+ * manager's roster, which may still be loading: the event's waiting entries
+ * are streamed a page at a time and candidates are drawn with WeightedLottery
+ * as the pages arrive. A transaction then re-reads the event's redrawCount
+ * and every candidate, selects the candidates that are still waiting (up to
+ * the current count) and decrements redrawCount by exactly that many, so a
+ * decline recorded while the redraw ran is left for the next one instead of
+ * being reset away. Notifications (keyed by the redraw's seed, so sent once),
+ * the redraw's DrawLog record (seed, selected entrants and the loss counts
+ * that weighted them) and the history update follow through the write outbox.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs redraws for one event.
+ */
+public final class EventRedraw {
+
+    /** Log tag. */
+    private static final String TAG = "EventRedraw";
+
+    /**
+     * Most entrants one redraw selects; the transaction reads and writes
+     * one document per candidate and must stay under Firestore's limits.
+     */
+    static final int MAX_PER_REDRAW = 200;
+
+    /** An event or history read that has not finished by then fails the redraw. */
+    private static final long READ_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Outcome of a redraw.
+     */
+    public static final class Outcome {
+        /** Waiting entries read. */
+        public final int scanned;
+        /** Entrants selected. */
+        public final int selected;
+        /** Declined positions still open afterwards. */
+        public final long remaining;
+
+        /**
+         * Creates an outcome.
+         *
+         * @param scanned - Waiting entries read
+         * @param selected - Entrants selected
+         * @param remaining - Positions still open
+         */
+        Outcome(int scanned, int selected, long remaining) {
+            this.scanned = scanned;
+            this.selected = selected;
+            this.remaining = remaining;
+        }
+    }
+
+    /** Prevents instantiation. */
+    private EventRedraw() {}
+
+    /**
+     * Redraws an event's open positions on the IO pool.
+     *
+     * @param context - Any context
+     * @param eventId - Event document id
+     * @param title - Event name for the notification, or null
+     * @param senderUid - Organizer's uid
+     * @return Task resolving (on the main thread) to the outcome
+     */
+    public static Task<Outcome> run(Context context, String eventId, String title, String senderUid) {
+        Context app = context.getApplicationContext();
+        TaskCompletionSource<Outcome> done = new TaskCompletionSource<>();
+        AppExecutors.get().io().execute(() -> {
+            try {
+                done.setResult(redraw(app, eventId, title, senderUid));
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                Log.e(TAG, "Redraw of " + eventId + " failed", e);
+                done.setException(e);
+            }
+        });
+        return done.getTask();
+    }
+
+    /**
+     * Runs one redraw on the calling IO thread.
+     *
+     * @param context - Application context
+     * @param eventId - Event document id
+     * @param title - Event name, or null
+     * @param senderUid - Organizer's uid
+     * @return Outcome
+     * @throws Exception if a read or the transaction fails
+     */
+    private static Outcome redraw(Context context, String eventId, String title, String senderUid)
+            throws Exception {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference eventRef = db.collection("events").document(eventId);
+        long open = openPositions(Tasks.await(Metered.get(eventRef), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        if (open <= 0) return new Outcome(0, 0, 0);
+
+        DrawHistory history;
+        try {
+            history = Tasks.await(DrawHistory.load(senderUid), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            Log.w(TAG, "Draw history unavailable; redrawing unweighted", e);
+            history = DrawHistory.empty();
+        }
+        DrawHistory weights = history;
+        long seed = WeightedLottery.newSeed();
+        WeightedLottery<DocumentReference> lottery =
+                new WeightedLottery<>((int) Math.min(open, MAX_PER_REDRAW), seed);
+        Map<String, Integer> lossesUsed = new HashMap<>();
+        int scanned = WaitlistRepository.get().streamWaiting(eventId, page -> {
+            for (DocumentSnapshot doc : page) {
+                String uid = doc.getString("userId");
+                if (uid == null) continue;
+                int losses = weights.lossesOf(uid);
+                if (losses > 0) lossesUsed.put(uid, losses);
+                lottery.offer(uid, doc.getReference(), DrawHistory.weight(losses));
+            }
+        });
+        List<DocumentReference> candidates = lottery.winners();
+        if (candidates.isEmpty()) return new Outcome(scanned, 0, open);
+
+        long[] remaining = new long[1];
+        List<String> chosen = Tasks.await(Metered.runTransaction(tx -> {
+            long current = openPositions(tx.get(eventRef));
+            List<DocumentSnapshot> fresh = new ArrayList<>(candidates.size());
+            for (DocumentReference ref : candidates) fresh.add(tx.get(ref));
+            List<DocumentSnapshot> picked = takeWaiting(fresh, doc -> doc.getString("status"), current);
+            List<String> uids = new ArrayList<>(picked.size());
+            for (DocumentSnapshot doc : picked) {
+                tx.update(doc.getReference(), "status", EntrantStatus.SELECTED.value());
+                uids.add(doc.getString("userId"));
+            }
+            if (!picked.isEmpty()) tx.update(eventRef, "redrawCount", FieldValue.increment(-picked.size()));
+            remaining[0] = current - picked.size();
+            return uids;
+        }));
+        if (chosen.isEmpty()) return new Outcome(scanned, 0, remaining[0]);
+
+        WriteOutbox.Batch batch = WriteOutbox.get(context).batch("Redraw: " + (title != null ? title : eventId));
+        NotificationBatch selected = NotificationBatch.once(eventId,
+                "Congratulations! You have been selected in a redraw for " + (title != null ? title : "an event"),
+                senderUid, "selected", Long.toHexString(seed));
+        for (String uid : chosen) selected.addRecipient(batch, uid);
+        selected.finish(batch);
+        DrawLog.record(batch, eventId, DrawLog.KIND_REDRAW, seed, senderUid, scanned, chosen, lossesUsed);
+        DrawHistory.record(batch, senderUid, chosen, Collections.emptyList());
+        batch.commit(() -> WaitlistRepository.get().invalidate(eventId));
+        return new Outcome(scanned, chosen.size(), remaining[0]);
+    }
+
+    /**
+     * Reads an event's open redraw positions.
+     *
+     * @param event - Event snapshot
+     * @return redrawCount, 0 if missing or negative
+     */
+    private static long openPositions(DocumentSnapshot event) {
+        Long count = event.exists() ? event.getLong("redrawCount") : null;
+        return count != null ? Math.max(0, count) : 0;
+    }
+
+    /**
+     * Keeps the candidates that are still waiting, in draw order, up to the
+     * number of open positions. Candidates selected, cancelled or removed
+     * since the pool was read are skipped.
+     *
+     * @param drawn - Candidates in draw order, freshly read
+     * @param status - Reads a candidate's status (null if it no longer exists)
+     * @param open - Open positions
+     * @param <T> - Candidate type
+     * @return Candidates to select
+     */
+    static <T> List<T> takeWaiting(List<T> drawn, Function<T, String> status, long open) {
+        List<T> picked = new ArrayList<>();
+        for (T candidate : drawn) {
+            if (picked.size() >= open) break;
+            if (EntrantStatus.WAITING.value().equals(status.apply(candidate))) picked.add(candidate);
+        }
+        return picked;
+    }
+}
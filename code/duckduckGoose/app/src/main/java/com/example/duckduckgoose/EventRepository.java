@@ -0,0 +1,153 @@
+/**
+ * Cached access to events/{eventId} documents and the full event list.
+ *
+ * Event documents fetched one at a time, or as part of the full list, are
+ * kept in memory for a short TTL and concurrent loads of the same event share
+ * a single read.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Process-wide event repository.
+ *
+ * As with UserRepository, snapshots are cached and each call returns new
+ * Event objects so callers can mutate them freely.
+ */
+public class EventRepository {
+
+    /** Event documents kept in memory. */
+    private static final int MAX_EVENTS = 500;
+
+    /** How long a cached event is served before it is re-read. */
+    private static final long TTL_MILLIS = 60 * 1000L;
+
+    /** Cache key for the full events collection. */
+    private static final String ALL = "*";
+
+    /** Shared instance. */
+    private static volatile EventRepository instance;
+
+    /** events/{eventId} snapshots by id. */
+    private final RequestCache<DocumentSnapshot> docs = new RequestCache<>(MAX_EVENTS, TTL_MILLIS);
+
+    /** Full events collection. */
+    private final RequestCache<QuerySnapshot> all = new RequestCache<>(1, TTL_MILLIS);
+
+    /**
+     * Returns the shared repository.
+     *
+     * @return Process-wide EventRepository
+     */
+    public static EventRepository get() {
+        if (instance == null) {
+            synchronized (EventRepository.class) {
+                if (instance == null) instance = new EventRepository();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the events/{eventId} snapshot, from cache when fresh.
+     *
+     * @param eventId - Event document id
+     * @return Task resolving to the snapshot (which may not exist)
+     */
+    public Task<DocumentSnapshot> getEventDoc(String eventId) {
+        return docs.get(eventId, () -> Metered.get(FirebaseFirestore.getInstance().collection("events").document(eventId)));
+    }
+
+    /**
+     * Returns a new Event built from the cached document.
+     *
+     * @param eventId - Event document id
+     * @return Task resolving to the Event, or null if it does not exist
+     */
+    public Task<Event> getEvent(String eventId) {
+        return getEventDoc(eventId).continueWith(t -> toEvent(t.getResult()));
+    }
+
+    /**
+     * Loads several events by id; missing or failed ids are skipped.
+     *
+     * @param eventIds - Event document ids
+     * @return Task resolving to the events found, in input order
+     */
+    public Task<List<Event>> getEvents(Collection<String> eventIds) {
+        List<Task<Event>> tasks = new ArrayList<>();
+        for (String id : eventIds) {
+            if (id != null && !id.trim().isEmpty()) tasks.add(getEvent(id));
+        }
+        return Tasks.whenAllComplete(tasks).continueWith(t -> {
+            List<Event> out = new ArrayList<>();
+            for (Task<Event> task : tasks) {
+                if (task.isSuccessful() && task.getResult() != null) out.add(task.getResult());
+            }
+            return out;
+        });
+    }
+
+    /**
+     * Loads every event. Each document is also cached individually.
+     *
+     * @return Task resolving to new Event objects for all events
+     */
+    public Task<List<Event>> getAllEvents() {
+        return all.get(ALL, () -> Metered.get(FirebaseFirestore.getInstance().collection("events"))
+                .continueWith(t -> {
+                    for (DocumentSnapshot ds : t.getResult().getDocuments()) docs.put(ds.getId(), ds);
+                    return t.getResult();
+                }))
+                .continueWith(t -> {
+                    List<Event> out = new ArrayList<>();
+                    for (DocumentSnapshot ds : t.getResult().getDocuments()) {
+                        Event e = toEvent(ds);
+                        if (e != null) out.add(e);
+                    }
+                    return out;
+                });
+    }
+
+    /**
+     * Drops a cached event after it was written or deleted.
+     *
+     * @param eventId - Event document id
+     */
+    public void invalidate(String eventId) {
+        if (eventId != null) docs.invalidate(eventId);
+        all.clear();
+    }
+
+    /**
+     * Drops all cached events.
+     */
+    public void clear() {
+        docs.clear();
+        all.clear();
+    }
+
+    /**
+     * Converts a snapshot to an Event with its id populated.
+     *
+     * @param ds - Event snapshot
+     * @return Event, or null if the document does not exist
+     */
+    private static Event toEvent(DocumentSnapshot ds) {
+        if (ds == null || !ds.exists()) return null;
+        Event e = ds.toObject(Event.class);
+        if (e != null && e.getEventId() == null) e.setEventId(ds.getId());
+        return e;
+    }
+}
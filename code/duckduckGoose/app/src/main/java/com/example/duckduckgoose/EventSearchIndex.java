@@ -0,0 +1,441 @@
+/**
+ * In-memory inverted index for searching events by name and description.
+ *
+ * Maintains a trigram index for substring matching and a sorted token index
+ * for short prefix queries. Updates are incremental so the index can follow
+ * Firestore snapshot changes without being rebuilt.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram and prefix index over event name and description.
+ *
+ * Query tokens of three or more characters are answered by intersecting trigram
+ * posting sets; shorter tokens use a range scan over the sorted token index.
+ * Candidates are verified and ranked so that name matches outrank description
+ * matches, and whole-word or prefix matches outrank plain substring matches.
+ *
+ * Safe to read from background threads while the main thread applies updates.
+ */
+public class EventSearchIndex {
+
+    /** Gram length used for substring matching. */
+    private static final int GRAM = 3;
+
+    /** Score for a query token equal to a whole word of the name. */
+    private static final int SCORE_NAME_WORD = 10;
+
+    /** Score for a query token that prefixes a word of the name. */
+    private static final int SCORE_NAME_PREFIX = 6;
+
+    /** Score for a query token found anywhere in the name. */
+    private static final int SCORE_NAME_SUBSTRING = 4;
+
+    /** Score for a query token that prefixes a word of the description. */
+    private static final int SCORE_DESC_PREFIX = 2;
+
+    /** Score for a query token found anywhere in the description. */
+    private static final int SCORE_DESC_SUBSTRING = 1;
+
+    /** Bonus when the whole query is a prefix of the name. */
+    private static final int SCORE_NAME_STARTS_WITH_QUERY = 5;
+
+    /** Indexed entries keyed by event id. */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** Trigram to ids of events whose name or description contain it. */
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    /** Word to ids of events containing it; sorted for prefix range scans. */
+    private final TreeMap<String, Set<String>> words = new TreeMap<>();
+
+    /** Guards all index structures. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Version of the last list applied by {@link #sync}. */
+    private long syncedVersion = Long.MIN_VALUE;
+
+    /**
+     * Adds an event or replaces its previous version.
+     * Events without an id are ignored.
+     *
+     * @param event - Event to index
+     */
+    public void put(Event event) {
+        if (event == null || event.getEventId() == null) return;
+        Entry entry = new Entry(event);
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.getEventId());
+            entries.put(entry.id, entry);
+            for (String g : entry.grams) grams.computeIfAbsent(g, k -> new HashSet<>()).add(entry.id);
+            for (String w : entry.words) words.computeIfAbsent(w, k -> new HashSet<>()).add(entry.id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes every event in the collection.
+     *
+     * @param events - Events to add or replace
+     */
+    public void putAll(Collection<Event> events) {
+        for (Event e : events) put(e);
+    }
+
+    /**
+     * Brings the index in line with a full event list: events missing from
+     * it are removed, and only new or replaced events (another instance for
+     * the same id) are indexed again. A list older than the last one applied
+     * is ignored, so syncs finishing out of order on a pool never roll the
+     * index back.
+     *
+     * @param events - Every event the index should hold
+     * @param version - Number of this list, increasing with each newer list
+     * @return False if a newer list was already applied
+     */
+    public synchronized boolean sync(Collection<Event> events, long version) {
+        if (version < syncedVersion) return false;
+        syncedVersion = version;
+        Map<String, Event> current = new HashMap<>();
+        for (Event e : events) {
+            if (e != null && e.getEventId() != null) current.put(e.getEventId(), e);
+        }
+        List<String> gone = new ArrayList<>();
+        List<Event> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String id : entries.keySet()) {
+                if (!current.containsKey(id)) gone.add(id);
+            }
+            for (Event e : current.values()) {
+                Entry old = entries.get(e.getEventId());
+                if (old == null || old.event != e) changed.add(e);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (String id : gone) remove(id);
+        for (Event e : changed) put(e);
+        return true;
+    }
+
+    /**
+     * Removes an event from the index.
+     *
+     * @param eventId - Id of the event to remove
+     */
+    public void remove(String eventId) {
+        if (eventId == null) return;
+        lock.writeLock().lock();
+        try {
+            removeLocked(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            grams.clear();
+            words.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed events.
+     *
+     * @return Indexed event count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best matching events, highest rank first.
+     *
+     * An empty query returns no results; callers show the full list instead.
+     *
+     * @param query - Free-text query; every word must match
+     * @param limit - Maximum number of results
+     * @return Ranked matching events
+     */
+    public List<Event> search(String query, int limit) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0 || limit <= 0) return Collections.emptyList();
+        String normQuery = normalize(query);
+
+        List<Scored> scored = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String id : candidatesLocked(tokens)) {
+                Entry e = entries.get(id);
+                int s = score(e, tokens, normQuery);
+                if (s > 0) scored.add(new Scored(e, s));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort((a, b) -> {
+            if (a.score != b.score) return Integer.compare(b.score, a.score);
+            return a.entry.name.compareTo(b.entry.name);
+        });
+        List<Event> out = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < scored.size() && i < limit; i++) out.add(scored.get(i).entry.event);
+        return out;
+    }
+
+    /**
+     * Returns the ids of all events matching every word of the query.
+     *
+     * @param query - Free-text query
+     * @return Ids of matching events (unordered); empty for an empty query
+     */
+    public Set<String> matchingIds(String query) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0) return Collections.emptySet();
+        String normQuery = normalize(query);
+        Set<String> out = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (String id : candidatesLocked(tokens)) {
+                if (score(entries.get(id), tokens, normQuery) > 0) out.add(id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    /**
+     * Collects ids that may match all query tokens. Caller must hold the read lock.
+     *
+     * @param tokens - Normalized query tokens
+     * @return Candidate ids (superset of true matches)
+     */
+    private Set<String> candidatesLocked(String[] tokens) {
+        Set<String> result = null;
+        for (String t : tokens) {
+            Set<String> forToken = t.length() >= GRAM ? gramCandidates(t) : prefixCandidates(t);
+            if (result == null) {
+                result = new HashSet<>(forToken);
+            } else {
+                result.retainAll(forToken);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result != null ? result : Collections.emptySet();
+    }
+
+    /**
+     * Intersects trigram postings for a token, starting from the rarest gram.
+     *
+     * @param token - Query token of at least GRAM characters
+     * @return Ids containing every trigram of the token
+     */
+    private Set<String> gramCandidates(String token) {
+        List<Set<String>> postings = new ArrayList<>();
+        for (String g : gramsOf(token)) {
+            Set<String> p = grams.get(g);
+            if (p == null) return Collections.emptySet();
+            postings.add(p);
+        }
+        postings.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<String> out = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !out.isEmpty(); i++) out.retainAll(postings.get(i));
+        return out;
+    }
+
+    /**
+     * Collects ids of events with a word starting with the token.
+     *
+     * @param token - Short query token
+     * @return Ids of events with a matching word prefix
+     */
+    private Set<String> prefixCandidates(String token) {
+        Set<String> out = new HashSet<>();
+        SortedMap<String, Set<String>> range = words.subMap(token, token + Character.MAX_VALUE);
+        for (Set<String> ids : range.values()) out.addAll(ids);
+        return out;
+    }
+
+    /**
+     * Scores an entry against the query; zero means it does not match.
+     *
+     * @param e - Indexed entry
+     * @param tokens - Normalized query tokens
+     * @param normQuery - Normalized full query
+     * @return Rank score, or 0 if any token is missing
+     */
+    private static int score(Entry e, String[] tokens, String normQuery) {
+        int total = 0;
+        for (String t : tokens) {
+            int best = 0;
+            if (e.nameWords.contains(t)) {
+                best = SCORE_NAME_WORD;
+            } else if (hasWordPrefix(e.nameWords, t)) {
+                best = SCORE_NAME_PREFIX;
+            } else if (e.name.contains(t)) {
+                best = SCORE_NAME_SUBSTRING;
+            } else if (hasWordPrefix(e.descWords, t)) {
+                best = SCORE_DESC_PREFIX;
+            } else if (e.description.contains(t)) {
+                best = SCORE_DESC_SUBSTRING;
+            }
+            if (best == 0) return 0;
+            total += best;
+        }
+        if (e.name.startsWith(normQuery)) total += SCORE_NAME_STARTS_WITH_QUERY;
+        return total;
+    }
+
+    /**
+     * Returns whether any word starts with the prefix.
+     *
+     * @param words - Words to check
+     * @param prefix - Prefix to look for
+     * @return true if a word starts with prefix
+     */
+    private static boolean hasWordPrefix(Set<String> words, String prefix) {
+        for (String w : words) if (w.startsWith(prefix)) return true;
+        return false;
+    }
+
+    /**
+     * Removes all postings of an entry. Caller must hold the write lock.
+     *
+     * @param eventId - Id of the entry to remove
+     */
+    private void removeLocked(String eventId) {
+        Entry old = entries.remove(eventId);
+        if (old == null) return;
+        for (String g : old.grams) unpost(grams, g, eventId);
+        for (String w : old.words) unpost(words, w, eventId);
+    }
+
+    /**
+     * Removes an id from a posting set, dropping the key once empty.
+     *
+     * @param index - Posting map
+     * @param key - Gram or word
+     * @param id - Event id to remove
+     */
+    private static void unpost(Map<String, Set<String>> index, String key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(key);
+    }
+
+    /**
+     * Lowercases text and replaces punctuation with spaces.
+     *
+     * @param s - Raw text, may be null
+     * @return Normalized text (never null)
+     */
+    static String normalize(String s) {
+        if (s == null) return "";
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Splits text into normalized words.
+     *
+     * @param s - Raw text, may be null
+     * @return Normalized words, possibly empty
+     */
+    static String[] tokenize(String s) {
+        String n = normalize(s);
+        return n.isEmpty() ? new String[0] : n.split(" ");
+    }
+
+    /**
+     * Returns the distinct trigrams of a single word.
+     *
+     * @param word - Normalized word
+     * @return Trigrams in order of appearance; empty for short words
+     */
+    static Set<String> gramsOf(String word) {
+        Set<String> out = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= word.length(); i++) out.add(word.substring(i, i + GRAM));
+        return out;
+    }
+
+    /**
+     * Normalized, pre-tokenized view of one event.
+     */
+    private static class Entry {
+        /** Event id. */
+        final String id;
+        /** Source event returned from searches. */
+        final Event event;
+        /** Normalized name. */
+        final String name;
+        /** Normalized description. */
+        final String description;
+        /** Words of the name. */
+        final Set<String> nameWords = new HashSet<>();
+        /** Words of the description. */
+        final Set<String> descWords = new HashSet<>();
+        /** All words (name and description) posted to the word index. */
+        final Set<String> words = new HashSet<>();
+        /** All trigrams posted to the gram index. */
+        final Set<String> grams = new HashSet<>();
+
+        Entry(Event event) {
+            this.id = event.getEventId();
+            this.event = event;
+            this.name = normalize(event.getName());
+            this.description = normalize(event.getDescription());
+            Collections.addAll(nameWords, tokenize(event.getName()));
+            Collections.addAll(descWords, tokenize(event.getDescription()));
+            words.addAll(nameWords);
+            words.addAll(descWords);
+            for (String w : words) grams.addAll(gramsOf(w));
+        }
+    }
+
+    /**
+     * Search hit with its rank score.
+     */
+    private static class Scored {
+        final Entry entry;
+        final int score;
+
+        Scored(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * Shared sorting for event lists using precomputed sort keys.
+ *
+ * Each event's dates and cost are parsed once (see {@link EventFieldParser})
+ * into primitive keys. Keys are reused until the event's source fields
+ * change, so re-sorting a list costs comparisons only, not parses.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Multi-key, stable event sorter with nulls-last semantics.
+ *
+ * Usage: {@code EventSortEngine.get().sort(list, EventSortEngine.forLabel("Cost"))}.
+ * Missing or unparseable values always sort after present ones, regardless of
+ * direction. Safe to call from background threads.
+ */
+public class EventSortEngine {
+
+    /** Sentinel for a missing or unparseable date. */
+    static final long NO_DATE = EventFieldParser.NO_DATE;
+
+    /** Upper bound on cached keys before the cache is reset. */
+    private static final int MAX_CACHED_KEYS = 4096;
+
+    /** Shared instance so key caches survive across screens. */
+    private static volatile EventSortEngine instance;
+
+    /** Sort keys by event id, validated against the event's current fields on reuse. */
+    private final Map<String, Keys> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Sortable fields.
+     */
+    public enum Key { EVENT_DATE, REGISTRATION_OPENS, REGISTRATION_CLOSES, COST, NAME }
+
+    /**
+     * Returns the shared engine.
+     *
+     * @return Process-wide EventSortEngine
+     */
+    public static EventSortEngine get() {
+        if (instance == null) {
+            synchronized (EventSortEngine.class) {
+                if (instance == null) instance = new EventSortEngine();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Maps a sort dropdown label to a sort order, with name as the final tie-breaker.
+     *
+     * @param label - One of the sort dropdown labels
+     * @return Sort order, or null if the label is unknown
+     */
+    public static Order forLabel(String label) {
+        if (label == null) return null;
+        switch (label) {
+            case "Date (Soonest)":
+                return by(Key.EVENT_DATE, true).then(Key.NAME, true);
+            case "Date (Latest)":
+                return by(Key.EVENT_DATE, false).then(Key.NAME, true);
+            case "Registration Opens":
+                return by(Key.REGISTRATION_OPENS, true).then(Key.NAME, true);
+            case "Registration Deadline":
+                return by(Key.REGISTRATION_CLOSES, true).then(Key.NAME, true);
+            case "Cost":
+                return by(Key.COST, true).then(Key.EVENT_DATE, true).then(Key.NAME, true);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Starts a sort order on a single key.
+     *
+     * @param key - Primary key
+     * @param ascending - true for ascending order
+     * @return New sort order
+     */
+    public static Order by(Key key, boolean ascending) {
+        return new Order().then(key, ascending);
+    }
+
+    /**
+     * Sorts the list in place. Equal elements keep their relative order and
+     * null events go last.
+     *
+     * @param events - Events to sort
+     * @param order - Sort order; null leaves the list unchanged
+     * @return The same list, sorted
+     */
+    public List<Event> sort(List<Event> events, Order order) {
+        if (order == null || events.size() < 2) return events;
+
+        // Decorate once so the comparator never parses or allocates
+        List<Keys> decorated = new ArrayList<>(events.size());
+        List<Event> nulls = new ArrayList<>();
+        for (Event e : events) {
+            if (e == null) nulls.add(null);
+            else decorated.add(keysFor(e));
+        }
+        // List.sort is a stable merge sort
+        decorated.sort(order::compare);
+
+        events.clear();
+        for (Keys k : decorated) events.add(k.event);
+        events.addAll(nulls);
+        return events;
+    }
+
+    /**
+     * Returns cached keys for an event, recomputing them if its fields changed.
+     *
+     * @param e - Event to key
+     * @return Sort keys bound to this event instance
+     */
+    Keys keysFor(Event e) {
+        String id = e.getEventId();
+        if (id == null) return new Keys(e);
+        Keys cached = cache.get(id);
+        if (cached != null && cached.matches(e)) {
+            // Same values; rebind to the caller's instance without reparsing
+            return cached.event == e ? cached : cached.rebind(e);
+        }
+        if (cache.size() >= MAX_CACHED_KEYS) cache.clear();
+        Keys fresh = new Keys(e);
+        cache.put(id, fresh);
+        return fresh;
+    }
+
+    /**
+     * Drops all cached keys.
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Parses a date string using the first matching supported pattern.
+     *
+     * @param s - Date string (e.g. "03/14/25" or "Mar 14, 2025")
+     * @return Epoch millis, or {@link #NO_DATE} if missing or unparseable
+     * @see EventFieldParser#parseDateMillis(String)
+     */
+    public static long parseDateMillis(String s) {
+        return EventFieldParser.parseDateMillis(s);
+    }
+
+    /**
+     * Parses a cost label (for example, "$25" or "Free") into a numeric value.
+     *
+     * @param costStr - Cost label
+     * @return Numeric cost (Free -> 0); unknown or invalid values -> Double.MAX_VALUE
+     * @see EventFieldParser#parseCost(String)
+     */
+    public static double parseCost(String costStr) {
+        return EventFieldParser.parseCost(costStr);
+    }
+
+    /**
+     * Ordered list of sort keys, each with its own direction.
+     */
+    public static class Order {
+        /** Keys in priority order. */
+        private final List<Key> keys = new ArrayList<>();
+
+        /** Direction per key. */
+        private final List<Boolean> ascending = new ArrayList<>();
+
+        /**
+         * Adds a tie-breaking key.
+         *
+         * @param key - Key compared when all previous keys are equal
+         * @param asc - true for ascending order
+         * @return This order, for chaining
+         */
+        public Order then(Key key, boolean asc) {
+            keys.add(key);
+            ascending.add(asc);
+            return this;
+        }
+
+        /**
+         * Returns the keys in priority order.
+         *
+         * @return Unmodifiable key list
+         */
+        public List<Key> getKeys() {
+            return Collections.unmodifiableList(keys);
+        }
+
+        /**
+         * Compares two keyed events; missing values sort last in either direction.
+         *
+         * @param a - First keys
+         * @param b - Second keys
+         * @return Comparison result
+         */
+        int compare(Keys a, Keys b) {
+            for (int i = 0; i < keys.size(); i++) {
+                Key key = keys.get(i);
+                boolean aMissing = a.isMissing(key);
+                boolean bMissing = b.isMissing(key);
+                int c;
+                if (aMissing || bMissing) {
+                    c = Boolean.compare(aMissing, bMissing);
+                } else {
+                    c = a.compareTo(b, key);
+                    if (!ascending.get(i)) c = -c;
+                }
+                if (c != 0) return c;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Parsed sort keys for one event, plus the raw fields they came from.
+     */
+    static final class Keys {
+        /** Event these keys belong to. */
+        final Event event;
+        /** Raw fields used to detect changes. */
+        final String rawEventDate, rawOpens, rawCloses, rawCost, rawName;
+        /** Event date in epoch millis, or NO_DATE. */
+        final long eventDate;
+        /** Registration open date in epoch millis, or NO_DATE. */
+        final long opens;
+        /** Registration close date in epoch millis, or NO_DATE. */
+        final long closes;
+        /** Numeric cost, or Double.MAX_VALUE if unknown. */
+        final double cost;
+        /** Lowercased name, or null. */
+        final String name;
+
+        Keys(Event e) {
+            this.event = e;
+            this.rawEventDate = e.getEventDate();
+            this.rawOpens = e.getRegistrationOpens();
+            this.rawCloses = e.getRegistrationCloses();
+            this.rawCost = e.getCost();
+            this.rawName = e.getName();
+            this.eventDate = parseDateMillis(rawEventDate);
+            this.opens = parseDateMillis(rawOpens);
+            this.closes = parseDateMillis(rawCloses);
+            this.cost = parseCost(rawCost);
+            this.name = rawName != null ? rawName.toLowerCase(Locale.ROOT) : null;
+        }
+
+        private Keys(Keys src, Event e) {
+            this.event = e;
+            this.rawEventDate = src.rawEventDate;
+            this.rawOpens = src.rawOpens;
+            this.rawCloses = src.rawCloses;
+            this.rawCost = src.rawCost;
+            this.rawName = src.rawName;
+            this.eventDate = src.eventDate;
+            this.opens = src.opens;
+            this.closes = src.closes;
+            this.cost = src.cost;
+            this.name = src.name;
+        }
+
+        /**
+         * Returns a copy of these keys bound to another instance of the same event.
+         *
+         * @param e - Event instance with identical sort fields
+         * @return Rebound keys
+         */
+        Keys rebind(Event e) {
+            return new Keys(this, e);
+        }
+
+        /**
+         * Returns whether these keys were computed from the event's current fields.
+         *
+         * @param e - Event to check
+         * @return true if no sort field changed
+         */
+        boolean matches(Event e) {
+            return Objects.equals(rawEventDate, e.getEventDate())
+                    && Objects.equals(rawOpens, e.getRegistrationOpens())
+                    && Objects.equals(rawCloses, e.getRegistrationCloses())
+                    && Objects.equals(rawCost, e.getCost())
+                    && Objects.equals(rawName, e.getName());
+        }
+
+        boolean isMissing(Key key) {
+            switch (key) {
+                case EVENT_DATE: return eventDate == NO_DATE;
+                case REGISTRATION_OPENS: return opens == NO_DATE;
+                case REGISTRATION_CLOSES: return closes == NO_DATE;
+                case COST: return cost == Double.MAX_VALUE;
+                default: return name == null;
+            }
+        }
+
+        int compareTo(Keys o, Key key) {
+            switch (key) {
+                case EVENT_DATE: return Long.compare(eventDate, o.eventDate);
+                case REGISTRATION_OPENS: return Long.compare(opens, o.opens);
+                case REGISTRATION_CLOSES: return Long.compare(closes, o.closes);
+                case COST: return Double.compare(cost, o.cost);
+                default: return name.compareTo(o.name);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Dropdown adapter that suggests event names from an EventSearchIndex.
+ *
+ * Replaces an ArrayAdapter of every event name: suggestions are ranked by the
+ * index and computed on the filter's background thread on each keystroke.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ArrayAdapter whose filter queries a shared search index instead of
+ * scanning its own copy of every name.
+ */
+public class EventSuggestionAdapter extends ArrayAdapter<String> {
+
+    /** Index queried for suggestions. */
+    private final EventSearchIndex index;
+
+    /** Maximum number of suggestions shown. */
+    private final int limit;
+
+    /** Filter backed by the index. */
+    private final Filter filter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            List<String> names = new ArrayList<>();
+            if (constraint != null) {
+                for (Event e : index.search(constraint.toString(), limit)) {
+                    if (e.getName() != null) names.add(e.getName());
+                }
+            }
+            FilterResults results = new FilterResults();
+            results.values = names;
+            results.count = names.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            clear();
+            if (results != null && results.values != null) addAll((List<String>) results.values);
+            notifyDataSetChanged();
+        }
+    };
+
+    /**
+     * Creates a suggestion adapter over the given index.
+     *
+     * @param context - Context used to inflate rows
+     * @param index - Search index to query
+     * @param limit - Maximum number of suggestions per query
+     */
+    public EventSuggestionAdapter(@NonNull Context context, EventSearchIndex index, int limit) {
+        super(context, android.R.layout.simple_dropdown_item_1line, new ArrayList<>());
+        this.index = index;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the index-backed filter.
+     *
+     * @return Filter used by AutoCompleteTextView
+     */
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return filter;
+    }
+}
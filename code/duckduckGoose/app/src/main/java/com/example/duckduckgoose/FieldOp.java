@@ -0,0 +1,137 @@
+/**
+ * Field transforms that can be written through a BatchWriter.
+ *
+ * Firestore's FieldValue sentinels are opaque, so writes that may be stored
+ * in the outbox use these instead; BatchWriter converts them to FieldValue
+ * when the write reaches Firestore.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable description of a single field transform.
+ */
+public final class FieldOp {
+
+    /** Transform kinds. */
+    public enum Kind { INCREMENT, ARRAY_UNION, ARRAY_REMOVE, DELETE }
+
+    /** What the transform does. */
+    public final Kind kind;
+
+    /** Increment amount; only for INCREMENT. */
+    public final long amount;
+
+    /** Elements to add or remove; empty for other kinds. */
+    public final List<Object> elements;
+
+    private FieldOp(Kind kind, long amount, List<Object> elements) {
+        this.kind = kind;
+        this.amount = amount;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Adds to a numeric field.
+     *
+     * @param amount - Amount to add (may be negative)
+     * @return Increment transform
+     */
+    public static FieldOp increment(long amount) {
+        return new FieldOp(Kind.INCREMENT, amount, Collections.emptyList());
+    }
+
+    /**
+     * Adds elements to an array field if not already present.
+     *
+     * @param elements - Elements to add
+     * @return Array-union transform
+     */
+    public static FieldOp arrayUnion(Object... elements) {
+        return arrayUnion(Arrays.asList(elements));
+    }
+
+    /**
+     * Adds elements to an array field if not already present.
+     *
+     * @param elements - Elements to add
+     * @return Array-union transform
+     */
+    public static FieldOp arrayUnion(List<?> elements) {
+        return new FieldOp(Kind.ARRAY_UNION, 0, new ArrayList<>(elements));
+    }
+
+    /**
+     * Removes every instance of the given elements from an array field.
+     *
+     * @param elements - Elements to remove
+     * @return Array-remove transform
+     */
+    public static FieldOp arrayRemove(Object... elements) {
+        return arrayRemove(Arrays.asList(elements));
+    }
+
+    /**
+     * Removes every instance of the given elements from an array field.
+     *
+     * @param elements - Elements to remove
+     * @return Array-remove transform
+     */
+    public static FieldOp arrayRemove(List<?> elements) {
+        return new FieldOp(Kind.ARRAY_REMOVE, 0, new ArrayList<>(elements));
+    }
+
+    /**
+     * Removes the field.
+     *
+     * @return Delete transform
+     */
+    public static FieldOp delete() {
+        return new FieldOp(Kind.DELETE, 0, Collections.emptyList());
+    }
+
+    /**
+     * Converts to the Firestore sentinel.
+     *
+     * @return Equivalent FieldValue
+     */
+    public FieldValue toFieldValue() {
+        switch (kind) {
+            case INCREMENT:
+                return FieldValue.increment(amount);
+            case ARRAY_UNION:
+                return FieldValue.arrayUnion(elements.toArray());
+            case ARRAY_REMOVE:
+                return FieldValue.arrayRemove(elements.toArray());
+            default:
+                return FieldValue.delete();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FieldOp)) return false;
+        FieldOp other = (FieldOp) o;
+        return kind == other.kind && amount == other.amount && elements.equals(other.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, amount, elements);
+    }
+
+    @Override
+    public String toString() {
+        return kind + (kind == Kind.INCREMENT ? "(" + amount + ")" : elements.isEmpty() ? "" : elements.toString());
+    }
+}
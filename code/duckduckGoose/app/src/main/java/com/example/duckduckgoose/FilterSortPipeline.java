@@ -0,0 +1,101 @@
+/**
+ * Off-main-thread filter/sort runner for list screens.
+ *
+ * Takes a snapshot of a source list, runs the filter and sort step on the
+ * compute pool, and delivers only the latest result to the main thread.
+ * Requests superseded by a newer one are cancelled or dropped.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs list transformations on a background pool and posts the newest result.
+ *
+ * Each call to {@link #submit} bumps a generation counter. A background result is
+ * only delivered if its generation is still current when it reaches the main
+ * thread, so rapid dropdown changes never flash stale orderings.
+ *
+ * @param <T> - Element type of the list being filtered and sorted
+ */
+public class FilterSortPipeline<T> {
+
+    /** Pool used to run the transformation. */
+    private final ExecutorService compute;
+
+    /** Executor used to deliver results (main thread in production). */
+    private final Executor main;
+
+    /** Generation of the most recent request. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Future for the in-flight request, if any. */
+    private Future<?> inFlight;
+
+    /**
+     * Creates a pipeline backed by the shared {@link AppExecutors}.
+     */
+    public FilterSortPipeline() {
+        this(AppExecutors.get().compute(), AppExecutors.get().main());
+    }
+
+    /**
+     * Creates a pipeline with explicit executors (used by tests).
+     *
+     * @param compute - Executor service that runs the transformation
+     * @param main - Executor that receives the final result
+     */
+    public FilterSortPipeline(ExecutorService compute, Executor main) {
+        this.compute = compute;
+        this.main = main;
+    }
+
+    /**
+     * Schedules a filter/sort over a snapshot of the source list.
+     *
+     * The source is copied on the calling thread so callers may keep mutating
+     * their own list. Any earlier request that has not yet delivered is cancelled.
+     *
+     * @param source - Items to transform (copied before scheduling)
+     * @param work - Transformation to run off the main thread; may return the same list
+     * @param onResult - Receives the final list on the main executor
+     */
+    public synchronized void submit(Collection<? extends T> source,
+                                    Function<List<T>, List<T>> work,
+                                    Consumer<List<T>> onResult) {
+        final long gen = generation.incrementAndGet();
+        final List<T> snapshot = new ArrayList<>(source);
+        if (inFlight != null) inFlight.cancel(true);
+
+        inFlight = compute.submit(() -> {
+            if (gen != generation.get()) return;
+            List<T> result = work.apply(snapshot);
+            if (gen != generation.get() || Thread.currentThread().isInterrupted()) return;
+            main.execute(() -> {
+                if (gen == generation.get()) onResult.accept(result);
+            });
+        });
+    }
+
+    /**
+     * Cancels any pending request so its result is never delivered.
+     * Call from onDestroy to avoid touching views of a finished activity.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/**
+ * Per-screen Firestore usage metering for debug builds.
+ *
+ * Metered reads, writes and listeners (see {@link Metered}) are attributed to
+ * the screen that was in front when they were issued. Totals can be dumped to
+ * logcat and to a JSON file ({@code adb logcat -s FirestoreMeter}, or
+ * {@code adb shell run-as com.example.duckduckgoose cat files/firestore_meter.json}),
+ * and debuggable builds show a small overlay with the current screen's totals.
+ * Release builds never enable it, so the wrappers cost nothing there.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Process-wide meter keyed by screen (activity simple name).
+ */
+public class FirestoreMeter {
+
+    /** Log tag for dumps. */
+    private static final String TAG = "FirestoreMeter";
+
+    /** Dump file name under the app's files directory. */
+    public static final String DUMP_FILE = "firestore_meter.json";
+
+    /** Screen used before any activity resumes, and for background work. */
+    static final String NO_SCREEN = "App";
+
+    /** Shared instance. */
+    private static volatile FirestoreMeter instance;
+
+    /** Whether metering is on (debuggable builds only). */
+    private volatile boolean enabled;
+
+    /** Simple name of the resumed activity. */
+    private volatile String screen = NO_SCREEN;
+
+    /** Totals by screen, in first-seen order. Guarded by this. */
+    private final Map<String, MeterStats> screens = new LinkedHashMap<>();
+
+    /**
+     * Returns the shared meter.
+     *
+     * @return Process-wide FirestoreMeter
+     */
+    public static FirestoreMeter get() {
+        if (instance == null) {
+            synchronized (FirestoreMeter.class) {
+                if (instance == null) instance = new FirestoreMeter();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Turns metering on for debuggable builds and starts tracking the
+     * foreground screen. Call once from Application.onCreate.
+     *
+     * @param app - Application
+     */
+    public void install(Application app) {
+        if ((app.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return;
+        enabled = true;
+        app.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle state) {
+                // Reads issued from onCreate belong to the screen being created
+                screen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+                MeterOverlay.attach(activity);
+            }
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                screen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle out) {}
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {}
+        });
+    }
+
+    /**
+     * Returns whether metering is on.
+     *
+     * @return True in debuggable builds after {@link #install}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the screen new operations are attributed to.
+     *
+     * @return Activity simple name, or "App"
+     */
+    public String currentScreen() {
+        return screen;
+    }
+
+    /**
+     * Records a completed read.
+     *
+     * @param screen - Screen that issued it
+     * @param op - DOC_GET, QUERY_GET or LISTEN
+     * @param serverDocs - Documents billed as reads
+     * @param cacheDocs - Documents served from the local cache
+     * @param bytes - Estimated bytes of the documents
+     * @param latencyMillis - Time to result, or -1 to skip the histogram
+     */
+    synchronized void recordRead(String screen, MeterStats.Op op, long serverDocs, long cacheDocs,
+                                 long bytes, long latencyMillis) {
+        MeterStats s = stats(screen);
+        s.docsRead += serverDocs;
+        s.cacheReads += cacheDocs;
+        s.bytesRead += bytes;
+        if (latencyMillis >= 0) s.latency[op.ordinal()].record(latencyMillis);
+    }
+
+    /**
+     * Records a committed write batch.
+     *
+     * @param screen - Screen that issued it
+     * @param docs - Documents written
+     * @param bytes - Estimated bytes written, 0 if unknown
+     * @param latencyMillis - Commit latency
+     */
+    synchronized void recordWrite(String screen, long docs, long bytes, long latencyMillis) {
+        MeterStats s = stats(screen);
+        s.docsWritten += docs;
+        s.bytesWritten += bytes;
+        s.latency[MeterStats.Op.COMMIT.ordinal()].record(latencyMillis);
+    }
+
+    /**
+     * Records a snapshot listener being opened.
+     *
+     * @param screen - Screen that opened it
+     */
+    synchronized void recordListener(String screen) {
+        stats(screen).listeners++;
+    }
+
+    /**
+     * Returns a copy of the totals for every screen seen so far.
+     *
+     * @return Stats by screen, in first-seen order
+     */
+    public synchronized Map<String, MeterStats> snapshot() {
+        Map<String, MeterStats> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, MeterStats> e : screens.entrySet()) copy.put(e.getKey(), e.getValue().copy());
+        return copy;
+    }
+
+    /**
+     * Returns a one-line summary of a screen's totals for the overlay.
+     *
+     * @param screen - Screen name
+     * @return Summary text
+     */
+    public synchronized String summary(String screen) {
+        MeterStats s = screens.get(screen);
+        if (s == null) return screen + ": no Firestore calls";
+        MeterStats.Histogram q = s.getLatency(MeterStats.Op.QUERY_GET);
+        return String.format(Locale.ROOT, "%s  R %d (+%d cache)  W %d  L %d  %s  query p90 %dms",
+                screen, s.docsRead, s.cacheReads, s.docsWritten, s.listeners,
+                formatBytes(s.bytesRead + s.bytesWritten), q.percentile(90));
+    }
+
+    /**
+     * Clears all totals.
+     */
+    public synchronized void reset() {
+        screens.clear();
+    }
+
+    /**
+     * Logs every screen's totals and writes them as JSON to files/firestore_meter.json.
+     *
+     * @param context - Any context
+     * @return The dump file, or null if it could not be written
+     */
+    public File dump(Context context) {
+        Map<String, MeterStats> all = snapshot();
+        JSONObject root = new JSONObject();
+        try {
+            root.put("dumpedAt", System.currentTimeMillis());
+            JSONObject byScreen = new JSONObject();
+            for (Map.Entry<String, MeterStats> e : all.entrySet()) {
+                Log.i(TAG, summaryOf(e.getKey(), e.getValue()));
+                byScreen.put(e.getKey(), toJson(e.getValue()));
+            }
+            root.put("screens", byScreen);
+        } catch (JSONException e) {
+            Log.w(TAG, "Dump failed", e);
+            return null;
+        }
+
+        File file = new File(context.getFilesDir(), DUMP_FILE);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(root.toString().getBytes(StandardCharsets.UTF_8));
+            Log.i(TAG, "Wrote " + file.getAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            Log.w(TAG, "Dump failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns stats for a screen, creating them on first use. Caller holds the lock.
+     *
+     * @param screen - Screen name
+     * @return Live stats
+     */
+    private MeterStats stats(String screen) {
+        MeterStats s = screens.get(screen);
+        if (s == null) {
+            s = new MeterStats();
+            screens.put(screen, s);
+        }
+        return s;
+    }
+
+    /**
+     * Formats one screen's totals for logcat.
+     *
+     * @param screen - Screen name
+     * @param s - Its stats
+     * @return Log line
+     */
+    private static String summaryOf(String screen, MeterStats s) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+                "%s: reads=%d cacheReads=%d writes=%d listeners=%d bytesRead=%d bytesWritten=%d",
+                screen, s.docsRead, s.cacheReads, s.docsWritten, s.listeners, s.bytesRead, s.bytesWritten));
+        for (MeterStats.Op op : MeterStats.Op.values()) {
+            MeterStats.Histogram h = s.getLatency(op);
+            if (h.getCount() == 0) continue;
+            line.append(String.format(Locale.ROOT, " %s[n=%d p50=%d p90=%d p99=%d max=%d]",
+                    op, h.getCount(), h.percentile(50), h.percentile(90), h.percentile(99), h.getMaxMillis()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Converts one screen's stats to JSON.
+     *
+     * @param s - Stats
+     * @return JSON object
+     * @throws JSONException never for these values
+     */
+    private static JSONObject toJson(MeterStats s) throws JSONException {
+        JSONObject o = new JSONObject();
+        o.put("docsRead", s.docsRead);
+        o.put("cacheReads", s.cacheReads);
+        o.put("docsWritten", s.docsWritten);
+        o.put("listeners", s.listeners);
+        o.put("bytesRead", s.bytesRead);
+        o.put("bytesWritten", s.bytesWritten);
+        JSONObject latency = new JSONObject();
+        for (MeterStats.Op op : MeterStats.Op.values()) {
+            MeterStats.Histogram h = s.getLatency(op);
+            if (h.getCount() == 0) continue;
+            JSONObject ho = new JSONObject();
+            ho.put("count", h.getCount());
+            ho.put("meanMillis", h.getMeanMillis());
+            ho.put("p50", h.percentile(50));
+            ho.put("p90", h.percentile(90));
+            ho.put("p99", h.percentile(99));
+            ho.put("max", h.getMaxMillis());
+            latency.put(op.name(), ho);
+        }
+        o.put("latencyMillis", latency);
+        return o;
+    }
+
+    /**
+     * Formats a byte count compactly.
+     *
+     * @param bytes - Byte count
+     * @return e.g. "812 B", "14.2 KB", "3.1 MB"
+     */
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
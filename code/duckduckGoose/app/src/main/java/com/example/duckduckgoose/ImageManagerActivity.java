@@ -90,7 +90,7 @@ public class ImageManagerActivity extends AppCompatActivity implements ProfileSh
      * Fetches all events, extracts their image URLs, and populates the list.
      */
     private void fetchAllImages() {
-        db.collection("events").get()
+        Metered.get(db.collection("events"))
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     allImageItems.clear();
                     for (DocumentSnapshot doc : queryDocumentSnapshots) {
@@ -0,0 +1,150 @@
+/**
+ * Per-user inbox summary used for unread badges.
+ *
+ * inbox_meta/{uid} holds an unread counter, the time the inbox was last
+ * opened and a copy of the notification preference. The countNotification
+ * Cloud Function bumps the counter for every new notification (senders may
+ * not write other users' documents), so the badge can listen to this one
+ * small document instead of reading the inbox.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import androidx.annotation.MainThread;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Static helpers for reading and writing inbox_meta documents.
+ */
+public final class InboxMeta {
+
+    /** Collection holding one summary document per user. */
+    public static final String COLLECTION = "inbox_meta";
+
+    /** Unread notifications since the inbox was last opened. */
+    public static final String UNREAD_COUNT = "unreadCount";
+
+    /** When the inbox was last opened. */
+    public static final String LAST_SEEN = "lastSeen";
+
+    /** When the newest notification was written. */
+    public static final String LAST_NOTIFICATION_AT = "lastNotificationAt";
+
+    /** Mirror of users/{uid}.receive_notifications for the bell icon. */
+    public static final String RECEIVE_NOTIFICATIONS = "receive_notifications";
+
+    /** Prevents instantiation. */
+    private InboxMeta() {}
+
+    /**
+     * Returns a user's inbox_meta document.
+     *
+     * @param uid - User id
+     * @return Document reference
+     */
+    public static DocumentReference ref(String uid) {
+        return FirebaseFirestore.getInstance().collection(COLLECTION).document(uid);
+    }
+
+    /**
+     * Returns a single-document query for a user's inbox_meta. Used instead of a
+     * document listener so LiveQuery can share it between the top bar and the
+     * profile sheet.
+     *
+     * @param uid - User id
+     * @return Query matching at most one document
+     */
+    static Query query(String uid) {
+        return FirebaseFirestore.getInstance().collection(COLLECTION)
+                .whereEqualTo(FieldPath.documentId(), uid);
+    }
+
+    /**
+     * Observes a user's inbox_meta for as long as the owner is started.
+     *
+     * @param owner - Activity or fragment bounding the subscription
+     * @param uid - User id
+     * @param onChange - Receives the document, or null while it does not exist
+     * @return Handle that can be removed early
+     */
+    @MainThread
+    public static LiveQuery observe(LifecycleOwner owner, String uid, Consumer<DocumentSnapshot> onChange) {
+        return LiveQuery.observe(owner, query(uid), (snap, e) -> {
+            if (snap == null) return;
+            onChange.accept(snap.isEmpty() ? null : snap.getDocuments().get(0));
+        });
+    }
+
+    /**
+     * Clears the unread counter and stamps the last-seen time (blind write).
+     *
+     * @param uid - User id
+     * @return Task completing when the write commits
+     */
+    public static Task<Void> markSeen(String uid) {
+        Map<String, Object> seen = new HashMap<>();
+        seen.put(UNREAD_COUNT, 0);
+        seen.put(LAST_SEEN, Timestamp.now());
+        return ref(uid).set(seen, SetOptions.merge());
+    }
+
+    /**
+     * Sets the notification preference without reading it first. The user
+     * document stays the source of truth (the inbox query uses its opt-out
+     * time); the copy on inbox_meta is written in the same batch.
+     *
+     * @param uid - User id
+     * @param receive - True to receive notifications, false to mute
+     * @return Task completing when both writes commit
+     */
+    public static Task<Void> setReceiveNotifications(String uid, boolean receive) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("receive_notifications", receive);
+        updates.put("opt_out_updated_at", receive ? FieldValue.delete() : Timestamp.now());
+
+        Map<String, Object> mirror = new HashMap<>();
+        mirror.put(RECEIVE_NOTIFICATIONS, receive);
+
+        Metered.Batch batch = Metered.batch();
+        batch.update(db.collection("users").document(uid), updates);
+        batch.merge(ref(uid), mirror);
+        return batch.commit();
+    }
+
+    /**
+     * Reads the unread counter from a snapshot.
+     *
+     * @param meta - inbox_meta snapshot, may be null
+     * @return Unread count, 0 if unknown
+     */
+    public static long unreadCount(DocumentSnapshot meta) {
+        Long n = meta != null ? meta.getLong(UNREAD_COUNT) : null;
+        return n != null ? Math.max(0, n) : 0;
+    }
+
+    /**
+     * Reads the mirrored notification preference from a snapshot.
+     *
+     * @param meta - inbox_meta snapshot, may be null
+     * @return The preference, or null if never mirrored (fall back to the user document)
+     */
+    public static Boolean receiveNotifications(DocumentSnapshot meta) {
+        return meta != null ? meta.getBoolean(RECEIVE_NOTIFICATIONS) : null;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Lifecycle-aware, shared Firestore snapshot listener.
+ *
+ * Attaches when its owner reaches STARTED and detaches when it is STOPPED.
+ * Identical queries observed by several screens share one underlying
+ * listener, reference-counted, so navigating between screens does not stack
+ * listeners or repeat the initial read. A listener Firestore ends with an
+ * error is dropped, so the next subscriber to the query opens a fresh one.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Handle for one screen's subscription to a query.
+ *
+ * Typical use from an activity:
+ * <pre>
+ *     liveQuery = LiveQuery.observe(this, db.collection("events"), (snap, e) -> render(snap));
+ * </pre>
+ * Call {@link #remove()} to replace the subscription before the owner is destroyed
+ * (for example when a filter changes). All methods must be called on the main thread.
+ */
+public class LiveQuery {
+
+    /** Log tag. */
+    private static final String TAG = "LiveQuery";
+
+    /** Shared listeners keyed by query (Firestore queries implement equals/hashCode). */
+    private static final Map<Query, Shared> ACTIVE = new HashMap<>();
+
+    /** Query this handle observes. */
+    private final Query query;
+
+    /** Callback for this screen. */
+    private final EventListener<QuerySnapshot> listener;
+
+    /** Lifecycle driving attach/detach; null once removed. */
+    private Lifecycle lifecycle;
+
+    /** Lifecycle observer that attaches on start and detaches on stop. */
+    private final DefaultLifecycleObserver observer = new DefaultLifecycleObserver() {
+        @Override
+        public void onStart(@NonNull LifecycleOwner owner) {
+            attach();
+        }
+
+        @Override
+        public void onStop(@NonNull LifecycleOwner owner) {
+            detach();
+        }
+
+        @Override
+        public void onDestroy(@NonNull LifecycleOwner owner) {
+            remove();
+        }
+    };
+
+    /** Whether this handle is currently subscribed to its shared listener. */
+    private boolean attached;
+
+    private LiveQuery(Query query, EventListener<QuerySnapshot> listener) {
+        this.query = query;
+        this.listener = listener;
+    }
+
+    /**
+     * Observes a query for as long as the owner is started.
+     *
+     * If the owner is already started the listener attaches immediately. A query
+     * already observed elsewhere reuses that listener and its latest snapshot.
+     *
+     * @param owner - Activity or fragment whose lifecycle bounds the subscription
+     * @param query - Query to listen to
+     * @param listener - Callback for snapshots and errors
+     * @return Handle that can be removed early
+     */
+    @MainThread
+    public static LiveQuery observe(LifecycleOwner owner, Query query, EventListener<QuerySnapshot> listener) {
+        LiveQuery live = new LiveQuery(query, listener);
+        live.lifecycle = owner.getLifecycle();
+        live.lifecycle.addObserver(live.observer);
+        return live;
+    }
+
+    /**
+     * Stops observing and releases this handle's share of the listener.
+     * Safe to call more than once.
+     */
+    @MainThread
+    public void remove() {
+        detach();
+        if (lifecycle != null) {
+            lifecycle.removeObserver(observer);
+            lifecycle = null;
+        }
+    }
+
+    /**
+     * Returns the number of Firestore listeners currently held open.
+     *
+     * @return Distinct active queries
+     */
+    @MainThread
+    public static int activeListenerCount() {
+        return ACTIVE.size();
+    }
+
+    /**
+     * Subscribes to the shared listener for this query, creating it if needed.
+     */
+    private void attach() {
+        if (attached) return;
+        attached = true;
+        subscribe(query, listener);
+    }
+
+    /**
+     * Unsubscribes from the shared listener; the last subscriber closes it.
+     */
+    private void detach() {
+        if (!attached) return;
+        attached = false;
+        unsubscribe(query, listener);
+    }
+
+    /**
+     * Adds a subscriber to the shared listener for a query, creating it if needed.
+     * Used directly by holders with their own lifecycle, such as QueryLiveData.
+     *
+     * @param query - Query to listen to
+     * @param listener - Subscriber; receives the latest snapshot immediately if one exists
+     */
+    @MainThread
+    static void subscribe(Query query, EventListener<QuerySnapshot> listener) {
+        Shared shared = ACTIVE.get(query);
+        if (shared == null) {
+            shared = new Shared(query);
+            ACTIVE.put(query, shared);
+        }
+        shared.add(listener);
+    }
+
+    /**
+     * Removes a subscriber; the last subscriber closes the underlying listener.
+     *
+     * @param query - Query previously passed to {@link #subscribe}
+     * @param listener - Subscriber to remove
+     */
+    @MainThread
+    static void unsubscribe(Query query, EventListener<QuerySnapshot> listener) {
+        Shared shared = ACTIVE.get(query);
+        // Absent, or a newer listener opened after this subscriber's failed
+        if (shared == null || !shared.subscribers.remove(listener)) return;
+        if (shared.subscribers.isEmpty()) {
+            shared.registration.remove();
+            ACTIVE.remove(query);
+        }
+    }
+
+    /**
+     * One Firestore listener fanned out to every subscriber of the same query.
+     */
+    private static class Shared {
+        /** Query listened to; its key in ACTIVE. */
+        final Query query;
+        /** Subscribers in attach order. */
+        final Set<EventListener<QuerySnapshot>> subscribers = new LinkedHashSet<>();
+        /** Underlying Firestore registration. */
+        final ListenerRegistration registration;
+        /** Latest snapshot, replayed to late subscribers. */
+        QuerySnapshot last;
+        /** Screen that opened the listener, for FirestoreMeter. */
+        final String screen;
+        /** When the listener was attached, for first-snapshot latency. */
+        final long attachedAt;
+
+        Shared(Query query) {
+            this.query = query;
+            screen = Metered.listenerOpened();
+            attachedAt = SystemClock.elapsedRealtime();
+            registration = query.addSnapshotListener(this::dispatch);
+        }
+
+        /**
+         * Adds a subscriber and replays the latest snapshot to it, if any.
+         *
+         * @param l - Subscriber to add
+         */
+        void add(EventListener<QuerySnapshot> l) {
+            subscribers.add(l);
+            if (last != null) l.onEvent(last, null);
+        }
+
+        /**
+         * Forwards a snapshot or error to every subscriber.
+         *
+         * Firestore delivers no further events after an error, so the listener
+         * is closed and forgotten before the error is forwarded; subscribers
+         * that attach later open a new one instead of waiting on a dead one.
+         *
+         * @param snapshot - New snapshot, or null on error
+         * @param e - Error, or null
+         */
+        void dispatch(QuerySnapshot snapshot, FirebaseFirestoreException e) {
+            if (e != null) {
+                Log.e(TAG, "Listen failed", e);
+                registration.remove();
+                if (ACTIVE.get(query) == this) ACTIVE.remove(query);
+            } else {
+                boolean first = last == null;
+                Metered.listenerSnapshot(screen, snapshot, first,
+                        first ? SystemClock.elapsedRealtime() - attachedAt : -1);
+                last = snapshot;
+            }
+            // Copy: a subscriber may remove itself while handling the event
+            for (EventListener<QuerySnapshot> l : new LinkedHashSet<>(subscribers)) {
+                if (subscribers.contains(l)) l.onEvent(snapshot, e);
+            }
+            if (e != null) subscribers.clear();
+        }
+    }
+}
@@ -9,9 +9,11 @@
  */
 package com.example.duckduckgoose;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.view.WindowInsetsController;
 import android.widget.ArrayAdapter;
@@ -28,6 +30,7 @@ import com.google.android.material.textfield.MaterialAutoCompleteTextView;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.HashMap;
@@ -83,14 +86,27 @@ public class LoginActivity extends AppCompatActivity {
         }
 
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_login);
 
         // Firebase
         auth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
 
-        // If already signed in -> load profile and navigate
+        // If already signed in with a cached role -> route now, revalidate in the background
         FirebaseUser currentUser = auth.getCurrentUser();
+        if (currentUser != null) {
+            SessionCache.Profile cached = SessionCache.load(this, currentUser.getUid());
+            if (cached != null) {
+                StartupTimer.setCachedRoute(true);
+                revalidateSession(getApplicationContext(), db, currentUser.getUid(), cached.accountType);
+                loginNavigate(cached.accountType);
+                return;
+            }
+        }
+
+        setContentView(R.layout.activity_login);
+        StartupTimer.markFirstFrame(this);
+
+        // Signed in but nothing cached yet -> load profile and navigate
         if (currentUser != null) {
             loadNavigate(currentUser.getUid());
             return;
@@ -345,6 +361,8 @@ public class LoginActivity extends AppCompatActivity {
         db.collection("users").document(uid)
                 .set(userData)
                 .addOnSuccessListener(aVoid -> {
+                    SessionCache.save(this, new SessionCache.Profile(
+                            uid, accountType, fullName, userId, email, System.currentTimeMillis()));
                     Toast.makeText(this, "Account created successfully!", Toast.LENGTH_SHORT).show();
                     loginNavigate(accountType);
                 })
@@ -366,12 +384,12 @@ public class LoginActivity extends AppCompatActivity {
      * @param uid - Firebase Authentication user ID whose profile should be loaded
      */
     private void loadNavigate(String uid) {
-        db.collection("users").document(uid)
-                .get()
+        Metered.get(db.collection("users").document(uid))
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         String accountType = documentSnapshot.getString("accountType");
                         if (accountType != null) {
+                            SessionCache.save(this, profileFrom(uid, documentSnapshot));
                             Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
                             loginNavigate(accountType);
                         } else {
@@ -391,29 +409,94 @@ public class LoginActivity extends AppCompatActivity {
     }
 
     /**
-     * Sets the application's login mode and navigates to the appropriate activity.
+     * Re-reads the user's profile after a cached fast start and refreshes the cache.
      *
-     * Updates the global login mode and launches the correct screen based on the role.
+     * Runs detached from this activity (which has already finished). If the stored
+     * role changed, the app is re-routed to the correct surface; if the profile no
+     * longer exists the cache is dropped so the next launch resolves it again.
      *
-     * @param accountType - Account type used to determine the destination screen
+     * @param appContext - Application context used for prefs and re-routing
+     * @param db - Firestore instance
+     * @param uid - Signed-in Firebase uid
+     * @param cachedAccountType - Role the app was routed with
      */
-    private void loginNavigate(String accountType) {
-        AppConfig.setLoginMode(accountType);
+    private static void revalidateSession(Context appContext, FirebaseFirestore db,
+                                          String uid, String cachedAccountType) {
+        Metered.get(db.collection("users").document(uid))
+                .addOnSuccessListener(documentSnapshot -> {
+                    if (!documentSnapshot.exists()) {
+                        SessionCache.clear(appContext);
+                        return;
+                    }
+                    String accountType = documentSnapshot.getString("accountType");
+                    if (accountType == null) {
+                        SessionCache.clear(appContext);
+                        return;
+                    }
+                    SessionCache.save(appContext, profileFrom(uid, documentSnapshot));
+                    if (!accountType.equalsIgnoreCase(cachedAccountType)) {
+                        Log.i("LoginActivity", "Cached role " + cachedAccountType
+                                + " is stale, re-routing as " + accountType);
+                        AppConfig.setLoginMode(accountType);
+                        Intent intent = routeIntent(appContext, accountType);
+                        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                        appContext.startActivity(intent);
+                    }
+                })
+                // Offline or transient failure: keep using the cached role
+                .addOnFailureListener(e -> Log.w("LoginActivity", "Session revalidation failed", e));
+    }
 
+    /**
+     * Builds a cache entry from a users/{uid} document.
+     *
+     * @param uid - Firebase uid
+     * @param doc - User profile document
+     * @return Profile to cache
+     */
+    private static SessionCache.Profile profileFrom(String uid, DocumentSnapshot doc) {
+        return new SessionCache.Profile(uid,
+                doc.getString("accountType"),
+                doc.getString("fullName"),
+                doc.getString("userId"),
+                doc.getString("email"),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Builds the intent for the screen matching an account type.
+     *
+     * @param context - Context used to build the intent
+     * @param accountType - Account type used to determine the destination screen
+     * @return Intent for the Admin Console or MainActivity
+     */
+    private static Intent routeIntent(Context context, String accountType) {
+        String mode = accountType.toUpperCase();
         Intent intent;
-        if (AppConfig.LOGIN_MODE.equals("ADMIN")) {
+        if (mode.equals("ADMIN")) {
             // Admin mode - go to Admin Console
-            intent = new Intent(this, AdminConsoleActivity.class);
+            intent = new Intent(context, AdminConsoleActivity.class);
         } else {
-            intent = new Intent(this, MainActivity.class);
-            if (AppConfig.LOGIN_MODE.equals("ORGANIZER")) {
+            intent = new Intent(context, MainActivity.class);
+            if (mode.equals("ORGANIZER")) {
                 intent.putExtra("startOn", "MY_EVENTS");
             } else {
                 intent.putExtra("startOn", "EVENT_LIST");
             }
         }
+        return intent;
+    }
 
-        startActivity(intent);
+    /**
+     * Sets the application's login mode and navigates to the appropriate activity.
+     *
+     * Updates the global login mode and launches the correct screen based on the role.
+     *
+     * @param accountType - Account type used to determine the destination screen
+     */
+    private void loginNavigate(String accountType) {
+        AppConfig.setLoginMode(accountType);
+        startActivity(routeIntent(this, accountType));
         finish();
     }
 }
\ No newline at end of file
@@ -31,16 +31,16 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.Query;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -57,6 +57,15 @@ public class MainActivity extends AppCompatActivity {
     /** Current visible screen. */
     private Screen current = Screen.EVENT_LIST;
 
+    /** Background filter/sort runner for the event list; drops superseded requests. */
+    private final FilterSortPipeline<Event> eventListPipeline = new FilterSortPipeline<>();
+
+    /** Live query backing the visible screen; replaced on every screen or filter change. */
+    private LiveQuery screenQuery;
+
+    /** Span from opening the event list until its first results are laid out, or null. */
+    private PerfTrace.Span firstRowSpan;
+
     /**
      * Wires top-bar buttons based on the active screen and login mode.
      *
@@ -100,15 +109,20 @@ public class MainActivity extends AppCompatActivity {
      *
      * Supports "EVENT_LIST" or "MY_EVENTS" via the "startOn" extra.
      * Removes the extra after handling to avoid re-triggering on rotation.
+     *
+     * @return true if a screen was shown
      */
-    private void handleStartOnIntent() {
+    private boolean handleStartOnIntent() {
         String start = getIntent().getStringExtra("startOn");
-        if (start == null) return;
+        if (start == null) return false;
+        boolean shown = true;
         switch (start) {
             case "EVENT_LIST": showEventList(); break;
             case "MY_EVENTS":  showMyEvents();  break;
+            default: shown = false;
         }
         getIntent().removeExtra("startOn");
+        return shown;
     }
 
     /**
@@ -148,8 +162,9 @@ public class MainActivity extends AppCompatActivity {
                 );
             }
         }
-        showEventList();
-        handleStartOnIntent();
+        // Show the requested start screen, or the event list (never both)
+        if (!handleStartOnIntent()) showEventList();
+        StartupTimer.markFirstFrame(this);
 
         // Intercept system back
         getOnBackPressedDispatcher().addCallback(this, new OnBackPressedCallback(true) {
@@ -184,6 +199,30 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Cancels pending list work so results are not delivered to a destroyed activity.
+     */
+    @Override
+    protected void onDestroy() {
+        eventListPipeline.cancel();
+        super.onDestroy();
+    }
+
+    /**
+     * Replaces the visible screen's live query.
+     *
+     * The new query is observed before the old one is released, so re-showing a
+     * screen with an identical query keeps the shared listener instead of re-reading.
+     *
+     * @param query - Query for the new screen, or null if it has none
+     * @param listener - Snapshot callback for the new screen
+     */
+    private void setScreenQuery(Query query, EventListener<QuerySnapshot> listener) {
+        LiveQuery previous = screenQuery;
+        screenQuery = query != null ? LiveQuery.observe(this, query, listener) : null;
+        if (previous != null) previous.remove();
+    }
+
     /**
      * Navigates to the login screen and finishes the current task.
      */
@@ -195,23 +234,38 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Parses a cost label (for example, "$25" or "Free") into a numeric value for sorting.
+     * Builds the event list query for an interest.
+     *
+     * "All" (or no selection) returns the whole collection; any other interest is
+     * matched server-side against the event's tags so only matching events are read.
+     *
+     * @param db - Firestore instance
+     * @param interest - Selected interest label, or "All"
+     * @return Query for the events to show
+     */
+    private static Query eventsForInterest(FirebaseFirestore db, String interest) {
+        Query query = db.collection("events");
+        if (interest == null || interest.isEmpty() || interest.equals("All")) return query;
+        return query.whereArrayContainsAny("tags", Collections.singletonList(interest));
+    }
+
+    /**
+     * Sorts events by the selected criterion (interest filtering happens in the query).
+     *
+     * Runs on the compute pool via {@link FilterSortPipeline}; must not touch views.
+     * Dates and costs come from the shared engine's precomputed keys.
      *
-     * @param costStr - Cost label
-     * @return Numeric cost (Free -> 0); unknown or invalid values -> Double.MAX_VALUE
+     * @param source - Snapshot of the loaded events (may be reordered in place)
+     * @param sortBy - Selected sort label
+     * @return Sorted list without null entries
      */
-    private static double parseCost(String costStr) {
-        if (costStr == null) return Double.MAX_VALUE;
-        String s = costStr.trim().toLowerCase(Locale.ROOT);
-        if (s.isEmpty()) return Double.MAX_VALUE;
-        if (s.contains("free")) return 0.0;
-        // remove currency symbols and non-numeric except dot
-        String num = s.replaceAll("[^0-9.]", "");
-        if (num.isEmpty()) return Double.MAX_VALUE;
-        try {
-            return Double.parseDouble(num);
-        } catch (NumberFormatException ex) {
-            return Double.MAX_VALUE;
+    private static List<Event> sortEventList(List<Event> source, String sortBy) {
+        try (PerfTrace.Section ignored = PerfTrace.section("EventList.sort")) {
+            List<Event> filtered = new ArrayList<>();
+            for (Event e : source) {
+                if (e != null) filtered.add(e);
+            }
+            return EventSortEngine.get().sort(filtered, EventSortEngine.forLabel(sortBy));
         }
     }
 
@@ -224,6 +278,9 @@ public class MainActivity extends AppCompatActivity {
      * and sorting. Clicking an item opens the event detail screen.
      */
     private void showEventList() {
+        if (firstRowSpan != null) firstRowSpan.cancel();
+        PerfTrace.Span span = PerfTrace.get().begin(PerfTrace.EVENT_LIST_FIRST_ROW);
+        firstRowSpan = span;
         setContentView(R.layout.activity_event_list);
         current = Screen.EVENT_LIST;
         wireTopBarNav();
@@ -253,102 +310,56 @@ public class MainActivity extends AppCompatActivity {
 
             final List<Event> fullEvents = new ArrayList<>();
 
-            // Helper: apply filters from UI to fullEvents and update adapter
+            // Helper: read the sort from UI, then sort fullEvents off the main thread
             Runnable applyFilters = () -> {
-                String interest = "All";
                 String sortBy = "Date (Soonest)";
-                if (dropInterest != null) interest = dropInterest.getText().toString();
                 if (dropSort != null) sortBy = dropSort.getText().toString();
 
-                final String finalInterest = interest;
                 final String finalSortBy = sortBy;
 
-                List<Event> filtered = new ArrayList<>();
-                SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy", Locale.getDefault());
-                Date today = new Date();
-
-                for (Event e : fullEvents) {
-                    if (e == null) continue;
-
-                    // Interest filter
-                    if (finalInterest != null && !finalInterest.isEmpty() && !finalInterest.equals("All")) {
-                        String name = e.getName() == null ? "" : e.getName().toLowerCase(Locale.ROOT);
-                        if (!name.contains(finalInterest.toLowerCase(Locale.ROOT))) continue;
-                    }
-
-                    filtered.add(e);
-                }
+                eventListPipeline.submit(fullEvents,
+                        snapshot -> sortEventList(snapshot, finalSortBy),
+                        filtered -> {
+                            rv.setAdapter(new EventObjectAdapter(filtered));
+                            // Ends once, after the layout pass that shows the first rows
+                            rv.post(span::end);
+                        });
+            };
 
-                filtered.sort((a, b) -> {
-                    if (a == null || b == null) return 0;
-                    try {
-                        switch (finalSortBy) {
-                            case "Date (Soonest)": {
-                                Date da = sdf.parse(a.getEventDate());
-                                Date dbt = sdf.parse(b.getEventDate());
-                                if (da == null || dbt == null) return 0;
-                                return da.compareTo(dbt);
-                            }
-                            case "Date (Latest)": {
-                                Date da = sdf.parse(a.getEventDate());
-                                Date dbt = sdf.parse(b.getEventDate());
-                                if (da == null || dbt == null) return 0;
-                                return dbt.compareTo(da);
-                            }
-                            case "Registration Opens": {
-                                Date ra = sdf.parse(a.getRegistrationOpens());
-                                Date rb = sdf.parse(b.getRegistrationOpens());
-                                if (ra == null || rb == null) return 0;
-                                return ra.compareTo(rb);
+            // Helper: (re)subscribe to the events matching the selected interest
+            Runnable listenForInterest = () -> {
+                String interest = dropInterest != null ? dropInterest.getText().toString() : "All";
+                setScreenQuery(eventsForInterest(db, interest),
+                        (QuerySnapshot snapshots, FirebaseFirestoreException e) -> {
+                            if (e != null) {
+                                Log.e("Firestore", "Listen failed", e);
+                                return;
                             }
-                            case "Registration Deadline": {
-                                Date ca = sdf.parse(a.getRegistrationCloses());
-                                Date cb = sdf.parse(b.getRegistrationCloses());
-                                if (ca == null || cb == null) return 0;
-                                return ca.compareTo(cb);
-                            }
-                            case "Cost": {
-                                double va = parseCost(a.getCost());
-                                double vb = parseCost(b.getCost());
-                                return Double.compare(va, vb);
+                            fullEvents.clear();
+                            if (snapshots != null) {
+                                for (DocumentSnapshot doc : snapshots.getDocuments()) {
+                                    Event event = doc.toObject(Event.class);
+                                    if (event == null) continue;
+                                    if (event.getEventId() == null) event.setEventId(doc.getId());
+                                    fullEvents.add(event);
+                                }
                             }
-                            default:
-                                return 0;
-                        }
-                    } catch (Exception ex) {
-                        return 0;
-                    }
-                });
-
-                runOnUiThread(() -> rv.setAdapter(new EventObjectAdapter(filtered)));
+                            applyFilters.run();
+                        });
             };
 
-            // Wire dropdown changes to reapply filter
+            // Wire dropdown changes: interest re-queries the server, sort re-sorts locally
             if (dropInterest != null) {
                 dropInterest.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, getResources().getStringArray(R.array.interest_values)));
-                /** Re-applies filters when interest changes. */
-                dropInterest.setOnItemClickListener((parent, view, position, id) -> applyFilters.run());
+                /** Re-queries events when interest changes. */
+                dropInterest.setOnItemClickListener((parent, view, position, id) -> listenForInterest.run());
             }
             if (dropSort != null) {
-                /** Re-applies filters when sort changes. */
+                /** Re-applies sorting when sort changes. */
                 dropSort.setOnItemClickListener((parent, view, position, id) -> applyFilters.run());
             }
 
-            // Listen for events and keep a full copy to filter client-side
-            db.collection("events").addSnapshotListener((QuerySnapshot snapshots, FirebaseFirestoreException e) -> {
-                if (e != null) {
-                    Log.e("Firestore", "Listen failed", e);
-                    return;
-                }
-                fullEvents.clear();
-                if (snapshots != null) {
-                    for (DocumentSnapshot doc : snapshots.getDocuments()) {
-                        Event event = doc.toObject(Event.class);
-                        if (event != null) fullEvents.add(event);
-                    }
-                }
-                applyFilters.run();
-            });
+            listenForInterest.run();
         }
     }
 
@@ -383,15 +394,15 @@ public class MainActivity extends AppCompatActivity {
                 com.google.firebase.auth.FirebaseUser fu = com.google.firebase.auth.FirebaseAuth.getInstance().getCurrentUser();
                 if (fu == null) {
                     // No signed-in user: show empty sections
+                    setScreenQuery(null, null);
                     rows.clear();
                     rows.add("Past Events:");
                     rows.add("Current Events:");
                     rv.setAdapter(new OrganizerEventAdapter(rows, this));
                 } else {
                     String currentUid = fu.getUid();
-                    db.collection("events")
-                            .whereEqualTo("organizerId", currentUid)
-                            .addSnapshotListener((queryDocumentSnapshots, e) -> {
+                    setScreenQuery(db.collection("events").whereEqualTo("organizerId", currentUid),
+                            (queryDocumentSnapshots, e) -> {
                                 if (e != null) {
                                     Log.e("Firestore", "Listen failed", e);
                                     return;
@@ -401,28 +412,20 @@ public class MainActivity extends AppCompatActivity {
                                 List<Event> currentEvents = new ArrayList<>();
 
                                 if (queryDocumentSnapshots != null) {
+                                    long now = System.currentTimeMillis();
                                     for (DocumentSnapshot doc : queryDocumentSnapshots) {
                                         Event event = doc.toObject(Event.class);
                                         // make sure the Event knows its Firestore document id
                                         if (event != null) event.setEventId(doc.getId());
                                         if (event != null && event.getEventDate() != null) {
-                                            try {
-                                                // Parse your date format: "MM/dd/yy"
-                                                SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy", Locale.getDefault());
-                                                Date eventDate = sdf.parse(event.getEventDate());
-                                                Date today = new Date();
-
-                                                if (eventDate != null) {
-                                                    // Compare the event date to today
-                                                    if (eventDate.before(today)) {
-                                                        pastEvents.add(event);
-                                                    } else {
-                                                        currentEvents.add(event);
-                                                    }
-                                                }
-                                            } catch (ParseException ex) {
-                                                Log.e("Firestore", "Date parse error for event: " + event.getEventDate(), ex);
+                                            long eventDate = EventFieldParser.parseDateMillis(event.getEventDate());
+                                            if (eventDate == EventFieldParser.NO_DATE) {
+                                                Log.e("Firestore", "Date parse error for event: " + event.getEventDate());
                                                 currentEvents.add(event); // Default to current if parsing fails
+                                            } else if (eventDate < now) {
+                                                pastEvents.add(event);
+                                            } else {
+                                                currentEvents.add(event);
                                             }
                                         }
                                     }
@@ -448,9 +451,8 @@ public class MainActivity extends AppCompatActivity {
 
                 if (uid != null) {
                     // Query events where this user is an attendee (requires 'attendees' array field in documents)
-                    db.collection("waitlist")
-                            .whereEqualTo("userId", uid)
-                            .addSnapshotListener((waitlistSnapshots, e) -> {
+                    setScreenQuery(db.collection("waitlist").whereEqualTo("userId", uid),
+                            (waitlistSnapshots, e) -> {
                                 if (e != null) {
                                     Log.e("Firestore", "Listen failed", e);
                                     return;
@@ -483,27 +485,21 @@ public class MainActivity extends AppCompatActivity {
                                     final java.util.concurrent.atomic.AtomicInteger remaining = new java.util.concurrent.atomic.AtomicInteger(eventIds.size());
 
                                     for (String eid : eventIds) {
-                                        db.collection("events").document(eid).get()
+                                        Metered.get(db.collection("events").document(eid))
                                                 .addOnSuccessListener(doc -> {
                                                     if (doc != null && doc.exists()) {
                                                         Event event = doc.toObject(Event.class);
                                                         if (event != null && event.getEventDate() != null) {
-                                                            try {
-                                                                SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy", Locale.getDefault());
-                                                                Date eventDate = sdf.parse(event.getEventDate());
-                                                                Date today = new Date();
-                                                                Date signupDate = signupDates.get(event.getEventId());
-
-                                                                if (eventDate != null && signupDate != null) {
-                                                                    if (eventDate.before(today)) {
-                                                                        pastEvents.add(event);
-                                                                    } else {
-                                                                        preregEvents.add(event);
-                                                                    }
-                                                                }
-                                                            } catch (ParseException ex) {
-                                                                Log.e("Firestore", "Date parse error for event: " + event.getEventDate(), ex);
+                                                            long eventDate = EventFieldParser.parseDateMillis(event.getEventDate());
+                                                            if (eventDate == EventFieldParser.NO_DATE) {
+                                                                Log.e("Firestore", "Date parse error for event: " + event.getEventDate());
                                                                 preregEvents.add(event);
+                                                            } else if (signupDates.get(event.getEventId()) != null) {
+                                                                if (eventDate < System.currentTimeMillis()) {
+                                                                    pastEvents.add(event);
+                                                                } else {
+                                                                    preregEvents.add(event);
+                                                                }
                                                             }
                                                         }
                                                     }
@@ -526,6 +522,7 @@ public class MainActivity extends AppCompatActivity {
                 }
                 else {
                     // Not signed in: show empty sections
+                    setScreenQuery(null, null);
                     rows.add("Pre-Registration Deadline");
                     rows.add("Past Registration Deadline");
                     rv.setAdapter(new SectionedEventAdapter(rows));
@@ -0,0 +1,98 @@
+/**
+ * Debug overlay showing the current screen's Firestore usage.
+ *
+ * A one-line label pinned to the bottom of every activity in debuggable
+ * builds. Tap it to dump all screens (and PerfTrace spans) to logcat and
+ * JSON; long-press to reset the totals.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import java.io.File;
+
+/**
+ * Attaches and refreshes the overlay label.
+ */
+final class MeterOverlay {
+
+    /** Tag marking an overlay already attached to a content view. */
+    private static final String VIEW_TAG = "firestore_meter_overlay";
+
+    /** Refresh interval while the label is attached. */
+    private static final long REFRESH_MILLIS = 1000;
+
+    /** Prevents instantiation. */
+    private MeterOverlay() {}
+
+    /**
+     * Adds the overlay to an activity's content view, once.
+     *
+     * @param activity - Activity being started
+     */
+    static void attach(Activity activity) {
+        View content = activity.findViewById(android.R.id.content);
+        if (!(content instanceof FrameLayout)) return;
+        FrameLayout root = (FrameLayout) content;
+        if (root.findViewWithTag(VIEW_TAG) != null) return;
+
+        String screen = activity.getClass().getSimpleName();
+        float density = activity.getResources().getDisplayMetrics().density;
+        int pad = (int) (4 * density);
+
+        TextView label = new TextView(activity);
+        label.setTag(VIEW_TAG);
+        label.setTextSize(10);
+        label.setTextColor(Color.WHITE);
+        label.setBackgroundColor(0x99000000);
+        label.setPadding(pad * 2, pad, pad * 2, pad);
+        label.setOnClickListener(v -> {
+            File file = FirestoreMeter.get().dump(activity);
+            PerfTrace.get().dump(activity);
+            Toast.makeText(activity, file != null ? "Firestore usage written to " + file.getName()
+                    : "Dump failed; see logcat", Toast.LENGTH_SHORT).show();
+        });
+        label.setOnLongClickListener(v -> {
+            FirestoreMeter.get().reset();
+            PerfTrace.get().reset();
+            label.setText(FirestoreMeter.get().summary(screen));
+            return true;
+        });
+
+        FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.BOTTOM | Gravity.START);
+        root.addView(label, lp);
+
+        Runnable refresh = new Runnable() {
+            @Override
+            public void run() {
+                if (!label.isAttachedToWindow()) return;
+                label.setText(FirestoreMeter.get().summary(screen));
+                label.postDelayed(this, REFRESH_MILLIS);
+            }
+        };
+        label.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                label.removeCallbacks(refresh);
+                label.post(refresh);
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                label.removeCallbacks(refresh);
+            }
+        });
+        label.setText(FirestoreMeter.get().summary(screen));
+    }
+}
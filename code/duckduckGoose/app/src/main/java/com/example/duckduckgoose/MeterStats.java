@@ -0,0 +1,246 @@
+/**
+ * Firestore usage totals for one screen.
+ *
+ * Holds the counters and latency histograms FirestoreMeter keeps per screen.
+ * Plain Java so it can be unit tested; FirestoreMeter does the locking.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+/**
+ * Read, write, listener and byte counters with a latency histogram per
+ * operation kind. Not thread-safe.
+ */
+public class MeterStats {
+
+    /**
+     * Kinds of metered Firestore calls.
+     */
+    public enum Op { DOC_GET, QUERY_GET, LISTEN, COMMIT }
+
+    /** Documents read from the server (billed reads). */
+    long docsRead;
+
+    /** Documents served from the local cache (not billed). */
+    long cacheReads;
+
+    /** Documents written. */
+    long docsWritten;
+
+    /** Snapshot listeners opened. */
+    long listeners;
+
+    /** Estimated bytes of documents read. */
+    long bytesRead;
+
+    /** Estimated bytes of documents written. */
+    long bytesWritten;
+
+    /** Latency histogram per op kind, indexed by ordinal. */
+    final Histogram[] latency = new Histogram[Op.values().length];
+
+    /**
+     * Creates empty stats.
+     */
+    public MeterStats() {
+        for (int i = 0; i < latency.length; i++) latency[i] = new Histogram();
+    }
+
+    /**
+     * Returns a deep copy.
+     *
+     * @return Independent copy of these stats
+     */
+    public MeterStats copy() {
+        MeterStats c = new MeterStats();
+        c.docsRead = docsRead;
+        c.cacheReads = cacheReads;
+        c.docsWritten = docsWritten;
+        c.listeners = listeners;
+        c.bytesRead = bytesRead;
+        c.bytesWritten = bytesWritten;
+        for (int i = 0; i < latency.length; i++) c.latency[i] = latency[i].copy();
+        return c;
+    }
+
+    /**
+     * Returns documents read from the server.
+     *
+     * @return Documents read from the server
+     */
+    public long getDocsRead() {
+        return docsRead;
+    }
+
+    /**
+     * Returns documents served from the local cache.
+     *
+     * @return Documents served from the local cache
+     */
+    public long getCacheReads() {
+        return cacheReads;
+    }
+
+    /**
+     * Returns documents written.
+     *
+     * @return Documents written
+     */
+    public long getDocsWritten() {
+        return docsWritten;
+    }
+
+    /**
+     * Returns snapshot listeners opened.
+     *
+     * @return Snapshot listeners opened
+     */
+    public long getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Returns estimated bytes read.
+     *
+     * @return Estimated bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns estimated bytes written.
+     *
+     * @return Estimated bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the latency histogram for an op kind.
+     *
+     * @param op - Op kind
+     * @return Histogram
+     */
+    public Histogram getLatency(Op op) {
+        return latency[op.ordinal()];
+    }
+
+    /**
+     * Power-of-two latency buckets in milliseconds: [0,1], (1,2], (2,4], ...
+     * up to 8192 ms, then one overflow bucket.
+     */
+    public static class Histogram {
+        /** Bucket count including overflow. */
+        static final int BUCKETS = 15;
+
+        /** Samples per bucket. */
+        final long[] counts = new long[BUCKETS];
+
+        /** Samples recorded. */
+        long count;
+
+        /** Sum of samples in ms. */
+        long sumMillis;
+
+        /** Largest sample in ms. */
+        long maxMillis;
+
+        /**
+         * Adds one sample.
+         *
+         * @param millis - Latency in ms; negative values count as 0
+         */
+        public void record(long millis) {
+            long ms = Math.max(0, millis);
+            counts[bucketOf(ms)]++;
+            count++;
+            sumMillis += ms;
+            maxMillis = Math.max(maxMillis, ms);
+        }
+
+        /**
+         * Returns an upper bound for a percentile: the upper edge of the
+         * bucket holding that rank, capped at the largest sample.
+         *
+         * @param p - Percentile in (0, 100]
+         * @return Latency bound in ms, 0 with no samples
+         */
+        public long percentile(double p) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= rank) return Math.min(upperBound(b), maxMillis);
+            }
+            return maxMillis;
+        }
+
+        /**
+         * Returns samples recorded.
+         *
+         * @return Samples recorded
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns mean latency in ms, 0 with no samples.
+         *
+         * @return Mean latency in ms, 0 with no samples
+         */
+        public double getMeanMillis() {
+            return count == 0 ? 0 : sumMillis / (double) count;
+        }
+
+        /**
+         * Returns largest sample in ms.
+         *
+         * @return Largest sample in ms
+         */
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * Returns a copy.
+         *
+         * @return Independent histogram
+         */
+        Histogram copy() {
+            Histogram h = new Histogram();
+            System.arraycopy(counts, 0, h.counts, 0, BUCKETS);
+            h.count = count;
+            h.sumMillis = sumMillis;
+            h.maxMillis = maxMillis;
+            return h;
+        }
+
+        /**
+         * Returns the bucket for a latency.
+         *
+         * @param ms - Non-negative latency
+         * @return Bucket index
+         */
+        static int bucketOf(long ms) {
+            if (ms <= 1) return 0;
+            // ceil(log2(ms)): 2 -> 1, 3..4 -> 2, 5..8 -> 3, ...
+            int b = 64 - Long.numberOfLeadingZeros(ms - 1);
+            return Math.min(b, BUCKETS - 1);
+        }
+
+        /**
+         * Returns a bucket's upper edge.
+         *
+         * @param b - Bucket index
+         * @return Upper bound in ms, Long.MAX_VALUE for overflow
+         */
+        static long upperBound(int b) {
+            return b >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+        }
+    }
+}
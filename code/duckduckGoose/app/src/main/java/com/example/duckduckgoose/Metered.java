@@ -0,0 +1,552 @@
+/**
+ * Thin metering wrappers around Firestore reads, writes and listeners.
+ *
+ * Call sites use {@code Metered.get(query)} instead of {@code query.get()} (and
+ * likewise for documents), {@code Metered.batch()} instead of
+ * {@code db.batch()} and {@code Metered.runTransaction(fn)} instead of
+ * {@code db.runTransaction(fn)}; the results are the same Tasks. A
+ * transaction function receives a {@link Tx}, which has the Transaction
+ * methods the app uses and counts what they read and write.
+ * When FirestoreMeter is enabled each call is attributed to the screen that
+ * issued it with its document count, estimated size and latency. Otherwise the
+ * wrappers only delegate.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.GeoPoint;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.TransactionOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Static wrappers that report to {@link FirestoreMeter}.
+ */
+public final class Metered {
+
+    /** Fixed per-document overhead in Firestore's storage size rules. */
+    private static final int DOC_OVERHEAD = 32;
+
+    /** Prevents instantiation. */
+    private Metered() {}
+
+    /**
+     * Reads a document.
+     *
+     * @param ref - Document to read
+     * @return The same task as ref.get()
+     */
+    public static Task<DocumentSnapshot> get(DocumentReference ref) {
+        FirestoreMeter meter = FirestoreMeter.get();
+        Task<DocumentSnapshot> task = ref.get();
+        if (!meter.isEnabled()) return task;
+        String screen = meter.currentScreen();
+        long start = SystemClock.elapsedRealtime();
+        task.addOnSuccessListener(doc -> {
+            boolean cached = doc.getMetadata().isFromCache();
+            // A missing document still costs one read
+            meter.recordRead(screen, MeterStats.Op.DOC_GET, cached ? 0 : 1, cached ? 1 : 0,
+                    estimateBytes(doc), SystemClock.elapsedRealtime() - start);
+        });
+        return task;
+    }
+
+    /**
+     * Runs a query.
+     *
+     * @param query - Query to run
+     * @return The same task as query.get()
+     */
+    public static Task<QuerySnapshot> get(Query query) {
+        FirestoreMeter meter = FirestoreMeter.get();
+        Task<QuerySnapshot> task = query.get();
+        if (!meter.isEnabled()) return task;
+        String screen = meter.currentScreen();
+        long start = SystemClock.elapsedRealtime();
+        task.addOnSuccessListener(snap -> {
+            long bytes = 0;
+            for (DocumentSnapshot doc : snap.getDocuments()) bytes += estimateBytes(doc);
+            boolean cached = snap.getMetadata().isFromCache();
+            // Queries are billed at least one read, even when empty
+            meter.recordRead(screen, MeterStats.Op.QUERY_GET, cached ? 0 : Math.max(1, snap.size()),
+                    cached ? snap.size() : 0, bytes, SystemClock.elapsedRealtime() - start);
+        });
+        return task;
+    }
+
+    /**
+     * Starts a metered write batch.
+     *
+     * @return Batch that counts its writes and meters its commit
+     */
+    public static Batch batch() {
+        return new Batch(FirebaseFirestore.getInstance().batch(), null);
+    }
+
+    /**
+     * Starts a metered write batch attributed to a fixed name rather than the
+     * foreground screen, for background writers such as the outbox.
+     *
+     * @param screen - Name to attribute the writes to
+     * @return Batch that counts its writes and meters its commit
+     */
+    static Batch batch(String screen) {
+        return new Batch(FirebaseFirestore.getInstance().batch(), screen);
+    }
+
+    /**
+     * A transaction function that works on a metered {@link Tx}.
+     *
+     * @param <T> - Result type
+     */
+    public interface TxFunction<T> {
+        /**
+         * Runs one attempt of the transaction.
+         *
+         * @param tx - Transaction for this attempt
+         * @return Result of the transaction
+         * @throws FirebaseFirestoreException to abort the transaction
+         */
+        T apply(Tx tx) throws FirebaseFirestoreException;
+    }
+
+    /**
+     * Runs a metered transaction with the default retry policy.
+     *
+     * @param fn - Transaction function; may run more than once
+     * @param <T> - Result type
+     * @return The same task as db.runTransaction(fn)
+     */
+    public static <T> Task<T> runTransaction(TxFunction<T> fn) {
+        return runTransaction(null, null, fn);
+    }
+
+    /**
+     * Runs a metered transaction with options (e.g. a single attempt).
+     *
+     * @param options - Transaction options
+     * @param fn - Transaction function; may run more than once
+     * @param <T> - Result type
+     * @return The same task as db.runTransaction(options, fn)
+     */
+    public static <T> Task<T> runTransaction(TransactionOptions options, TxFunction<T> fn) {
+        return runTransaction(options, null, fn);
+    }
+
+    /**
+     * Runs a metered transaction attributed to a fixed name rather than the
+     * foreground screen, for background writers such as the outbox.
+     *
+     * @param screen - Name to attribute the reads and writes to
+     * @param fn - Transaction function; may run more than once
+     * @param <T> - Result type
+     * @return The same task as db.runTransaction(fn)
+     */
+    static <T> Task<T> runTransaction(String screen, TxFunction<T> fn) {
+        return runTransaction(null, screen, fn);
+    }
+
+    /**
+     * Runs a transaction, wrapping each attempt's Transaction in a Tx. Reads
+     * of every attempt are billed and reported when the transaction
+     * finishes, however it ends; the writes of the attempt that committed
+     * are reported on success, with the whole transaction's latency.
+     *
+     * @param options - Transaction options, or null for the default
+     * @param screen - Fixed attribution, or null for the screen in front
+     * @param fn - Transaction function
+     * @param <T> - Result type
+     * @return Transaction task
+     */
+    private static <T> Task<T> runTransaction(TransactionOptions options, String screen, TxFunction<T> fn) {
+        FirestoreMeter meter = FirestoreMeter.get();
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        boolean metering = meter.isEnabled();
+        AtomicLong reads = new AtomicLong();
+        AtomicLong readBytes = new AtomicLong();
+        Tx[] last = new Tx[1];
+        Transaction.Function<T> attempt = t -> {
+            Tx tx = new Tx(t, metering, reads, readBytes);
+            last[0] = tx;
+            return fn.apply(tx);
+        };
+        Task<T> task = options != null ? db.runTransaction(options, attempt) : db.runTransaction(attempt);
+        if (!metering) return task;
+        String by = screen != null ? screen : meter.currentScreen();
+        long start = SystemClock.elapsedRealtime();
+        task.addOnCompleteListener(t -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (reads.get() > 0) meter.recordRead(by, MeterStats.Op.DOC_GET, reads.get(), 0, readBytes.get(), -1);
+            Tx committed = last[0];
+            if (t.isSuccessful() && committed != null && committed.ops > 0) {
+                meter.recordWrite(by, committed.ops, committed.bytes, latency);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Records a snapshot listener being opened (called by LiveQuery).
+     *
+     * @return Screen the listener is attributed to
+     */
+    static String listenerOpened() {
+        FirestoreMeter meter = FirestoreMeter.get();
+        String screen = meter.currentScreen();
+        if (meter.isEnabled()) meter.recordListener(screen);
+        return screen;
+    }
+
+    /**
+     * Records a listener snapshot. Listeners are billed one read per changed
+     * document (all documents on the first snapshot), at least one for an
+     * empty first result.
+     *
+     * @param screen - Screen the listener belongs to
+     * @param snap - Snapshot delivered
+     * @param first - Whether this is the listener's first snapshot
+     * @param latencyMillis - Time since attach for the first snapshot, otherwise -1
+     */
+    static void listenerSnapshot(String screen, QuerySnapshot snap, boolean first, long latencyMillis) {
+        FirestoreMeter meter = FirestoreMeter.get();
+        if (!meter.isEnabled() || snap == null) return;
+        long changed = snap.getDocumentChanges().size();
+        long bytes = 0;
+        for (DocumentChange c : snap.getDocumentChanges()) {
+            bytes += estimateBytes(c.getDocument());
+        }
+        if (snap.getMetadata().isFromCache()) {
+            meter.recordRead(screen, MeterStats.Op.LISTEN, 0, changed, bytes, -1);
+        } else {
+            meter.recordRead(screen, MeterStats.Op.LISTEN, first ? Math.max(1, changed) : changed, 0,
+                    bytes, latencyMillis);
+        }
+    }
+
+    /**
+     * WriteBatch wrapper that counts writes and estimated bytes, and reports
+     * them when the commit succeeds.
+     */
+    public static final class Batch implements BatchWriter {
+        /** Underlying batch. */
+        private final WriteBatch batch;
+
+        /** Adapter that converts FieldOp values. */
+        private final BatchWriter writer;
+
+        /** Fixed attribution, or null for the screen in front at commit. */
+        private final String screen;
+
+        /** Whether to estimate sizes (metering on). */
+        private final boolean metering = FirestoreMeter.get().isEnabled();
+
+        /** Writes added. */
+        private int ops;
+
+        /** Estimated bytes added. */
+        private long bytes;
+
+        /**
+         * Wraps a batch.
+         *
+         * @param batch - Batch to write into
+         * @param screen - Fixed attribution, or null
+         */
+        private Batch(WriteBatch batch, String screen) {
+            this.batch = batch;
+            this.screen = screen;
+            this.writer = BatchWriter.of(batch);
+        }
+
+        @Override
+        public void set(DocumentReference ref, Map<String, Object> data) {
+            writer.set(ref, data);
+            added(ref, data);
+        }
+
+        /**
+         * Overwrites a document with an object Firestore serializes (e.g. an
+         * Event). Its size is counted as an empty document's.
+         *
+         * @param ref - Document to write
+         * @param data - Object to serialize
+         */
+        public void set(DocumentReference ref, Object data) {
+            batch.set(ref, data);
+            added(ref, null);
+        }
+
+        @Override
+        public void merge(DocumentReference ref, Map<String, Object> data) {
+            writer.merge(ref, data);
+            added(ref, data);
+        }
+
+        @Override
+        public void update(DocumentReference ref, Map<String, Object> data) {
+            writer.update(ref, data);
+            added(ref, data);
+        }
+
+        @Override
+        public void delete(DocumentReference ref) {
+            writer.delete(ref);
+            added(ref, null);
+        }
+
+        /**
+         * Returns the number of writes added so far.
+         *
+         * @return Write count
+         */
+        public int size() {
+            return ops;
+        }
+
+        /**
+         * Commits the batch.
+         *
+         * @return The same task as WriteBatch.commit()
+         */
+        public Task<Void> commit() {
+            FirestoreMeter meter = FirestoreMeter.get();
+            Task<Void> task = batch.commit();
+            if (!metering) return task;
+            String by = screen != null ? screen : meter.currentScreen();
+            long start = SystemClock.elapsedRealtime();
+            int n = ops;
+            long b = bytes;
+            task.addOnSuccessListener(v -> meter.recordWrite(by, n, b, SystemClock.elapsedRealtime() - start));
+            return task;
+        }
+
+        /**
+         * Counts one write.
+         *
+         * @param ref - Target document
+         * @param data - Written fields, or null for a delete
+         */
+        private void added(DocumentReference ref, Map<String, Object> data) {
+            ops++;
+            if (metering) bytes += estimateWriteBytes(ref.getPath(), data);
+        }
+    }
+
+    /**
+     * Transaction wrapper that counts reads and writes. One is created per
+     * attempt; reads add to counters shared by every attempt, writes are
+     * kept per attempt.
+     */
+    public static final class Tx {
+        /** Underlying transaction. */
+        private final Transaction tx;
+
+        /** Whether to estimate sizes (metering on). */
+        private final boolean metering;
+
+        /** Documents read by every attempt so far. */
+        private final AtomicLong reads;
+
+        /** Estimated bytes read by every attempt so far. */
+        private final AtomicLong readBytes;
+
+        /** Writes added by this attempt. */
+        private int ops;
+
+        /** Estimated bytes added by this attempt. */
+        private long bytes;
+
+        /**
+         * Wraps one attempt's transaction.
+         *
+         * @param tx - Transaction
+         * @param metering - Whether to estimate sizes
+         * @param reads - Shared read counter
+         * @param readBytes - Shared read size counter
+         */
+        private Tx(Transaction tx, boolean metering, AtomicLong reads, AtomicLong readBytes) {
+            this.tx = tx;
+            this.metering = metering;
+            this.reads = reads;
+            this.readBytes = readBytes;
+        }
+
+        /**
+         * Reads a document within the transaction.
+         *
+         * @param ref - Document to read
+         * @return Snapshot (which may not exist)
+         * @throws FirebaseFirestoreException if the read fails
+         */
+        public DocumentSnapshot get(DocumentReference ref) throws FirebaseFirestoreException {
+            DocumentSnapshot doc = tx.get(ref);
+            // A missing document still costs one read
+            reads.incrementAndGet();
+            if (metering) readBytes.addAndGet(estimateBytes(doc));
+            return doc;
+        }
+
+        /**
+         * Overwrites a document.
+         *
+         * @param ref - Document to write
+         * @param data - Fields (a Map) or an object to serialize
+         * @return This transaction
+         */
+        public Tx set(DocumentReference ref, Object data) {
+            tx.set(ref, data);
+            added(ref, data);
+            return this;
+        }
+
+        /**
+         * Writes a document with options (e.g. a merge).
+         *
+         * @param ref - Document to write
+         * @param data - Fields (a Map) or an object to serialize
+         * @param options - Set options
+         * @return This transaction
+         */
+        public Tx set(DocumentReference ref, Object data, SetOptions options) {
+            tx.set(ref, data, options);
+            added(ref, data);
+            return this;
+        }
+
+        /**
+         * Updates fields of an existing document.
+         *
+         * @param ref - Document to update
+         * @param data - Fields to update
+         * @return This transaction
+         */
+        public Tx update(DocumentReference ref, Map<String, Object> data) {
+            tx.update(ref, data);
+            added(ref, data);
+            return this;
+        }
+
+        /**
+         * Updates one or more fields of an existing document.
+         *
+         * @param ref - Document to update
+         * @param field - First field
+         * @param value - Its value
+         * @param more - Further field and value pairs
+         * @return This transaction
+         */
+        public Tx update(DocumentReference ref, String field, Object value, Object... more) {
+            tx.update(ref, field, value, more);
+            added(ref, null);
+            return this;
+        }
+
+        /**
+         * Deletes a document.
+         *
+         * @param ref - Document to delete
+         * @return This transaction
+         */
+        public Tx delete(DocumentReference ref) {
+            tx.delete(ref);
+            added(ref, null);
+            return this;
+        }
+
+        /**
+         * Counts one write.
+         *
+         * @param ref - Target document
+         * @param data - Written value if it is a Map, otherwise its size is not estimated
+         */
+        @SuppressWarnings("unchecked")
+        private void added(DocumentReference ref, Object data) {
+            ops++;
+            if (metering) {
+                bytes += estimateWriteBytes(ref.getPath(), data instanceof Map ? (Map<String, Object>) data : null);
+            }
+        }
+    }
+
+    /**
+     * Estimates the size of one write.
+     *
+     * @param path - Document path
+     * @param data - Written fields, or null for a delete
+     * @return Estimated bytes
+     */
+    static long estimateWriteBytes(String path, Map<String, Object> data) {
+        long size = utf8(path) + 16 + DOC_OVERHEAD;
+        return data != null ? size + estimateBytes(data) : size;
+    }
+
+    /**
+     * Estimates a document's stored size using Firestore's size rules.
+     *
+     * @param doc - Snapshot (may not exist)
+     * @return Estimated bytes
+     */
+    static long estimateBytes(DocumentSnapshot doc) {
+        return estimateWriteBytes(doc.getReference().getPath(), doc.getData());
+    }
+
+    /**
+     * Estimates the size of a field value: strings are UTF-8 length + 1,
+     * numbers and timestamps 8, booleans and null 1, maps and lists the sum
+     * of their parts.
+     *
+     * @param value - Field value
+     * @return Estimated bytes
+     */
+    static long estimateBytes(Object value) {
+        if (value == null || value instanceof Boolean) return 1;
+        if (value instanceof String) return utf8((String) value) + 1;
+        if (value instanceof Number || value instanceof Timestamp || value instanceof Date) return 8;
+        if (value instanceof GeoPoint) return 16;
+        if (value instanceof Blob) return ((Blob) value).toBytes().length;
+        if (value instanceof DocumentReference) return utf8(((DocumentReference) value).getPath()) + 1;
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                size += utf8(String.valueOf(e.getKey())) + 1 + estimateBytes(e.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 0;
+            for (Object o : (Collection<?>) value) size += estimateBytes(o);
+            return size;
+        }
+        return 8;
+    }
+
+    /**
+     * Returns a string's UTF-8 length.
+     *
+     * @param s - String
+     * @return Byte length
+     */
+    private static int utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
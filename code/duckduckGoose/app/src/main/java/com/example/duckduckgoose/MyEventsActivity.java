@@ -101,6 +101,16 @@ public class MyEventsActivity extends AppCompatActivity {
             });
         }
 
+        // Draw several events in one go
+        View btnBulkDraw = findViewById(R.id.btnBulkDraw);
+        if (btnBulkDraw != null) {
+            btnBulkDraw.setOnClickListener(v -> {
+                Intent bulkIntent = new Intent(MyEventsActivity.this, BulkDrawActivity.class);
+                bulkIntent.putExtra("organizerId", organizerId);
+                startActivity(bulkIntent);
+            });
+        }
+
         MaterialAutoCompleteTextView drop = findViewById(R.id.dropSortMy);
         if (drop != null) {
             String[] sorts = {"Date (Soonest)", "Date (Latest)", "Registration Opens", "Registration Deadline", "Cost"};
@@ -140,7 +150,7 @@ public class MyEventsActivity extends AppCompatActivity {
      * if missing, and refreshes the adapter display.
      */
     private void loadEventsFromFirestore() {
-        eventsRef.whereEqualTo("organizerId", organizerId).get()
+        Metered.get(eventsRef.whereEqualTo("organizerId", organizerId))
                 .addOnSuccessListener((QuerySnapshot querySnapshot) -> {
                     events.clear();
                     for (DocumentSnapshot ds : querySnapshot.getDocuments()) {
@@ -0,0 +1,212 @@
+/**
+ * One logical notification send: the same message to a set of recipients.
+ *
+ * Besides the per-recipient notification documents, a send writes a summary
+ * document to notification_batches (message, sender, event, recipient count,
+ * timestamp) and its recipient ids in pages under
+ * notification_batches/{id}/recipients/{page}. The admin event logs read one
+ * summary per send and fetch recipient pages only when asked.
+ *
+ * A system send ({@link #once}) derives every document id from the event,
+ * type and draw, and writes each only if absent, so a replayed commit or a
+ * second press of the same button writes nothing twice. A repeated send that
+ * reaches new recipients notifies them but keeps the first summary.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Collects the writes for one send into a BatchWriter (a WriteBatch or an
+ * outbox batch).
+ *
+ * Typical use:
+ * <pre>
+ *     BatchWriter writer = BatchWriter.of(batch);
+ *     NotificationBatch send = new NotificationBatch(eventId, message, senderUid, null);
+ *     for (String uid : recipients) send.addRecipient(writer, uid);
+ *     send.finish(writer);
+ *     batch.commit();
+ * </pre>
+ */
+public class NotificationBatch {
+
+    /** Summary collection name. */
+    public static final String COLLECTION = "notification_batches";
+
+    /** Recipient page subcollection name. */
+    public static final String RECIPIENTS = "recipients";
+
+    /** Recipient ids per page document. */
+    public static final int RECIPIENT_PAGE_SIZE = 50;
+
+    /** Summary document for this send. */
+    private final DocumentReference summary;
+
+    /** Related event id. */
+    private final String eventId;
+
+    /** Message text shared by every recipient. */
+    private final String message;
+
+    /** Sender uid. */
+    private final String sentBy;
+
+    /** Notification type, or null. */
+    private final String type;
+
+    /** Send time, shared by the summary and every notification. */
+    private final Timestamp timestamp = Timestamp.now();
+
+    /** Draw reported by a system send, or null. */
+    private final String drawId;
+
+    /** Whether ids are deterministic and writes create-if-absent. */
+    private final boolean once;
+
+    /** Recipients added so far, in order. */
+    private final List<String> recipients = new ArrayList<>();
+
+    /** Recipients of a system send, so none is added twice. */
+    private final Set<String> added = new HashSet<>();
+
+    /**
+     * Starts a send.
+     *
+     * @param eventId - Related event id
+     * @param message - Message text
+     * @param sentBy - Sender uid
+     * @param type - Notification type (e.g. "selected"), or null
+     */
+    public NotificationBatch(String eventId, String message, String sentBy, String type) {
+        this(FirebaseFirestore.getInstance().collection(COLLECTION).document(),
+                eventId, message, sentBy, type, null, false);
+    }
+
+    /**
+     * Starts a send.
+     *
+     * @param summary - Summary document
+     * @param eventId - Related event id
+     * @param message - Message text
+     * @param sentBy - Sender uid
+     * @param type - Notification type, or null
+     * @param drawId - Draw reported, or null
+     * @param once - Whether writes are create-if-absent
+     */
+    private NotificationBatch(DocumentReference summary, String eventId, String message, String sentBy,
+                              String type, String drawId, boolean once) {
+        this.summary = summary;
+        this.eventId = eventId;
+        this.message = message;
+        this.sentBy = sentBy;
+        this.type = type;
+        this.drawId = drawId;
+        this.once = once;
+    }
+
+    /**
+     * Starts a system send that reaches each recipient at most once per
+     * (event, type, draw). Its writes must go to an outbox batch.
+     *
+     * @param eventId - Related event id
+     * @param message - Message text
+     * @param sentBy - Sender uid
+     * @param type - Notification type (e.g. "selected"); part of the dedup key
+     * @param drawId - Draw reported (e.g. its seed), or null for a notice about the event alone
+     * @return Send to add recipients to
+     */
+    public static NotificationBatch once(String eventId, String message, String sentBy, String type,
+                                         String drawId) {
+        Objects.requireNonNull(type, "type");
+        DocumentReference summary = FirebaseFirestore.getInstance().collection(COLLECTION)
+                .document(NotificationRepository.dedupKey("b", eventId, type, drawId));
+        return new NotificationBatch(summary, eventId, message, sentBy, type, drawId, true);
+    }
+
+    /**
+     * Adds one recipient's notification to a batch.
+     *
+     * @param batch - Batch the send is written with
+     * @param userId - Recipient uid
+     */
+    public void addRecipient(BatchWriter batch, String userId) {
+        if (userId == null) return;
+        if (once && !added.add(userId)) return;
+        Map<String, Object> notif = NotificationRepository.newNotification(userId, eventId, message, sentBy, type);
+        notif.put("timestamp", timestamp);
+        notif.put("batchId", summary.getId());
+        if (once) {
+            if (drawId != null) notif.put("drawId", drawId);
+            NotificationRepository.addOnce(batch, notif,
+                    NotificationRepository.notificationId(eventId, userId, type, drawId));
+        } else {
+            NotificationRepository.addTo(batch, notif);
+        }
+        recipients.add(userId);
+    }
+
+    /**
+     * Adds the summary and recipient pages to a batch. Call once, after the
+     * last recipient; does nothing if there were none.
+     *
+     * @param batch - Batch the send is written with
+     */
+    public void finish(BatchWriter batch) {
+        if (recipients.isEmpty()) return;
+        // A system send's summary and pages are written with the first send only
+        BatchWriter writer = once ? batch.ifAbsent(summary) : batch;
+        int pages = pageCount(recipients.size());
+        for (int p = 0; p < pages; p++) {
+            int from = p * RECIPIENT_PAGE_SIZE;
+            List<String> ids = new ArrayList<>(
+                    recipients.subList(from, Math.min(from + RECIPIENT_PAGE_SIZE, recipients.size())));
+            Map<String, Object> page = new HashMap<>();
+            page.put("index", p);
+            page.put("userIds", ids);
+            writer.set(summary.collection(RECIPIENTS).document(String.valueOf(p)), page);
+        }
+
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("eventId", eventId);
+        doc.put("message", message);
+        doc.put("sentBy", sentBy);
+        doc.put("recipientCount", recipients.size());
+        doc.put("pageCount", pages);
+        doc.put("timestamp", timestamp);
+        if (type != null) doc.put("type", type);
+        if (drawId != null) doc.put("drawId", drawId);
+        writer.set(summary, doc);
+    }
+
+    /**
+     * Returns the number of recipients added so far.
+     *
+     * @return Recipient count
+     */
+    public int getRecipientCount() {
+        return recipients.size();
+    }
+
+    /**
+     * Returns the number of recipient pages needed for a recipient count.
+     *
+     * @param recipientCount - Number of recipients
+     * @return Page documents to write
+     */
+    static int pageCount(int recipientCount) {
+        return (recipientCount + RECIPIENT_PAGE_SIZE - 1) / RECIPIENT_PAGE_SIZE;
+    }
+}
@@ -20,14 +20,17 @@ import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.MaterialAutoCompleteTextView;
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -36,6 +39,8 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * Displays notification logs in a scrollable list with sorting capability.
@@ -54,12 +59,18 @@ public class NotificationLogsActivity extends AppCompatActivity {
     /** List of notifications loaded from Firebase. */
     private List<NotificationItem> notifications = new ArrayList<>();
 
-    /** Firestore instance for data access. */
-    private FirebaseFirestore db;
-
     /** Dropdown for sort options. */
     private MaterialAutoCompleteTextView dropSort;
 
+    /** Background runner for sorting; only the latest sort request is applied. */
+    private final FilterSortPipeline<NotificationItem> sortPipeline = new FilterSortPipeline<>();
+
+    /** Inbox listener and preferences, retained across configuration changes. */
+    private NotificationLogsViewModel viewModel;
+
+    /** Button that fetches the next page of older notifications. */
+    private MaterialButton btnLoadMore;
+
     /**
      * Initializes the notification logs screen and loads real data from Firebase.
      *
@@ -84,8 +95,6 @@ public class NotificationLogsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_notification_logs);
 
-        db = FirebaseFirestore.getInstance();
-
         // Attach top bar profile sheet
         TopBarWiring.attachProfileSheet(this);
 
@@ -97,6 +106,12 @@ public class NotificationLogsActivity extends AppCompatActivity {
         adapter = new NotificationLogsAdapter(notifications);
         recyclerNotifications.setAdapter(adapter);
 
+        btnLoadMore = findViewById(R.id.btnLoadMore);
+
+        // Archived months are read only when asked for
+        View btnArchive = findViewById(R.id.btnArchive);
+        btnArchive.setOnClickListener(v -> showArchivedMonths());
+
         // Set up sort dropdown
         dropSort = findViewById(R.id.dropSort);
         String[] sortOptions = {"Newest First", "Oldest First"};
@@ -116,8 +131,8 @@ public class NotificationLogsActivity extends AppCompatActivity {
         // Load notifications from Firebase
         loadNotifications();
 
-        // Mark notifications as read when viewing
-        markNotificationsAsRead();
+        // Mark notifications as read when viewing (once, not again on rotation)
+        if (savedInstanceState == null) markNotificationsAsRead();
     }
 
     /**
@@ -133,8 +148,9 @@ public class NotificationLogsActivity extends AppCompatActivity {
     /**
      * Loads notifications from Firebase for the current user.
      *
-     * Also fetches event and organizer details for each notification and
-     * filters out muted organizer/admin notifications based on user settings.
+     * The ViewModel pages the inbox newest-first and applies the user's mute
+     * setting in the query; sender names come from the repositories, so a
+     * rotation re-renders without reads.
      */
     private void loadNotifications() {
         String uid = FirebaseAuth.getInstance().getUid();
@@ -144,148 +160,201 @@ public class NotificationLogsActivity extends AppCompatActivity {
         }
         android.util.Log.d("NotificationLogs", "Loading notifications for user: " + uid);
 
-        // First, read the user's preference for receiving organizer/admin notifications.
-        db.collection("users").document(uid).get()
-                .addOnSuccessListener(userDoc -> {
-                    boolean receive = true;
-                    com.google.firebase.Timestamp optOutTs = null;
-                    if (userDoc != null && userDoc.exists()) {
-                        Boolean b = userDoc.getBoolean("receive_notifications");
-                        if (b != null) receive = b;
-                        optOutTs = userDoc.getTimestamp("opt_out_updated_at");
-                    }
-
-                    // Attach listener to notifications; if user has muted organizer/admin notices
-                    // we will filter out event-related notifications that were created at/after opt-out.
-                    final boolean finalReceive = receive;
-                    final com.google.firebase.Timestamp finalOptOutTs = optOutTs;
-
-                    db.collection("notifications")
-                            .whereEqualTo("userId", uid)
-                            .addSnapshotListener((value, error) -> {
-                                if (error != null) {
-                                    android.util.Log.e("NotificationLogs", "Error loading notifications", error);
-                                    Toast.makeText(this, "Error loading notifications", Toast.LENGTH_SHORT).show();
-                                    return;
-                                }
-
-                                notifications.clear();
-                                if (value != null && !value.isEmpty()) {
-                                    android.util.Log.d("NotificationLogs", "Found " + value.size() + " notifications");
-                                    for (QueryDocumentSnapshot doc : value) {
-                                        // If the user has muted organizer/admin notifications, skip event-related notifications
-                                        // that were created at/after the opt-out timestamp. If no opt-out timestamp exists,
-                                        // fall back to skipping all event-related notifications (legacy behavior).
-                                        String eventId = doc.getString("eventId");
-                                        if (!finalReceive && eventId != null && !eventId.isEmpty()) {
-                                            com.google.firebase.Timestamp notifTs = doc.getTimestamp("timestamp");
-                                            if (finalOptOutTs == null) {
-                                                // No opt-out timestamp available: use legacy behavior and skip the notification.
-                                                continue;
-                                            } else {
-                                                // Skip only notifications created at/after the opt-out timestamp.
-                                                if (notifTs != null && notifTs.toDate().compareTo(finalOptOutTs.toDate()) >= 0) {
-                                                    continue;
-                                                }
-                                            }
-                                        }
-
-                                        String message = doc.getString("message");
-                                        String sentBy = doc.getString("sentBy");
-
-                                        // Handle Firestore Timestamp properly
-                                        Date timestamp;
-                                        com.google.firebase.Timestamp ts = doc.getTimestamp("timestamp");
-                                        if (ts != null) {
-                                            timestamp = ts.toDate();
-                                        } else {
-                                            timestamp = new Date();
-                                        }
-
-                                        NotificationItem item = new NotificationItem(message, "", timestamp, eventId, sentBy);
-                                        notifications.add(item);
-
-                                        // Fetch organizer name from users collection using sentBy
-                                        if (sentBy != null && !sentBy.isEmpty()) {
-                                            final NotificationItem finalItem = item;
-                                            db.collection("users").document(sentBy).get()
-                                                    .addOnSuccessListener(userDoc2 -> {
-                                                        if (userDoc2.exists()) {
-                                                            String organizerName = userDoc2.getString("fullName");
-                                                            if (organizerName != null && !organizerName.isEmpty()) {
-                                                                finalItem.setOrganizerName("From: " + organizerName);
-                                                                adapter.notifyDataSetChanged();
-                                                            }
-                                                        }
-                                                    });
-                                        } else if (eventId != null && !eventId.isEmpty()) {
-                                            // Fallback: fetch organizer from event if sentBy not available
-                                            final NotificationItem finalItem = item;
-                                            db.collection("events").document(eventId).get()
-                                                    .addOnSuccessListener(eventDoc -> {
-                                                        if (eventDoc.exists()) {
-                                                            String organizerId = eventDoc.getString("organizerId");
-                                                            if (organizerId != null) {
-                                                                db.collection("users").document(organizerId).get()
-                                                                        .addOnSuccessListener(userDoc2 -> {
-                                                                            if (userDoc2.exists()) {
-                                                                                String organizerName = userDoc2.getString("fullName");
-                                                                                if (organizerName != null && !organizerName.isEmpty()) {
-                                                                                    finalItem.setOrganizerName("From: " + organizerName);
-                                                                                    adapter.notifyDataSetChanged();
-                                                                                }
-                                                                            }
-                                                                        });
-                                                            }
-                                                        }
-                                                    });
-                                        }
-                                    }
-                                } else {
-                                    android.util.Log.d("NotificationLogs", "No notifications found for user");
-                                }
-                                sortList(dropSort.getText().toString());
-                            });
+        viewModel = new ViewModelProvider(this).get(NotificationLogsViewModel.class);
+        viewModel.init(uid);
+
+        viewModel.getError().observe(this, error -> {
+            android.util.Log.e("NotificationLogs", "Error loading notifications", error);
+            Toast.makeText(this, "Error loading notifications", Toast.LENGTH_SHORT).show();
+        });
+        viewModel.getInbox().observe(this, this::showNotifications);
+        viewModel.canLoadMore().observe(this, more ->
+                btnLoadMore.setVisibility(Boolean.TRUE.equals(more) ? View.VISIBLE : View.GONE));
+        btnLoadMore.setOnClickListener(v -> viewModel.loadMore());
+    }
+
+    /**
+     * Rebuilds the list from the loaded inbox pages.
+     *
+     * @param docs - Loaded notifications, newest first
+     */
+    private void showNotifications(List<DocumentSnapshot> docs) {
+        notifications.clear();
+        if (!docs.isEmpty()) {
+            android.util.Log.d("NotificationLogs", "Showing " + docs.size() + " notifications");
+            for (DocumentSnapshot doc : docs) {
+                String eventId = doc.getString("eventId");
+                String message = doc.getString("message");
+                String sentBy = doc.getString("sentBy");
+
+                // Handle Firestore Timestamp properly
+                Date timestamp;
+                com.google.firebase.Timestamp ts = doc.getTimestamp("timestamp");
+                if (ts != null) {
+                    timestamp = ts.toDate();
+                } else {
+                    timestamp = new Date();
+                }
+
+                NotificationItem item = new NotificationItem(message, "", timestamp, eventId, sentBy);
+                notifications.add(item);
+
+                // Resolve the sender's name (from sentBy, else the event's organizer); cached per sender
+                NotificationRepository.get().senderName(sentBy, eventId)
+                        .addOnSuccessListener(organizerName -> {
+                            if (organizerName != null && !organizerName.isEmpty()) {
+                                item.setOrganizerName("From: " + organizerName);
+                                adapter.notifyDataSetChanged();
+                            }
+                        });
+            }
+        } else {
+            android.util.Log.d("NotificationLogs", "No notifications found for user");
+        }
+        sortList(dropSort.getText().toString());
+    }
 
+    /**
+     * Lists the user's archived months and opens the one picked. A muted
+     * user's archive is cut off at the opt-out time, like the live inbox, so
+     * months after it are left out and counts are not shown.
+     */
+    private void showArchivedMonths() {
+        String uid = FirebaseAuth.getInstance().getUid();
+        if (uid == null) return;
+        UserRepository.get().getUserDoc(uid)
+                .continueWithTask(u -> {
+                    Timestamp cutoff = NotificationLogsViewModel.cutoffFor(u.getResult());
+                    return NotificationRepository.get().archivedMonths(uid).continueWith(t -> {
+                        List<DocumentSnapshot> months = new ArrayList<>();
+                        String last = cutoff != null ? monthKey(cutoff) : null;
+                        for (DocumentSnapshot m : t.getResult().getDocuments()) {
+                            String key = m.getString("month");
+                            if (last == null || (key != null && key.compareTo(last) <= 0)) months.add(m);
+                        }
+                        showMonthPicker(months, cutoff);
+                        return null;
+                    });
                 })
                 .addOnFailureListener(e -> {
-                    android.util.Log.e("NotificationLogs", "Failed to read user preferences", e);
-                    // Fallback to attaching listener without filtering
-                    db.collection("notifications")
-                            .whereEqualTo("userId", uid)
-                            .addSnapshotListener((value, error) -> {
-                                if (error != null) {
-                                    android.util.Log.e("NotificationLogs", "Error loading notifications", error);
-                                    Toast.makeText(this, "Error loading notifications", Toast.LENGTH_SHORT).show();
-                                    return;
-                                }
-                                notifications.clear();
-                                if (value != null && !value.isEmpty()) {
-                                    for (QueryDocumentSnapshot doc : value) {
-                                        String message = doc.getString("message");
-                                        String eventId = doc.getString("eventId");
-                                        String sentBy = doc.getString("sentBy");
-                                        Date timestamp;
-                                        com.google.firebase.Timestamp ts = doc.getTimestamp("timestamp");
-                                        if (ts != null) timestamp = ts.toDate(); else timestamp = new Date();
-                                        NotificationItem item = new NotificationItem(message, "", timestamp, eventId, sentBy);
-                                        notifications.add(item);
-                                    }
-                                }
-                                sortList(dropSort.getText().toString());
-                            });
+                    android.util.Log.e("NotificationLogs", "Failed to load archive", e);
+                    Toast.makeText(this, "Failed to load archived notifications", Toast.LENGTH_SHORT).show();
                 });
     }
 
     /**
-     * Marks notifications as read by updating the user's new_notifications flag.
+     * Shows the archived months to pick from.
+     *
+     * @param months - Archive head documents, newest first
+     * @param cutoff - Opt-out cutoff, or null when not muted
+     */
+    private void showMonthPicker(List<DocumentSnapshot> months, Timestamp cutoff) {
+        if (months.isEmpty()) {
+            Toast.makeText(this, "No archived notifications", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String[] labels = new String[months.size()];
+        for (int i = 0; i < labels.length; i++) {
+            DocumentSnapshot m = months.get(i);
+            Long count = m.getLong("count");
+            labels[i] = monthLabel(m.getString("month"))
+                    + (cutoff == null ? " (" + (count != null ? count : 0) + ")" : "");
+        }
+        new AlertDialog.Builder(this)
+                .setTitle("Archived months")
+                .setItems(labels, (d, which) -> showArchivedMonth(months.get(which), labels[which], cutoff))
+                .setNegativeButton("Close", null)
+                .show();
+    }
+
+    /**
+     * Loads one month's archived notifications (one read for its pages) and
+     * shows them newest first.
+     *
+     * @param month - Archive head document
+     * @param title - Dialog title
+     * @param cutoff - Opt-out cutoff, or null when not muted
+     */
+    private void showArchivedMonth(DocumentSnapshot month, String title, Timestamp cutoff) {
+        NotificationRepository.get().archivedItems(month, cutoff)
+                .addOnSuccessListener(items -> showArchivedItems(items, title))
+                .addOnFailureListener(e -> {
+                    android.util.Log.e("NotificationLogs", "Failed to load archived month", e);
+                    Toast.makeText(this, "Failed to load archived notifications", Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    /**
+     * Shows archived notifications, newest first.
+     *
+     * @param items - Archived item field maps
+     * @param title - Dialog title
+     */
+    private void showArchivedItems(List<Map<String, Object>> items, String title) {
+        List<Map<String, Object>> sorted = new ArrayList<>(items);
+        Collections.sort(sorted, (a, b) -> archivedDate(b).compareTo(archivedDate(a)));
+
+        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, hh:mm a", Locale.getDefault());
+        String[] lines = new String[sorted.size()];
+        for (int i = 0; i < lines.length; i++) {
+            Object message = sorted.get(i).get("message");
+            lines[i] = (message != null ? message : "") + "\n" + sdf.format(archivedDate(sorted.get(i)));
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setItems(lines, null)
+                .setPositiveButton("OK", null)
+                .show();
+    }
+
+    /**
+     * Returns an archived item's send time.
+     *
+     * @param item - Archived notification fields
+     * @return Send time, or the epoch if missing
+     */
+    private static Date archivedDate(Map<String, Object> item) {
+        Object ts = item.get("timestamp");
+        return ts instanceof Timestamp ? ((Timestamp) ts).toDate() : new Date(0);
+    }
+
+    /**
+     * Returns the archive month key ("yyyy-MM", UTC) a time falls in, as the
+     * compaction job computes it.
+     *
+     * @param ts - Timestamp
+     * @return Month key
+     */
+    private static String monthKey(Timestamp ts) {
+        SimpleDateFormat fmt = new SimpleDateFormat("yyyy-MM", Locale.US);
+        fmt.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return fmt.format(ts.toDate());
+    }
+
+    /**
+     * Formats an archive month key for display.
+     *
+     * @param month - Month key ("yyyy-MM")
+     * @return Label such as "March 2025", or the key itself if unparseable
+     */
+    private static String monthLabel(String month) {
+        if (month == null) return "";
+        try {
+            Date d = new SimpleDateFormat("yyyy-MM", Locale.US).parse(month);
+            return d != null ? new SimpleDateFormat("MMMM yyyy", Locale.getDefault()).format(d) : month;
+        } catch (java.text.ParseException e) {
+            return month;
+        }
+    }
+
+    /**
+     * Marks notifications as read by clearing the unread counter on inbox_meta.
      */
     private void markNotificationsAsRead() {
         String uid = FirebaseAuth.getInstance().getUid();
         if (uid == null) return;
 
-        db.collection("users").document(uid)
-                .update("new_notifications", false)
+        InboxMeta.markSeen(uid)
                 .addOnFailureListener(e ->
                         android.util.Log.e("NotificationLogs", "Failed to mark notifications as read", e));
     }
@@ -296,15 +365,33 @@ public class NotificationLogsActivity extends AppCompatActivity {
      * @param criterion - Sort option ("Newest First" or "Oldest First")
      */
     private void sortList(String criterion) {
-        if (notifications.isEmpty()) return;
-
-        if ("Oldest First".equals(criterion)) {
-            Collections.sort(notifications, Comparator.comparing(NotificationItem::getDate));
-        } else {
-            // Newest First (default)
-            Collections.sort(notifications, (a, b) -> b.getDate().compareTo(a.getDate()));
+        if (notifications.isEmpty()) {
+            adapter.notifyDataSetChanged();
+            return;
         }
-        adapter.notifyDataSetChanged();
+
+        sortPipeline.submit(notifications, snapshot -> {
+            if ("Oldest First".equals(criterion)) {
+                Collections.sort(snapshot, Comparator.comparing(NotificationItem::getDate));
+            } else {
+                // Newest First (default)
+                Collections.sort(snapshot, (a, b) -> b.getDate().compareTo(a.getDate()));
+            }
+            return snapshot;
+        }, sorted -> {
+            notifications.clear();
+            notifications.addAll(sorted);
+            adapter.notifyDataSetChanged();
+        });
+    }
+
+    /**
+     * Cancels pending sort work so results are not applied after teardown.
+     */
+    @Override
+    protected void onDestroy() {
+        sortPipeline.cancel();
+        super.onDestroy();
     }
 
     /**
@@ -0,0 +1,212 @@
+/**
+ * ViewModel for NotificationLogsActivity.
+ *
+ * Keeps the paged inbox across configuration changes. The newest page is a
+ * live listener limited to one page; older pages are fetched on demand with a
+ * cursor, so opening the inbox costs one page of reads regardless of history.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Paged inbox state for the signed-in user.
+ */
+public class NotificationLogsViewModel extends ViewModel {
+
+    /** Log tag. */
+    private static final String TAG = "NotificationLogs";
+
+    /** Signed-in user's uid; null before init. */
+    private String uid;
+
+    /** Opt-out cutoff applied in the query, or null when not muted. */
+    private Timestamp cutoff;
+
+    /** Live first (newest) page. */
+    private QueryLiveData firstPage;
+
+    /** Latest first-page snapshot. */
+    private QuerySnapshot latestFirst;
+
+    /** Older notifications loaded with "load more", newest first. */
+    private final List<DocumentSnapshot> older = new ArrayList<>();
+
+    /** Whether a "load more" read is running. */
+    private boolean loadingMore;
+
+    /** Loaded notifications, newest first. */
+    private final MediatorLiveData<List<DocumentSnapshot>> inbox = new MediatorLiveData<>();
+
+    /** Whether another page may exist. */
+    private final MutableLiveData<Boolean> canLoadMore = new MutableLiveData<>(false);
+
+    /** Listen and page-load errors. */
+    private final MediatorLiveData<Exception> error = new MediatorLiveData<>();
+
+    /**
+     * Starts loading for a user. Later calls (e.g. after rotation) are no-ops.
+     *
+     * @param uid - Signed-in user's uid
+     */
+    public void init(String uid) {
+        if (this.uid != null) return;
+        this.uid = uid;
+        // The opt-out cutoff is part of the query, so preferences are read first
+        UserRepository.get().getUserDoc(uid).addOnCompleteListener(t -> {
+            if (!t.isSuccessful()) Log.e(TAG, "Failed to read user preferences", t.getException());
+            attachInbox(t.isSuccessful() ? cutoffFor(t.getResult()) : null);
+        });
+    }
+
+    /**
+     * Returns the loaded notifications.
+     *
+     * @return LiveData of notification documents, newest first
+     */
+    public LiveData<List<DocumentSnapshot>> getInbox() {
+        return inbox;
+    }
+
+    /**
+     * Returns whether another page may exist.
+     *
+     * @return LiveData of the "load more" availability
+     */
+    public LiveData<Boolean> canLoadMore() {
+        return canLoadMore;
+    }
+
+    /**
+     * Returns listen and paging errors.
+     *
+     * @return LiveData of the latest error
+     */
+    public LiveData<Exception> getError() {
+        return error;
+    }
+
+    /**
+     * Fetches the next page of older notifications.
+     * Ignored while a page is loading or before the first page arrives.
+     */
+    public void loadMore() {
+        if (loadingMore || latestFirst == null) return;
+        DocumentSnapshot cursor;
+        if (!older.isEmpty()) {
+            cursor = older.get(older.size() - 1);
+        } else if (!latestFirst.isEmpty()) {
+            cursor = latestFirst.getDocuments().get(latestFirst.size() - 1);
+        } else {
+            return;
+        }
+
+        loadingMore = true;
+        NotificationRepository.get().inboxAfter(uid, cutoff, cursor).addOnCompleteListener(t -> {
+            loadingMore = false;
+            if (!t.isSuccessful()) {
+                error.setValue(t.getException());
+                return;
+            }
+            List<DocumentSnapshot> page = t.getResult().getDocuments();
+            older.addAll(page);
+            canLoadMore.setValue(page.size() >= NotificationRepository.PAGE_SIZE);
+            publish();
+        });
+    }
+
+    /**
+     * Releases the inbox listener when the screen is finished for good.
+     */
+    @Override
+    protected void onCleared() {
+        if (firstPage != null) firstPage.close();
+    }
+
+    /**
+     * Computes the query cutoff from the user's notification preferences.
+     *
+     * Muted users only see notifications sent before they opted out. A legacy
+     * opt-out without a timestamp hides every (event) notification.
+     *
+     * @param userDoc - User snapshot
+     * @return Exclusive timestamp bound, or null when not muted
+     */
+    static Timestamp cutoffFor(DocumentSnapshot userDoc) {
+        if (userDoc == null || !userDoc.exists()) return null;
+        Boolean receive = userDoc.getBoolean("receive_notifications");
+        if (receive == null || receive) return null;
+        Timestamp optOut = userDoc.getTimestamp("opt_out_updated_at");
+        return optOut != null ? optOut : new Timestamp(0, 0);
+    }
+
+    /**
+     * Starts the live first page with the given cutoff.
+     *
+     * @param cutoff - Exclusive timestamp bound, or null
+     */
+    private void attachInbox(Timestamp cutoff) {
+        this.cutoff = cutoff;
+        firstPage = NotificationRepository.get().observeInbox(uid, cutoff);
+        // Mediator sources are only observed while the inbox is, so the listener follows the screen
+        inbox.addSource(firstPage, this::onFirstPage);
+        error.addSource(firstPage.getError(), error::setValue);
+    }
+
+    /**
+     * Merges a new first-page snapshot.
+     *
+     * Once older pages are loaded, documents pushed off the first page by new
+     * arrivals are kept at the head of the older list so no gap opens between
+     * the pages. Notifications are never deleted in-app, so a document leaving
+     * the first page has only moved down.
+     *
+     * @param snapshot - New first-page snapshot
+     */
+    private void onFirstPage(QuerySnapshot snapshot) {
+        if (latestFirst != null && !older.isEmpty()) {
+            Set<String> current = new HashSet<>();
+            for (DocumentSnapshot d : snapshot.getDocuments()) current.add(d.getId());
+            List<DocumentSnapshot> slid = new ArrayList<>();
+            for (DocumentSnapshot d : latestFirst.getDocuments()) {
+                if (!current.contains(d.getId())) slid.add(d);
+            }
+            older.addAll(0, slid);
+        }
+        latestFirst = snapshot;
+        if (older.isEmpty()) canLoadMore.setValue(snapshot.size() >= NotificationRepository.PAGE_SIZE);
+        publish();
+    }
+
+    /**
+     * Publishes the first page followed by older pages, without duplicates.
+     */
+    private void publish() {
+        Map<String, DocumentSnapshot> byId = new LinkedHashMap<>();
+        if (latestFirst != null) {
+            for (DocumentSnapshot d : latestFirst.getDocuments()) byId.put(d.getId(), d);
+        }
+        for (DocumentSnapshot d : older) {
+            if (!byId.containsKey(d.getId())) byId.put(d.getId(), d);
+        }
+        inbox.setValue(new ArrayList<>(byId.values()));
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Access to the notifications collection and sender display names.
+ *
+ * Sender names are resolved through UserRepository and EventRepository, so a
+ * list of notifications from one organizer costs one profile read instead of
+ * one per row.
+ *
+ * System notifications (draw results, cancellation notices) have ids derived
+ * from the event, recipient, type and draw they report, and are written only
+ * if absent, so pressing a button twice or replaying a commit sends nothing
+ * new.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide notification repository.
+ */
+public class NotificationRepository {
+
+    /** Notifications per inbox page. */
+    public static final int PAGE_SIZE = 50;
+
+    /** Age after which the compaction job moves a notification into a monthly archive. */
+    public static final int ARCHIVE_AFTER_DAYS = 30;
+
+    /**
+     * Age at which Firestore's TTL policy deletes a notification. Longer than
+     * ARCHIVE_AFTER_DAYS so compaction normally archives it first; this is the
+     * backstop that keeps the collection bounded if compaction falls behind.
+     */
+    public static final int EXPIRE_AFTER_DAYS = 90;
+
+    /** Archived months are rewritten at most daily, so a listing is reused for a while. */
+    private static final long ARCHIVE_TTL_MILLIS = 10 * 60 * 1000L;
+
+    /** Archive month listings by uid. */
+    private final RequestCache<QuerySnapshot> archives = new RequestCache<>(4, ARCHIVE_TTL_MILLIS);
+
+    /** Shared instance. */
+    private static volatile NotificationRepository instance;
+
+    /**
+     * Returns the shared repository.
+     *
+     * @return Process-wide NotificationRepository
+     */
+    public static NotificationRepository get() {
+        if (instance == null) {
+            synchronized (NotificationRepository.class) {
+                if (instance == null) instance = new NotificationRepository();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the query for a user's notifications.
+     *
+     * @param uid - Recipient uid
+     * @return Notifications query
+     */
+    public Query forUser(String uid) {
+        return FirebaseFirestore.getInstance().collection("notifications").whereEqualTo("userId", uid);
+    }
+
+    /**
+     * Returns the query for notifications sent about an event.
+     *
+     * @param eventId - Event document id
+     * @return Notifications query
+     */
+    public Query forEvent(String eventId) {
+        return FirebaseFirestore.getInstance().collection("notifications").whereEqualTo("eventId", eventId);
+    }
+
+    /**
+     * Returns the first page of a user's inbox, newest first.
+     *
+     * Muting is applied in the query: with a cutoff, only notifications sent
+     * before it are returned. Every notification is tied to an event, so this
+     * matches the rule "hide event notifications sent after opting out".
+     *
+     * @param uid - Recipient uid
+     * @param cutoff - Exclusive upper bound on timestamp, or null for no filter
+     * @return Query for one page
+     */
+    public Query inbox(String uid, Timestamp cutoff) {
+        Query q = forUser(uid);
+        if (cutoff != null) q = q.whereLessThan("timestamp", cutoff);
+        return q.orderBy("timestamp", Query.Direction.DESCENDING).limit(PAGE_SIZE);
+    }
+
+    /**
+     * Returns a live view of the first inbox page for a ViewModel to hold.
+     *
+     * @param uid - Recipient uid
+     * @param cutoff - Exclusive upper bound on timestamp, or null for no filter
+     * @return LiveData of first-page snapshots
+     */
+    public QueryLiveData observeInbox(String uid, Timestamp cutoff) {
+        return new QueryLiveData(inbox(uid, cutoff));
+    }
+
+    /**
+     * Reads the inbox page that follows a given notification.
+     *
+     * @param uid - Recipient uid
+     * @param cutoff - Same cutoff used for the first page
+     * @param after - Last notification of the previous page
+     * @return Task resolving to the next page
+     */
+    public Task<QuerySnapshot> inboxAfter(String uid, Timestamp cutoff, DocumentSnapshot after) {
+        return Metered.get(inbox(uid, cutoff).startAfter(after));
+    }
+
+    /**
+     * Builds a notification document with its timestamp and TTL expiry set.
+     * Every notification write should go through here so none lacks expireAt;
+     * sends to a group go through NotificationBatch, which also calls this.
+     *
+     * @param userId - Recipient uid
+     * @param eventId - Related event id
+     * @param message - Message text
+     * @param sentBy - Sender uid
+     * @param type - Notification type (e.g. "selected"), or null
+     * @return Field map ready for {@link #addTo}
+     */
+    public static Map<String, Object> newNotification(String userId, String eventId, String message,
+                                                      String sentBy, String type) {
+        Timestamp now = Timestamp.now();
+        Map<String, Object> notif = new HashMap<>();
+        notif.put("userId", userId);
+        notif.put("eventId", eventId);
+        notif.put("message", message);
+        notif.put("sentBy", sentBy);
+        notif.put("timestamp", now);
+        notif.put("expireAt", new Timestamp(now.getSeconds() + EXPIRE_AFTER_DAYS * 86400L, 0));
+        if (type != null) notif.put("type", type);
+        return notif;
+    }
+
+    /**
+     * Adds a notification to a batch. The recipient's unread counter is
+     * bumped server-side when it is created (see {@link InboxMeta}).
+     *
+     * @param batch - Batch (or outbox batch) to add the writes to
+     * @param notif - Map built by {@link #newNotification}
+     */
+    public static void addTo(BatchWriter batch, Map<String, Object> notif) {
+        batch.set(FirebaseFirestore.getInstance().collection("notifications").document(), notif);
+    }
+
+    /**
+     * Adds a system notification under a deterministic id. The notification
+     * is written only if no notification with that id exists when the batch
+     * commits, so the recipient's counter is bumped once.
+     *
+     * @param batch - Outbox batch (the guard is checked at commit)
+     * @param notif - Map built by {@link #newNotification}
+     * @param id - Id from {@link #notificationId}
+     */
+    public static void addOnce(BatchWriter batch, Map<String, Object> notif, String id) {
+        DocumentReference ref = FirebaseFirestore.getInstance().collection("notifications").document(id);
+        batch.ifAbsent(ref).set(ref, notif);
+    }
+
+    /**
+     * Returns the id of a system notification, so the same notice about
+     * the same draw always addresses the same document.
+     *
+     * @param eventId - Related event id
+     * @param userId - Recipient uid
+     * @param type - Notification type (e.g. "selected")
+     * @param drawId - Draw reported (e.g. its seed), or null for a notice about the event alone
+     * @return Document id
+     */
+    public static String notificationId(String eventId, String userId, String type, String drawId) {
+        return dedupKey("n", eventId, userId, type, drawId);
+    }
+
+    /**
+     * Hashes a tuple into a document id. Parts are length-prefixed, so no
+     * two different tuples can produce the same input.
+     *
+     * @param parts - Tuple; null parts are allowed
+     * @return 32 hex characters (128 bits of SHA-256)
+     */
+    static String dedupKey(String... parts) {
+        StringBuilder in = new StringBuilder();
+        for (String part : parts) {
+            if (part == null) in.append("-1:");
+            else in.append(part.length()).append(':').append(part);
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(in.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) hex.append(String.format("%02x", hash[i] & 0xff));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /**
+     * Returns the send summaries for an event, newest first.
+     *
+     * @param eventId - Event document id
+     * @return notification_batches query
+     */
+    public Query batchesForEvent(String eventId) {
+        return FirebaseFirestore.getInstance().collection(NotificationBatch.COLLECTION)
+                .whereEqualTo("eventId", eventId)
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Reads one page of a send's recipient ids.
+     *
+     * @param batchId - notification_batches document id
+     * @param page - Zero-based page index, below the summary's pageCount
+     * @return Task resolving to the recipient uids on that page (empty if missing)
+     */
+    @SuppressWarnings("unchecked")
+    public Task<List<String>> batchRecipients(String batchId, int page) {
+        return Metered.get(FirebaseFirestore.getInstance().collection(NotificationBatch.COLLECTION)
+                        .document(batchId).collection(NotificationBatch.RECIPIENTS).document(String.valueOf(page)))
+                .continueWith(t -> {
+                    List<String> ids = t.getResult().exists() ? (List<String>) t.getResult().get("userIds") : null;
+                    return ids != null ? ids : Collections.<String>emptyList();
+                });
+    }
+
+    /**
+     * Lists a user's archived months, newest first. Each document heads one
+     * month's digest written by the compaction job (notification_archives/{uid}_{yyyy-MM});
+     * the archived notifications are in its pages subcollection.
+     *
+     * @param uid - Recipient uid
+     * @return Task resolving to the archive documents
+     */
+    public Task<QuerySnapshot> archivedMonths(String uid) {
+        return archives.get(uid, () -> Metered.get(FirebaseFirestore.getInstance().collection("notification_archives")
+                .whereEqualTo("userId", uid)
+                .orderBy("month", Query.Direction.DESCENDING)));
+    }
+
+    /**
+     * Reads one archived month's notifications: the items kept on the head
+     * document by older compaction runs, plus every page. Items sent at or
+     * after the cutoff are dropped, as in the live inbox.
+     *
+     * @param month - Archive head document from {@link #archivedMonths}
+     * @param cutoff - Exclusive upper bound on timestamp, or null for no filter
+     * @return Task resolving to the item field maps, unordered
+     */
+    @SuppressWarnings("unchecked")
+    public Task<List<Map<String, Object>>> archivedItems(DocumentSnapshot month, Timestamp cutoff) {
+        return Metered.get(month.getReference().collection("pages")).continueWith(t -> {
+            List<Map<String, Object>> items = new ArrayList<>();
+            Object legacy = month.get("items");
+            if (legacy instanceof List) items.addAll((List<Map<String, Object>>) legacy);
+            for (DocumentSnapshot page : t.getResult().getDocuments()) {
+                Object paged = page.get("items");
+                if (paged instanceof List) items.addAll((List<Map<String, Object>>) paged);
+            }
+            return beforeCutoff(items, cutoff);
+        });
+    }
+
+    /**
+     * Keeps the archived items sent before a cutoff. Items without a
+     * timestamp are kept only when there is no cutoff.
+     *
+     * @param items - Archived item field maps
+     * @param cutoff - Exclusive upper bound on timestamp, or null for no filter
+     * @return Matching items, in input order
+     */
+    static List<Map<String, Object>> beforeCutoff(List<Map<String, Object>> items, Timestamp cutoff) {
+        if (cutoff == null) return items;
+        List<Map<String, Object>> kept = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            Object ts = item.get("timestamp");
+            if (ts instanceof Timestamp && ((Timestamp) ts).compareTo(cutoff) < 0) kept.add(item);
+        }
+        return kept;
+    }
+
+    /**
+     * Resolves the display name of a notification's sender.
+     * Uses sentBy when present, otherwise the organizer of the event.
+     *
+     * @param sentBy - Sender uid, may be null
+     * @param eventId - Related event id, may be null
+     * @return Task resolving to the sender's full name, or null if unknown
+     */
+    public Task<String> senderName(String sentBy, String eventId) {
+        if (sentBy != null && !sentBy.isEmpty()) {
+            return UserRepository.get().getFullName(sentBy);
+        }
+        if (eventId == null || eventId.isEmpty()) return Tasks.forResult(null);
+        return EventRepository.get().getEventDoc(eventId).continueWithTask(t -> {
+            DocumentSnapshot doc = t.getResult();
+            String organizerId = doc != null && doc.exists() ? doc.getString("organizerId") : null;
+            if (organizerId == null) return Tasks.forResult(null);
+            return UserRepository.get().getFullName(organizerId);
+        });
+    }
+}
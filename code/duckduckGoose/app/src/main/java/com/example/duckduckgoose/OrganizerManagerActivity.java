@@ -27,10 +27,8 @@ import com.example.duckduckgoose.EventManagerActivity;
 import com.example.duckduckgoose.user.Organizer;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
-import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.functions.FirebaseFunctions;
 import com.google.firebase.functions.HttpsCallableResult;
 
@@ -139,7 +137,7 @@ public class OrganizerManagerActivity extends AppCompatActivity implements Profi
         adapter = new UserManagerAdapter(organizers, false); // false = hide checkboxes
         adapter.setOnItemClickListener(user -> {
             // Fetch event count for the selected organizer
-            eventsRef.whereEqualTo("organizerId", user.getUserId()).get()
+            Metered.get(eventsRef.whereEqualTo("organizerId", user.getUserId()))
                     .addOnSuccessListener(queryDocumentSnapshots -> {
                         int eventCount = queryDocumentSnapshots.size();
                         // For organizers, show the Events button (true) and pass the event count.
@@ -172,7 +170,7 @@ public class OrganizerManagerActivity extends AppCompatActivity implements Profi
      * updates the adapter data set, and refreshes the count display.
      */
     private void loadOrganizersFromFirestore() {
-        usersRef.get()
+        Metered.get(usersRef)
                 .addOnSuccessListener((QuerySnapshot querySnapshot) -> {
                     allOrganizers.clear();
                     for (DocumentSnapshot ds : querySnapshot.getDocuments()) {
@@ -231,9 +229,8 @@ public class OrganizerManagerActivity extends AppCompatActivity implements Profi
         final String trimmedEmail = email.trim();
 
         // 1) Look up the user doc by email so we can read ownedEvents
-        usersRef.whereEqualTo("email", trimmedEmail)
-                .limit(1)
-                .get()
+        Metered.get(usersRef.whereEqualTo("email", trimmedEmail)
+                .limit(1))
                 .addOnSuccessListener(snapshot -> {
                     if (!snapshot.isEmpty()) {
                         DocumentSnapshot doc = snapshot.getDocuments().get(0);
@@ -246,13 +243,9 @@ public class OrganizerManagerActivity extends AppCompatActivity implements Profi
                             for (String eventId : ownedEvents) {
                                 if (eventId == null || eventId.trim().isEmpty()) continue;
 
-                                // Clean up all user references to this event
-                                cleanupUsersForDeletedEvent(eventId);
-
-                                // Then delete the event document itself
-                                eventsRef.document(eventId)
-                                        .delete()
-                                        .addOnSuccessListener(aVoid ->
+                                // Delete the event; its waitlist, notifications and user references follow server-side
+                                EventDeletionPipeline.delete(this, eventId)
+                                        .addOnSuccessListener(written ->
                                                 Log.d("OrganizerManager", "Deleted event " + eventId))
                                         .addOnFailureListener(e ->
                                                 Log.e("OrganizerManager", "Failed to delete event " + eventId, e));
@@ -282,56 +275,6 @@ public class OrganizerManagerActivity extends AppCompatActivity implements Profi
                 });
     }
 
-    private void cleanupUsersForDeletedEvent(String eventId) {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
-        CollectionReference usersRef = db.collection("users");
-
-        // 1) Remove from waitlistedEventIds
-        usersRef.whereArrayContains("waitlistedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "waitlistedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean waitlistedEventIds", e));
-                });
-
-        // 2) Remove from acceptedEventIds
-        usersRef.whereArrayContains("acceptedEventIds", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "acceptedEventIds",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean acceptedEventIds", e));
-                });
-
-        // 3) Also strip it from ownedEvents everywhere
-        usersRef.whereArrayContains("ownedEvents", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        batch.update(doc.getReference(),
-                                "ownedEvents",
-                                FieldValue.arrayRemove(eventId));
-                    }
-                    batch.commit()
-                            .addOnFailureListener(e ->
-                                    Log.e("EventCleanup", "Failed to clean ownedEvents", e));
-                });
-    }
-
     /** Removes organizer entry with the given email from both lists and updates the adapter. */
     private void removeFromLocalListsByEmail(String email) {
         // visible list
@@ -0,0 +1,256 @@
+/**
+ * One queued document write in the outbox.
+ *
+ * Every op targets an explicit document path (auto-ids are assigned when the
+ * op is queued), so replaying an op after a lost acknowledgement rewrites the
+ * same document with the same values. Increments are the exception: applied
+ * twice they count twice. So every op holding one is guarded. A guarded op is
+ * applied only while its guard document does not exist, which the outbox
+ * checks in a transaction. An op queued with ifAbsent uses the document it
+ * creates as its guard. Any other op with an increment gets a marker of its
+ * own under MARKERS, which the transaction applying the op also creates.
+ * Either way the op applies once however often it is replayed.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A write plus the rules for folding a later write on the same document into it.
+ */
+public class OutboxOp {
+
+    /** Collection of the marker documents guarding increments. */
+    static final String MARKERS = "outbox_applied";
+
+    /** Write kinds, mirroring BatchWriter. */
+    public enum Kind { SET, MERGE, UPDATE, DELETE }
+
+    /** Row id; 0 until stored. */
+    long id;
+
+    /** Id of the action that queued the op. */
+    final String groupId;
+
+    /** User-facing label of that action (e.g. "Lottery draw"). */
+    final String label;
+
+    /** Write kind. */
+    Kind kind;
+
+    /** Document path, e.g. "waitlist/abc". */
+    final String path;
+
+    /** Field values; may contain FieldOp transforms. Empty for DELETE. */
+    Map<String, Object> data;
+
+    /** Path of a document that must not exist for the op to apply, or null. */
+    final String guard;
+
+    /**
+     * Creates an op.
+     *
+     * @param groupId - Id of the queuing action
+     * @param label - Label of the queuing action
+     * @param kind - Write kind
+     * @param path - Document path
+     * @param data - Field values, or null for DELETE
+     */
+    OutboxOp(String groupId, String label, Kind kind, String path, Map<String, Object> data) {
+        this(groupId, label, kind, path, data, null);
+    }
+
+    /**
+     * Creates an op that applies only while a guard document is missing.
+     *
+     * @param groupId - Id of the queuing action
+     * @param label - Label of the queuing action
+     * @param kind - Write kind
+     * @param path - Document path
+     * @param data - Field values, or null for DELETE
+     * @param guard - Guard document path, or null for an unconditional write
+     */
+    OutboxOp(String groupId, String label, Kind kind, String path, Map<String, Object> data, String guard) {
+        this.groupId = groupId;
+        this.label = label;
+        this.kind = kind;
+        this.path = path;
+        this.data = data != null ? new LinkedHashMap<>(data) : new LinkedHashMap<>();
+        this.guard = guard;
+    }
+
+    /**
+     * Returns whether a guard is a marker, which the op's transaction writes,
+     * rather than a document the op itself creates.
+     *
+     * @param guard - Guard document path
+     * @return True for paths under MARKERS
+     */
+    static boolean isMarker(String guard) {
+        return guard != null && guard.startsWith(MARKERS + "/");
+    }
+
+    /**
+     * Returns a new marker path for one op.
+     *
+     * @return outbox_applied/{random id}
+     */
+    static String newMarker() {
+        return MARKERS + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Returns whether field values contain an increment, at any depth (merge
+     * writes nest per-key increments in maps, as DrawHistory does).
+     *
+     * @param data - Field values, or null
+     * @return True if applying the values twice would count twice
+     */
+    static boolean hasIncrement(Map<String, Object> data) {
+        if (data == null) return false;
+        for (Object value : data.values()) {
+            if (value instanceof FieldOp && ((FieldOp) value).kind == FieldOp.Kind.INCREMENT) return true;
+            if (value instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> nested = (Map<String, Object>) value;
+                if (hasIncrement(nested)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Folds a later write to the same document into this one, so the pair
+     * becomes a single write with the same end result. Returns false and
+     * leaves this op unchanged when the writes cannot be combined safely.
+     *
+     * @param later - Write queued after this one for the same path
+     * @return True if later was absorbed
+     */
+    boolean absorb(OutboxOp later) {
+        if (!path.equals(later.path)) return false;
+        // Each guarded write is applied or skipped on its own
+        if (guard != null || later.guard != null) return false;
+
+        // A delete or full overwrite makes earlier writes irrelevant
+        if (later.kind == Kind.DELETE || later.kind == Kind.SET) {
+            kind = later.kind;
+            data = new LinkedHashMap<>(later.data);
+            return true;
+        }
+        if (kind == Kind.DELETE) return false;
+        // update() fails on a missing document and merge() creates it; keep the distinction
+        if (kind != Kind.SET && kind != later.kind) return false;
+
+        Map<String, Object> folded = new LinkedHashMap<>(data);
+        for (Map.Entry<String, Object> e : later.data.entrySet()) {
+            String field = e.getKey();
+            // Dotted update paths address nested fields; do not try to fold those
+            if (field.indexOf('.') >= 0) return false;
+            Object value = e.getValue();
+            // A merge write merges nested maps rather than replacing them
+            if (later.kind == Kind.MERGE && value instanceof Map && folded.get(field) instanceof Map) return false;
+            if (!(value instanceof FieldOp)) {
+                folded.put(field, value);
+                continue;
+            }
+            FieldOp op = (FieldOp) value;
+            if (!folded.containsKey(field)) {
+                if (kind == Kind.SET) {
+                    // Transform over a field the overwrite leaves unset
+                    Object applied = apply(null, op);
+                    if (applied == UNSUPPORTED) return false;
+                    if (applied == REMOVED) folded.remove(field); else folded.put(field, applied);
+                } else {
+                    folded.put(field, op);
+                }
+                continue;
+            }
+            Object combined = combine(folded.get(field), op);
+            if (combined == UNSUPPORTED) return false;
+            if (combined == REMOVED) {
+                if (kind == Kind.SET) folded.remove(field); else folded.put(field, FieldOp.delete());
+            } else {
+                folded.put(field, combined);
+            }
+        }
+        data = folded;
+        return true;
+    }
+
+    /** Marker for "cannot fold". */
+    private static final Object UNSUPPORTED = new Object();
+
+    /** Marker for "field ends up deleted". */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * Combines an earlier field value with a later transform.
+     *
+     * @param earlier - Earlier value (plain or FieldOp)
+     * @param op - Later transform
+     * @return Combined value, REMOVED or UNSUPPORTED
+     */
+    private static Object combine(Object earlier, FieldOp op) {
+        if (op.kind == FieldOp.Kind.DELETE) return REMOVED;
+        if (!(earlier instanceof FieldOp)) return apply(earlier, op);
+
+        FieldOp prev = (FieldOp) earlier;
+        if (prev.kind == FieldOp.Kind.DELETE) return apply(null, op);
+        if (prev.kind != op.kind) return UNSUPPORTED;
+        switch (op.kind) {
+            case INCREMENT:
+                return FieldOp.increment(prev.amount + op.amount);
+            case ARRAY_UNION:
+            case ARRAY_REMOVE: {
+                Set<Object> all = new LinkedHashSet<>(prev.elements);
+                all.addAll(op.elements);
+                List<Object> list = new ArrayList<>(all);
+                return op.kind == FieldOp.Kind.ARRAY_UNION ? FieldOp.arrayUnion(list) : FieldOp.arrayRemove(list);
+            }
+            default:
+                return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * Applies a transform to a known plain value, as Firestore would.
+     *
+     * @param current - Current value, or null if unset
+     * @param op - Transform to apply
+     * @return Resulting plain value, REMOVED or UNSUPPORTED
+     */
+    private static Object apply(Object current, FieldOp op) {
+        switch (op.kind) {
+            case DELETE:
+                return REMOVED;
+            case INCREMENT:
+                if (current == null) return op.amount;
+                if (current instanceof Long || current instanceof Integer) {
+                    return ((Number) current).longValue() + op.amount;
+                }
+                return UNSUPPORTED;
+            case ARRAY_UNION:
+            case ARRAY_REMOVE: {
+                if (current != null && !(current instanceof List)) return UNSUPPORTED;
+                List<Object> list = current != null ? new ArrayList<>((List<?>) current) : new ArrayList<>();
+                if (op.kind == FieldOp.Kind.ARRAY_UNION) {
+                    for (Object o : op.elements) if (!list.contains(o)) list.add(o);
+                } else {
+                    list.removeAll(op.elements);
+                }
+                return list;
+            }
+            default:
+                return UNSUPPORTED;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+/**
+ * SQLite storage for the write outbox.
+ *
+ * Ops survive process death and app restarts. Field values are stored as
+ * JSON, with Timestamps and FieldOp transforms tagged so they round-trip.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.google.firebase.Timestamp;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Op table and its state transitions. All methods are blocking; call them
+ * from AppExecutors.io().
+ */
+class OutboxStore extends SQLiteOpenHelper {
+
+    /** Database file name. */
+    private static final String DB_NAME = "outbox.db";
+
+    /** Schema version. */
+    private static final int DB_VERSION = 3;
+
+    /** Op states. */
+    static final String PENDING = "pending";
+    static final String SENDING = "sending";
+    static final String COMMITTED = "committed";
+    static final String FAILED = "failed";
+
+    /**
+     * Opens (or creates) the outbox database.
+     *
+     * @param context - Any context
+     */
+    OutboxStore(Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE ops ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "group_id TEXT NOT NULL, "
+                + "label TEXT, "
+                + "kind TEXT NOT NULL, "
+                + "path TEXT NOT NULL, "
+                + "data TEXT NOT NULL, "
+                + "guard TEXT, "
+                + "state TEXT NOT NULL, "
+                + "attempts INTEGER NOT NULL DEFAULT 0, "
+                + "error TEXT, "
+                + "created_at INTEGER NOT NULL, "
+                + "committed_at INTEGER)");
+        db.execSQL("CREATE INDEX ops_state_path ON ops(state, path)");
+        db.execSQL("CREATE INDEX ops_state_guard ON ops(state, guard)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) db.execSQL("ALTER TABLE ops ADD COLUMN guard TEXT");
+        if (oldVersion < 3) db.execSQL("CREATE INDEX ops_state_guard ON ops(state, guard)");
+    }
+
+    /**
+     * Stores new ops, folding each into the latest pending op for the same
+     * document when the two can be combined.
+     *
+     * @param ops - Ops in the order they were issued
+     */
+    synchronized void enqueue(List<OutboxOp> ops) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long now = System.currentTimeMillis();
+            for (OutboxOp op : ops) {
+                OutboxOp earlier = latestPending(db, op.path);
+                if (earlier != null && earlier.absorb(op)) {
+                    ContentValues v = new ContentValues();
+                    v.put("kind", earlier.kind.name());
+                    v.put("data", encode(earlier.data));
+                    db.update("ops", v, "id = ?", new String[]{String.valueOf(earlier.id)});
+                    continue;
+                }
+                ContentValues v = new ContentValues();
+                v.put("group_id", op.groupId);
+                v.put("label", op.label);
+                v.put("kind", op.kind.name());
+                v.put("path", op.path);
+                v.put("data", encode(op.data));
+                if (op.guard != null) v.put("guard", op.guard);
+                v.put("state", PENDING);
+                v.put("created_at", now);
+                op.id = db.insert("ops", null, v);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Moves the oldest pending ops to SENDING and returns them. Ops in SENDING
+     * are never folded into, so a later write cannot change a chunk in flight.
+     * Ops sharing a guard are claimed together (see {@link #fill}).
+     *
+     * @param limit - Maximum ops to claim
+     * @param maxGuards - Maximum distinct guards among them
+     * @return Claimed ops in issue order
+     */
+    synchronized List<OutboxOp> claim(int limit, int maxGuards) {
+        SQLiteDatabase db = getWritableDatabase();
+        List<OutboxOp> oldest = new ArrayList<>();
+        try (Cursor c = db.query("ops", null, "state = ?", new String[]{PENDING},
+                null, null, "id", String.valueOf(limit))) {
+            while (c.moveToNext()) oldest.add(read(c));
+        }
+        Map<String, List<OutboxOp>> byGuard = new HashMap<>();
+        for (String guard : WriteOutbox.guards(oldest)) {
+            List<OutboxOp> same = new ArrayList<>();
+            try (Cursor c = db.query("ops", null, "state = ? AND guard = ?", new String[]{PENDING, guard},
+                    null, null, "id", null)) {
+                while (c.moveToNext()) same.add(read(c));
+            }
+            byGuard.put(guard, same);
+        }
+        List<OutboxOp> ops = fill(oldest, byGuard, limit, maxGuards);
+        setState(db, ops, SENDING, null, false);
+        return ops;
+    }
+
+    /**
+     * Picks the next chunk from the oldest pending ops: at most limit ops,
+     * never separating ops that share a guard. A guarded op applies only if
+     * its guard is missing when its chunk commits, so ops left for a later
+     * chunk would find the guard written by the earlier one and be skipped.
+     * The rest of a guard's ops are pulled forward into the chunk holding
+     * its first; a guard whose ops no longer fit, or one past maxGuards,
+     * ends the chunk, unless the chunk is still empty.
+     *
+     * @param oldest - Oldest pending ops, in id order
+     * @param byGuard - Every pending op of each guard among them, in id order
+     * @param limit - Maximum ops per chunk
+     * @param maxGuards - Maximum distinct guards per chunk
+     * @return Chunk in id order
+     */
+    static List<OutboxOp> fill(List<OutboxOp> oldest, Map<String, List<OutboxOp>> byGuard, int limit,
+                               int maxGuards) {
+        List<OutboxOp> chunk = new ArrayList<>();
+        Set<String> taken = new HashSet<>();
+        for (OutboxOp op : oldest) {
+            if (op.guard == null) {
+                if (chunk.size() >= limit) break;
+                chunk.add(op);
+                continue;
+            }
+            if (taken.contains(op.guard)) continue;
+            List<OutboxOp> group = byGuard.getOrDefault(op.guard, Collections.singletonList(op));
+            if (!chunk.isEmpty() && (chunk.size() + group.size() > limit || taken.size() >= maxGuards)) break;
+            taken.add(op.guard);
+            chunk.addAll(group);
+        }
+        chunk.sort((a, b) -> Long.compare(a.id, b.id));
+        return chunk;
+    }
+
+    /**
+     * Records ops as committed.
+     *
+     * @param ops - Ops whose write succeeded
+     */
+    synchronized void markCommitted(List<OutboxOp> ops) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long now = System.currentTimeMillis();
+            for (OutboxOp op : ops) {
+                ContentValues v = new ContentValues();
+                v.put("state", COMMITTED);
+                v.put("committed_at", now);
+                v.putNull("error");
+                db.update("ops", v, "id = ?", new String[]{String.valueOf(op.id)});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Returns ops to PENDING after a retryable failure.
+     *
+     * @param ops - Ops whose write failed
+     * @param error - Failure description
+     */
+    synchronized void release(List<OutboxOp> ops, String error) {
+        setState(getWritableDatabase(), ops, PENDING, error, true);
+    }
+
+    /**
+     * Marks ops as failed for good; they stay visible until retried or cleared.
+     *
+     * @param ops - Ops Firestore rejected
+     * @param error - Rejection description
+     */
+    synchronized void markFailed(List<OutboxOp> ops, String error) {
+        setState(getWritableDatabase(), ops, FAILED, error, true);
+    }
+
+    /**
+     * Returns whether an action still has ops waiting to be written.
+     *
+     * @param groupId - Action's group id
+     * @return True while any of its ops is pending or in flight
+     */
+    synchronized boolean hasUnfinished(String groupId) {
+        try (Cursor c = getReadableDatabase().rawQuery(
+                "SELECT 1 FROM ops WHERE group_id = ? AND state IN (?, ?) LIMIT 1",
+                new String[]{groupId, PENDING, SENDING})) {
+            return c.moveToFirst();
+        }
+    }
+
+    /**
+     * Puts failed ops back in the queue.
+     */
+    synchronized void retryFailed() {
+        ContentValues v = new ContentValues();
+        v.put("state", PENDING);
+        getWritableDatabase().update("ops", v, "state = ?", new String[]{FAILED});
+    }
+
+    /**
+     * Startup housekeeping: ops left SENDING by a killed process go back to
+     * PENDING, and old committed rows are dropped. Their commit may have
+     * landed; replaying it is safe because plain writes rewrite the same values
+     * and every increment is guarded by its marker (see OutboxOp).
+     *
+     * @param committedBefore - Drop committed ops older than this (epoch millis)
+     */
+    synchronized void recover(long committedBefore) {
+        SQLiteDatabase db = getWritableDatabase();
+        ContentValues v = new ContentValues();
+        v.put("state", PENDING);
+        db.update("ops", v, "state = ?", new String[]{SENDING});
+        db.delete("ops", "state = ? AND committed_at < ?",
+                new String[]{COMMITTED, String.valueOf(committedBefore)});
+    }
+
+    /**
+     * Summarizes the queue for the UI.
+     *
+     * @return Current counts and labels
+     */
+    synchronized WriteOutbox.Status status() {
+        SQLiteDatabase db = getReadableDatabase();
+        int pending = 0;
+        int failed = 0;
+        String label = null;
+        String error = null;
+        long lastCommitted = 0;
+        try (Cursor c = db.rawQuery("SELECT state, COUNT(*), MAX(committed_at) FROM ops GROUP BY state", null)) {
+            while (c.moveToNext()) {
+                String state = c.getString(0);
+                if (PENDING.equals(state) || SENDING.equals(state)) pending += c.getInt(1);
+                else if (FAILED.equals(state)) failed = c.getInt(1);
+                else if (COMMITTED.equals(state) && !c.isNull(2)) lastCommitted = c.getLong(2);
+            }
+        }
+        try (Cursor c = db.rawQuery("SELECT label, error FROM ops WHERE state IN (?, ?, ?) ORDER BY id LIMIT 1",
+                new String[]{PENDING, SENDING, FAILED})) {
+            if (c.moveToFirst()) {
+                label = c.getString(0);
+                error = c.getString(1);
+            }
+        }
+        return new WriteOutbox.Status(pending, failed, label, error, lastCommitted);
+    }
+
+    /**
+     * Finds the newest pending op for a document.
+     *
+     * @param db - Open database
+     * @param path - Document path
+     * @return The op, or null if none is pending
+     */
+    private static OutboxOp latestPending(SQLiteDatabase db, String path) {
+        try (Cursor c = db.query("ops", null, "state = ? AND path = ?", new String[]{PENDING, path},
+                null, null, "id DESC", "1")) {
+            return c.moveToFirst() ? read(c) : null;
+        }
+    }
+
+    /**
+     * Moves ops to a state.
+     *
+     * @param db - Open database
+     * @param ops - Ops to move
+     * @param state - New state
+     * @param error - Error text to record, or null
+     * @param countAttempt - Whether this ends a write attempt
+     */
+    private static void setState(SQLiteDatabase db, List<OutboxOp> ops, String state, String error,
+                                 boolean countAttempt) {
+        db.beginTransaction();
+        try {
+            for (OutboxOp op : ops) {
+                ContentValues v = new ContentValues();
+                v.put("state", state);
+                if (error != null) v.put("error", error);
+                db.update("ops", v, "id = ?", new String[]{String.valueOf(op.id)});
+                if (countAttempt) {
+                    db.execSQL("UPDATE ops SET attempts = attempts + 1 WHERE id = ?", new Object[]{op.id});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Reads the op at the cursor position.
+     *
+     * @param c - Cursor over the ops table
+     * @return Decoded op
+     */
+    private static OutboxOp read(Cursor c) {
+        int guard = c.getColumnIndexOrThrow("guard");
+        OutboxOp op = new OutboxOp(
+                c.getString(c.getColumnIndexOrThrow("group_id")),
+                c.getString(c.getColumnIndexOrThrow("label")),
+                OutboxOp.Kind.valueOf(c.getString(c.getColumnIndexOrThrow("kind"))),
+                c.getString(c.getColumnIndexOrThrow("path")),
+                decode(c.getString(c.getColumnIndexOrThrow("data"))),
+                c.isNull(guard) ? null : c.getString(guard));
+        op.id = c.getLong(c.getColumnIndexOrThrow("id"));
+        return op;
+    }
+
+    /**
+     * Encodes field values as JSON.
+     *
+     * @param data - Field values
+     * @return JSON text
+     * @throws IllegalArgumentException if a value type cannot be stored
+     */
+    static String encode(Map<String, Object> data) {
+        try {
+            return ((JSONObject) toJson(data)).toString();
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Cannot store write", e);
+        }
+    }
+
+    /**
+     * Decodes field values written by {@link #encode}.
+     *
+     * @param json - JSON text
+     * @return Field values
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> decode(String json) {
+        try {
+            return (Map<String, Object>) fromJson(new JSONObject(json));
+        } catch (JSONException e) {
+            throw new IllegalStateException("Corrupt outbox row", e);
+        }
+    }
+
+    /**
+     * Converts a value to its JSON form.
+     *
+     * @param value - Plain value, Timestamp, FieldOp, list or map
+     * @return JSON-compatible value
+     * @throws JSONException if the value cannot be represented
+     */
+    private static Object toJson(Object value) throws JSONException {
+        if (value == null) return JSONObject.NULL;
+        if (value instanceof String || value instanceof Boolean || value instanceof Number) return value;
+        if (value instanceof Timestamp) {
+            Timestamp ts = (Timestamp) value;
+            return new JSONObject().put("$ts", new JSONArray().put(ts.getSeconds()).put(ts.getNanoseconds()));
+        }
+        if (value instanceof FieldOp) {
+            FieldOp op = (FieldOp) value;
+            return new JSONObject().put("$op", op.kind.name()).put("n", op.amount)
+                    .put("e", toJson(op.elements));
+        }
+        if (value instanceof List) {
+            JSONArray arr = new JSONArray();
+            for (Object o : (List<?>) value) arr.put(toJson(o));
+            return arr;
+        }
+        if (value instanceof Map) {
+            JSONObject obj = new JSONObject();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                obj.put(String.valueOf(e.getKey()), toJson(e.getValue()));
+            }
+            return obj;
+        }
+        throw new JSONException("Unsupported value type " + value.getClass().getName());
+    }
+
+    /**
+     * Converts a JSON value back to a field value.
+     *
+     * @param json - Value read from JSON
+     * @return Field value
+     * @throws JSONException on malformed tags
+     */
+    private static Object fromJson(Object json) throws JSONException {
+        if (json == JSONObject.NULL) return null;
+        if (json instanceof JSONArray) {
+            JSONArray arr = (JSONArray) json;
+            List<Object> list = new ArrayList<>(arr.length());
+            for (int i = 0; i < arr.length(); i++) list.add(fromJson(arr.get(i)));
+            return list;
+        }
+        if (!(json instanceof JSONObject)) return json;
+
+        JSONObject obj = (JSONObject) json;
+        if (obj.length() == 1 && obj.has("$ts")) {
+            JSONArray ts = obj.getJSONArray("$ts");
+            return new Timestamp(ts.getLong(0), ts.getInt(1));
+        }
+        if (obj.has("$op")) {
+            FieldOp.Kind kind = FieldOp.Kind.valueOf(obj.getString("$op"));
+            List<?> elements = (List<?>) fromJson(obj.getJSONArray("e"));
+            switch (kind) {
+                case INCREMENT:
+                    return FieldOp.increment(obj.getLong("n"));
+                case ARRAY_UNION:
+                    return FieldOp.arrayUnion(elements);
+                case ARRAY_REMOVE:
+                    return FieldOp.arrayRemove(elements);
+                default:
+                    return FieldOp.delete();
+            }
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        Iterator<String> keys = obj.keys();
+        while (keys.hasNext()) {
+            String k = keys.next();
+            map.put(k, fromJson(obj.get(k)));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Screen-level latency spans and systrace sections.
+ *
+ * A span measures how long a user waits for something that finishes in a
+ * later callback (first event row shown, roster populated, draw committed).
+ * Each span is also emitted as a systrace async section, and short blocks on
+ * one thread can be wrapped in a {@link Section}, so both show up in
+ * Perfetto / Android Studio traces. Per-span percentiles can be dumped to
+ * logcat ({@code adb logcat -s PerfTrace}) and to files/perf_trace.json,
+ * which CI can pull after an instrumented run.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide span recorder.
+ */
+public class PerfTrace {
+
+    /** Log tag. */
+    private static final String TAG = "PerfTrace";
+
+    /** Dump file name under the app's files directory. */
+    public static final String DUMP_FILE = "perf_trace.json";
+
+    /** Span: MainActivity event list opened until its first results are laid out. */
+    public static final String EVENT_LIST_FIRST_ROW = "EventList.firstRow";
+
+    /** Span: attendee manager opened until every entrant's profile is in the roster. */
+    public static final String ROSTER_POPULATED = "AttendeeManager.rosterPopulated";
+
+    /** Span: event detail requested until the title, gallery and action buttons are set. */
+    public static final String DETAIL_READY = "EventDetail.ready";
+
+    /** Span: lottery started until every draw write has been committed. */
+    public static final String DRAW_COMMITTED = "Lottery.drawCommitted";
+
+    /** Longest section name systrace accepts. */
+    private static final int MAX_NAME = 127;
+
+    /** Shared instance. */
+    private static volatile PerfTrace instance;
+
+    /** Cookies pairing async section begin and end markers. */
+    private final AtomicInteger cookies = new AtomicInteger();
+
+    /** Durations by span name, in first-seen order. Guarded by this. */
+    private final Map<String, SpanStats> spans = new LinkedHashMap<>();
+
+    /**
+     * Returns the shared recorder.
+     *
+     * @return Process-wide PerfTrace
+     */
+    public static PerfTrace get() {
+        if (instance == null) {
+            synchronized (PerfTrace.class) {
+                if (instance == null) instance = new PerfTrace();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a span.
+     *
+     * @param name - Span name, e.g. {@link #DRAW_COMMITTED}
+     * @return Span to end (or cancel) when the wait is over
+     */
+    public Span begin(String name) {
+        return new Span(this, name, cookies.incrementAndGet());
+    }
+
+    /**
+     * Opens a synchronous trace section on the current thread. Use with
+     * try-with-resources; sections must close on the thread that opened them.
+     *
+     * @param name - Section name
+     * @return Section to close
+     */
+    public static Section section(String name) {
+        Trace.beginSection(traceName(name));
+        return new Section();
+    }
+
+    /**
+     * Records a finished span.
+     *
+     * @param name - Span name
+     * @param millis - Duration in ms
+     */
+    synchronized void record(String name, double millis) {
+        SpanStats s = spans.get(name);
+        if (s == null) {
+            s = new SpanStats();
+            spans.put(name, s);
+        }
+        s.record(millis);
+    }
+
+    /**
+     * Returns a copy of every span's stats.
+     *
+     * @return Stats by span name, in first-seen order
+     */
+    public synchronized Map<String, SpanStats> snapshot() {
+        Map<String, SpanStats> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, SpanStats> e : spans.entrySet()) copy.put(e.getKey(), e.getValue().copy());
+        return copy;
+    }
+
+    /**
+     * Clears all spans.
+     */
+    public synchronized void reset() {
+        spans.clear();
+    }
+
+    /**
+     * Returns every span's percentiles as JSON.
+     *
+     * @return {"dumpedAt": ..., "spans": {name: {count, meanMillis, p50, p90, p99, max}}}
+     * @throws JSONException never for these values
+     */
+    public JSONObject toJson() throws JSONException {
+        JSONObject root = new JSONObject();
+        root.put("dumpedAt", System.currentTimeMillis());
+        JSONObject byName = new JSONObject();
+        for (Map.Entry<String, SpanStats> e : snapshot().entrySet()) {
+            SpanStats s = e.getValue();
+            JSONObject o = new JSONObject();
+            o.put("count", s.getCount());
+            o.put("meanMillis", round(s.getMeanMillis()));
+            o.put("p50", round(s.percentile(50)));
+            o.put("p90", round(s.percentile(90)));
+            o.put("p99", round(s.percentile(99)));
+            o.put("max", round(s.getMaxMillis()));
+            byName.put(e.getKey(), o);
+        }
+        root.put("spans", byName);
+        return root;
+    }
+
+    /**
+     * Logs every span's percentiles and writes them as JSON to files/perf_trace.json.
+     *
+     * @param context - Any context
+     * @return The dump file, or null if it could not be written
+     */
+    public File dump(Context context) {
+        JSONObject json;
+        try {
+            json = toJson();
+        } catch (JSONException e) {
+            Log.w(TAG, "Dump failed", e);
+            return null;
+        }
+        for (Map.Entry<String, SpanStats> e : snapshot().entrySet()) {
+            SpanStats s = e.getValue();
+            Log.i(TAG, String.format(Locale.ROOT, "%s: n=%d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                    e.getKey(), s.getCount(), s.percentile(50), s.percentile(90), s.percentile(99),
+                    s.getMaxMillis()));
+        }
+
+        File file = new File(context.getFilesDir(), DUMP_FILE);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+            Log.i(TAG, "Wrote " + file.getAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            Log.w(TAG, "Dump failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Rounds to 0.1 ms for the dump.
+     *
+     * @param millis - Duration in ms
+     * @return Rounded duration
+     */
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+
+    /**
+     * Trims a name to what systrace accepts.
+     *
+     * @param name - Section name
+     * @return Name of at most 127 characters
+     */
+    private static String traceName(String name) {
+        return name.length() <= MAX_NAME ? name : name.substring(0, MAX_NAME);
+    }
+
+    /**
+     * One in-flight span. Ending or cancelling it more than once has no effect,
+     * so every completion path can simply call {@link #end()}.
+     */
+    public static final class Span {
+        /** Recorder to report to. */
+        private final PerfTrace trace;
+        /** Span name. */
+        private final String name;
+        /** Async section cookie. */
+        private final int cookie;
+        /** Start time, elapsedRealtimeNanos. */
+        private final long startNanos;
+        /** Set once the span has ended or been cancelled. */
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        /**
+         * Starts a span.
+         *
+         * @param trace - Recorder
+         * @param name - Span name
+         * @param cookie - Async section cookie
+         */
+        private Span(PerfTrace trace, String name, int cookie) {
+            this.trace = trace;
+            this.name = name;
+            this.cookie = cookie;
+            this.startNanos = SystemClock.elapsedRealtimeNanos();
+            // Async sections need API 29; older devices still record durations
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(traceName(name), cookie);
+            }
+        }
+
+        /**
+         * Ends the span and records its duration.
+         */
+        public void end() {
+            if (!done.compareAndSet(false, true)) return;
+            double millis = (SystemClock.elapsedRealtimeNanos() - startNanos) / 1e6;
+            endSection();
+            trace.record(name, millis);
+        }
+
+        /**
+         * Ends the span without recording it, e.g. when the load failed.
+         */
+        public void cancel() {
+            if (done.compareAndSet(false, true)) endSection();
+        }
+
+        /**
+         * Closes the async trace section.
+         */
+        private void endSection() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(traceName(name), cookie);
+            }
+        }
+    }
+
+    /**
+     * A synchronous trace section, closed by try-with-resources.
+     */
+    public static final class Section implements AutoCloseable {
+        /** Use {@link PerfTrace#section(String)}. */
+        private Section() {}
+
+        @Override
+        public void close() {
+            Trace.endSection();
+        }
+    }
+}
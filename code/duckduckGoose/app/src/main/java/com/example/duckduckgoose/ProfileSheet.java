@@ -36,10 +36,6 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.FirebaseAuthRecentLoginRequiredException;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FieldValue;
-
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Material bottom sheet that shows a user's profile and available actions.
@@ -75,36 +71,34 @@ public class ProfileSheet extends BottomSheetDialogFragment {
      * Attaches single and double tap handlers to the notification bell icon.
      *
      * Single tap opens the notification logs screen. Double tap toggles the
-     * receive_notifications flag in Firestore and updates the visual state.
+     * receive_notifications flag with a blind write and updates the visual
+     * state. The icon follows the shared inbox_meta listener, so opening the
+     * sheet does not read the user document.
      *
      * @param btnNotification - Notification bell ImageButton
-     * @param hasNewNotifications - True if the user currently has unread notifications
      */
-    private void attachNotificationHandler(ImageButton btnNotification, boolean hasNewNotifications) {
+    private void attachNotificationHandler(ImageButton btnNotification) {
         if (btnNotification == null) return;
-
-        // initial icon state
-        if (hasNewNotifications) {
-            btnNotification.setImageResource(R.drawable.notifications_unread_24px);
-        } else {
-            btnNotification.setImageResource(R.drawable.notifications_24px);
-        }
-
-        // Set visual alpha based on current Firestore preference (if available)
         FirebaseUser curUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (curUser != null && db != null) {
-            db.collection("users").document(curUser.getUid()).get()
-                    .addOnSuccessListener(doc -> {
-                        if (doc != null && doc.exists()) {
-                            Boolean opted = doc.getBoolean("receive_notifications");
-                            if (opted != null && !opted) {
-                                btnNotification.setAlpha(0.4f);
-                            } else {
-                                btnNotification.setAlpha(1.0f);
-                            }
-                        }
-                    });
-        }
+        if (curUser == null) return;
+        String uid = curUser.getUid();
+
+        InboxMeta.observe(this, uid, meta -> {
+            btnNotification.setImageResource(InboxMeta.unreadCount(meta) > 0
+                    ? R.drawable.notifications_unread_24px
+                    : R.drawable.notifications_24px);
+            Boolean mirrored = InboxMeta.receiveNotifications(meta);
+            if (mirrored != null) {
+                showReceiving(btnNotification, mirrored);
+            } else if (receiving == null) {
+                // Preference not mirrored yet (set before inbox_meta existed): use the cached profile
+                UserRepository.get().getUserDoc(uid).addOnSuccessListener(doc -> {
+                    if (receiving != null || doc == null || !doc.exists()) return;
+                    Boolean opted = doc.getBoolean("receive_notifications");
+                    showReceiving(btnNotification, opted == null || opted);
+                });
+            }
+        });
 
         GestureDetector detector = new GestureDetector(getContext(), new GestureDetector.SimpleOnGestureListener() {
             @Override
@@ -120,41 +114,20 @@ public class ProfileSheet extends BottomSheetDialogFragment {
 
             @Override
             public boolean onDoubleTap(MotionEvent e) {
-                // double tap: toggle the receive_notifications flag in Firestore
-                FirebaseUser u = FirebaseAuth.getInstance().getCurrentUser();
-                if (u == null) {
-                    Toast.makeText(getContext(), "Please sign in to change notification settings.", Toast.LENGTH_SHORT).show();
-                    return true;
-                }
-
-                String uid = u.getUid();
-                if (db == null) db = FirebaseFirestore.getInstance();
-
-                db.collection("users").document(uid).get()
-                        .addOnSuccessListener(doc -> {
-                            boolean current = true; // default
-                            if (doc != null && doc.exists()) {
-                                Boolean b = doc.getBoolean("receive_notifications");
-                                if (b != null) current = b;
-                            }
-                            boolean next = !current;
-                            Map<String, Object> updates = new HashMap<>();
-                            updates.put("receive_notifications", next);
-                            if (!next) {
-                                updates.put("opt_out_updated_at", com.google.firebase.Timestamp.now());
-                            } else {
-                                updates.put("opt_out_updated_at", FieldValue.delete());
-                            }
-
-                            db.collection("users").document(uid).update(updates)
-                                    .addOnSuccessListener(v -> {
-                                        btnNotification.setAlpha(next ? 1.0f : 0.4f);
-                                        Toast.makeText(getContext(), next ? "Notifications unmuted" : "Notifications muted", Toast.LENGTH_SHORT).show();
-                                    })
-                                    .addOnFailureListener(err -> Toast.makeText(getContext(), "Failed to update preference: " + err.getMessage(), Toast.LENGTH_LONG).show());
+                // double tap: write the opposite of the shown state, without reading it back first
+                boolean current = receiving == null || receiving;
+                boolean next = !current;
+                showReceiving(btnNotification, next);
+
+                InboxMeta.setReceiveNotifications(uid, next)
+                        .addOnSuccessListener(v -> {
+                            UserRepository.get().invalidate(uid);
+                            Toast.makeText(getContext(), next ? "Notifications unmuted" : "Notifications muted", Toast.LENGTH_SHORT).show();
                         })
-                        .addOnFailureListener(err -> Toast.makeText(getContext(), "Failed to read preference: " + err.getMessage(), Toast.LENGTH_LONG).show());
-
+                        .addOnFailureListener(err -> {
+                            showReceiving(btnNotification, current);
+                            Toast.makeText(getContext(), "Failed to update preference: " + err.getMessage(), Toast.LENGTH_LONG).show();
+                        });
                 return true;
             }
         });
@@ -162,6 +135,20 @@ public class ProfileSheet extends BottomSheetDialogFragment {
         btnNotification.setOnTouchListener((v, event) -> detector.onTouchEvent(event));
     }
 
+    /**
+     * Records the known notification preference and dims the bell when muted.
+     *
+     * @param btnNotification - Notification bell ImageButton
+     * @param receive - True if notifications are on
+     */
+    private void showReceiving(ImageButton btnNotification, boolean receive) {
+        receiving = receive;
+        btnNotification.setAlpha(receive ? 1.0f : 0.4f);
+    }
+
+    /** Notification preference as last shown on the bell; null until known. */
+    private Boolean receiving;
+
     /** Callback target implemented by the hosting context. */
     private OnProfileInteractionListener mListener;
 
@@ -213,7 +200,6 @@ public class ProfileSheet extends BottomSheetDialogFragment {
         args.putBoolean("showEventsButton", showEventsButton);
         args.putString("eventCount", eventCount);
         args.putBoolean("showAttendeeInfo", showAttendeeInfo);
-        args.putBoolean("new_notifications", user.getNew_notifications());
         fragment.setArguments(args);
         return fragment;
     }
@@ -341,8 +327,7 @@ public class ProfileSheet extends BottomSheetDialogFragment {
                 if (btnNotification != null) {
                     if (accountType != null && accountType.equalsIgnoreCase("Entrant")) {
                         btnNotification.setVisibility(View.VISIBLE);
-                        boolean hasNewNotifications = arguments.getBoolean("new_notifications", false);
-                        attachNotificationHandler(btnNotification, hasNewNotifications);
+                        attachNotificationHandler(btnNotification);
                     } else {
                         btnNotification.setVisibility(View.GONE);
                     }
@@ -384,17 +369,17 @@ public class ProfileSheet extends BottomSheetDialogFragment {
         } else {
             // No args: fetch and display the current user's profile.
             if (auth.getCurrentUser() != null) {
-                db.collection("users").document(auth.getCurrentUser().getUid()).get()
+                Metered.get(db.collection("users").document(auth.getCurrentUser().getUid()))
                         .addOnSuccessListener(ds -> {
                             User me = ds.toObject(User.class);
                             if (me != null) {
                                 bindSelfProfile(v, me);
-                                // Update notification icon based on new_notifications field
+                                // Show the notification bell for entrants
                                 if (btnNotification != null) {
                                     String accountType = me.getAccountType();
                                     if (accountType != null && accountType.equalsIgnoreCase("Entrant")) {
                                         btnNotification.setVisibility(View.VISIBLE);
-                                        attachNotificationHandler(btnNotification, me.getNew_notifications());
+                                        attachNotificationHandler(btnNotification);
                                     } else {
                                         btnNotification.setVisibility(View.GONE);
                                     }
@@ -425,6 +410,7 @@ public class ProfileSheet extends BottomSheetDialogFragment {
 
         if (btnLogout != null) {
             btnLogout.setOnClickListener(x -> {
+                SessionCache.clear(requireContext());
                 dismiss();
                 auth.signOut();
                 if (getActivity() != null) {
@@ -522,6 +508,7 @@ public class ProfileSheet extends BottomSheetDialogFragment {
                 .addOnSuccessListener(v -> auth.getCurrentUser().delete()
                         .addOnSuccessListener(aVoid -> {
                             Toast.makeText(requireContext(), "Account deleted :(", Toast.LENGTH_SHORT).show();
+                            SessionCache.clear(requireContext());
                             dismiss();
                             auth.signOut();
                             if (getActivity() != null) {
@@ -0,0 +1,123 @@
+/**
+ * LiveData view of a Firestore query for use inside ViewModels.
+ *
+ * Unlike LiveQuery, which is bound to one activity instance, this holder
+ * lives as long as its ViewModel. When the last observer goes away the
+ * listener is kept for a short grace period, so a configuration change
+ * re-attaches to the same listener and replays the last snapshot without
+ * issuing a new read.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+/**
+ * Snapshot stream for one query, shared through LiveQuery's listener registry.
+ *
+ * Call {@link #close()} from the owning ViewModel's onCleared.
+ */
+public class QueryLiveData extends LiveData<QuerySnapshot> {
+
+    /** Log tag. */
+    private static final String TAG = "QueryLiveData";
+
+    /** How long the listener outlives its last observer (covers a rotation). */
+    static final long LINGER_MILLIS = 5000;
+
+    /** Query being observed. */
+    private final Query query;
+
+    /** Latest listen error, if any. */
+    private final MutableLiveData<FirebaseFirestoreException> error = new MutableLiveData<>();
+
+    /** Main-thread handler for the delayed detach. */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Receives snapshots from the shared listener. An error ends the shared
+     * listener and drops its subscribers, so this holder counts as detached
+     * and its next active observer subscribes again.
+     */
+    private final EventListener<QuerySnapshot> listener = (snapshot, e) -> {
+        if (e != null) {
+            Log.e(TAG, "Listen failed", e);
+            attached = false;
+            error.setValue(e);
+        } else {
+            setValue(snapshot);
+        }
+    };
+
+    /** Detaches after the grace period. */
+    private final Runnable detach = this::detach;
+
+    /** Whether the listener is currently subscribed. */
+    private boolean attached;
+
+    /**
+     * Creates a holder; nothing is read until it gains an active observer.
+     *
+     * @param query - Query to observe
+     */
+    public QueryLiveData(Query query) {
+        this.query = query;
+    }
+
+    /**
+     * Returns listen errors for this query.
+     *
+     * @return LiveData carrying the latest error
+     */
+    public LiveData<FirebaseFirestoreException> getError() {
+        return error;
+    }
+
+    /**
+     * Attaches, or cancels a pending detach, when an observer becomes active.
+     */
+    @Override
+    protected void onActive() {
+        handler.removeCallbacks(detach);
+        if (!attached) {
+            attached = true;
+            LiveQuery.subscribe(query, listener);
+        }
+    }
+
+    /**
+     * Schedules a detach once no observer is active.
+     */
+    @Override
+    protected void onInactive() {
+        handler.postDelayed(detach, LINGER_MILLIS);
+    }
+
+    /**
+     * Releases the listener immediately.
+     */
+    public void close() {
+        handler.removeCallbacks(detach);
+        detach();
+    }
+
+    /**
+     * Unsubscribes from the shared listener.
+     */
+    private void detach() {
+        if (!attached) return;
+        attached = false;
+        LiveQuery.unsubscribe(query, listener);
+    }
+}
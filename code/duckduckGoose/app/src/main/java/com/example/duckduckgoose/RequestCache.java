@@ -0,0 +1,181 @@
+/**
+ * Keyed in-memory cache for asynchronous Firestore loads.
+ *
+ * Completed results are kept for a bounded time in a small LRU map, and
+ * concurrent requests for the same key share one in-flight Task, so N rows
+ * asking for the same document cost one read instead of N.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * LRU + TTL cache with request coalescing, used by the repositories.
+ *
+ * Failed loads are not cached. Invalidating a key while its load is in flight
+ * discards that load's result, so a write followed by a read never sees the
+ * pre-write value. Thread-safe.
+ *
+ * @param <V> - Cached value type
+ */
+public class RequestCache<V> {
+
+    /** Maximum number of cached entries. */
+    private final int maxEntries;
+
+    /** How long a cached value stays fresh, in ms. */
+    private final long ttlMillis;
+
+    /** Time source (ms); injectable for tests. */
+    private final LongSupplier clock;
+
+    /** Cached values in access order, eldest first. */
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    /** Loads currently running, by key. */
+    private final Map<String, Task<V>> inFlight = new HashMap<>();
+
+    /** Number of loads started (cache misses not served by an in-flight load). */
+    private int loads;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries - Maximum entries kept before the least recently used is evicted
+     * @param ttlMillis - Time a value is served before it is reloaded
+     */
+    public RequestCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a cache with a custom clock.
+     *
+     * @param maxEntries - Maximum entries kept before the least recently used is evicted
+     * @param ttlMillis - Time a value is served before it is reloaded
+     * @param clock - Current time in ms
+     */
+    RequestCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > RequestCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for a key, loading it only if it is not cached or already loading.
+     *
+     * @param key - Cache key
+     * @param loader - Starts the load; called at most once per miss
+     * @return Task resolving to the cached or loaded value
+     */
+    public synchronized Task<V> get(String key, Supplier<Task<V>> loader) {
+        V cached = peek(key);
+        if (cached != null) return Tasks.forResult(cached);
+
+        Task<V> running = inFlight.get(key);
+        if (running != null) return running;
+
+        Task<V> task = loader.get();
+        loads++;
+        inFlight.put(key, task);
+        // Direct executor: bookkeeping only, no UI work
+        task.addOnCompleteListener(Runnable::run, t -> complete(key, t));
+        return task;
+    }
+
+    /**
+     * Returns a fresh cached value without loading.
+     *
+     * @param key - Cache key
+     * @return Cached value, or null if absent or expired
+     */
+    public synchronized V peek(String key) {
+        Entry<V> e = entries.get(key);
+        if (e == null) return null;
+        if (clock.getAsLong() - e.storedAt >= ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return e.value;
+    }
+
+    /**
+     * Stores a value directly, e.g. documents that arrived as part of a query.
+     *
+     * @param key - Cache key
+     * @param value - Value to store; null is ignored
+     */
+    public synchronized void put(String key, V value) {
+        if (value == null) return;
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+    }
+
+    /**
+     * Drops a key and detaches any in-flight load from the cache.
+     *
+     * @param key - Cache key
+     */
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+        inFlight.remove(key);
+    }
+
+    /**
+     * Drops every entry and in-flight load.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Returns how many loads were actually started.
+     *
+     * @return Load count since creation
+     */
+    public synchronized int loadCount() {
+        return loads;
+    }
+
+    /**
+     * Records a finished load if it is still the current one for its key.
+     *
+     * @param key - Cache key
+     * @param task - Finished load
+     */
+    private synchronized void complete(String key, Task<V> task) {
+        if (inFlight.get(key) != task) return;
+        inFlight.remove(key);
+        if (task.isSuccessful() && task.getResult() != null) {
+            entries.put(key, new Entry<>(task.getResult(), clock.getAsLong()));
+        }
+    }
+
+    /**
+     * Cached value with its store time.
+     */
+    private static final class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
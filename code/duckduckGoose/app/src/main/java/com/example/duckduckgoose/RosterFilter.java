@@ -0,0 +1,101 @@
+/**
+ * Choices of the attendee manager's filter dropdown.
+ *
+ * Each choice is a fixed set of entrant statuses, so the same definition
+ * filters the in-memory roster and drives one paged server query per status
+ * (see AttendeeManagerViewModel#setFilter).
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Attendee filter and the statuses it shows.
+ */
+public enum RosterFilter {
+    /** Drawn or still waiting. */
+    SELECTED_OR_WAITING("Selected/Waiting", EntrantStatus.SELECTED, EntrantStatus.WAITING),
+    /** Declined or removed. */
+    NOT_SELECTED("Not Selected", EntrantStatus.CANCELLED, EntrantStatus.DECLINED),
+    /** Everyone without a spot. */
+    DUCK("Duck", EntrantStatus.INVITED, EntrantStatus.DECLINED, EntrantStatus.CANCELLED,
+            EntrantStatus.REMOVED, EntrantStatus.WAITING),
+    /** Selected or accepted. */
+    GOOSE("Goose", EntrantStatus.SELECTED, EntrantStatus.ACCEPTED);
+
+    /** Dropdown text. */
+    private final String label;
+
+    /** Statuses shown, in the order they are paged from the server. */
+    private final List<EntrantStatus> statuses;
+
+    /**
+     * Creates a filter.
+     *
+     * @param label - Dropdown text
+     * @param statuses - Statuses shown
+     */
+    RosterFilter(String label, EntrantStatus... statuses) {
+        this.label = label;
+        this.statuses = Collections.unmodifiableList(Arrays.asList(statuses));
+    }
+
+    /**
+     * Returns the dropdown text.
+     *
+     * @return Label
+     */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Returns the statuses this filter shows.
+     *
+     * @return Statuses in paging order
+     */
+    public List<EntrantStatus> statuses() {
+        return statuses;
+    }
+
+    /**
+     * Returns whether an entrant with a status is shown.
+     *
+     * @param status - Entrant's status
+     * @return True if it is one of this filter's statuses
+     */
+    public boolean matches(EntrantStatus status) {
+        return statuses.contains(status);
+    }
+
+    /**
+     * Returns every dropdown label.
+     *
+     * @return Labels in dropdown order
+     */
+    public static String[] labels() {
+        RosterFilter[] all = values();
+        String[] labels = new String[all.length];
+        for (int i = 0; i < all.length; i++) labels[i] = all[i].label;
+        return labels;
+    }
+
+    /**
+     * Finds the filter for a dropdown label.
+     *
+     * @param label - Dropdown text, may be empty or the "Value" hint
+     * @return Filter, or null when nothing is filtered
+     */
+    public static RosterFilter fromLabel(String label) {
+        for (RosterFilter f : values()) {
+            if (f.label.equals(label)) return f;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Local cache of the signed-in user's role and basic profile.
+ *
+ * Lets LoginActivity route a returning user immediately on launch instead of
+ * waiting for a users/{uid} read; the cached values are revalidated against
+ * Firestore in the background.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * SharedPreferences-backed store for the last resolved session.
+ *
+ * Entries are bound to a Firebase uid; a lookup for a different uid misses.
+ */
+public class SessionCache {
+
+    /** SharedPreferences file name. */
+    private static final String PREFS = "session_cache";
+
+    /** Keys for cached fields. */
+    private static final String KEY_UID = "uid";
+    private static final String KEY_ACCOUNT_TYPE = "accountType";
+    private static final String KEY_FULL_NAME = "fullName";
+    private static final String KEY_USER_ID = "userId";
+    private static final String KEY_EMAIL = "email";
+    private static final String KEY_SAVED_AT = "savedAt";
+
+    /**
+     * Cached role and profile for one uid.
+     */
+    public static class Profile {
+        /** Firebase Auth uid the entry belongs to. */
+        public final String uid;
+        /** Account type as stored in Firestore (e.g. "Organizer"). */
+        public final String accountType;
+        /** Display name. */
+        public final String fullName;
+        /** Application-specific user ID. */
+        public final String userId;
+        /** Email address. */
+        public final String email;
+        /** When the entry was last written (epoch millis). */
+        public final long savedAt;
+
+        /**
+         * Creates a cached profile.
+         *
+         * @param uid - Firebase Auth uid
+         * @param accountType - Account type string
+         * @param fullName - Display name, may be null
+         * @param userId - Application-specific user ID, may be null
+         * @param email - Email address, may be null
+         * @param savedAt - Write time in epoch millis
+         */
+        public Profile(String uid, String accountType, String fullName, String userId, String email, long savedAt) {
+            this.uid = uid;
+            this.accountType = accountType;
+            this.fullName = fullName;
+            this.userId = userId;
+            this.email = email;
+            this.savedAt = savedAt;
+        }
+    }
+
+    /**
+     * Returns the SharedPreferences used by the cache.
+     *
+     * @param context - Any context
+     * @return Cache preferences
+     */
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Loads the cached profile for a uid.
+     *
+     * @param context - Any context
+     * @param uid - Signed-in Firebase uid
+     * @return Cached profile, or null if none is stored for this uid
+     */
+    public static Profile load(Context context, String uid) {
+        SharedPreferences p = prefs(context);
+        String cachedUid = p.getString(KEY_UID, null);
+        String accountType = p.getString(KEY_ACCOUNT_TYPE, null);
+        if (uid == null || !uid.equals(cachedUid) || accountType == null) return null;
+        return new Profile(cachedUid, accountType,
+                p.getString(KEY_FULL_NAME, null),
+                p.getString(KEY_USER_ID, null),
+                p.getString(KEY_EMAIL, null),
+                p.getLong(KEY_SAVED_AT, 0L));
+    }
+
+    /**
+     * Stores the resolved role and profile, replacing any previous entry.
+     *
+     * @param context - Any context
+     * @param profile - Profile to cache
+     */
+    public static void save(Context context, Profile profile) {
+        prefs(context).edit()
+                .putString(KEY_UID, profile.uid)
+                .putString(KEY_ACCOUNT_TYPE, profile.accountType)
+                .putString(KEY_FULL_NAME, profile.fullName)
+                .putString(KEY_USER_ID, profile.userId)
+                .putString(KEY_EMAIL, profile.email)
+                .putLong(KEY_SAVED_AT, profile.savedAt)
+                .apply();
+    }
+
+    /**
+     * Updates the cached name and email after a profile edit, if the uid matches.
+     *
+     * @param context - Any context
+     * @param uid - Uid whose profile changed
+     * @param fullName - New display name
+     * @param email - New email, may be null
+     */
+    public static void updateProfile(Context context, String uid, String fullName, String email) {
+        SharedPreferences p = prefs(context);
+        if (uid == null || !uid.equals(p.getString(KEY_UID, null))) return;
+        p.edit()
+                .putString(KEY_FULL_NAME, fullName)
+                .putString(KEY_EMAIL, email)
+                .putLong(KEY_SAVED_AT, System.currentTimeMillis())
+                .apply();
+    }
+
+    /**
+     * Removes the cached session (call on sign-out or account deletion), along
+     * with in-memory profiles and events read under the previous account.
+     *
+     * @param context - Any context
+     */
+    public static void clear(Context context) {
+        prefs(context).edit().clear().apply();
+        UserRepository.get().clear();
+        EventRepository.get().clear();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Duration statistics for one named span.
+ *
+ * Keeps the most recent samples in a fixed window and reports exact
+ * nearest-rank percentiles over them. Plain Java so it can be unit tested;
+ * PerfTrace does the locking.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.util.Arrays;
+
+/**
+ * Windowed span durations. Not thread-safe.
+ */
+public class SpanStats {
+
+    /** Samples kept for percentiles. */
+    static final int WINDOW = 512;
+
+    /** Ring buffer of recent durations in ms. */
+    private final double[] samples = new double[WINDOW];
+
+    /** Samples recorded over the span's lifetime. */
+    private long count;
+
+    /** Largest duration seen, in ms. */
+    private double maxMillis;
+
+    /**
+     * Adds one duration.
+     *
+     * @param millis - Duration in ms
+     */
+    public void record(double millis) {
+        samples[(int) (count % WINDOW)] = millis;
+        count++;
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    /**
+     * Returns the nearest-rank percentile over the recent window.
+     *
+     * @param p - Percentile in (0, 100]
+     * @return Duration in ms, 0 with no samples
+     */
+    public double percentile(double p) {
+        double[] window = window();
+        if (window.length == 0) return 0;
+        Arrays.sort(window);
+        int rank = (int) Math.ceil(p / 100.0 * window.length);
+        return window[Math.min(Math.max(rank, 1), window.length) - 1];
+    }
+
+    /**
+     * Returns the mean over the recent window.
+     *
+     * @return Mean duration in ms, 0 with no samples
+     */
+    public double getMeanMillis() {
+        double[] window = window();
+        if (window.length == 0) return 0;
+        double sum = 0;
+        for (double d : window) sum += d;
+        return sum / window.length;
+    }
+
+    /**
+     * Returns samples recorded over the span's lifetime.
+     *
+     * @return Samples recorded over the span's lifetime
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest duration seen.
+     *
+     * @return Largest duration seen, in ms
+     */
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Returns a copy.
+     *
+     * @return Independent copy of these stats
+     */
+    public SpanStats copy() {
+        SpanStats c = new SpanStats();
+        System.arraycopy(samples, 0, c.samples, 0, WINDOW);
+        c.count = count;
+        c.maxMillis = maxMillis;
+        return c;
+    }
+
+    /**
+     * Copies out the samples currently in the window.
+     *
+     * @return Recent durations, unordered
+     */
+    private double[] window() {
+        return Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Measures cold-start time to the first drawn frame.
+ *
+ * Logs one line per process under the "StartupTiming" tag so launch time can
+ * be tracked from logcat, e.g. {@code adb logcat -s StartupTiming}.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Records time from process start to the first frame of the first screen.
+ */
+public class StartupTimer {
+
+    /** Log tag for startup measurements. */
+    private static final String TAG = "StartupTiming";
+
+    /** Whether the first frame has already been recorded for this process. */
+    private static boolean recorded;
+
+    /** Whether routing used the cached session (no profile read before the first screen). */
+    private static boolean cachedRoute;
+
+    /** Last measured time to first frame in ms, or -1 if not yet measured. */
+    private static long firstFrameMillis = -1;
+
+    /**
+     * Notes whether the launch was routed from the local session cache.
+     *
+     * @param fromCache - true if routing skipped the profile read
+     */
+    public static void setCachedRoute(boolean fromCache) {
+        cachedRoute = fromCache;
+    }
+
+    /**
+     * Records the first frame of the given activity, once per process.
+     * Call from onCreate after setContentView.
+     *
+     * @param activity - Activity whose first frame ends the measurement
+     */
+    public static void markFirstFrame(Activity activity) {
+        if (recorded) return;
+        View decor = activity.getWindow().getDecorView();
+        String screen = activity.getClass().getSimpleName();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                if (!recorded) {
+                    recorded = true;
+                    firstFrameMillis = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                    Log.i(TAG, "first frame of " + screen + " after " + firstFrameMillis
+                            + " ms (cachedRoute=" + cachedRoute + ")");
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Returns the measured time to first frame.
+     *
+     * @return Milliseconds from process start, or -1 if not yet measured
+     */
+    public static long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+}
@@ -2,7 +2,8 @@
  * Helper for wiring top bar actions (for example, profile sheet).
  *
  * Provides a static method to attach the profile bottom sheet to the
- * top-bar profile button in any activity.
+ * top-bar profile button in any activity, along with an unread badge driven
+ * by the user's inbox_meta document.
  *
  * @author DuckDuckGoose Development Team
  */
@@ -11,6 +12,14 @@ package com.example.duckduckgoose;
 import android.app.Activity;
 import android.view.View;
 
+import androidx.annotation.OptIn;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.android.material.badge.BadgeDrawable;
+import com.google.android.material.badge.BadgeUtils;
+import com.google.android.material.badge.ExperimentalBadgeUtils;
+import com.google.firebase.auth.FirebaseAuth;
+
 /**
  * Utility class for attaching top-bar interactions.
  *
@@ -25,7 +34,8 @@ public final class TopBarWiring {
      * Attaches a click listener to open the profile sheet from the top bar.
      *
      * Looks up the view with id btnProfile and, if present, opens the profile
-     * bottom sheet using the activity's fragment manager.
+     * bottom sheet using the activity's fragment manager and shows the unread
+     * badge on it.
      *
      * @param activity - Host activity containing a view with id btnProfile
      */
@@ -37,6 +47,38 @@ public final class TopBarWiring {
                             ((androidx.fragment.app.FragmentActivity) activity)
                                     .getSupportFragmentManager(),
                             "ProfileSheet"));
+            attachUnreadBadge(activity, avatar);
         }
     }
+
+    /**
+     * Shows the unread notification count as a badge on the avatar.
+     *
+     * One listener on inbox_meta/{uid}, bound to the activity's lifecycle and
+     * shared with any other screen observing it. No badge while muted, since
+     * notifications sent after muting are hidden from the inbox.
+     *
+     * @param activity - Host activity
+     * @param avatar - Top-bar profile view
+     */
+    @OptIn(markerClass = ExperimentalBadgeUtils.class)
+    private static void attachUnreadBadge(Activity activity, View avatar) {
+        String uid = FirebaseAuth.getInstance().getUid();
+        if (uid == null || !(activity instanceof LifecycleOwner)) return;
+
+        BadgeDrawable badge = BadgeDrawable.create(activity);
+        badge.setVisible(false);
+        // The avatar is the overlay host, so keep the badge inside its corner
+        int inset = Math.round(6 * avatar.getResources().getDisplayMetrics().density);
+        badge.setHorizontalOffset(inset);
+        badge.setVerticalOffset(inset);
+        avatar.post(() -> BadgeUtils.attachBadgeDrawable(badge, avatar));
+
+        InboxMeta.observe((LifecycleOwner) activity, uid, meta -> {
+            long unread = InboxMeta.unreadCount(meta);
+            boolean muted = Boolean.FALSE.equals(InboxMeta.receiveNotifications(meta));
+            badge.setNumber((int) Math.min(unread, 99));
+            badge.setVisible(unread > 0 && !muted);
+        });
+    }
 }
\ No newline at end of file
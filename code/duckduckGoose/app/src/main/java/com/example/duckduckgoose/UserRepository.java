@@ -0,0 +1,202 @@
+/**
+ * Cached access to users/{uid} documents.
+ *
+ * Screens that show names for many rows (attendee lists, notification
+ * senders, map markers) go through this repository so each profile is read
+ * once per TTL window, and concurrent lookups of one uid share a single read.
+ * Lists load their uncached profiles together, up to 30 per query.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.example.duckduckgoose.user.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide user profile repository.
+ *
+ * Snapshots are cached, not User objects: callers often mutate the User they
+ * receive (e.g. setUserId), so every call builds a fresh instance.
+ */
+public class UserRepository {
+
+    /** Profiles kept in memory. */
+    private static final int MAX_USERS = 500;
+
+    /** How long a cached profile is served before it is re-read. */
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    /** Most values Firestore accepts in one "in" filter. */
+    static final int IN_LIMIT = 30;
+
+    /** Shared instance. */
+    private static volatile UserRepository instance;
+
+    /** users/{uid} snapshots by uid. */
+    private final RequestCache<DocumentSnapshot> docs = new RequestCache<>(MAX_USERS, TTL_MILLIS);
+
+    /** users query results by email, holding the first match. */
+    private final RequestCache<DocumentSnapshot> byEmail = new RequestCache<>(50, TTL_MILLIS);
+
+    /**
+     * Returns the shared repository.
+     *
+     * @return Process-wide UserRepository
+     */
+    public static UserRepository get() {
+        if (instance == null) {
+            synchronized (UserRepository.class) {
+                if (instance == null) instance = new UserRepository();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the users/{uid} snapshot, from cache when fresh.
+     *
+     * @param uid - Firebase uid
+     * @return Task resolving to the snapshot (which may not exist)
+     */
+    public Task<DocumentSnapshot> getUserDoc(String uid) {
+        return docs.get(uid, () -> Metered.get(FirebaseFirestore.getInstance().collection("users").document(uid)));
+    }
+
+    /**
+     * Returns a new User built from the cached profile, with userId set to the uid.
+     *
+     * @param uid - Firebase uid
+     * @return Task resolving to a User; an empty User if the profile does not exist
+     */
+    public Task<User> getUser(String uid) {
+        return getUserDoc(uid).continueWith(t -> {
+            DocumentSnapshot doc = t.getResult();
+            User u = doc != null && doc.exists() ? doc.toObject(User.class) : null;
+            if (u == null) u = new User();
+            u.setUserId(uid);
+            return u;
+        });
+    }
+
+    /**
+     * Returns new Users for several uids. Fresh cached profiles are reused and
+     * the rest are read with one documentId "in" query per 30 uids, so a
+     * roster of n entrants costs at most ceil(n/30) reads instead of n.
+     *
+     * @param uids - Firebase uids; nulls and duplicates are ignored
+     * @return Task resolving to one User per distinct uid, in input order, with
+     *         userId set; an empty User if the profile does not exist. Uids whose
+     *         query failed are left out.
+     */
+    public Task<List<User>> getUsers(Collection<String> uids) {
+        List<String> ordered = new ArrayList<>();
+        Map<String, DocumentSnapshot> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String uid : new LinkedHashSet<>(uids)) {
+            if (uid == null) continue;
+            ordered.add(uid);
+            DocumentSnapshot cached = docs.peek(uid);
+            if (cached != null) found.put(uid, cached);
+            else missing.add(uid);
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += IN_LIMIT) {
+            List<String> chunk = new ArrayList<>(missing.subList(i, Math.min(i + IN_LIMIT, missing.size())));
+            chunks.add(chunk);
+            reads.add(Metered.get(FirebaseFirestore.getInstance().collection("users")
+                    .whereIn(FieldPath.documentId(), chunk)));
+        }
+
+        return Tasks.whenAllComplete(reads).continueWith(t -> {
+            Set<String> failed = new HashSet<>();
+            for (int i = 0; i < reads.size(); i++) {
+                Task<QuerySnapshot> read = reads.get(i);
+                if (!read.isSuccessful()) {
+                    failed.addAll(chunks.get(i));
+                    continue;
+                }
+                for (DocumentSnapshot doc : read.getResult().getDocuments()) {
+                    docs.put(doc.getId(), doc);
+                    found.put(doc.getId(), doc);
+                }
+            }
+
+            List<User> out = new ArrayList<>(ordered.size());
+            for (String uid : ordered) {
+                if (failed.contains(uid)) continue;
+                DocumentSnapshot doc = found.get(uid);
+                User u = doc != null ? doc.toObject(User.class) : null;
+                if (u == null) u = new User();
+                u.setUserId(uid);
+                out.add(u);
+            }
+            return out;
+        });
+    }
+
+    /**
+     * Returns the user's display name.
+     *
+     * @param uid - Firebase uid
+     * @return Task resolving to fullName, or null if missing
+     */
+    public Task<String> getFullName(String uid) {
+        return getUserDoc(uid).continueWith(t -> {
+            DocumentSnapshot doc = t.getResult();
+            return doc != null && doc.exists() ? doc.getString("fullName") : null;
+        });
+    }
+
+    /**
+     * Looks up a user by email.
+     *
+     * @param email - Email address
+     * @return Task resolving to the first matching snapshot, or null if none
+     */
+    public Task<DocumentSnapshot> findByEmail(String email) {
+        return byEmail.get(email, () -> Metered.get(FirebaseFirestore.getInstance().collection("users")
+                        .whereEqualTo("email", email)
+                        .limit(1))
+                .continueWith(t -> {
+                    if (t.getResult().isEmpty()) return null;
+                    DocumentSnapshot doc = t.getResult().getDocuments().get(0);
+                    docs.put(doc.getId(), doc);
+                    return doc;
+                }));
+    }
+
+    /**
+     * Drops a cached profile after it was written.
+     *
+     * @param uid - Firebase uid
+     */
+    public void invalidate(String uid) {
+        if (uid != null) docs.invalidate(uid);
+        byEmail.clear();
+    }
+
+    /**
+     * Drops all cached profiles (e.g. on sign-out).
+     */
+    public void clear() {
+        docs.clear();
+        byEmail.clear();
+    }
+}
@@ -0,0 +1,421 @@
+/**
+ * Admission path for joining an event's waiting list.
+ *
+ * When registration opens for a popular event many entrants join at once.
+ * Each join is one transaction that reads the deterministic
+ * waitlist/{uid}_{eventId} entry first, so the entry is only created if it
+ * does not exist yet: a repeated tap or a retried commit is a no-op rather
+ * than a duplicate. Events with a waiting-list cap count entrants in sharded
+ * counters (events/{id}/waitlistShards/{n}), each allowed its share of the
+ * cap, so concurrent joins mostly touch different counter documents instead
+ * of contending on one. The shard layout is fixed and only the shares follow
+ * the cap, so editing the cap never moves a count. Each counter write names
+ * the entry it counts, which the rules check against the same write: a slot
+ * is taken only by creating that entry and released only by deleting it or
+ * clearing its shard field. Every path that takes an
+ * entrant off the list (leave, accept, decline, an organizer's kick) releases
+ * the slot recorded on the entry in the transaction that clears it, so a slot
+ * is released exactly once. Contention and transient failures are retried with
+ * jittered exponential backoff, and joins made right after registration
+ * opens start after a short random delay, so a burst of clients spreads out
+ * instead of retrying in lockstep.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+import com.example.duckduckgoose.waitlist.WaitlistEntry;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.TransactionOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Joins and leaves waiting lists with idempotent, capped, retried writes.
+ */
+public final class WaitlistAdmission {
+
+    /** Log tag. */
+    private static final String TAG = "WaitlistAdmission";
+
+    /**
+     * Counter shards for a capped waiting list; caps below this use only the
+     * lowest shards. Keep in sync with shardShare in firestore.rules.
+     */
+    static final int SHARD_COUNT = 10;
+
+    /** Attempts before a join gives up. */
+    static final int MAX_ATTEMPTS = 6;
+
+    /** First retry delay ceiling. */
+    static final long BASE_BACKOFF_MILLIS = 250;
+
+    /** Longest retry delay ceiling. */
+    static final long MAX_BACKOFF_MILLIS = 8000;
+
+    /** Joins this soon after registration opens are treated as part of the opening burst. */
+    static final long BURST_WINDOW_MILLIS = 10 * 60 * 1000L;
+
+    /** Longest random delay before a join made during the opening burst. */
+    static final long BURST_SPREAD_MILLIS = 1500;
+
+    /** Counter shard subcollection under the event. */
+    static final String SHARDS = "waitlistShards";
+
+    /**
+     * One attempt per transaction; retries are paced here with jitter
+     * instead of by the SDK's own fixed schedule.
+     */
+    private static final TransactionOptions ONE_ATTEMPT =
+            new TransactionOptions.Builder().setMaxAttempts(1).build();
+
+    /** Jitter and shard choice. */
+    private static final Random random = new Random();
+
+    /**
+     * Outcome of a join.
+     */
+    public enum Result {
+        /** The entry was created. */
+        JOINED,
+        /** The entrant is already on the list; nothing was written. */
+        ALREADY_JOINED,
+        /** The entrant's entry is off the list (accepted, declined, cancelled or removed). */
+        CLOSED,
+        /** The waiting list is at its cap. */
+        FULL
+    }
+
+    /** Prevents instantiation. */
+    private WaitlistAdmission() {}
+
+    /**
+     * Joins an event's waiting list.
+     *
+     * @param event - Event to join (its id, cap and registration date are used)
+     * @param uid - Entrant's uid
+     * @param latitude - Optional latitude
+     * @param longitude - Optional longitude
+     * @return Task resolving to the outcome; fails if every attempt failed
+     *         or the failure cannot be retried
+     */
+    public static Task<Result> join(Event event, String uid, Double latitude, Double longitude) {
+        TaskCompletionSource<Result> done = new TaskCompletionSource<>();
+        String eventId = event.getEventId();
+        Integer cap = event.getWaitlistCap();
+        long opens = EventFieldParser.parseDateMillis(event.getRegistrationOpens());
+        long delay = burstDelayMillis(opens, System.currentTimeMillis(), random.nextDouble());
+        Runnable first = () -> attempt(eventId, uid, cap, latitude, longitude, 1, done);
+        if (delay > 0) new Handler(Looper.getMainLooper()).postDelayed(first, delay);
+        else first.run();
+        return done.getTask();
+    }
+
+    /**
+     * Leaves an event's waiting list, releasing the entry's counter slot.
+     *
+     * @param eventId - Event document id
+     * @param uid - Entrant's uid
+     * @return Task that completes when the entry is removed
+     */
+    public static Task<Void> leave(String eventId, String uid) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference entryRef = db.collection("waitlist").document(entryId(uid, eventId));
+        return Metered.runTransaction(tx -> {
+            DocumentSnapshot entry = tx.get(entryRef);
+            releaseSlot(tx, db, eventId, entry, null);
+            if (entry.exists()) tx.delete(entryRef);
+            tx.update(db.collection("events").document(eventId), "waitingList", FieldValue.arrayRemove(uid));
+            tx.update(db.collection("users").document(uid), "waitlistedEventIds", FieldValue.arrayRemove(eventId));
+            return null;
+        });
+    }
+
+    /**
+     * Accepts a selection: the entry becomes ACCEPTED, the entrant moves from
+     * the event's and their own waiting lists to the accepted lists, and the
+     * entry's counter slot is released.
+     *
+     * @param eventId - Event document id
+     * @param uid - Entrant's uid
+     * @param fields - Further entry fields to set (e.g. userName), may be empty
+     * @return Task that completes when the entry is updated
+     */
+    public static Task<Void> accept(String eventId, String uid, Map<String, Object> fields) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference entryRef = db.collection("waitlist").document(entryId(uid, eventId));
+        return Metered.runTransaction(tx -> {
+            DocumentSnapshot entry = tx.get(entryRef);
+            Map<String, Object> updates = new HashMap<>(fields);
+            updates.put("status", EntrantStatus.ACCEPTED.value());
+            updates.put("acceptedAt", Timestamp.now());
+            releaseSlot(tx, db, eventId, entry, updates);
+            tx.update(entryRef, updates);
+            tx.update(db.collection("events").document(eventId),
+                    "waitingList", FieldValue.arrayRemove(uid),
+                    "acceptedFromWaitlist", FieldValue.arrayUnion(uid));
+            tx.update(db.collection("users").document(uid),
+                    "waitlistedEventIds", FieldValue.arrayRemove(eventId),
+                    "acceptedEventIds", FieldValue.arrayUnion(eventId));
+            return null;
+        });
+    }
+
+    /**
+     * Declines a selection: the entry is kept as DECLINED (a record of the
+     * answer), the entrant leaves both waiting lists, the counter slot is
+     * released and one position opens for a redraw.
+     *
+     * @param eventId - Event document id
+     * @param uid - Entrant's uid
+     * @return Task that completes when the entry is updated
+     */
+    public static Task<Void> decline(String eventId, String uid) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference entryRef = db.collection("waitlist").document(entryId(uid, eventId));
+        return Metered.runTransaction(tx -> {
+            DocumentSnapshot entry = tx.get(entryRef);
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("status", EntrantStatus.DECLINED.value());
+            releaseSlot(tx, db, eventId, entry, updates);
+            tx.update(entryRef, updates);
+            tx.update(db.collection("events").document(eventId),
+                    "waitingList", FieldValue.arrayRemove(uid),
+                    "redrawCount", FieldValue.increment(1));
+            tx.update(db.collection("users").document(uid), "waitlistedEventIds", FieldValue.arrayRemove(eventId));
+            return null;
+        });
+    }
+
+    /**
+     * Releases the counter slot of an entry someone else took off the list
+     * (an organizer's kick, queued through the outbox). Does nothing while
+     * the entry is still on the list or holds no slot, so it is safe to repeat.
+     *
+     * @param eventId - Event document id
+     * @param entryDocId - Waitlist entry document id
+     * @return Task that completes when the slot is released
+     */
+    public static Task<Void> release(String eventId, String entryDocId) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference entryRef = db.collection("waitlist").document(entryDocId);
+        return Metered.runTransaction(tx -> {
+            DocumentSnapshot entry = tx.get(entryRef);
+            if (!entry.exists() || EntrantStatus.of(entry.getString("status")).isOnList()) return null;
+            Map<String, Object> updates = new HashMap<>();
+            releaseSlot(tx, db, eventId, entry, updates);
+            if (!updates.isEmpty()) tx.update(entryRef, updates);
+            return null;
+        });
+    }
+
+    /**
+     * Releases an entry's counter slot within a transaction. The entry's
+     * shard field goes with the decrement (or the caller deletes the entry),
+     * so no later path can release the same slot again.
+     *
+     * @param tx - Transaction that read the entry
+     * @param db - Firestore
+     * @param eventId - Event document id
+     * @param entry - Entry as read in tx
+     * @param updates - Entry updates the caller applies, or null if it deletes the entry
+     */
+    private static void releaseSlot(Metered.Tx tx, FirebaseFirestore db, String eventId,
+                                    DocumentSnapshot entry, Map<String, Object> updates) {
+        Long shard = entry.exists() ? entry.getLong("shard") : null;
+        if (shard == null) return;
+        tx.set(shardRef(db, eventId, shard.intValue()), shardWrite(-1, entry.getId()), SetOptions.merge());
+        if (updates != null) updates.put("shard", FieldValue.delete());
+    }
+
+    /**
+     * Runs one join attempt and schedules the next on a retryable failure.
+     *
+     * @param eventId - Event document id
+     * @param uid - Entrant's uid
+     * @param cap - Waiting-list cap, or null for none
+     * @param latitude - Optional latitude
+     * @param longitude - Optional longitude
+     * @param attempt - Attempt number, from 1
+     * @param done - Completed with the outcome
+     */
+    private static void attempt(String eventId, String uid, Integer cap, Double latitude, Double longitude,
+                                int attempt, TaskCompletionSource<Result> done) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        int shards = cap != null ? openShards(cap) : 0;
+        int start = shards > 0 ? random.nextInt(shards) : 0;
+        DocumentReference entryRef = db.collection("waitlist").document(entryId(uid, eventId));
+
+        Metered.runTransaction(ONE_ATTEMPT, tx -> {
+            // Reading the entry makes the create conditional on it still not existing
+            DocumentSnapshot existing = tx.get(entryRef);
+            if (existing.exists()) {
+                return EntrantStatus.of(existing.getString("status")).isOnList()
+                        ? Result.ALREADY_JOINED : Result.CLOSED;
+            }
+
+            Integer shard = null;
+            for (int i = 0; i < shards && shard == null; i++) {
+                int s = (start + i) % shards;
+                Long count = tx.get(shardRef(db, eventId, s)).getLong("count");
+                if ((count != null ? count : 0) < shardCapacity(cap, s)) shard = s;
+            }
+            if (cap != null && shard == null) return Result.FULL;
+
+            WaitlistEntry entry = new WaitlistEntry(uid, eventId, latitude, longitude);
+            entry.setShard(shard);
+            tx.set(entryRef, entry);
+            if (shard != null) {
+                tx.set(shardRef(db, eventId, shard), shardWrite(1, entryRef.getId()), SetOptions.merge());
+            }
+            tx.update(db.collection("events").document(eventId), "waitingList", FieldValue.arrayUnion(uid));
+            tx.update(db.collection("users").document(uid), "waitlistedEventIds", FieldValue.arrayUnion(eventId));
+            return Result.JOINED;
+        }).addOnCompleteListener(t -> {
+            if (t.isSuccessful()) {
+                if (t.getResult() == Result.JOINED) WaitlistRepository.get().invalidate(eventId);
+                done.setResult(t.getResult());
+                return;
+            }
+            Exception e = t.getException();
+            if (attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+                Log.e(TAG, "Join failed after " + attempt + " attempt(s)", e);
+                done.setException(e);
+                return;
+            }
+            long delay = backoffMillis(attempt, random.nextDouble());
+            Log.w(TAG, "Join attempt " + attempt + " failed, retrying in " + delay + " ms", e);
+            new Handler(Looper.getMainLooper()).postDelayed(
+                    () -> attempt(eventId, uid, cap, latitude, longitude, attempt + 1, done), delay);
+        });
+    }
+
+    /**
+     * Returns the deterministic waitlist entry id.
+     *
+     * @param uid - Entrant's uid
+     * @param eventId - Event document id
+     * @return "{uid}_{eventId}"
+     */
+    static String entryId(String uid, String eventId) {
+        return uid + "_" + eventId;
+    }
+
+    /**
+     * Returns a counter shard document.
+     *
+     * @param db - Firestore
+     * @param eventId - Event document id
+     * @param shard - Shard index
+     * @return events/{eventId}/waitlistShards/{shard}
+     */
+    private static DocumentReference shardRef(FirebaseFirestore db, String eventId, int shard) {
+        return db.collection("events").document(eventId).collection(SHARDS).document(String.valueOf(shard));
+    }
+
+    /**
+     * Returns a counter shard write. The entry id lets the rules check that
+     * the same write creates the entry (a join) or releases its slot.
+     *
+     * @param delta - 1 for a join, -1 for a release
+     * @param entryDocId - Waitlist entry document id
+     * @return Fields to merge into the shard
+     */
+    static Map<String, Object> shardWrite(int delta, String entryDocId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("count", FieldValue.increment(delta));
+        data.put("entry", entryDocId);
+        return data;
+    }
+
+    /**
+     * Returns how many shards have room under a cap: the lowest ones, as
+     * the remainder of the cap goes to them.
+     *
+     * @param cap - Waiting-list cap
+     * @return Between 0 and SHARD_COUNT
+     */
+    static int openShards(int cap) {
+        return Math.max(0, Math.min(SHARD_COUNT, cap));
+    }
+
+    /**
+     * Returns one shard's share of the cap. The shares add up to the cap,
+     * with the remainder going to the lowest shards. After the cap is
+     * lowered a shard may hold more than its share; it admits nobody until
+     * enough of its entrants leave.
+     *
+     * @param cap - Waiting-list cap
+     * @param shard - Shard index
+     * @return Slots in that shard
+     */
+    static int shardCapacity(int cap, int shard) {
+        return Math.max(0, cap / SHARD_COUNT + (shard < cap % SHARD_COUNT ? 1 : 0));
+    }
+
+    /**
+     * Computes the delay before a retry: a random point below a ceiling
+     * that doubles from BASE_BACKOFF_MILLIS up to MAX_BACKOFF_MILLIS. The
+     * full range is used, since the clients being spread out all failed
+     * at about the same moment.
+     *
+     * @param attempt - Attempts made so far (at least 1)
+     * @param jitter - Random value in [0, 1)
+     * @return Delay in milliseconds
+     */
+    static long backoffMillis(int attempt, double jitter) {
+        int doublings = Math.min(Math.max(attempt, 1) - 1, 20);
+        long cap = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << doublings);
+        return (long) (jitter * cap);
+    }
+
+    /**
+     * Computes the random delay before a first attempt: up to
+     * BURST_SPREAD_MILLIS while registration has just opened, otherwise none.
+     *
+     * @param opensMillis - Registration open time, or EventFieldParser.NO_DATE
+     * @param nowMillis - Current time
+     * @param jitter - Random value in [0, 1)
+     * @return Delay in milliseconds
+     */
+    static long burstDelayMillis(long opensMillis, long nowMillis, double jitter) {
+        if (opensMillis == EventFieldParser.NO_DATE) return 0;
+        long since = nowMillis - opensMillis;
+        if (since < 0 || since >= BURST_WINDOW_MILLIS) return 0;
+        return (long) (jitter * BURST_SPREAD_MILLIS);
+    }
+
+    /**
+     * Returns whether a failed join is worth retrying.
+     *
+     * @param error - Transaction failure
+     * @return True for contention, overload and connectivity failures
+     */
+    static boolean isRetryable(Exception error) {
+        if (!(error instanceof FirebaseFirestoreException)) return false;
+        switch (((FirebaseFirestoreException) error).getCode()) {
+            case ABORTED:
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Access to waitlist/{uid}_{eventId} entries.
+ *
+ * Provides the canonical waitlist queries so every screen listening to an
+ * event's entrants uses an identical Query and therefore shares one listener,
+ * plus a short-lived cache for one-off reads of an event's entries.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide waitlist repository.
+ */
+public class WaitlistRepository {
+
+    /** How long a one-off read of an event's entries is reused. */
+    private static final long TTL_MILLIS = 30 * 1000L;
+
+    /** Waiting entries read per page when streaming. */
+    public static final int PAGE_SIZE = 300;
+
+    /** A page read that has not finished by then fails the stream. */
+    private static final long PAGE_TIMEOUT_SECONDS = 30;
+
+    /** Shared instance. */
+    private static volatile WaitlistRepository instance;
+
+    /**
+     * Receives an event's waiting entries one page at a time.
+     */
+    public interface PageConsumer {
+        /**
+         * Called with each page, in document id order.
+         *
+         * @param page - Up to PAGE_SIZE entries
+         */
+        void onPage(List<DocumentSnapshot> page);
+    }
+
+    /** One-off waitlist reads by event id. */
+    private final RequestCache<QuerySnapshot> byEvent = new RequestCache<>(20, TTL_MILLIS);
+
+    /**
+     * Returns the shared repository.
+     *
+     * @return Process-wide WaitlistRepository
+     */
+    public static WaitlistRepository get() {
+        if (instance == null) {
+            synchronized (WaitlistRepository.class) {
+                if (instance == null) instance = new WaitlistRepository();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the query for every entry of an event.
+     *
+     * @param eventId - Event document id
+     * @return Waitlist query
+     */
+    public Query forEvent(String eventId) {
+        return FirebaseFirestore.getInstance().collection("waitlist").whereEqualTo("eventId", eventId);
+    }
+
+    /**
+     * Returns the query for an event's entries with one status, in document
+     * id order so it can be paged with startAfter. Served by the composite
+     * (eventId, status) index.
+     *
+     * @param eventId - Event document id
+     * @param status - Entry status
+     * @return Status query
+     */
+    public Query byStatus(String eventId, EntrantStatus status) {
+        return forEvent(eventId).whereEqualTo("status", status.value()).orderBy(FieldPath.documentId());
+    }
+
+    /**
+     * Returns the query for an event's entries still waiting to be drawn,
+     * in document id order so it can be paged with startAfter.
+     *
+     * @param eventId - Event document id
+     * @return Waiting-entry query
+     */
+    public Query waiting(String eventId) {
+        return byStatus(eventId, EntrantStatus.WAITING);
+    }
+
+    /**
+     * Streams an event's waiting entries from the server a page at a time,
+     * so only one page is held in memory. Blocks; call it on a background
+     * thread.
+     *
+     * @param eventId - Event document id
+     * @param consumer - Receives each page
+     * @return Entries read
+     * @throws Exception if a page read fails, times out or is interrupted
+     */
+    public int streamWaiting(String eventId, PageConsumer consumer) throws Exception {
+        Query base = waiting(eventId);
+        DocumentSnapshot last = null;
+        int read = 0;
+        while (true) {
+            Query page = last != null ? base.startAfter(last).limit(PAGE_SIZE) : base.limit(PAGE_SIZE);
+            QuerySnapshot snap = Tasks.await(Metered.get(page), PAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            List<DocumentSnapshot> docs = snap.getDocuments();
+            read += docs.size();
+            consumer.onPage(docs);
+            if (docs.size() < PAGE_SIZE) return read;
+            last = docs.get(docs.size() - 1);
+        }
+    }
+
+    /**
+     * Returns the query for every entry of a user.
+     *
+     * @param uid - Firebase uid
+     * @return Waitlist query
+     */
+    public Query forUser(String uid) {
+        return FirebaseFirestore.getInstance().collection("waitlist").whereEqualTo("userId", uid);
+    }
+
+    /**
+     * Returns a live view of an event's entries for a ViewModel to hold.
+     *
+     * @param eventId - Event document id
+     * @return LiveData of waitlist snapshots
+     */
+    public QueryLiveData observeEvent(String eventId) {
+        return new QueryLiveData(forEvent(eventId));
+    }
+
+    /**
+     * Reads an event's entries once, reusing a recent result.
+     *
+     * @param eventId - Event document id
+     * @return Task resolving to the waitlist snapshot
+     */
+    public Task<QuerySnapshot> getForEvent(String eventId) {
+        return byEvent.get(eventId, () -> Metered.get(forEvent(eventId)));
+    }
+
+    /**
+     * Drops a cached read after this client changed an event's entries.
+     *
+     * @param eventId - Event document id
+     */
+    public void invalidate(String eventId) {
+        if (eventId != null) byEvent.invalidate(eventId);
+    }
+}
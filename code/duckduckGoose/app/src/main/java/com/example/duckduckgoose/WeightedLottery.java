@@ -0,0 +1,175 @@
+/**
+ * Weighted lottery sampling without replacement.
+ *
+ * Uses the Efraimidis–Spirakis scheme: every entrant gets the key
+ * ln(u) / weight for a uniform u in (0, 1], and the k largest keys win, which
+ * draws winners one at a time with probability proportional to weight. Only
+ * the current k best are kept, in a min-heap, so a stream of n entrants is
+ * drawn in one pass in O(n log k) time and O(k) memory, and an entrant whose
+ * key cannot beat the heap's minimum costs no allocation.
+ *
+ * u is derived from the draw seed and the entrant's id rather than from a
+ * random stream, so the same seed, entrants and weights give the same
+ * winners in whatever order the entrants arrive (roster order, page order).
+ * Plain Java so it can be unit tested and benchmarked.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * One weighted draw of up to k winners. Not thread-safe.
+ *
+ * @param <T> - Item drawn, e.g. a waitlist entry or a user
+ */
+public class WeightedLottery<T> {
+
+    /**
+     * A candidate and its key.
+     *
+     * @param <T> - Item type
+     */
+    private static final class Keyed<T> {
+        /** Sort key; larger wins. */
+        final double key;
+        /** Entrant id, breaks exact key ties. */
+        final String id;
+        /** Item drawn. */
+        final T item;
+
+        /**
+         * Creates a candidate.
+         *
+         * @param key - Sort key
+         * @param id - Entrant id
+         * @param item - Item
+         */
+        Keyed(double key, String id, T item) {
+            this.key = key;
+            this.id = id;
+            this.item = item;
+        }
+
+        /**
+         * Orders candidates from weakest to strongest.
+         *
+         * @param other - Candidate to compare with
+         * @return Negative if this one loses to other
+         */
+        int compareTo(Keyed<T> other) {
+            int c = Double.compare(key, other.key);
+            return c != 0 ? c : other.id.compareTo(id);
+        }
+    }
+
+    /** Winners to draw. */
+    private final int k;
+
+    /** Draw seed. */
+    private final long seed;
+
+    /** The k strongest candidates so far, weakest at the head. */
+    private final PriorityQueue<Keyed<T>> heap;
+
+    /** Entrants offered so far. */
+    private long seen;
+
+    /**
+     * Starts an empty draw.
+     *
+     * @param k - Winners to draw (0 or less draws nobody)
+     * @param seed - Draw seed
+     */
+    public WeightedLottery(int k, long seed) {
+        this.k = Math.max(0, k);
+        this.seed = seed;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(this.k, 1024)), Keyed::compareTo);
+    }
+
+    /**
+     * Offers the next entrant. An id should be offered at most once per draw.
+     *
+     * @param id - Entrant id (uid); fixes the entrant's random draw
+     * @param item - Item returned if the entrant wins
+     * @param weight - Relative chance; 0 or less never wins
+     */
+    public void offer(String id, T item, double weight) {
+        seen++;
+        if (k == 0 || !(weight > 0)) return;
+        double key = Math.log(uniform(seed, id)) / weight;
+        if (heap.size() == k) {
+            Keyed<T> weakest = heap.peek();
+            int c = Double.compare(key, weakest.key);
+            if (c < 0 || (c == 0 && id.compareTo(weakest.id) >= 0)) return;
+            heap.poll();
+        }
+        heap.add(new Keyed<>(key, id, item));
+    }
+
+    /**
+     * Returns how many entrants have been offered.
+     *
+     * @return Entrants offered, including those with no chance
+     */
+    public long getSeen() {
+        return seen;
+    }
+
+    /**
+     * Returns the winners.
+     *
+     * @return Up to k items, in draw order (strongest key first)
+     */
+    public List<T> winners() {
+        List<Keyed<T>> sorted = new ArrayList<>(heap);
+        Collections.sort(sorted, (a, b) -> b.compareTo(a));
+        List<T> items = new ArrayList<>(sorted.size());
+        for (Keyed<T> c : sorted) items.add(c.item);
+        return items;
+    }
+
+    /**
+     * Returns a new random draw seed.
+     *
+     * @return Seed to record with the draw
+     */
+    public static long newSeed() {
+        return new SecureRandom().nextLong();
+    }
+
+    /**
+     * Maps a seed and entrant id to a uniform value in (0, 1].
+     *
+     * @param seed - Draw seed
+     * @param id - Entrant id
+     * @return Uniform value, never 0 so its log is finite
+     */
+    static double uniform(long seed, String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        long x = mix(seed ^ mix(h));
+        return ((x >>> 11) + 1) * 0x1.0p-53;
+    }
+
+    /**
+     * SplitMix64 finaliser; spreads every input bit over the output.
+     *
+     * @param z - Input
+     * @return Mixed value
+     */
+    private static long mix(long z) {
+        z += 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,668 @@
+/**
+ * Durable outbox for organizer writes made on poor connectivity.
+ *
+ * Actions such as a lottery draw record their writes here first (SQLite, via
+ * OutboxStore), so nothing is lost if the connection drops or the app is
+ * killed. Queued writes to the same document are merged, and the queue is
+ * flushed to Firestore in chunks below the 500-write batch limit, retrying
+ * with exponential backoff and again whenever the network comes back. A
+ * chunk holding guarded ops (see {@link BatchWriter#ifAbsent}) is committed
+ * as a transaction that first reads the guard documents, so those ops apply
+ * at most once even when a commit is replayed. Guards are looked up together
+ * before the transaction and only the missing ones are read again inside it,
+ * one by one, so a chunk holds at most MAX_GUARDS_PER_CHUNK guards. Ops holding an increment are
+ * guarded by a marker document of their own (see {@link OutboxOp#MARKERS}),
+ * so a replayed increment does not count twice. Ops sharing a guard are never
+ * split across commits.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Process-wide outbox. Writes are queued with {@link #batch(String)}.
+ */
+public final class WriteOutbox {
+
+    /** Log tag. */
+    private static final String TAG = "WriteOutbox";
+
+    /** Ops per Firestore commit; below the 500-write batch limit. */
+    static final int CHUNK_SIZE = 400;
+
+    /** Guards per commit; each missing one is a sequential read inside the transaction. */
+    static final int MAX_GUARDS_PER_CHUNK = 50;
+
+    /** First retry delay. */
+    static final long BASE_BACKOFF_MILLIS = 2000;
+
+    /** Longest retry delay. */
+    static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000L;
+
+    /** A commit that has not been acknowledged by then counts as failed and is retried. */
+    private static final long COMMIT_TIMEOUT_SECONDS = 30;
+
+    /** Markers expire (Firestore TTL on expireAt) after this; far longer than any replay. */
+    private static final long MARKER_TTL_MILLIS = 30L * 24 * 60 * 60 * 1000;
+
+    /** Committed ops are kept this long so the UI can report them. */
+    private static final long KEEP_COMMITTED_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /** Shared instance. */
+    private static volatile WriteOutbox instance;
+
+    /** Op storage. */
+    private final OutboxStore store;
+
+    /** Latest queue summary. */
+    private final MutableLiveData<Status> status = new MutableLiveData<>();
+
+    /** Main-thread handler for scheduled retries. */
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /** Scheduled retry. */
+    private final Runnable retry = this::flush;
+
+    /** Whether a drain loop is running. */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** Set when a flush is requested; the running drain loop picks it up. */
+    private volatile boolean flushRequested;
+
+    /** Consecutive retryable failures, for backoff. */
+    private volatile int failures;
+
+    /** Jitter source for backoff. */
+    private final Random random = new Random();
+
+    /** Callbacks waiting for an action's ops to be written, by group id. */
+    private final Map<String, Runnable> onFinished = new ConcurrentHashMap<>();
+
+    /**
+     * Queue summary shown by screens that write through the outbox.
+     */
+    public static final class Status {
+        /** Ops waiting to be written (including a chunk in flight). */
+        public final int pending;
+        /** Ops Firestore rejected; they need a retry or attention. */
+        public final int failed;
+        /** Label of the oldest unfinished action, or null. */
+        public final String label;
+        /** Last error recorded for that action, or null. */
+        public final String error;
+        /** When the last op was committed (epoch millis), or 0. */
+        public final long lastCommittedAt;
+
+        /**
+         * Creates a summary.
+         *
+         * @param pending - Ops waiting to be written
+         * @param failed - Rejected ops
+         * @param label - Oldest unfinished action label, or null
+         * @param error - Last error for it, or null
+         * @param lastCommittedAt - Last commit time, or 0
+         */
+        public Status(int pending, int failed, String label, String error, long lastCommittedAt) {
+            this.pending = pending;
+            this.failed = failed;
+            this.label = label;
+            this.error = error;
+            this.lastCommittedAt = lastCommittedAt;
+        }
+    }
+
+    /**
+     * Writes for one user action. Nothing is queued until {@link #commit()}.
+     */
+    public final class Batch implements BatchWriter {
+        /** Id shared by the action's ops. */
+        private final String groupId = UUID.randomUUID().toString();
+        /** User-facing label. */
+        private final String label;
+        /** Ops in issue order. */
+        private final List<OutboxOp> ops = new ArrayList<>();
+
+        private Batch(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public void set(DocumentReference ref, Map<String, Object> data) {
+            add(OutboxOp.Kind.SET, ref, data);
+        }
+
+        @Override
+        public void merge(DocumentReference ref, Map<String, Object> data) {
+            add(OutboxOp.Kind.MERGE, ref, data);
+        }
+
+        @Override
+        public void update(DocumentReference ref, Map<String, Object> data) {
+            add(OutboxOp.Kind.UPDATE, ref, data);
+        }
+
+        @Override
+        public void delete(DocumentReference ref) {
+            add(OutboxOp.Kind.DELETE, ref, null);
+        }
+
+        @Override
+        public BatchWriter ifAbsent(DocumentReference guard) {
+            String guardPath = guard.getPath();
+            return new BatchWriter() {
+                @Override
+                public void set(DocumentReference ref, Map<String, Object> data) {
+                    add(OutboxOp.Kind.SET, ref, data, guardPath);
+                }
+
+                @Override
+                public void merge(DocumentReference ref, Map<String, Object> data) {
+                    add(OutboxOp.Kind.MERGE, ref, data, guardPath);
+                }
+
+                @Override
+                public void update(DocumentReference ref, Map<String, Object> data) {
+                    add(OutboxOp.Kind.UPDATE, ref, data, guardPath);
+                }
+
+                @Override
+                public void delete(DocumentReference ref) {
+                    add(OutboxOp.Kind.DELETE, ref, null, guardPath);
+                }
+            };
+        }
+
+        /**
+         * Returns the number of writes added so far.
+         *
+         * @return Op count before merging
+         */
+        public int size() {
+            return ops.size();
+        }
+
+        /**
+         * Persists the action's writes and starts a flush. Returns immediately;
+         * progress is reported through {@link #getStatus()}.
+         */
+        public void commit() {
+            commit(null);
+        }
+
+        /**
+         * Like {@link #commit()}, and runs a callback on the main thread once
+         * none of the action's ops is left in the queue (each was committed, or
+         * rejected and marked failed). Not run if the process dies first.
+         *
+         * @param finished - Callback, or null
+         */
+        public void commit(Runnable finished) {
+            if (ops.isEmpty()) {
+                if (finished != null) handler.post(finished);
+                return;
+            }
+            List<OutboxOp> queued = new ArrayList<>(ops);
+            ops.clear();
+            if (finished != null) onFinished.put(groupId, finished);
+            AppExecutors.get().io().execute(() -> {
+                store.enqueue(queued);
+                publish();
+                drain();
+            });
+        }
+
+        /**
+         * Records one op, checking now that its values can be stored.
+         *
+         * @param kind - Write kind
+         * @param ref - Target document
+         * @param data - Field values, or null for a delete
+         */
+        private void add(OutboxOp.Kind kind, DocumentReference ref, Map<String, Object> data) {
+            // Applied twice, an increment counts twice; a marker makes it apply once
+            add(kind, ref, data, OutboxOp.hasIncrement(data) ? OutboxOp.newMarker() : null);
+        }
+
+        /**
+         * Records one op that applies only while a guard document is missing.
+         *
+         * @param kind - Write kind
+         * @param ref - Target document
+         * @param data - Field values, or null for a delete
+         * @param guard - Guard document path, or null
+         */
+        private void add(OutboxOp.Kind kind, DocumentReference ref, Map<String, Object> data, String guard) {
+            if (data != null) OutboxStore.encode(data);
+            ops.add(new OutboxOp(groupId, label, kind, ref.getPath(), data, guard));
+        }
+    }
+
+    /**
+     * Returns the shared outbox, opening its database on first use.
+     *
+     * @param context - Any context
+     * @return Process-wide WriteOutbox
+     */
+    public static WriteOutbox get(Context context) {
+        if (instance == null) {
+            synchronized (WriteOutbox.class) {
+                if (instance == null) instance = new WriteOutbox(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    private WriteOutbox(Context app) {
+        store = new OutboxStore(app);
+
+        ConnectivityManager cm = (ConnectivityManager) app.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm != null) {
+            cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    // Connectivity is back: retry now instead of waiting out the backoff
+                    failures = 0;
+                    flush();
+                }
+            });
+        }
+
+        AppExecutors.get().io().execute(() -> {
+            store.recover(System.currentTimeMillis() - KEEP_COMMITTED_MILLIS);
+            publish();
+            drain();
+        });
+    }
+
+    /**
+     * Starts a group of writes for one user action.
+     *
+     * @param label - Shown while the action is pending (e.g. "Lottery draw")
+     * @return Batch to add writes to
+     */
+    public Batch batch(String label) {
+        return new Batch(label);
+    }
+
+    /**
+     * Returns the queue summary.
+     *
+     * @return LiveData updated after every queue change
+     */
+    public LiveData<Status> getStatus() {
+        return status;
+    }
+
+    /**
+     * Flushes now, cancelling any scheduled retry.
+     */
+    public void flush() {
+        handler.removeCallbacks(retry);
+        AppExecutors.get().io().execute(this::drain);
+    }
+
+    /**
+     * Re-queues ops Firestore rejected and flushes.
+     */
+    public void retryFailed() {
+        AppExecutors.get().io().execute(() -> {
+            store.retryFailed();
+            publish();
+            drain();
+        });
+    }
+
+    /**
+     * Computes the delay before the next retry: doubling from
+     * BASE_BACKOFF_MILLIS up to MAX_BACKOFF_MILLIS, then jittered to between
+     * half and all of that so many devices coming back online do not retry
+     * in lockstep.
+     *
+     * @param failures - Consecutive failures so far (at least 1)
+     * @param jitter - Random value in [0, 1)
+     * @return Delay in milliseconds
+     */
+    static long backoffMillis(int failures, double jitter) {
+        int doublings = Math.min(Math.max(failures, 1) - 1, 20);
+        long cap = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << doublings);
+        return cap / 2 + (long) (jitter * (cap / 2));
+    }
+
+    /**
+     * Runs flush passes until no flush is requested. Only one runs at a time;
+     * a request made meanwhile makes the running loop go round again.
+     */
+    private void drain() {
+        flushRequested = true;
+        while (flushRequested && draining.compareAndSet(false, true)) {
+            try {
+                flushRequested = false;
+                drainOnce();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Flush failed", e);
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Commits pending ops chunk by chunk until the queue is empty or a
+     * retryable failure schedules a retry.
+     */
+    private void drainOnce() {
+        while (true) {
+            List<OutboxOp> chunk = store.claim(CHUNK_SIZE, MAX_GUARDS_PER_CHUNK);
+            publish();
+            if (chunk.isEmpty()) {
+                failures = 0;
+                return;
+            }
+            Throwable error = commit(chunk);
+            if (error == null) {
+                store.markCommitted(chunk);
+                failures = 0;
+                notifyFinished();
+            } else if (isPermanent(error)) {
+                // One bad write rejects the whole chunk; retry singly to find it
+                boolean passed = isolate(chunk);
+                notifyFinished();
+                if (!passed) return;
+            } else {
+                store.release(chunk, error.toString());
+                scheduleRetry(error);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the callbacks of actions that have no ops left in the queue.
+     */
+    private void notifyFinished() {
+        if (onFinished.isEmpty()) return;
+        for (String groupId : onFinished.keySet()) {
+            if (store.hasUnfinished(groupId)) continue;
+            Runnable finished = onFinished.remove(groupId);
+            if (finished != null) handler.post(finished);
+        }
+    }
+
+    /**
+     * Commits a rejected chunk piece by piece (see {@link #units}), failing
+     * only the pieces Firestore rejects.
+     *
+     * @param chunk - Rejected chunk
+     * @return False if a retryable failure stopped the pass
+     */
+    private boolean isolate(List<OutboxOp> chunk) {
+        List<List<OutboxOp>> units = units(chunk);
+        for (int i = 0; i < units.size(); i++) {
+            List<OutboxOp> unit = units.get(i);
+            Throwable error = commit(unit);
+            if (error == null) {
+                store.markCommitted(unit);
+            } else if (isPermanent(error)) {
+                Log.w(TAG, "Write rejected: " + unit.get(0).path, error);
+                store.markFailed(unit, error.toString());
+            } else {
+                List<OutboxOp> rest = new ArrayList<>();
+                for (List<OutboxOp> left : units.subList(i, units.size())) rest.addAll(left);
+                store.release(rest, error.toString());
+                scheduleRetry(error);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a chunk into the smallest pieces that can be committed alone:
+     * each unguarded op by itself, and all ops of one guard together.
+     * Committed apart, the first op of a guard would write the guard
+     * document and the others would then be skipped.
+     *
+     * @param chunk - Ops in order
+     * @return Pieces in the order of their first op
+     */
+    static List<List<OutboxOp>> units(List<OutboxOp> chunk) {
+        List<List<OutboxOp>> units = new ArrayList<>();
+        Map<String, List<OutboxOp>> byGuard = new HashMap<>();
+        for (OutboxOp op : chunk) {
+            if (op.guard == null) {
+                units.add(Collections.singletonList(op));
+                continue;
+            }
+            List<OutboxOp> unit = byGuard.get(op.guard);
+            if (unit == null) {
+                unit = new ArrayList<>();
+                byGuard.put(op.guard, unit);
+                units.add(unit);
+            }
+            unit.add(op);
+        }
+        return units;
+    }
+
+    /**
+     * Writes ops in one Firestore batch (or, if a guard may be missing, one
+     * transaction) and waits for the acknowledgement. Guards that already
+     * exist stay so, and their ops are dropped without a read in the
+     * transaction.
+     *
+     * @param ops - Ops to write
+     * @return Null on success, otherwise the failure
+     */
+    private Throwable commit(List<OutboxOp> ops) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        Set<String> guards = guards(ops);
+        Set<String> missing = missingGuards(db, guards);
+        Set<String> found = new HashSet<>(guards);
+        found.removeAll(missing);
+        Task<?> task;
+        if (missing.isEmpty()) {
+            Metered.Batch writer = Metered.batch(TAG);
+            for (OutboxOp op : applicable(ops, found)) write(writer, db, op);
+            task = writer.commit();
+        } else {
+            task = Metered.runTransaction(TAG, tx -> {
+                Set<String> existing = new HashSet<>(found);
+                for (String guard : missing) {
+                    if (tx.get(db.document(guard)).exists()) existing.add(guard);
+                }
+                BatchWriter writer = BatchWriter.of(tx);
+                List<OutboxOp> apply = applicable(ops, existing);
+                for (OutboxOp op : apply) write(writer, db, op);
+                for (String guard : guards(apply)) {
+                    if (OutboxOp.isMarker(guard)) writer.set(db.document(guard), marker());
+                }
+                return null;
+            });
+        }
+        try {
+            Tasks.await(task, COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (Exception e) {
+            // Timeout: the write may still land. Replaying it is safe: plain writes
+            // rewrite the same values and increments are skipped once their marker exists
+            return e;
+        }
+    }
+
+    /**
+     * Looks up guard documents in parallel, outside any transaction.
+     *
+     * @param db - Firestore
+     * @param guards - Guard paths
+     * @return Guards not found, including those whose read failed
+     */
+    private static Set<String> missingGuards(FirebaseFirestore db, Set<String> guards) {
+        Set<String> missing = new LinkedHashSet<>(guards);
+        if (guards.isEmpty()) return missing;
+        Map<String, Task<DocumentSnapshot>> reads = new HashMap<>();
+        for (String guard : guards) reads.put(guard, Metered.get(db.document(guard)));
+        try {
+            Tasks.await(Tasks.whenAllComplete(reads.values()), COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return missing;
+        } catch (Exception e) {
+            return missing;
+        }
+        for (Map.Entry<String, Task<DocumentSnapshot>> read : reads.entrySet()) {
+            Task<DocumentSnapshot> task = read.getValue();
+            if (task.isSuccessful() && task.getResult().exists()) missing.remove(read.getKey());
+        }
+        return missing;
+    }
+
+    /**
+     * Builds a marker document: who applied the op, and when it may be dropped.
+     *
+     * @return Marker fields
+     */
+    private static Map<String, Object> marker() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", user != null ? user.getUid() : null);
+        data.put("expireAt", new Timestamp(new Date(System.currentTimeMillis() + MARKER_TTL_MILLIS)));
+        return data;
+    }
+
+    /**
+     * Adds one op to a writer.
+     *
+     * @param writer - Batch or transaction
+     * @param db - Firestore
+     * @param op - Op to write
+     */
+    private static void write(BatchWriter writer, FirebaseFirestore db, OutboxOp op) {
+        DocumentReference ref = db.document(op.path);
+        switch (op.kind) {
+            case SET:
+                writer.set(ref, op.data);
+                break;
+            case MERGE:
+                writer.merge(ref, op.data);
+                break;
+            case UPDATE:
+                writer.update(ref, op.data);
+                break;
+            default:
+                writer.delete(ref);
+                break;
+        }
+    }
+
+    /**
+     * Returns the distinct guard documents of a chunk.
+     *
+     * @param ops - Ops to write
+     * @return Guard paths in first-seen order; empty if no op is guarded
+     */
+    static Set<String> guards(List<OutboxOp> ops) {
+        Set<String> guards = new LinkedHashSet<>();
+        for (OutboxOp op : ops) {
+            if (op.guard != null) guards.add(op.guard);
+        }
+        return guards;
+    }
+
+    /**
+     * Drops the guarded ops whose guard document already exists.
+     *
+     * @param ops - Ops to write, in order
+     * @param existing - Guard paths found to exist
+     * @return Ops to apply, in order
+     */
+    static List<OutboxOp> applicable(List<OutboxOp> ops, Set<String> existing) {
+        List<OutboxOp> apply = new ArrayList<>(ops.size());
+        for (OutboxOp op : ops) {
+            if (op.guard == null || !existing.contains(op.guard)) apply.add(op);
+        }
+        return apply;
+    }
+
+    /**
+     * Returns whether retrying a failure cannot help.
+     *
+     * @param error - Commit failure
+     * @return True for rejections (rules, missing document, bad data)
+     */
+    private static boolean isPermanent(Throwable error) {
+        if (!(error instanceof FirebaseFirestoreException)) return false;
+        switch (((FirebaseFirestoreException) error).getCode()) {
+            case PERMISSION_DENIED:
+            case INVALID_ARGUMENT:
+            case NOT_FOUND:
+            case FAILED_PRECONDITION:
+            case ALREADY_EXISTS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Schedules the next flush with backoff.
+     *
+     * @param error - Failure that caused the retry
+     */
+    private void scheduleRetry(Throwable error) {
+        int n = ++failures;
+        long delay = backoffMillis(n, random.nextDouble());
+        Log.w(TAG, "Flush failed (attempt " + n + "), retrying in " + delay + " ms", error);
+        handler.removeCallbacks(retry);
+        handler.postDelayed(retry, delay);
+        publish();
+    }
+
+    /**
+     * Publishes the current queue summary.
+     */
+    private void publish() {
+        status.postValue(store.status());
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Canonical waitlist entry statuses.
+ *
+ * Entries store the lowercase value; reading goes through {@link #of(String)}
+ * once, so screens compare enum constants instead of lowercasing strings,
+ * and server queries filter on the exact stored value. The rules accept only
+ * these values, and the membership sweep rewrites older entries (keep in
+ * sync with ENTRY_STATUSES in functions/src/index.ts).
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.waitlist;
+
+import java.util.Locale;
+
+/**
+ * Where an entrant stands in an event's lottery.
+ */
+public enum EntrantStatus {
+    /** On the waiting list, not drawn yet. */
+    WAITING("waiting"),
+    /** Drawn; has not answered yet. */
+    SELECTED("selected"),
+    /** Invited by the organizer; has not answered yet. */
+    INVITED("invited"),
+    /** Accepted a selection. */
+    ACCEPTED("accepted"),
+    /** Declined a selection. */
+    DECLINED("declined"),
+    /** Removed by the organizer. */
+    CANCELLED("cancelled"),
+    /** Left or was taken off the list. */
+    REMOVED("removed");
+
+    /** Value stored in the entry's status field. */
+    private final String value;
+
+    /**
+     * Creates a status.
+     *
+     * @param value - Stored value
+     */
+    EntrantStatus(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the stored value.
+     *
+     * @return Lowercase status string
+     */
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Returns whether the entrant holds a spot or an offer of one
+     * (a "goose").
+     *
+     * @return True for SELECTED and ACCEPTED
+     */
+    public boolean isGoose() {
+        return this == SELECTED || this == ACCEPTED;
+    }
+
+    /**
+     * Returns whether the entrant is still in the running or holds a spot.
+     *
+     * @return True for WAITING, SELECTED and ACCEPTED
+     */
+    public boolean isInCircle() {
+        return this == WAITING || isGoose();
+    }
+
+    /**
+     * Returns whether the entrant is on the event's waiting list, i.e. kept
+     * in events.waitingList and users.waitlistedEventIds. Keep in sync with
+     * ON_LIST_STATUSES in functions/src/index.ts.
+     *
+     * @return True for WAITING, SELECTED and INVITED
+     */
+    public boolean isOnList() {
+        return this == WAITING || this == SELECTED || this == INVITED;
+    }
+
+    /**
+     * Parses a stored status. Entries written before statuses were
+     * canonical may differ in case.
+     *
+     * @param raw - Status field, may be null
+     * @return Matching status; WAITING for null or unknown values
+     */
+    public static EntrantStatus of(String raw) {
+        if (raw == null) return WAITING;
+        String value = raw.trim().toLowerCase(Locale.ROOT);
+        for (EntrantStatus s : values()) {
+            if (s.value.equals(value)) return s;
+        }
+        return WAITING;
+    }
+}
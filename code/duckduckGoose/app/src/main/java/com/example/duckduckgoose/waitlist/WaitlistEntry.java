@@ -24,6 +24,7 @@ public class WaitlistEntry {
 
     private Double latitude;
     private Double longitude;
+    private Integer shard; // Counter shard holding this entry's slot on a capped waitlist
 
     // Required no-arg constructor for Firestore
     public WaitlistEntry() {}
@@ -32,7 +33,7 @@ public class WaitlistEntry {
         this.userId = userId;
         this.eventId = eventId;
         this.joinedAt = Timestamp.now();
-        this.status = "waiting";
+        this.status = EntrantStatus.WAITING.value();
         this.acceptedAt = null;
         this.notes = "";
     }
@@ -41,7 +42,7 @@ public class WaitlistEntry {
         this.userId = userId;
         this.eventId = eventId;
         this.joinedAt = Timestamp.now();
-        this.status = "waiting";
+        this.status = EntrantStatus.WAITING.value();
         this.acceptedAt = null;
         this.notes = "";
         this.latitude = latitude;
@@ -83,6 +84,14 @@ public class WaitlistEntry {
     public Double getLatitude() { return latitude; }
     public Double getLongitude() { return longitude; }
 
+    /**
+     * Gets the counter shard that holds this entry's slot.
+     * @return Shard index, or null when the waitlist is not capped
+     */
+    public Integer getShard() {
+        return shard;
+    }
+
     /**
      * Sets the user ID for this waitlist entry.
      * @param userId The unique identifier of the user
@@ -133,4 +142,12 @@ public class WaitlistEntry {
 
     public void setLatitude(Double latitude) { this.latitude = latitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    /**
+     * Sets the counter shard that holds this entry's slot.
+     * @param shard Shard index, or null when the waitlist is not capped
+     */
+    public void setShard(Integer shard) {
+        this.shard = shard;
+    }
 }
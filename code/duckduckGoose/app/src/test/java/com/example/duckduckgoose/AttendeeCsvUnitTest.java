@@ -0,0 +1,39 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.duckduckgoose.user.User;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the attendee CSV export.
+ */
+public class AttendeeCsvUnitTest {
+
+    private static User user(String id, String name, String email) {
+        User u = new User();
+        u.setUserId(id);
+        u.setFullName(name);
+        u.setEmail(email);
+        u.setAccountType("Entrant");
+        return u;
+    }
+
+    @Test
+    public void testPlainFieldsAreWrittenAsIs() {
+        String csv = AttendeeCsv.build(Arrays.asList(user("u1", "Duck Goose", "d@example.com"),
+                user("u2", null, null)));
+        assertEquals(AttendeeCsv.HEADER
+                + "u1,Duck Goose,d@example.com,Entrant\n"
+                + "u2,,,Entrant\n", csv);
+    }
+
+    @Test
+    public void testCommasAndQuotesAreQuoted() {
+        String csv = AttendeeCsv.build(Arrays.asList(user("u1", "Goose, \"Duck\"", "d@example.com")));
+        assertEquals(AttendeeCsv.HEADER + "u1,\"Goose, \"\"Duck\"\"\",d@example.com,Entrant\n", csv);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk draw runs against FakeFirestore: how many events are drawn at once,
+ * the stages each event reports, and failures. Its sampler is covered by
+ * WeightedLotteryUnitTest.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class BulkDrawUnitTest {
+
+    private static final int EVENTS = 7;
+    private static final int ENTRANTS = 5;
+    private static final int SPOTS = 2;
+
+    private FakeFirestore fake;
+    private MockedStatic<FirebaseFirestore> firestore;
+    private MockedStatic<FirebaseAuth> auth;
+
+    /** Stages reported per event, consecutive repeats collapsed. */
+    private final Map<Integer, List<BulkDraw.State>> stages = new HashMap<>();
+    /** Latest progress per event. */
+    private final Map<Integer, BulkDraw.Progress> latest = new HashMap<>();
+    /** Events reading at once, and the most seen. */
+    private int reading;
+    private int maxReading;
+
+    @Before
+    public void setUp() throws Exception {
+        fake = new FakeFirestore();
+        firestore = fake.install();
+        auth = mockStatic(FirebaseAuth.class);
+        auth.when(FirebaseAuth::getInstance).thenReturn(mock(FirebaseAuth.class));
+        // The outbox is process-wide; give each test one backed by its own database
+        Field instance = WriteOutbox.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+
+        for (int e = 0; e < EVENTS; e++) {
+            fake.put("events/e" + e, "name", "Event " + e, "organizerId", "org");
+            for (int u = 0; u < ENTRANTS; u++) {
+                fake.put("waitlist/u" + u + "_e" + e, "userId", "u" + u, "eventId", "e" + e, "status", "waiting");
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        firestore.close();
+        auth.close();
+    }
+
+    private List<BulkDraw.Target> targets() {
+        List<BulkDraw.Target> targets = new ArrayList<>();
+        for (int e = 0; e < EVENTS; e++) targets.add(new BulkDraw.Target("e" + e, "Event " + e, SPOTS));
+        return targets;
+    }
+
+    private void record(int index, BulkDraw.Progress progress) {
+        List<BulkDraw.State> seen = stages.computeIfAbsent(index, i -> new ArrayList<>());
+        BulkDraw.State previous = seen.isEmpty() ? null : seen.get(seen.size() - 1);
+        if (previous != BulkDraw.State.READING && progress.state == BulkDraw.State.READING) reading++;
+        if (previous == BulkDraw.State.READING && progress.state != BulkDraw.State.READING) reading--;
+        maxReading = Math.max(maxReading, reading);
+        if (previous != progress.state) seen.add(progress.state);
+        latest.put(index, progress);
+    }
+
+    /** Runs the main looper until every event has finished or failed. */
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!finished()) {
+            if (System.currentTimeMillis() > deadline) fail("Draws still running: " + stages);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(5);
+        }
+    }
+
+    private boolean finished() {
+        if (latest.size() < EVENTS) return false;
+        for (BulkDraw.Progress p : latest.values()) {
+            if (p.state != BulkDraw.State.DONE && p.state != BulkDraw.State.FAILED) return false;
+        }
+        return true;
+    }
+
+    @Test
+    public void testEventsAreDrawnAtMostParallelismAtOnce() throws Exception {
+        new BulkDraw(RuntimeEnvironment.getApplication(), "org", targets(), this::record).start();
+        awaitFinished();
+
+        assertTrue("read " + maxReading + " events at once", maxReading <= BulkDraw.PARALLELISM);
+        for (int e = 0; e < EVENTS; e++) {
+            assertEquals(Arrays.asList(BulkDraw.State.QUEUED, BulkDraw.State.READING,
+                    BulkDraw.State.WRITING, BulkDraw.State.DONE), stages.get(e));
+            assertEquals(ENTRANTS, latest.get(e).scanned);
+            assertEquals(SPOTS, latest.get(e).selected);
+
+            int selected = 0;
+            for (int u = 0; u < ENTRANTS; u++) {
+                if ("selected".equals(fake.doc("waitlist/u" + u + "_e" + e).get("status"))) selected++;
+            }
+            assertEquals("winners written for e" + e, SPOTS, selected);
+        }
+    }
+
+    @Test
+    public void testFailedWaitlistReadIsReported() throws Exception {
+        fake.failReads("waitlist");
+        new BulkDraw(RuntimeEnvironment.getApplication(), "org", targets(), this::record).start();
+        awaitFinished();
+
+        for (int e = 0; e < EVENTS; e++) {
+            assertEquals(Arrays.asList(BulkDraw.State.QUEUED, BulkDraw.State.READING,
+                    BulkDraw.State.FAILED), stages.get(e));
+            assertNotNull(latest.get(e).error);
+        }
+        assertEquals("nothing is written for a failed draw", 0, fake.writes());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.duckduckgoose.waitlist.EntrantStatus;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for parsing waitlist statuses and the attendee filter choices.
+ */
+public class EntrantStatusUnitTest {
+
+    @Test
+    public void testParsesStoredValues() {
+        for (EntrantStatus s : EntrantStatus.values()) assertEquals(s, EntrantStatus.of(s.value()));
+        assertEquals(EntrantStatus.SELECTED, EntrantStatus.of("Selected"));
+        assertEquals(EntrantStatus.ACCEPTED, EntrantStatus.of(" ACCEPTED "));
+    }
+
+    @Test
+    public void testMissingOrUnknownIsWaiting() {
+        assertEquals(EntrantStatus.WAITING, EntrantStatus.of(null));
+        assertEquals(EntrantStatus.WAITING, EntrantStatus.of("pending"));
+    }
+
+    @Test
+    public void testGooseAndCircle() {
+        assertTrue(EntrantStatus.SELECTED.isGoose());
+        assertTrue(EntrantStatus.ACCEPTED.isGoose());
+        assertFalse(EntrantStatus.WAITING.isGoose());
+        assertTrue(EntrantStatus.WAITING.isInCircle());
+        assertFalse(EntrantStatus.DECLINED.isInCircle());
+        assertFalse(EntrantStatus.CANCELLED.isInCircle());
+    }
+
+    @Test
+    public void testOnListStatuses() {
+        assertTrue(EntrantStatus.WAITING.isOnList());
+        assertTrue(EntrantStatus.SELECTED.isOnList());
+        assertTrue(EntrantStatus.INVITED.isOnList());
+        assertFalse(EntrantStatus.ACCEPTED.isOnList());
+        assertFalse(EntrantStatus.DECLINED.isOnList());
+        assertFalse(EntrantStatus.CANCELLED.isOnList());
+        assertFalse(EntrantStatus.REMOVED.isOnList());
+    }
+
+    @Test
+    public void testFiltersMatchTheirStatuses() {
+        assertTrue(RosterFilter.SELECTED_OR_WAITING.matches(EntrantStatus.WAITING));
+        assertFalse(RosterFilter.SELECTED_OR_WAITING.matches(EntrantStatus.ACCEPTED));
+        assertTrue(RosterFilter.NOT_SELECTED.matches(EntrantStatus.DECLINED));
+        assertTrue(RosterFilter.GOOSE.matches(EntrantStatus.ACCEPTED));
+        for (EntrantStatus s : EntrantStatus.values()) {
+            assertEquals(s.name(), !s.isGoose(), RosterFilter.DUCK.matches(s));
+        }
+    }
+
+    @Test
+    public void testLabels() {
+        assertArrayEquals(new String[]{"Selected/Waiting", "Not Selected", "Duck", "Goose"}, RosterFilter.labels());
+        assertEquals(RosterFilter.GOOSE, RosterFilter.fromLabel("Goose"));
+        assertNull(RosterFilter.fromLabel("Value"));
+        assertNull(RosterFilter.fromLabel(""));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.firebase.functions.FirebaseFunctionsException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Unit tests for which failed event deletions are retried (no Firebase).
+ */
+public class EventDeletionPipelineUnitTest {
+
+    @Test
+    public void testRefusalsAreNotRetried() {
+        assertTrue(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.PERMISSION_DENIED));
+        assertTrue(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.UNAUTHENTICATED));
+        assertTrue(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.INVALID_ARGUMENT));
+        assertTrue(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.NOT_FOUND));
+    }
+
+    @Test
+    public void testTransientFailuresAreRetried() {
+        assertFalse(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.UNAVAILABLE));
+        assertFalse(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.DEADLINE_EXCEEDED));
+        assertFalse(EventDeletionPipeline.isPermanent(FirebaseFunctionsException.Code.INTERNAL));
+        // A network error never reaches the function and carries no code
+        assertFalse(EventDeletionPipeline.isPermanent(new IOException("offline")));
+        assertFalse(EventDeletionPipeline.isPermanent((Exception) null));
+    }
+}
@@ -6,6 +6,9 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 /**
  * Unit tests for the Event model's in-memory behaviours (no Firestore).
  */
@@ -50,4 +53,14 @@ public class EventModelUnitTest {
         assertFalse(e.isRegistered("r1"));
         assertEquals(0, e.getSignupCount());
     }
+
+    @Test
+    public void testTagsDefaultEmptyAndNullClears() {
+        Event e = new Event();
+        assertTrue(e.getTags().isEmpty());
+        e.setTags(new ArrayList<>(Arrays.asList("Sports", "Fitness")));
+        assertEquals(2, e.getTags().size());
+        e.setTags(null);
+        assertTrue(e.getTags().isEmpty());
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for choosing redraw winners from freshly read candidates (no Firestore).
+ */
+public class EventRedrawUnitTest {
+
+    private static final Map<String, String> STATUS = new HashMap<>();
+
+    static {
+        STATUS.put("a", "waiting");
+        STATUS.put("b", "selected");
+        STATUS.put("c", "waiting");
+        STATUS.put("d", "cancelled");
+        STATUS.put("e", "waiting");
+    }
+
+    @Test
+    public void testTakesWaitingCandidatesInDrawOrder() {
+        List<String> drawn = Arrays.asList("e", "b", "a", "d", "c");
+        assertEquals(Arrays.asList("e", "a", "c"), EventRedraw.takeWaiting(drawn, STATUS::get, 5));
+    }
+
+    @Test
+    public void testStopsAtOpenPositions() {
+        List<String> drawn = Arrays.asList("a", "b", "c", "e");
+        assertEquals(Arrays.asList("a", "c"), EventRedraw.takeWaiting(drawn, STATUS::get, 2));
+    }
+
+    @Test
+    public void testSkipsRemovedCandidates() {
+        List<String> drawn = Arrays.asList("gone", "c");
+        assertEquals(Arrays.asList("c"), EventRedraw.takeWaiting(drawn, STATUS::get, 2));
+    }
+
+    @Test
+    public void testNothingOpenSelectsNobody() {
+        assertTrue(EventRedraw.takeWaiting(Arrays.asList("a", "c"), STATUS::get, 0).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the in-memory EventSearchIndex (no Firestore).
+ */
+public class EventSearchIndexUnitTest {
+
+    private EventSearchIndex index;
+
+    private static Event event(String id, String name, String description) {
+        Event e = new Event(id, name, description, "01/01/30", "", "", "10", "Free", false, null);
+        e.setEventId(id);
+        return e;
+    }
+
+    @Before
+    public void setUp() {
+        index = new EventSearchIndex();
+        index.put(event("e1", "Soccer Night", "Casual pickup game"));
+        index.put(event("e2", "Pottery Class", "Learn to throw on the wheel with a soccer coach"));
+        index.put(event("e3", "Swim Lessons", "Pool session for beginners"));
+    }
+
+    @Test
+    public void testNameMatchOutranksDescriptionMatch() {
+        List<Event> hits = index.search("soccer", 10);
+        assertEquals(2, hits.size());
+        assertEquals("e1", hits.get(0).getEventId());
+        assertEquals("e2", hits.get(1).getEventId());
+    }
+
+    @Test
+    public void testSubstringAndShortPrefixQueries() {
+        assertEquals("e1", index.search("ccer nig", 10).get(0).getEventId());
+        List<Event> hits = index.search("sw", 10);
+        assertEquals(1, hits.size());
+        assertEquals("e3", hits.get(0).getEventId());
+    }
+
+    @Test
+    public void testUpdateAndRemoveAreIncremental() {
+        index.put(event("e3", "Water Polo", "Pool session"));
+        assertTrue(index.search("swim", 10).isEmpty());
+        assertEquals("e3", index.search("polo", 10).get(0).getEventId());
+
+        index.remove("e1");
+        assertEquals(2, index.size());
+        assertEquals(1, index.search("soccer", 10).size());
+    }
+
+    @Test
+    public void testSyncDiffsAgainstTheFullList() {
+        Event e1 = index.search("soccer night", 1).get(0);
+        Event polo = event("e3", "Water Polo", "Pool session");
+        assertTrue(index.sync(Arrays.asList(e1, polo), 1));
+
+        assertEquals(2, index.size());
+        // The unchanged event keeps its entry; the replaced one is re-indexed
+        assertSame(e1, index.search("soccer", 10).get(0));
+        assertTrue(index.search("swim", 10).isEmpty());
+        assertEquals("e3", index.search("polo", 10).get(0).getEventId());
+        assertTrue(index.search("pottery", 10).isEmpty());
+    }
+
+    @Test
+    public void testOlderSyncNeverRollsBack() {
+        Event polo = event("e3", "Water Polo", "Pool session");
+        assertTrue(index.sync(Collections.singletonList(polo), 2));
+        assertFalse(index.sync(Collections.singletonList(event("e1", "Soccer Night", "")), 1));
+
+        assertEquals(1, index.size());
+        assertEquals("e3", index.search("polo", 10).get(0).getEventId());
+    }
+
+    @Test
+    public void testAllWordsMustMatchAndLimitApplies() {
+        assertTrue(index.search("soccer swim", 10).isEmpty());
+        assertEquals(1, index.search("soccer", 1).size());
+        assertTrue(index.matchingIds("pool").contains("e3"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for EventSortEngine key parsing (via EventFieldParser) and ordering (no Firestore).
+ */
+public class EventSortEngineUnitTest {
+
+    private EventSortEngine engine;
+
+    private static Event event(String id, String name, String date, String cost) {
+        Event e = new Event(id, name, "", date, "", "", "10", cost, false, null);
+        e.setEventId(id);
+        return e;
+    }
+
+    private static List<String> ids(List<Event> events) {
+        List<String> out = new ArrayList<>();
+        for (Event e : events) out.add(e.getEventId());
+        return out;
+    }
+
+    @Before
+    public void setUp() {
+        engine = new EventSortEngine();
+    }
+
+    @Test
+    public void testParsesSupportedDateFormats() {
+        long shortForm = EventSortEngine.parseDateMillis("03/14/25");
+        assertTrue(shortForm != EventSortEngine.NO_DATE);
+        assertEquals(shortForm, EventSortEngine.parseDateMillis("Mar 14, 2025"));
+        assertEquals(shortForm, EventSortEngine.parseDateMillis("2025-03-14"));
+        assertEquals(EventSortEngine.NO_DATE, EventSortEngine.parseDateMillis("soon"));
+        assertEquals(EventSortEngine.NO_DATE, EventSortEngine.parseDateMillis(null));
+    }
+
+    @Test
+    public void testParseSpots() {
+        assertEquals(20, EventFieldParser.parseSpots("20"));
+        assertEquals(20, EventFieldParser.parseSpots("5/20"));
+        assertEquals(0, EventFieldParser.parseSpots(null));
+        assertEquals(0, EventFieldParser.parseSpots("lots"));
+        assertEquals(0, EventFieldParser.parseSpots("-3"));
+    }
+
+    @Test
+    public void testMissingDatesSortLastInBothDirections() {
+        List<Event> list = new ArrayList<>(Arrays.asList(
+                event("none", "A", "TBD", "Free"),
+                event("late", "B", "12/01/25", "Free"),
+                event("early", "C", "01/01/25", "Free")));
+
+        engine.sort(list, EventSortEngine.forLabel("Date (Soonest)"));
+        assertEquals(Arrays.asList("early", "late", "none"), ids(list));
+
+        engine.sort(list, EventSortEngine.forLabel("Date (Latest)"));
+        assertEquals(Arrays.asList("late", "early", "none"), ids(list));
+    }
+
+    @Test
+    public void testMultiKeyAndStableOrdering() {
+        List<Event> list = new ArrayList<>(Arrays.asList(
+                event("b2", "Same", "02/01/25", "$5"),
+                event("a", "Zed", "01/01/25", "$5"),
+                event("b1", "Same", "02/01/25", "$5"),
+                event("free", "Yoga", "03/01/25", "Free")));
+
+        engine.sort(list, EventSortEngine.forLabel("Cost"));
+        // cost, then date, then name; b2/b1 tie on every key and keep input order
+        assertEquals(Arrays.asList("free", "a", "b2", "b1"), ids(list));
+    }
+
+    @Test
+    public void testKeysReusedUntilEventChanges() {
+        Event e = event("e1", "Party", "01/01/25", "$10");
+        EventSortEngine.Keys first = engine.keysFor(e);
+        assertSame(first, engine.keysFor(e));
+
+        Event updated = event("e1", "Party", "06/01/25", "$10");
+        EventSortEngine.Keys second = engine.keysFor(updated);
+        assertNotSame(first, second);
+        assertEquals(EventSortEngine.parseDateMillis("06/01/25"), second.eventDate);
+    }
+}
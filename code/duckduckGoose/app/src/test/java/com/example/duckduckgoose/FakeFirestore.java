@@ -0,0 +1,608 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SnapshotMetadata;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+import com.google.firebase.firestore.util.CustomClassMapper;
+
+import org.mockito.Answers;
+import org.mockito.MockedStatic;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory fake of the Firestore surface the app uses, for read-budget tests.
+ *
+ * Documents live in a sorted map keyed by path. FirebaseFirestore.getInstance()
+ * is replaced with a mock whose collections, queries, documents and snapshots
+ * answer from that map, so repositories and ViewModels run unchanged. Every
+ * get() and snapshot listener counts as one read operation; the documents it
+ * returns are counted separately. Listeners deliver one snapshot, posted to the
+ * main looper like the real SDK. Supported: whereEqualTo, whereIn (including
+ * FieldPath.documentId()), whereLessThan, whereGreaterThan, orderBy, limit,
+ * startAfter(DocumentSnapshot), plain document and batch writes, and
+ * transactions (run once; writes apply when the function returns). Reads and
+ * writes may come from background threads.
+ */
+class FakeFirestore {
+
+    /** Stored documents by path. */
+    private final Map<String, Map<String, Object>> docs = new TreeMap<>();
+
+    /** Read operations by collection id. */
+    private final Map<String, Integer> readOps = new HashMap<>();
+
+    /** Documents returned by reads, by collection id. */
+    private final Map<String, Integer> docsRead = new HashMap<>();
+
+    /** Documents written. */
+    private int writes;
+
+    /** Collection ids whose query reads fail. */
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+    /** Mocked database handed to the app. */
+    private final FirebaseFirestore db = mock(FirebaseFirestore.class, this::answerDb);
+
+    /** Posts listener snapshots like the SDK does. */
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    /**
+     * Makes FirebaseFirestore.getInstance() return this fake until the
+     * returned handle is closed.
+     *
+     * @return Static mock to close in @After
+     */
+    MockedStatic<FirebaseFirestore> install() {
+        MockedStatic<FirebaseFirestore> statics = mockStatic(FirebaseFirestore.class);
+        statics.when(FirebaseFirestore::getInstance).thenReturn(db);
+        return statics;
+    }
+
+    /**
+     * Stores a document.
+     *
+     * @param path - Document path, e.g. "users/u1"
+     * @param fields - Alternating field names and values
+     */
+    synchronized void put(String path, Object... fields) {
+        Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < fields.length; i += 2) data.put((String) fields[i], fields[i + 1]);
+        docs.put(path, data);
+    }
+
+    /**
+     * Returns a stored document.
+     *
+     * @param path - Document path
+     * @return Copy of its fields, or null if absent
+     */
+    synchronized Map<String, Object> doc(String path) {
+        Map<String, Object> data = docs.get(path);
+        return data != null ? new HashMap<>(data) : null;
+    }
+
+    /**
+     * Makes later query reads of a collection fail as if Firestore were unreachable.
+     *
+     * @param collectionId - Collection id, e.g. "waitlist"
+     */
+    void failReads(String collectionId) {
+        failing.add(collectionId);
+    }
+
+    /**
+     * Returns read operations (gets and listener attaches) so far.
+     *
+     * @return Read operations across all collections
+     */
+    synchronized int readOps() {
+        int total = 0;
+        for (int n : readOps.values()) total += n;
+        return total;
+    }
+
+    /**
+     * Returns read operations against one collection.
+     *
+     * @param collectionId - Collection id, e.g. "users"
+     * @return Read operations
+     */
+    synchronized int readOps(String collectionId) {
+        return readOps.getOrDefault(collectionId, 0);
+    }
+
+    /**
+     * Returns documents read from one collection.
+     *
+     * @param collectionId - Collection id
+     * @return Documents returned by reads
+     */
+    synchronized int docsRead(String collectionId) {
+        return docsRead.getOrDefault(collectionId, 0);
+    }
+
+    /**
+     * Returns documents written.
+     *
+     * @return Writes so far
+     */
+    synchronized int writes() {
+        return writes;
+    }
+
+    /**
+     * Clears the counters, keeping the documents.
+     */
+    synchronized void resetCounts() {
+        readOps.clear();
+        docsRead.clear();
+        writes = 0;
+    }
+
+    /**
+     * Fails when a load took more read operations than its budget.
+     *
+     * @param what - Load being checked, for the failure message
+     * @param budget - Allowed read operations
+     */
+    void assertReadsAtMost(String what, int budget) {
+        if (readOps() > budget) {
+            fail(what + " took " + readOps() + " reads " + readOps + "; budget is " + budget);
+        }
+    }
+
+    // ---- Database, collections and queries ----
+
+    private Object answerDb(InvocationOnMock inv) throws Throwable {
+        Object[] a = inv.getArguments();
+        switch (inv.getMethod().getName()) {
+            case "collection": return collection((String) a[0]);
+            case "document": return document((String) a[0]);
+            case "batch": return batch();
+            case "runTransaction": return transaction((Transaction.Function<?>) a[a.length - 1]);
+            default: return Answers.RETURNS_DEFAULTS.answer(inv);
+        }
+    }
+
+    private CollectionReference collection(String path) {
+        return mock(CollectionReference.class, new QueryAnswer(new Spec(path)));
+    }
+
+    private DocumentReference document(String path) {
+        return mock(DocumentReference.class, inv -> answerDocRef(path, inv));
+    }
+
+    /**
+     * Query shape; each builder call copies it.
+     */
+    private static final class Spec {
+        final String collection;
+        final List<Predicate<Stored>> filters = new ArrayList<>();
+        String orderBy;
+        boolean descending;
+        long limit = -1;
+        String startAfter;
+
+        Spec(String collection) {
+            this.collection = collection;
+        }
+
+        Spec copy() {
+            Spec s = new Spec(collection);
+            s.filters.addAll(filters);
+            s.orderBy = orderBy;
+            s.descending = descending;
+            s.limit = limit;
+            s.startAfter = startAfter;
+            return s;
+        }
+    }
+
+    /**
+     * A stored document seen by a query.
+     */
+    private static final class Stored {
+        final String path;
+        final Map<String, Object> data;
+
+        Stored(String path, Map<String, Object> data) {
+            this.path = path;
+            this.data = data;
+        }
+
+        String id() {
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
+
+        Object field(Object field) {
+            if (FieldPath.documentId().equals(field) || "__name__".equals(field)) return id();
+            return data.get(field instanceof FieldPath ? field.toString() : (String) field);
+        }
+    }
+
+    /**
+     * Answers Query and CollectionReference calls for one spec.
+     */
+    private final class QueryAnswer implements Answer<Object> {
+        final Spec spec;
+
+        QueryAnswer(Spec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public Object answer(InvocationOnMock inv) throws Throwable {
+            Object[] a = inv.getArguments();
+            switch (inv.getMethod().getName()) {
+                case "whereEqualTo":
+                    return where(s -> Objects.equals(s.field(a[0]), a[1]));
+                case "whereIn":
+                    return where(s -> ((Collection<?>) a[1]).contains(s.field(a[0])));
+                case "whereLessThan":
+                    return where(s -> compare(s.field(a[0]), a[1]) < 0);
+                case "whereGreaterThan":
+                    return where(s -> compare(s.field(a[0]), a[1]) > 0);
+                case "orderBy": {
+                    Spec next = spec.copy();
+                    next.orderBy = a[0] instanceof FieldPath ? a[0].toString() : (String) a[0];
+                    next.descending = a.length > 1 && a[1] == Query.Direction.DESCENDING;
+                    return query(next);
+                }
+                case "limit": {
+                    Spec next = spec.copy();
+                    next.limit = (Long) a[0];
+                    return query(next);
+                }
+                case "startAfter": {
+                    Spec next = spec.copy();
+                    next.startAfter = ((DocumentSnapshot) a[0]).getReference().getPath();
+                    return query(next);
+                }
+                case "get":
+                    if (failing.contains(spec.collection.substring(spec.collection.lastIndexOf('/') + 1))) {
+                        return Tasks.forException(new FirebaseFirestoreException("Unavailable",
+                                FirebaseFirestoreException.Code.UNAVAILABLE));
+                    }
+                    return Tasks.forResult(read(spec));
+                case "addSnapshotListener":
+                    return listen(spec, listenerIn(a));
+                case "document":
+                    return document(spec.collection + "/" + (a.length > 0 ? a[0] : UUID.randomUUID().toString()));
+                case "getPath":
+                    return spec.collection;
+                case "getId":
+                    return spec.collection.substring(spec.collection.lastIndexOf('/') + 1);
+                case "add": {
+                    DocumentReference ref = document(spec.collection + "/" + UUID.randomUUID());
+                    write(ref.getPath(), a[0]);
+                    return Tasks.forResult(ref);
+                }
+                default:
+                    return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+        }
+
+        private Query where(Predicate<Stored> filter) {
+            Spec next = spec.copy();
+            next.filters.add(filter);
+            return query(next);
+        }
+    }
+
+    private Query query(Spec spec) {
+        return mock(Query.class, new QueryAnswer(spec));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object x, Object y) {
+        if (x == null) return y == null ? 0 : -1;
+        if (y == null) return 1;
+        if (x instanceof Number && y instanceof Number) {
+            return Double.compare(((Number) x).doubleValue(), ((Number) y).doubleValue());
+        }
+        return ((Comparable<Object>) x).compareTo(y);
+    }
+
+    /**
+     * Runs a query against the stored documents.
+     */
+    private synchronized List<Stored> run(Spec spec) {
+        List<Stored> out = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : docs.entrySet()) {
+            String path = e.getKey();
+            int slash = path.lastIndexOf('/');
+            if (!path.substring(0, slash).equals(spec.collection)) continue;
+            Stored s = new Stored(path, e.getValue());
+            boolean match = true;
+            for (Predicate<Stored> f : spec.filters) match &= f.test(s);
+            // Firestore leaves out documents missing the order-by field
+            if (spec.orderBy != null && s.field(spec.orderBy) == null) match = false;
+            if (match) out.add(s);
+        }
+        if (spec.orderBy != null) {
+            out.sort((x, y) -> {
+                int c = compare(x.field(spec.orderBy), y.field(spec.orderBy));
+                return spec.descending ? -c : c;
+            });
+        }
+        if (spec.startAfter != null) {
+            for (int i = 0; i < out.size(); i++) {
+                if (out.get(i).path.equals(spec.startAfter)) {
+                    out = new ArrayList<>(out.subList(i + 1, out.size()));
+                    break;
+                }
+            }
+        }
+        if (spec.limit >= 0 && out.size() > spec.limit) out = new ArrayList<>(out.subList(0, (int) spec.limit));
+        return out;
+    }
+
+    /**
+     * Runs and counts one query read.
+     */
+    private QuerySnapshot read(Spec spec) {
+        List<Stored> found = run(spec);
+        count(spec.collection, found.size());
+        return querySnapshot(found);
+    }
+
+    private static EventListener<QuerySnapshot> listenerIn(Object[] args) {
+        for (Object o : args) {
+            if (o instanceof EventListener) {
+                @SuppressWarnings("unchecked")
+                EventListener<QuerySnapshot> l = (EventListener<QuerySnapshot>) o;
+                return l;
+            }
+        }
+        throw new IllegalArgumentException("No listener");
+    }
+
+    private ListenerRegistration listen(Spec spec, EventListener<QuerySnapshot> listener) {
+        QuerySnapshot snapshot = read(spec);
+        main.post(() -> listener.onEvent(snapshot, null));
+        return mock(ListenerRegistration.class);
+    }
+
+    private synchronized void count(String collectionPath, int docCount) {
+        String id = collectionPath.substring(collectionPath.lastIndexOf('/') + 1);
+        readOps.merge(id, 1, Integer::sum);
+        docsRead.merge(id, docCount, Integer::sum);
+    }
+
+    // ---- Documents and writes ----
+
+    private Object answerDocRef(String path, InvocationOnMock inv) throws Throwable {
+        Object[] a = inv.getArguments();
+        switch (inv.getMethod().getName()) {
+            case "getId": return path.substring(path.lastIndexOf('/') + 1);
+            case "getPath": return path;
+            case "getParent": return collection(path.substring(0, path.lastIndexOf('/')));
+            case "collection": return collection(path + "/" + a[0]);
+            case "get":
+                return Tasks.forResult(readDoc(path));
+            case "set":
+            case "update":
+                write(path, a.length > 0 ? a[0] : null);
+                return Tasks.forResult(null);
+            case "delete":
+                delete(path);
+                return Tasks.forResult(null);
+            default:
+                return Answers.RETURNS_DEFAULTS.answer(inv);
+        }
+    }
+
+    /**
+     * Reads and counts one document.
+     */
+    private DocumentSnapshot readDoc(String path) {
+        Map<String, Object> data;
+        synchronized (this) {
+            data = docs.get(path);
+            count(path.substring(0, path.lastIndexOf('/')), data != null ? 1 : 0);
+        }
+        return docSnapshot(DocumentSnapshot.class, path, data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void write(String path, Object data) {
+        writes++;
+        if (data instanceof Map) {
+            Map<String, Object> merged = docs.containsKey(path) ? docs.get(path) : new HashMap<>();
+            merged.putAll((Map<String, Object>) data);
+            docs.put(path, merged);
+        }
+    }
+
+    private synchronized void delete(String path) {
+        writes++;
+        docs.remove(path);
+    }
+
+    private WriteBatch batch() {
+        List<Runnable> pending = new ArrayList<>();
+        WriteBatch[] self = new WriteBatch[1];
+        self[0] = mock(WriteBatch.class, inv -> {
+            Object[] a = inv.getArguments();
+            switch (inv.getMethod().getName()) {
+                case "set":
+                case "update": {
+                    String path = ((DocumentReference) a[0]).getPath();
+                    Object data = a.length > 1 ? a[1] : null;
+                    pending.add(() -> write(path, data instanceof Map ? data : null));
+                    return self[0];
+                }
+                case "delete": {
+                    String path = ((DocumentReference) a[0]).getPath();
+                    pending.add(() -> delete(path));
+                    return self[0];
+                }
+                case "commit":
+                    apply(pending);
+                    return Tasks.forResult(null);
+                default:
+                    return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+        });
+        return self[0];
+    }
+
+    /**
+     * Runs a transaction function once. Its reads count like gets; its
+     * writes apply together when it returns, and not at all if it throws.
+     */
+    private <T> Task<T> transaction(Transaction.Function<T> fn) {
+        List<Runnable> pending = new ArrayList<>();
+        Transaction[] self = new Transaction[1];
+        self[0] = mock(Transaction.class, inv -> {
+            Object[] a = inv.getArguments();
+            switch (inv.getMethod().getName()) {
+                case "get":
+                    return readDoc(((DocumentReference) a[0]).getPath());
+                case "set":
+                case "update": {
+                    String path = ((DocumentReference) a[0]).getPath();
+                    Object data = a.length > 1 ? a[1] : null;
+                    pending.add(() -> write(path, data instanceof Map ? data : null));
+                    return self[0];
+                }
+                case "delete": {
+                    String path = ((DocumentReference) a[0]).getPath();
+                    pending.add(() -> delete(path));
+                    return self[0];
+                }
+                default:
+                    return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+        });
+        try {
+            T result = fn.apply(self[0]);
+            apply(pending);
+            return Tasks.forResult(result);
+        } catch (Exception e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    /**
+     * Applies a batch's or transaction's writes as one step.
+     */
+    private synchronized void apply(List<Runnable> pending) {
+        for (Runnable r : pending) r.run();
+        pending.clear();
+    }
+
+    // ---- Snapshots ----
+
+    private QuerySnapshot querySnapshot(List<Stored> found) {
+        List<DocumentSnapshot> documents = new ArrayList<>();
+        List<QueryDocumentSnapshot> iterable = new ArrayList<>();
+        List<DocumentChange> changes = new ArrayList<>();
+        for (Stored s : found) {
+            QueryDocumentSnapshot d = docSnapshot(QueryDocumentSnapshot.class, s.path, s.data);
+            documents.add(d);
+            iterable.add(d);
+            DocumentChange c = mock(DocumentChange.class, inv -> {
+                switch (inv.getMethod().getName()) {
+                    case "getDocument": return d;
+                    case "getType": return DocumentChange.Type.ADDED;
+                    default: return Answers.RETURNS_DEFAULTS.answer(inv);
+                }
+            });
+            changes.add(c);
+        }
+        SnapshotMetadata metadata = mock(SnapshotMetadata.class);
+        return mock(QuerySnapshot.class, inv -> {
+            switch (inv.getMethod().getName()) {
+                case "getDocuments": return documents;
+                case "size": return documents.size();
+                case "isEmpty": return documents.isEmpty();
+                case "iterator": return iterable.iterator();
+                case "getDocumentChanges": return changes;
+                case "getMetadata": return metadata;
+                case "toObjects": {
+                    List<Object> out = new ArrayList<>();
+                    for (QueryDocumentSnapshot d : iterable) out.add(d.toObject((Class<?>) inv.getArgument(0)));
+                    return out;
+                }
+                default: return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+        });
+    }
+
+    private <T extends DocumentSnapshot> T docSnapshot(Class<T> type, String path, Map<String, Object> data) {
+        DocumentReference ref = document(path);
+        SnapshotMetadata metadata = mock(SnapshotMetadata.class);
+        return mock(type, inv -> {
+            Object[] a = inv.getArguments();
+            String name = inv.getMethod().getName();
+            switch (name) {
+                case "getId": return ref.getId();
+                case "getReference": return ref;
+                case "exists": return data != null;
+                case "getData": return data != null ? new HashMap<>(data) : null;
+                case "getMetadata": return metadata;
+                case "contains": return data != null && data.containsKey(fieldName(a[0]));
+                case "toObject":
+                    return data != null ? CustomClassMapper.convertToCustomClass(data, (Class<?>) a[0], ref) : null;
+                case "get":
+                case "getString":
+                case "getBoolean":
+                case "getTimestamp":
+                    return data != null ? data.get(fieldName(a[0])) : null;
+                case "getLong": {
+                    Object v = data != null ? data.get(fieldName(a[0])) : null;
+                    return v instanceof Number ? Long.valueOf(((Number) v).longValue()) : null;
+                }
+                case "getDouble": {
+                    Object v = data != null ? data.get(fieldName(a[0])) : null;
+                    return v instanceof Number ? Double.valueOf(((Number) v).doubleValue()) : null;
+                }
+                case "getDate": {
+                    Object v = data != null ? data.get(fieldName(a[0])) : null;
+                    if (v instanceof com.google.firebase.Timestamp) return ((com.google.firebase.Timestamp) v).toDate();
+                    return v instanceof Date ? v : null;
+                }
+                default: return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+        });
+    }
+
+    private static String fieldName(Object field) {
+        return field instanceof FieldPath ? field.toString() : (String) field;
+    }
+}
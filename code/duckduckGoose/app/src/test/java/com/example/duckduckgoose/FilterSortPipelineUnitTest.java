@@ -0,0 +1,95 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for FilterSortPipeline using plain JVM executors.
+ */
+public class FilterSortPipelineUnitTest {
+
+    private ExecutorService compute;
+    private List<List<Integer>> delivered;
+
+    @Before
+    public void setUp() {
+        compute = Executors.newSingleThreadExecutor();
+        delivered = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @After
+    public void tearDown() {
+        compute.shutdownNow();
+    }
+
+    @Test
+    public void testDeliversSortedSnapshot() throws Exception {
+        FilterSortPipeline<Integer> pipeline = new FilterSortPipeline<>(compute, Runnable::run);
+        List<Integer> source = new ArrayList<>(Arrays.asList(3, 1, 2));
+
+        pipeline.submit(source, list -> { Collections.sort(list); return list; }, delivered::add);
+        compute.submit(() -> {}).get(1, TimeUnit.SECONDS);
+
+        assertEquals(1, delivered.size());
+        assertEquals(Arrays.asList(1, 2, 3), delivered.get(0));
+        // caller's list is untouched
+        assertEquals(Arrays.asList(3, 1, 2), source);
+    }
+
+    @Test
+    public void testSupersededRequestIsDropped() throws Exception {
+        FilterSortPipeline<Integer> pipeline = new FilterSortPipeline<>(compute, Runnable::run);
+        CountDownLatch release = new CountDownLatch(1);
+
+        pipeline.submit(Arrays.asList(1, 2), list -> {
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            return list;
+        }, delivered::add);
+        pipeline.submit(Arrays.asList(9), list -> list, delivered::add);
+        release.countDown();
+        compute.submit(() -> {}).get(1, TimeUnit.SECONDS);
+
+        assertEquals(1, delivered.size());
+        assertEquals(Collections.singletonList(9), delivered.get(0));
+    }
+
+    @Test
+    public void testCancelSuppressesDelivery() throws Exception {
+        FilterSortPipeline<Integer> pipeline = new FilterSortPipeline<>(compute, Runnable::run);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        pipeline.submit(Arrays.asList(1), list -> {
+            started.countDown();
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            return list;
+        }, delivered::add);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        pipeline.cancel();
+        release.countDown();
+        compute.submit(() -> {}).get(1, TimeUnit.SECONDS);
+
+        assertTrue(delivered.isEmpty());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.lifecycle.Observer;
+
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared listener bookkeeping of LiveQuery and QueryLiveData: reference
+ * counting, the linger after the last observer, and recovery after a
+ * listener ends with an error.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class LiveQueryUnitTest {
+
+    /** Firestore listeners opened on the query, in order. */
+    private final List<EventListener<QuerySnapshot>> opened = new ArrayList<>();
+
+    /** Registrations handed out, in order. */
+    private final List<ListenerRegistration> registrations = new ArrayList<>();
+
+    private Query query;
+
+    @Before
+    public void setUp() {
+        query = mock(Query.class, inv -> {
+            if (!"addSnapshotListener".equals(inv.getMethod().getName())) {
+                return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+            @SuppressWarnings("unchecked")
+            EventListener<QuerySnapshot> l = (EventListener<QuerySnapshot>) inv.getArgument(0);
+            opened.add(l);
+            ListenerRegistration registration = mock(ListenerRegistration.class);
+            registrations.add(registration);
+            return registration;
+        });
+    }
+
+    private static QuerySnapshot snapshot() {
+        return mock(QuerySnapshot.class, Answers.RETURNS_DEEP_STUBS);
+    }
+
+    private static FirebaseFirestoreException denied() {
+        return new FirebaseFirestoreException("denied", FirebaseFirestoreException.Code.PERMISSION_DENIED);
+    }
+
+    private static void idleFor(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+    }
+
+    @Test
+    public void testSubscribersShareOneListenerUntilTheLastLeaves() {
+        List<QuerySnapshot> first = new ArrayList<>();
+        List<QuerySnapshot> second = new ArrayList<>();
+        EventListener<QuerySnapshot> a = (s, e) -> first.add(s);
+        EventListener<QuerySnapshot> b = (s, e) -> second.add(s);
+
+        LiveQuery.subscribe(query, a);
+        QuerySnapshot snap = snapshot();
+        opened.get(0).onEvent(snap, null);
+        // A late subscriber gets the latest snapshot without a new listener
+        LiveQuery.subscribe(query, b);
+        assertEquals(1, opened.size());
+        assertSame(snap, second.get(0));
+
+        LiveQuery.unsubscribe(query, a);
+        verify(registrations.get(0), never()).remove();
+        LiveQuery.unsubscribe(query, b);
+        verify(registrations.get(0), times(1)).remove();
+        assertEquals(1, first.size());
+    }
+
+    @Test
+    public void testErrorDropsTheListenerAndTheNextSubscriberReopens() {
+        List<FirebaseFirestoreException> errors = new ArrayList<>();
+        EventListener<QuerySnapshot> a = (s, e) -> {
+            if (e != null) errors.add(e);
+        };
+        LiveQuery.subscribe(query, a);
+        opened.get(0).onEvent(null, denied());
+
+        assertEquals(1, errors.size());
+        verify(registrations.get(0), times(1)).remove();
+
+        EventListener<QuerySnapshot> b = (s, e) -> { };
+        LiveQuery.subscribe(query, b);
+        assertEquals("a fresh listener is opened", 2, opened.size());
+        // The failed subscriber's late unsubscribe leaves the new listener alone
+        LiveQuery.unsubscribe(query, a);
+        verify(registrations.get(1), never()).remove();
+        LiveQuery.unsubscribe(query, b);
+        verify(registrations.get(1), times(1)).remove();
+    }
+
+    @Test
+    public void testQueryLiveDataLingersAfterItsLastObserver() {
+        QueryLiveData live = new QueryLiveData(query);
+        Observer<QuerySnapshot> observer = s -> { };
+        live.observeForever(observer);
+        opened.get(0).onEvent(snapshot(), null);
+
+        // A rotation: the observer leaves and a new one arrives within the linger
+        live.removeObserver(observer);
+        idleFor(QueryLiveData.LINGER_MILLIS / 2);
+        live.observeForever(observer);
+        assertEquals(1, opened.size());
+        verify(registrations.get(0), never()).remove();
+
+        live.removeObserver(observer);
+        idleFor(QueryLiveData.LINGER_MILLIS + 1);
+        verify(registrations.get(0), times(1)).remove();
+    }
+
+    @Test
+    public void testQueryLiveDataSubscribesAgainAfterAnError() {
+        QueryLiveData live = new QueryLiveData(query);
+        List<FirebaseFirestoreException> errors = new ArrayList<>();
+        live.getError().observeForever(errors::add);
+        Observer<QuerySnapshot> observer = s -> { };
+        live.observeForever(observer);
+        opened.get(0).onEvent(null, denied());
+        assertNotNull(errors.get(0));
+
+        // The screen restarts within the linger
+        live.removeObserver(observer);
+        idleFor(QueryLiveData.LINGER_MILLIS / 2);
+        live.observeForever(observer);
+        assertEquals("a new listener replaces the failed one", 2, opened.size());
+
+        QuerySnapshot snap = snapshot();
+        opened.get(1).onEvent(snap, null);
+        assertSame(snap, live.getValue());
+        live.removeObserver(observer);
+        live.close();
+        verify(registrations.get(1), times(1)).remove();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FirestoreMeter's per-screen counters and latency histograms.
+ */
+public class MeterStatsUnitTest {
+
+    @Test
+    public void testBucketsArePowersOfTwo() {
+        assertEquals(0, MeterStats.Histogram.bucketOf(0));
+        assertEquals(0, MeterStats.Histogram.bucketOf(1));
+        assertEquals(1, MeterStats.Histogram.bucketOf(2));
+        assertEquals(2, MeterStats.Histogram.bucketOf(3));
+        assertEquals(2, MeterStats.Histogram.bucketOf(4));
+        assertEquals(3, MeterStats.Histogram.bucketOf(5));
+        assertEquals(MeterStats.Histogram.BUCKETS - 1, MeterStats.Histogram.bucketOf(60_000));
+    }
+
+    @Test
+    public void testPercentilesUseBucketEdgesCappedAtMax() {
+        MeterStats.Histogram h = new MeterStats.Histogram();
+        for (int i = 0; i < 90; i++) h.record(3);
+        for (int i = 0; i < 10; i++) h.record(100);
+
+        assertEquals(100, h.getCount());
+        assertEquals(4, h.percentile(50));
+        assertEquals(4, h.percentile(90));
+        // 100 ms falls in (64, 128]; the edge is capped at the largest sample
+        assertEquals(100, h.percentile(99));
+        assertEquals(12.7, h.getMeanMillis(), 1e-9);
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        MeterStats.Histogram h = new MeterStats.Histogram();
+        assertEquals(0, h.percentile(90));
+        assertEquals(0.0, h.getMeanMillis(), 0.0);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        MeterStats stats = new MeterStats();
+        stats.docsRead = 5;
+        stats.getLatency(MeterStats.Op.QUERY_GET).record(10);
+
+        MeterStats copy = stats.copy();
+        stats.docsRead++;
+        stats.getLatency(MeterStats.Op.QUERY_GET).record(20);
+
+        assertEquals(5, copy.getDocsRead());
+        assertEquals(1, copy.getLatency(MeterStats.Op.QUERY_GET).getCount());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for filtering archived notifications by the opt-out cutoff (no Firestore).
+ */
+public class NotificationArchiveUnitTest {
+
+    private static Map<String, Object> item(long seconds) {
+        return Collections.singletonMap("timestamp", new Timestamp(seconds, 0));
+    }
+
+    @Test
+    public void testItemsFromTheCutoffOnAreDropped() {
+        Map<String, Object> before = item(100);
+        List<Map<String, Object>> kept = NotificationRepository.beforeCutoff(
+                Arrays.asList(before, item(200), item(300)), new Timestamp(200, 0));
+        assertEquals(Collections.singletonList(before), kept);
+    }
+
+    @Test
+    public void testNoCutoffKeepsEverything() {
+        List<Map<String, Object>> items = Arrays.asList(item(100), Collections.emptyMap());
+        assertSame(items, NotificationRepository.beforeCutoff(items, null));
+        // A legacy opt-out without a time hides every item, including undated ones
+        assertEquals(0, NotificationRepository.beforeCutoff(items, new Timestamp(0, 0)).size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for deterministic system notification ids (no Firestore).
+ */
+public class NotificationIdUnitTest {
+
+    @Test
+    public void testSameNoticeGetsTheSameId() {
+        String id = NotificationRepository.notificationId("e1", "u1", "selected", "9f3a");
+        assertEquals(id, NotificationRepository.notificationId("e1", "u1", "selected", "9f3a"));
+        assertEquals(32, id.length());
+        assertTrue(id.matches("[0-9a-f]+"));
+    }
+
+    @Test
+    public void testEveryPartOfTheKeyMatters() {
+        String id = NotificationRepository.notificationId("e1", "u1", "selected", "9f3a");
+        assertNotEquals(id, NotificationRepository.notificationId("e2", "u1", "selected", "9f3a"));
+        assertNotEquals(id, NotificationRepository.notificationId("e1", "u2", "selected", "9f3a"));
+        assertNotEquals(id, NotificationRepository.notificationId("e1", "u1", "not_selected", "9f3a"));
+        assertNotEquals(id, NotificationRepository.notificationId("e1", "u1", "selected", "9f3b"));
+        assertNotEquals(id, NotificationRepository.notificationId("e1", "u1", "selected", null));
+
+        // Parts are length-prefixed, so shifting text between them changes the id
+        assertNotEquals(NotificationRepository.notificationId("e1", "u1x", "selected", null),
+                NotificationRepository.notificationId("e1u", "1x", "selected", null));
+        assertNotEquals(NotificationRepository.notificationId("e1", "u1", "cancelled", null),
+                NotificationRepository.notificationId("e1", "u1", "cancelled", ""));
+    }
+}
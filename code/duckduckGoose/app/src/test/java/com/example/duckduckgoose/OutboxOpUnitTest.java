@@ -0,0 +1,211 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for outbox op merging and retry backoff (no Firestore or SQLite).
+ */
+public class OutboxOpUnitTest {
+
+    private static OutboxOp op(OutboxOp.Kind kind, String path, Object... kv) {
+        Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) data.put((String) kv[i], kv[i + 1]);
+        return new OutboxOp("g", "test", kind, path, kind == OutboxOp.Kind.DELETE ? null : data);
+    }
+
+    @Test
+    public void testRepeatedStatusChangesKeepTheLastValue() {
+        OutboxOp first = op(OutboxOp.Kind.UPDATE, "waitlist/a", "status", "selected");
+        assertTrue(first.absorb(op(OutboxOp.Kind.UPDATE, "waitlist/a", "status", "cancelled")));
+        assertEquals("cancelled", first.data.get("status"));
+        assertEquals(OutboxOp.Kind.UPDATE, first.kind);
+    }
+
+    @Test
+    public void testTransformsCombine() {
+        OutboxOp meta = op(OutboxOp.Kind.MERGE, "inbox_meta/u", "unreadCount", FieldOp.increment(1));
+        assertTrue(meta.absorb(op(OutboxOp.Kind.MERGE, "inbox_meta/u", "unreadCount", FieldOp.increment(2))));
+        assertEquals(FieldOp.increment(3), meta.data.get("unreadCount"));
+
+        OutboxOp event = op(OutboxOp.Kind.UPDATE, "events/e", "waitingList", FieldOp.arrayRemove("a"));
+        assertTrue(event.absorb(op(OutboxOp.Kind.UPDATE, "events/e", "waitingList", FieldOp.arrayRemove("b"))));
+        assertEquals(FieldOp.arrayRemove("a", "b"), event.data.get("waitingList"));
+
+        // Mixed transforms on one field are left as separate writes
+        assertFalse(event.absorb(op(OutboxOp.Kind.UPDATE, "events/e", "waitingList", FieldOp.arrayUnion("c"))));
+    }
+
+    @Test
+    public void testUpdatesFoldIntoAnEarlierSet() {
+        OutboxOp set = op(OutboxOp.Kind.SET, "events/e", "title", "Swim", "waitingList", Arrays.asList("a"),
+                "redrawCount", 0L);
+        assertTrue(set.absorb(op(OutboxOp.Kind.UPDATE, "events/e",
+                "waitingList", FieldOp.arrayUnion("b"), "redrawCount", FieldOp.increment(1),
+                "title", FieldOp.delete())));
+        assertEquals(OutboxOp.Kind.SET, set.kind);
+        assertEquals(Arrays.asList("a", "b"), set.data.get("waitingList"));
+        assertEquals(1L, set.data.get("redrawCount"));
+        assertFalse(set.data.containsKey("title"));
+    }
+
+    @Test
+    public void testDeleteAndOverwriteReplaceEarlierWrites() {
+        OutboxOp update = op(OutboxOp.Kind.UPDATE, "waitlist/a", "status", "selected");
+        assertTrue(update.absorb(op(OutboxOp.Kind.DELETE, "waitlist/a")));
+        assertEquals(OutboxOp.Kind.DELETE, update.kind);
+        assertEquals(Collections.emptyMap(), update.data);
+
+        // An update after a delete would fail on its own, so it is not folded away
+        assertFalse(update.absorb(op(OutboxOp.Kind.UPDATE, "waitlist/a", "status", "waiting")));
+        assertTrue(update.absorb(op(OutboxOp.Kind.SET, "waitlist/a", "status", "waiting")));
+        assertEquals(OutboxOp.Kind.SET, update.kind);
+    }
+
+    @Test
+    public void testIncompatibleWritesAreKeptApart() {
+        OutboxOp update = op(OutboxOp.Kind.UPDATE, "users/u", "fullName", "A");
+        // merge() would create a missing document that update() must not
+        assertFalse(update.absorb(op(OutboxOp.Kind.MERGE, "users/u", "fullName", "B")));
+        assertFalse(update.absorb(op(OutboxOp.Kind.UPDATE, "users/v", "fullName", "B")));
+        assertFalse(update.absorb(op(OutboxOp.Kind.UPDATE, "users/u", "prefs.theme", "dark")));
+        assertEquals("A", update.data.get("fullName"));
+    }
+
+    @Test
+    public void testGuardedWritesAreNotFolded() {
+        OutboxOp bump = new OutboxOp("g", "test", OutboxOp.Kind.MERGE, "inbox_meta/u",
+                Collections.singletonMap("unreadCount", FieldOp.increment(1)), "notifications/n1");
+        assertFalse(bump.absorb(op(OutboxOp.Kind.MERGE, "inbox_meta/u", "unreadCount", FieldOp.increment(1))));
+        assertFalse(op(OutboxOp.Kind.MERGE, "inbox_meta/u", "unreadCount", FieldOp.increment(1)).absorb(bump));
+        assertEquals(FieldOp.increment(1), bump.data.get("unreadCount"));
+    }
+
+    @Test
+    public void testOpsGuardedByAnExistingDocumentAreSkipped() {
+        OutboxOp notif = new OutboxOp("g", "test", OutboxOp.Kind.SET, "notifications/n1",
+                Collections.singletonMap("userId", "u1"), "notifications/n1");
+        OutboxOp bump = new OutboxOp("g", "test", OutboxOp.Kind.MERGE, "inbox_meta/u1",
+                Collections.singletonMap("unreadCount", FieldOp.increment(1)), "notifications/n1");
+        OutboxOp fresh = new OutboxOp("g", "test", OutboxOp.Kind.SET, "notifications/n2",
+                Collections.singletonMap("userId", "u2"), "notifications/n2");
+        OutboxOp plain = op(OutboxOp.Kind.UPDATE, "events/e", "drawSeed", 7L);
+        List<OutboxOp> chunk = Arrays.asList(notif, bump, fresh, plain);
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("notifications/n1", "notifications/n2")),
+                WriteOutbox.guards(chunk));
+        assertTrue(WriteOutbox.guards(Collections.singletonList(plain)).isEmpty());
+        assertEquals(Arrays.asList(fresh, plain),
+                WriteOutbox.applicable(chunk, Collections.singleton("notifications/n1")));
+        assertEquals(chunk, WriteOutbox.applicable(chunk, Collections.<String>emptySet()));
+    }
+
+    private static OutboxOp guarded(long id, String path, String guard) {
+        OutboxOp op = new OutboxOp("g", "test", OutboxOp.Kind.SET, path,
+                Collections.singletonMap("n", id), guard);
+        op.id = id;
+        return op;
+    }
+
+    @Test
+    public void testChunkBoundaryNeverSplitsAGuard() {
+        OutboxOp plain = op(OutboxOp.Kind.UPDATE, "events/e", "drawSeed", 7L);
+        plain.id = 1;
+        OutboxOp notif = guarded(2, "notifications/n1", "notifications/n1");
+        OutboxOp bump = guarded(3, "inbox_meta/u1", "notifications/n1");
+        List<OutboxOp> oldest = Arrays.asList(plain, notif, bump);
+        Map<String, List<OutboxOp>> byGuard =
+                Collections.singletonMap("notifications/n1", Arrays.asList(notif, bump));
+
+        // A limit of 2 would end the chunk between the notification and its bump
+        assertEquals(Collections.singletonList(plain), OutboxStore.fill(oldest, byGuard, 2, 10));
+        assertEquals(oldest, OutboxStore.fill(oldest, byGuard, 3, 10));
+        // The bump falls beyond the claimed rows and is pulled in with the notification
+        assertEquals(Arrays.asList(notif, bump),
+                OutboxStore.fill(Collections.singletonList(notif), byGuard, 1, 10));
+    }
+
+    @Test
+    public void testChunkHoldsAtMostMaxGuards() {
+        OutboxOp n1 = guarded(1, "notifications/n1", "notifications/n1");
+        OutboxOp bump1 = guarded(2, "inbox_meta/u1", "notifications/n1");
+        OutboxOp n2 = guarded(3, "notifications/n2", "notifications/n2");
+        OutboxOp plain = op(OutboxOp.Kind.UPDATE, "events/e", "drawSeed", 7L);
+        plain.id = 4;
+        List<OutboxOp> oldest = Arrays.asList(n1, bump1, n2, plain);
+        Map<String, List<OutboxOp>> byGuard = new HashMap<>();
+        byGuard.put("notifications/n1", Arrays.asList(n1, bump1));
+        byGuard.put("notifications/n2", Collections.singletonList(n2));
+
+        // The second guard ends the chunk; ops of a guard already in it still join
+        assertEquals(Arrays.asList(n1, bump1), OutboxStore.fill(oldest, byGuard, 400, 1));
+        assertEquals(oldest, OutboxStore.fill(oldest, byGuard, 400, 2));
+        // A chunk always takes its first guard, however low the cap
+        assertEquals(Collections.singletonList(n2),
+                OutboxStore.fill(Collections.singletonList(n2), byGuard, 400, 0));
+    }
+
+    @Test
+    public void testRejectedChunksAreRetriedWithGuardsTogether() {
+        OutboxOp notif = guarded(1, "notifications/n1", "notifications/n1");
+        OutboxOp plain = op(OutboxOp.Kind.UPDATE, "events/e", "drawSeed", 7L);
+        OutboxOp other = guarded(3, "notifications/n2", "notifications/n2");
+        OutboxOp bump = guarded(4, "inbox_meta/u1", "notifications/n1");
+
+        List<List<OutboxOp>> units = WriteOutbox.units(Arrays.asList(notif, plain, other, bump));
+        assertEquals(3, units.size());
+        assertEquals(Arrays.asList(notif, bump), units.get(0));
+        assertEquals(Collections.singletonList(plain), units.get(1));
+        assertEquals(Collections.singletonList(other), units.get(2));
+    }
+
+    @Test
+    public void testIncrementsAreFoundAtAnyDepth() {
+        Map<String, Object> losses = new HashMap<>();
+        losses.put("u1", FieldOp.increment(1));
+        losses.put("u2", FieldOp.delete());
+        assertTrue(OutboxOp.hasIncrement(Collections.singletonMap("losses", losses)));
+        assertTrue(OutboxOp.hasIncrement(Collections.singletonMap("redrawCount", FieldOp.increment(1))));
+        // Unions and removals give the same result when replayed
+        assertFalse(OutboxOp.hasIncrement(Collections.singletonMap("waitingList", FieldOp.arrayRemove("u1"))));
+        assertFalse(OutboxOp.hasIncrement(Collections.singletonMap("status", "cancelled")));
+        assertFalse(OutboxOp.hasIncrement(null));
+    }
+
+    @Test
+    public void testIncrementMarkersAreDistinctAndNeverFolded() {
+        String first = OutboxOp.newMarker();
+        String second = OutboxOp.newMarker();
+        assertTrue(OutboxOp.isMarker(first));
+        assertFalse(first.equals(second));
+        assertFalse(OutboxOp.isMarker("notifications/n1"));
+        assertFalse(OutboxOp.isMarker(null));
+
+        OutboxOp kick = guarded(1, "events/e", first);
+        OutboxOp again = guarded(2, "events/e", second);
+        assertFalse(kick.absorb(again));
+        // Each marker is its own unit, applied or skipped alone
+        assertEquals(2, WriteOutbox.units(Arrays.asList(kick, again)).size());
+        assertEquals(Collections.singletonList(again),
+                WriteOutbox.applicable(Arrays.asList(kick, again), Collections.singleton(first)));
+    }
+
+    @Test
+    public void testBackoffDoublesUpToTheCap() {
+        assertEquals(WriteOutbox.BASE_BACKOFF_MILLIS / 2, WriteOutbox.backoffMillis(1, 0));
+        assertEquals(WriteOutbox.BASE_BACKOFF_MILLIS * 2 - 1, WriteOutbox.backoffMillis(2, 0.9999999), 1);
+        assertEquals(WriteOutbox.BASE_BACKOFF_MILLIS * 4 / 2, WriteOutbox.backoffMillis(3, 0));
+        assertEquals(WriteOutbox.MAX_BACKOFF_MILLIS / 2, WriteOutbox.backoffMillis(50, 0));
+        assertTrue(WriteOutbox.backoffMillis(50, 0.9999) <= WriteOutbox.MAX_BACKOFF_MILLIS);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-budget regression tests: screen loads run against FakeFirestore and
+ * fail if they take more reads than declared, e.g. when a per-row
+ * users/{uid}.get() comes back.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class ReadBudgetUnitTest {
+
+    private FakeFirestore fake;
+    private MockedStatic<FirebaseFirestore> firestore;
+    private MockedStatic<FirebaseAuth> auth;
+
+    @Before
+    public void setUp() {
+        fake = new FakeFirestore();
+        firestore = fake.install();
+        auth = mockStatic(FirebaseAuth.class);
+        auth.when(FirebaseAuth::getInstance).thenReturn(mock(FirebaseAuth.class));
+        UserRepository.get().clear();
+        EventRepository.get().clear();
+    }
+
+    @After
+    public void tearDown() {
+        firestore.close();
+        auth.close();
+    }
+
+    private static void idle() {
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    /**
+     * Registers the observers AttendeeManagerActivity registers on its ViewModel.
+     *
+     * @param vm - Initialized ViewModel
+     * @param rosters - Receives published rosters
+     */
+    private static void observeLikeAttendeeScreen(AttendeeManagerViewModel vm,
+                                                  List<AttendeeManagerViewModel.Roster> rosters) {
+        vm.isOrganizer().observeForever(o -> { });
+        vm.getWaitlist().getError().observeForever(e -> { });
+        vm.getRoster().observeForever(rosters::add);
+        vm.getFiltered().observeForever(f -> { });
+        vm.canLoadMoreFiltered().observeForever(more -> { });
+        vm.getFilterError().observeForever(e -> { });
+    }
+
+    /** Roster budget: the event document, the waitlist listener and one profile query per 30 entrants. */
+    private static int rosterBudget(int n) {
+        return (n + UserRepository.IN_LIMIT - 1) / UserRepository.IN_LIMIT + 2;
+    }
+
+    @Test
+    public void testRosterLoadStaysWithinBudget() {
+        for (int n : new int[]{0, 1, 29, 30, 31, 95}) {
+            String eventId = "event" + n;
+            fake.put("events/" + eventId, "name", "Swim " + n, "organizerId", "org");
+            for (int i = 0; i < n; i++) {
+                String uid = "u" + i;
+                fake.put("users/" + uid, "fullName", "User " + i, "email", uid + "@example.com");
+                fake.put("waitlist/" + uid + "_" + eventId, "userId", uid, "eventId", eventId, "status", "waiting");
+            }
+            UserRepository.get().clear();
+            fake.resetCounts();
+
+            AttendeeManagerViewModel vm = new AttendeeManagerViewModel();
+            vm.init(eventId);
+            List<AttendeeManagerViewModel.Roster> rosters = new ArrayList<>();
+            vm.getRoster().observeForever(rosters::add);
+            idle();
+
+            assertEquals(1, rosters.size());
+            assertEquals(n, rosters.get(0).profiles.size());
+            fake.assertReadsAtMost("Roster of " + n, rosterBudget(n));
+            vm.onCleared();
+        }
+    }
+
+    @Test
+    public void testRosterReusesCachedProfiles() {
+        fake.put("events/e", "organizerId", "org");
+        for (int i = 0; i < 40; i++) {
+            fake.put("users/u" + i, "fullName", "User " + i);
+            fake.put("waitlist/u" + i + "_e", "userId", "u" + i, "eventId", "e", "status", "waiting");
+        }
+
+        AttendeeManagerViewModel first = new AttendeeManagerViewModel();
+        first.init("e");
+        first.getRoster().observeForever(r -> { });
+        idle();
+        first.onCleared();
+        idle();
+
+        fake.resetCounts();
+        AttendeeManagerViewModel second = new AttendeeManagerViewModel();
+        second.init("e");
+        List<AttendeeManagerViewModel.Roster> rosters = new ArrayList<>();
+        second.getRoster().observeForever(rosters::add);
+        idle();
+
+        assertEquals(40, rosters.get(0).profiles.size());
+        assertEquals(0, fake.readOps("users"));
+        second.onCleared();
+    }
+
+    @Test
+    public void testStatusFilterReadsOnlyMatchingEntries() {
+        fake.put("events/big", "organizerId", "org");
+        for (int i = 0; i < 2000; i++) {
+            fake.put("waitlist/w" + i + "_big", "userId", "w" + i, "eventId", "big", "status", "waiting");
+        }
+        for (int i = 0; i < 30; i++) {
+            fake.put("users/a" + i, "fullName", "Accepted " + i);
+            fake.put("waitlist/a" + i + "_big", "userId", "a" + i, "eventId", "big", "status", "accepted");
+        }
+        fake.resetCounts();
+
+        // The screen comes back (e.g. after rotation) with the filter still set
+        AttendeeManagerViewModel vm = new AttendeeManagerViewModel();
+        vm.init("big");
+        vm.setFilter(RosterFilter.GOOSE);
+        List<AttendeeManagerViewModel.Roster> rosters = new ArrayList<>();
+        observeLikeAttendeeScreen(vm, rosters);
+        idle();
+
+        assertTrue(rosters.isEmpty());
+        assertFalse(vm.getWaitlist().hasActiveObservers());
+        AttendeeManagerViewModel.FilteredRoster shown = vm.getFiltered().getValue();
+        assertNotNull(shown);
+        assertEquals(30, shown.entries.size());
+        assertEquals(30, shown.profiles.size());
+        assertFalse(Boolean.TRUE.equals(vm.canLoadMoreFiltered().getValue()));
+        // No selected entrants, then the 30 accepted ones; none of the 2000 waiting
+        assertEquals(30, fake.docsRead("waitlist"));
+        // Event document, two status queries, one profile query
+        fake.assertReadsAtMost("Goose filter", 4);
+        vm.onCleared();
+    }
+
+    @Test
+    public void testStatusFilterDetachesFullRoster() {
+        fake.put("events/big", "organizerId", "org");
+        for (int i = 0; i < 200; i++) {
+            fake.put("users/w" + i, "fullName", "Waiting " + i);
+            fake.put("waitlist/w" + i + "_big", "userId", "w" + i, "eventId", "big", "status", "waiting");
+        }
+        for (int i = 0; i < 30; i++) {
+            fake.put("users/a" + i, "fullName", "Accepted " + i);
+            fake.put("waitlist/a" + i + "_big", "userId", "a" + i, "eventId", "big", "status", "accepted");
+        }
+
+        AttendeeManagerViewModel vm = new AttendeeManagerViewModel();
+        vm.init("big");
+        List<AttendeeManagerViewModel.Roster> rosters = new ArrayList<>();
+        observeLikeAttendeeScreen(vm, rosters);
+        idle();
+        assertEquals(1, rosters.size());
+        assertTrue(vm.getWaitlist().hasActiveObservers());
+
+        // Picking a filter stops the roster; the waitlist listener lingers, then detaches
+        fake.resetCounts();
+        vm.setFilter(RosterFilter.GOOSE);
+        idle();
+        assertFalse(vm.getWaitlist().hasActiveObservers());
+        assertEquals(1, rosters.size());
+        assertEquals(30, vm.getFiltered().getValue().entries.size());
+        assertEquals(30, fake.docsRead("waitlist"));
+
+        // Clearing it republishes the roster from the retained snapshot
+        vm.setFilter(null);
+        idle();
+        assertTrue(vm.getWaitlist().hasActiveObservers());
+        assertEquals(2, rosters.size());
+        assertEquals(230, rosters.get(1).profiles.size());
+        vm.onCleared();
+    }
+
+    @Test
+    public void testStatusFilterPagesAcrossStatuses() {
+        fake.put("events/e", "organizerId", "org");
+        int selected = AttendeeManagerViewModel.FILTER_PAGE_SIZE - 10;
+        for (int i = 0; i < selected; i++) {
+            fake.put("users/s" + i, "fullName", "Selected " + i);
+            fake.put("waitlist/s" + i + "_e", "userId", "s" + i, "eventId", "e", "status", "selected");
+        }
+        for (int i = 0; i < 25; i++) {
+            fake.put("users/w" + i, "fullName", "Waiting " + i);
+            fake.put("waitlist/w" + i + "_e", "userId", "w" + i, "eventId", "e", "status", "waiting");
+        }
+
+        AttendeeManagerViewModel vm = new AttendeeManagerViewModel();
+        vm.init("e");
+        vm.setFilter(RosterFilter.SELECTED_OR_WAITING);
+        idle();
+        assertEquals(AttendeeManagerViewModel.FILTER_PAGE_SIZE, vm.getFiltered().getValue().entries.size());
+        assertTrue(Boolean.TRUE.equals(vm.canLoadMoreFiltered().getValue()));
+
+        vm.loadMoreFiltered();
+        idle();
+        assertEquals(selected + 25, vm.getFiltered().getValue().entries.size());
+        assertFalse(Boolean.TRUE.equals(vm.canLoadMoreFiltered().getValue()));
+
+        vm.setFilter(null);
+        assertNull(vm.getFiltered().getValue());
+        vm.onCleared();
+    }
+
+    @Test
+    public void testInboxOpensWithOnePage() {
+        fake.put("users/me", "fullName", "Me", "receive_notifications", true);
+        for (int i = 0; i < 3 * NotificationRepository.PAGE_SIZE; i++) {
+            fake.put("notifications/n" + i, "userId", "me", "eventId", "e", "message", "m" + i,
+                    "timestamp", new Timestamp(1_700_000_000L + i, 0));
+        }
+        fake.put("notifications/other", "userId", "someoneElse", "timestamp", new Timestamp(1_800_000_000L, 0));
+        fake.resetCounts();
+
+        NotificationLogsViewModel vm = new NotificationLogsViewModel();
+        vm.init("me");
+        List<List<DocumentSnapshot>> pages = new ArrayList<>();
+        vm.getInbox().observeForever(pages::add);
+        idle();
+
+        assertNotNull(vm.getInbox().getValue());
+        assertEquals(NotificationRepository.PAGE_SIZE, vm.getInbox().getValue().size());
+        // Newest first
+        assertEquals("n" + (3 * NotificationRepository.PAGE_SIZE - 1), vm.getInbox().getValue().get(0).getId());
+        assertTrue(Boolean.TRUE.equals(vm.canLoadMore().getValue()));
+
+        assertEquals(1, fake.readOps("notifications"));
+        assertTrue(fake.docsRead("notifications") <= NotificationRepository.PAGE_SIZE);
+        // Preferences, then one page
+        fake.assertReadsAtMost("Opening the inbox", 2);
+        vm.onCleared();
+    }
+}
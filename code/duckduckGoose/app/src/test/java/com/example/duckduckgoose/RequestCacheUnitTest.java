@@ -0,0 +1,85 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for RequestCache coalescing, expiry and invalidation (no Firestore).
+ */
+public class RequestCacheUnitTest {
+
+    private long now;
+    private RequestCache<String> cache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        cache = new RequestCache<>(2, 1000, () -> now);
+    }
+
+    @Test
+    public void testConcurrentLoadsShareOneRequest() {
+        TaskCompletionSource<String> source = new TaskCompletionSource<>();
+        Task<String> first = cache.get("u1", source::getTask);
+        Task<String> second = cache.get("u1", () -> {
+            throw new AssertionError("second load should be merged");
+        });
+        assertSame(first, second);
+
+        source.setResult("Alice");
+        assertEquals("Alice", cache.get("u1", source::getTask).getResult());
+        assertEquals(1, cache.loadCount());
+    }
+
+    @Test
+    public void testExpiredAndEvictedEntriesReload() {
+        TaskCompletionSource<String> a = new TaskCompletionSource<>();
+        cache.get("a", a::getTask);
+        a.setResult("A");
+
+        now = 999;
+        assertEquals("A", cache.peek("a"));
+        now = 1000;
+        assertNull(cache.peek("a"));
+
+        now = 0;
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.put("d", "D");
+        // capacity 2: the least recently used entry is gone
+        assertNull(cache.peek("b"));
+        assertEquals("D", cache.peek("d"));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        TaskCompletionSource<String> failing = new TaskCompletionSource<>();
+        cache.get("x", failing::getTask);
+        failing.setException(new Exception("offline"));
+
+        TaskCompletionSource<String> retry = new TaskCompletionSource<>();
+        Task<String> second = cache.get("x", retry::getTask);
+        assertSame(retry.getTask(), second);
+        assertEquals(2, cache.loadCount());
+    }
+
+    @Test
+    public void testInvalidateDiscardsInFlightResult() {
+        TaskCompletionSource<String> stale = new TaskCompletionSource<>();
+        cache.get("e1", stale::getTask);
+        cache.invalidate("e1");
+        stale.setResult("old");
+
+        assertNull(cache.peek("e1"));
+        TaskCompletionSource<String> fresh = new TaskCompletionSource<>();
+        assertSame(fresh.getTask(), cache.get("e1", fresh::getTask));
+        assertEquals(2, cache.loadCount());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for PerfTrace's windowed span percentiles.
+ */
+public class SpanStatsUnitTest {
+
+    @Test
+    public void testNearestRankPercentiles() {
+        SpanStats s = new SpanStats();
+        for (int i = 100; i >= 1; i--) s.record(i);
+
+        assertEquals(50.0, s.percentile(50), 0.0);
+        assertEquals(90.0, s.percentile(90), 0.0);
+        assertEquals(99.0, s.percentile(99), 0.0);
+        assertEquals(100.0, s.percentile(100), 0.0);
+        assertEquals(50.5, s.getMeanMillis(), 1e-9);
+    }
+
+    @Test
+    public void testWindowKeepsRecentSamples() {
+        SpanStats s = new SpanStats();
+        for (int i = 0; i < SpanStats.WINDOW; i++) s.record(1000);
+        for (int i = 0; i < SpanStats.WINDOW; i++) s.record(5);
+
+        assertEquals(2L * SpanStats.WINDOW, s.getCount());
+        assertEquals(5.0, s.percentile(99), 0.0);
+        // The lifetime maximum survives the window
+        assertEquals(1000.0, s.getMaxMillis(), 0.0);
+    }
+
+    @Test
+    public void testEmpty() {
+        SpanStats s = new SpanStats();
+        assertEquals(0.0, s.percentile(50), 0.0);
+        assertEquals(0.0, s.getMeanMillis(), 0.0);
+        assertEquals(0, s.getCount());
+    }
+}
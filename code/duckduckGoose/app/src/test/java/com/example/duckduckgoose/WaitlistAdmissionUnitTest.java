@@ -0,0 +1,89 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Unit tests for waitlist admission sharding, backoff and burst spreading (no Firestore).
+ */
+public class WaitlistAdmissionUnitTest {
+
+    @Test
+    public void testShardCapacitiesAddUpToTheCap() {
+        for (int cap : new int[]{1, 3, 10, 11, 99, 500}) {
+            int open = WaitlistAdmission.openShards(cap);
+            int total = 0;
+            for (int s = 0; s < WaitlistAdmission.SHARD_COUNT; s++) {
+                int c = WaitlistAdmission.shardCapacity(cap, s);
+                assertEquals("only the lowest shards have room", s < open, c >= 1);
+                total += c;
+            }
+            assertEquals(cap, total);
+        }
+        assertEquals(0, WaitlistAdmission.openShards(0));
+    }
+
+    @Test
+    public void testChangingTheCapKeepsEveryShard() {
+        // Lowering a cap only shrinks shares; a shard's index stays valid, so
+        // entrants admitted under the old cap still release the slot they hold
+        for (int s = 0; s < WaitlistAdmission.SHARD_COUNT; s++) {
+            assertTrue(WaitlistAdmission.shardCapacity(20, s) >= WaitlistAdmission.shardCapacity(5, s));
+        }
+        assertEquals(0, WaitlistAdmission.shardCapacity(5, 7));
+    }
+
+    @Test
+    public void testBackoffCeilingDoublesAndIsCapped() {
+        assertEquals(0, WaitlistAdmission.backoffMillis(1, 0));
+        assertEquals(WaitlistAdmission.BASE_BACKOFF_MILLIS / 2, WaitlistAdmission.backoffMillis(1, 0.5));
+        assertEquals(WaitlistAdmission.BASE_BACKOFF_MILLIS, WaitlistAdmission.backoffMillis(2, 0.5));
+        assertEquals(WaitlistAdmission.MAX_BACKOFF_MILLIS / 2, WaitlistAdmission.backoffMillis(50, 0.5));
+        assertTrue(WaitlistAdmission.backoffMillis(3, 0.999) < WaitlistAdmission.BASE_BACKOFF_MILLIS * 4);
+    }
+
+    @Test
+    public void testJoinsAreSpreadOnlyRightAfterRegistrationOpens() {
+        long opens = 1_700_000_000_000L;
+        assertEquals(0, WaitlistAdmission.burstDelayMillis(EventFieldParser.NO_DATE, opens, 0.5));
+        assertEquals(0, WaitlistAdmission.burstDelayMillis(opens, opens - 1, 0.5));
+        assertEquals(WaitlistAdmission.BURST_SPREAD_MILLIS / 2,
+                WaitlistAdmission.burstDelayMillis(opens, opens + 1000, 0.5));
+        assertEquals(0, WaitlistAdmission.burstDelayMillis(opens,
+                opens + WaitlistAdmission.BURST_WINDOW_MILLIS, 0.5));
+    }
+
+    @Test
+    public void testOnlyTransientFailuresAreRetried() {
+        assertTrue(WaitlistAdmission.isRetryable(
+                new FirebaseFirestoreException("contention", FirebaseFirestoreException.Code.ABORTED)));
+        assertTrue(WaitlistAdmission.isRetryable(
+                new FirebaseFirestoreException("offline", FirebaseFirestoreException.Code.UNAVAILABLE)));
+        assertFalse(WaitlistAdmission.isRetryable(
+                new FirebaseFirestoreException("rules", FirebaseFirestoreException.Code.PERMISSION_DENIED)));
+        assertFalse(WaitlistAdmission.isRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    public void testEntryIdIsDeterministic() {
+        assertEquals("u1_e1", WaitlistAdmission.entryId("u1", "e1"));
+    }
+
+    @Test
+    public void testShardWritesNameTheirEntry() {
+        // The rules match a count change to the entry created or released with it
+        Map<String, Object> join = WaitlistAdmission.shardWrite(1, "u1_e1");
+        assertEquals(new HashSet<>(Arrays.asList("count", "entry")), join.keySet());
+        assertEquals("u1_e1", join.get("entry"));
+        assertEquals("u1_e1", WaitlistAdmission.shardWrite(-1, "u1_e1").get("entry"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.duckduckgoose;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for the weighted lottery sampler and the draw history index (no Firestore).
+ */
+public class WeightedLotteryUnitTest {
+
+    private static String uid(int i) {
+        return "user" + i;
+    }
+
+    @Test
+    public void testKeepsEverythingWhenSmallerThanK() {
+        WeightedLottery<Integer> lottery = new WeightedLottery<>(10, 1);
+        for (int i = 0; i < 4; i++) lottery.offer(uid(i), i, 1);
+        assertEquals(4, lottery.winners().size());
+    }
+
+    @Test
+    public void testDrawsKDistinctItems() {
+        WeightedLottery<Integer> lottery = new WeightedLottery<>(25, 7);
+        for (int i = 0; i < 1000; i++) lottery.offer(uid(i), i, 1 + i % 3);
+        List<Integer> winners = lottery.winners();
+        assertEquals(25, winners.size());
+        assertEquals(25, new HashSet<>(winners).size());
+        assertEquals(1000, lottery.getSeen());
+    }
+
+    @Test
+    public void testZeroSpotsDrawsNobody() {
+        WeightedLottery<Integer> lottery = new WeightedLottery<>(0, 1);
+        for (int i = 0; i < 10; i++) lottery.offer(uid(i), i, 1);
+        assertTrue(lottery.winners().isEmpty());
+    }
+
+    @Test
+    public void testNonPositiveWeightNeverWins() {
+        WeightedLottery<Integer> lottery = new WeightedLottery<>(5, 3);
+        for (int i = 0; i < 10; i++) lottery.offer(uid(i), i, i < 3 ? 1 : 0);
+        assertEquals(new HashSet<>(List.of(0, 1, 2)), new HashSet<>(lottery.winners()));
+    }
+
+    @Test
+    public void testEqualWeightsAreRoughlyUniform() {
+        int n = 20, k = 5, trials = 20000;
+        int[] hits = new int[n];
+        Random seeds = new Random(301);
+        for (int t = 0; t < trials; t++) {
+            WeightedLottery<Integer> lottery = new WeightedLottery<>(k, seeds.nextLong());
+            for (int i = 0; i < n; i++) lottery.offer(uid(i), i, 1);
+            for (int i : lottery.winners()) hits[i]++;
+        }
+        double expected = (double) trials * k / n;
+        for (int h : hits) assertTrue("hits " + h, Math.abs(h - expected) < expected * 0.1);
+    }
+
+    @Test
+    public void testFirstPickIsProportionalToWeight() {
+        // Entrant 0 weighs 3, the other nine weigh 1: drawn first 3/12 of the time
+        int trials = 20000, first = 0;
+        Random seeds = new Random(42);
+        for (int t = 0; t < trials; t++) {
+            WeightedLottery<Integer> lottery = new WeightedLottery<>(3, seeds.nextLong());
+            for (int i = 0; i < 10; i++) lottery.offer(uid(i), i, i == 0 ? 3 : 1);
+            if (lottery.winners().get(0) == 0) first++;
+        }
+        double expected = trials * 3.0 / 12;
+        assertTrue("first " + first, Math.abs(first - expected) < expected * 0.1);
+    }
+
+    @Test
+    public void testSameSeedSameWinnersInAnyOrder() {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 500; i++) order.add(i);
+        WeightedLottery<Integer> a = new WeightedLottery<>(20, 99);
+        for (int i : order) a.offer(uid(i), i, 1 + i % 4);
+        Collections.shuffle(order, new Random(5));
+        WeightedLottery<Integer> b = new WeightedLottery<>(20, 99);
+        for (int i : order) b.offer(uid(i), i, 1 + i % 4);
+        assertEquals(a.winners(), b.winners());
+
+        WeightedLottery<Integer> c = new WeightedLottery<>(20, 100);
+        for (int i : order) c.offer(uid(i), i, 1 + i % 4);
+        assertNotEquals(a.winners(), c.winners());
+    }
+
+    @Test
+    public void testHistoryWeightsRepeatLosers() {
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("b", 2L);
+        counts.put("a", 1L);
+        counts.put("c", 0L);
+        counts.put("d", 9L);
+        DrawHistory history = DrawHistory.of(counts);
+        assertEquals(3, history.size());
+        assertEquals(1.0, history.weightOf("newcomer"), 0);
+        assertEquals(1.0, history.weightOf("c"), 0);
+        assertEquals(2.0, history.weightOf("a"), 0);
+        assertEquals(3.0, history.weightOf("b"), 0);
+        assertEquals(DrawHistory.weight(DrawHistory.MAX_COUNTED_LOSSES), history.weightOf("d"), 0);
+        assertEquals(0, DrawHistory.empty().lossesOf(null));
+    }
+
+    @Test
+    public void testHistoryShardsAreStable() {
+        for (int i = 0; i < 100; i++) {
+            int s = DrawHistory.shardOf(uid(i));
+            assertTrue(s >= 0 && s < DrawHistory.SHARDS);
+            assertEquals(s, DrawHistory.shardOf(new String(uid(i).toCharArray())));
+        }
+    }
+
+    @Test
+    public void testRecordedLossesReproduceTheDraw() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < 500; i += 3) counts.put(uid(i), (long) (1 + i % 6));
+        DrawHistory history = DrawHistory.of(counts);
+
+        WeightedLottery<Integer> draw = new WeightedLottery<>(20, 99);
+        Map<String, Integer> used = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            int losses = history.lossesOf(uid(i));
+            if (losses > 0) used.put(uid(i), losses);
+            draw.offer(uid(i), i, DrawHistory.weight(losses));
+        }
+
+        // The history has moved on since; only the recorded counts are left
+        DrawHistory recorded = DrawHistory.of(used);
+        WeightedLottery<Integer> replay = new WeightedLottery<>(20, 99);
+        for (int i = 0; i < 500; i++) replay.offer(uid(i), i, recorded.weightOf(uid(i)));
+        assertEquals(draw.winners(), replay.winners());
+    }
+
+    @Test
+    public void testDrawLogPagesLargePools() {
+        Map<String, Integer> losses = new HashMap<>();
+        for (int i = 0; i < DrawLog.LOSSES_PER_DOC + 5; i++) losses.put(uid(i), 1);
+        List<Map<String, Integer>> pages = DrawLog.pages(losses);
+        assertEquals(2, pages.size());
+        assertEquals(DrawLog.LOSSES_PER_DOC, pages.get(0).size());
+        assertEquals(5, pages.get(1).size());
+        assertTrue(DrawLog.pages(Collections.emptyMap()).isEmpty());
+    }
+}
@@ -0,0 +1,57 @@
+// JMH microbenchmarks for the app's hot loops, run on a plain JVM.
+//
+//   ./gradlew :benchmarks:jmh                      all suites
+//   ./gradlew :benchmarks:jmh -PjmhIncludes=Lottery one suite (regex on class/method)
+//
+// Results go to build/results/jmh/<git short sha>.json so runs from two commits
+// can be diffed side by side.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Android- and Firebase-free app classes, compiled here as-is so the
+// benchmarks measure the shipped code rather than a copy.
+val appSources = "../app/src/main/java"
+sourceSets {
+    main {
+        java {
+            srcDir(appSources)
+            include(
+                "com/example/duckduckgoose/AttendeeCsv.java",
+                "com/example/duckduckgoose/EventFieldParser.java",
+                "com/example/duckduckgoose/EventQr.java",
+                "com/example/duckduckgoose/WeightedLottery.java",
+                "com/example/duckduckgoose/user/User.java",
+            )
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation(libs.zxing.core)
+}
+
+val commit = providers.exec {
+    commandLine("git", "rev-parse", "--short", "HEAD")
+    isIgnoreExitValue = true
+}.standardOutput.asText.map { it.trim().ifEmpty { "local" } }
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file(commit.map { "results/jmh/$it.json" }))
+}
@@ -0,0 +1,65 @@
+/**
+ * Attendee CSV export as the organizer's Export CSV button runs it.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import com.example.duckduckgoose.AttendeeCsv;
+import com.example.duckduckgoose.user.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV rendering and encoding at 1k, 100k and 1M attendees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvExportBenchmark {
+
+    /** Number of attendees. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Attendees to export. */
+    private List<User> attendees;
+
+    /** Generates the attendees. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        attendees = Fixtures.users(size);
+    }
+
+    /**
+     * Builds the CSV text.
+     *
+     * @return CSV
+     */
+    @Benchmark
+    public String build() {
+        return AttendeeCsv.build(attendees);
+    }
+
+    /**
+     * Builds the CSV and encodes it for the file write.
+     *
+     * @return UTF-8 bytes
+     */
+    @Benchmark
+    public byte[] buildAndEncode() {
+        return AttendeeCsv.build(attendees).getBytes(StandardCharsets.UTF_8);
+    }
+}
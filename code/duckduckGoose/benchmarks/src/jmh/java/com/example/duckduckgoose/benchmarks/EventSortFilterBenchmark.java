@@ -0,0 +1,136 @@
+/**
+ * Event list sort and filter, including date and cost parsing.
+ *
+ * The browse screens sort by date or cost and filter by a price cap. Parsing
+ * the stored strings dominates, so the suite measures parsing on its own,
+ * a comparator that parses on every comparison, and the decorate-once
+ * approach EventSortEngine uses.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import com.example.duckduckgoose.EventFieldParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, sorting and filtering at 1k, 100k and 1M events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventSortFilterBenchmark {
+
+    /** Price cap for the filter. */
+    private static final double MAX_COST = 50.0;
+
+    /** Number of events. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Raw event date strings. */
+    private String[] dates;
+
+    /** Raw cost labels. */
+    private String[] costs;
+
+    /** Indices into the raw arrays, in their stored order. */
+    private Integer[] order;
+
+    /** Generates the raw fields. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        dates = Fixtures.dates(size, random);
+        costs = Fixtures.costs(size, random);
+        order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+    }
+
+    /**
+     * Parses every date once.
+     *
+     * @param bh - Sink for results
+     */
+    @Benchmark
+    public void parseDates(Blackhole bh) {
+        for (String d : dates) bh.consume(EventFieldParser.parseDateMillis(d));
+    }
+
+    /**
+     * Parses every cost once.
+     *
+     * @param bh - Sink for results
+     */
+    @Benchmark
+    public void parseCosts(Blackhole bh) {
+        for (String c : costs) bh.consume(EventFieldParser.parseCost(c));
+    }
+
+    /**
+     * Sorts by date with a comparator that parses both sides of every
+     * comparison (O(n log n) parses).
+     *
+     * @return Sorted indices
+     */
+    @Benchmark
+    public Integer[] sortByDateParsingInComparator() {
+        Integer[] idx = order.clone();
+        Arrays.sort(idx, Comparator.comparingLong(i -> EventFieldParser.parseDateMillis(dates[i])));
+        return idx;
+    }
+
+    /**
+     * Sorts by date after parsing each event once into a primitive key, with
+     * unparseable dates last (as EventSortEngine does).
+     *
+     * @return Sorted indices
+     */
+    @Benchmark
+    public Integer[] sortByDateDecorated() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = EventFieldParser.parseDateMillis(dates[i]);
+        Integer[] idx = order.clone();
+        Arrays.sort(idx, (a, b) -> {
+            long ka = keys[a], kb = keys[b];
+            boolean ma = ka == EventFieldParser.NO_DATE, mb = kb == EventFieldParser.NO_DATE;
+            if (ma || mb) return Boolean.compare(ma, mb);
+            return Long.compare(ka, kb);
+        });
+        return idx;
+    }
+
+    /**
+     * Keeps events at or under the price cap, then sorts them by cost.
+     *
+     * @return Matching indices, cheapest first
+     */
+    @Benchmark
+    public List<Integer> filterByCostThenSort() {
+        double[] keys = new double[size];
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = EventFieldParser.parseCost(costs[i]);
+            if (keys[i] <= MAX_COST) matches.add(i);
+        }
+        matches.sort((a, b) -> Double.compare(keys[a], keys[b]));
+        return matches;
+    }
+}
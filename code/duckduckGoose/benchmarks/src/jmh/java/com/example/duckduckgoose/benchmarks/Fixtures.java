@@ -0,0 +1,117 @@
+/**
+ * Deterministic test data shared by the benchmark suites.
+ *
+ * Every generator takes an explicit seed, so two runs (or two commits) measure
+ * the same inputs.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import com.example.duckduckgoose.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Static generators for user ids, users and event field values.
+ */
+final class Fixtures {
+
+    /** Seed used by every suite unless it needs a second stream. */
+    static final long SEED = 301L;
+
+    /** Month abbreviations for the "MMM d, yyyy" date form. */
+    private static final String[] MONTHS =
+            {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    /** Prevents instantiation. */
+    private Fixtures() {}
+
+    /**
+     * Returns a Firebase-style 28 character uid for an index.
+     *
+     * @param i - Index
+     * @return Stable uid
+     */
+    static String uid(int i) {
+        return String.format("u%027d", i);
+    }
+
+    /**
+     * Returns n distinct uids.
+     *
+     * @param n - Count
+     * @return uids in index order
+     */
+    static List<String> uids(int n) {
+        List<String> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(uid(i));
+        return ids;
+    }
+
+    /**
+     * Returns n entrant profiles; some names contain commas so the CSV path
+     * exercises quoting.
+     *
+     * @param n - Count
+     * @return Users in index order
+     */
+    static List<User> users(int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            User u = new User();
+            u.setUserId(uid(i));
+            u.setFullName(i % 10 == 0 ? "Goose, Duck " + i : "Duck Goose " + i);
+            u.setEmail("entrant" + i + "@example.com");
+            u.setAccountType("Entrant");
+            users.add(u);
+        }
+        return users;
+    }
+
+    /**
+     * Returns n date strings in the mix of formats events are stored with,
+     * including a few that do not parse.
+     *
+     * @param n - Count
+     * @param random - Source of randomness
+     * @return Date strings
+     */
+    static String[] dates(int n, Random random) {
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28);
+            int year = 2024 + random.nextInt(3);
+            switch (random.nextInt(8)) {
+                case 0: out[i] = String.format("%04d-%02d-%02d", year, month, day); break;
+                case 1: out[i] = MONTHS[month - 1] + " " + day + ", " + year; break;
+                case 2: out[i] = "TBD"; break;
+                default: out[i] = String.format("%02d/%02d/%02d", month, day, year % 100); break;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Returns n cost labels ("Free", "$25", "€12.50", blanks).
+     *
+     * @param n - Count
+     * @param random - Source of randomness
+     * @return Cost labels
+     */
+    static String[] costs(int n, Random random) {
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            switch (random.nextInt(6)) {
+                case 0: out[i] = "Free"; break;
+                case 1: out[i] = ""; break;
+                case 2: out[i] = "€" + random.nextInt(100) + ".50"; break;
+                default: out[i] = "$" + random.nextInt(200); break;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Lottery selection: drawing k winners from a waitlist of n entrants.
+ *
+ * AttendeeManagerActivity used to copy the pool, shuffle all of it and take
+ * the first k. A partial Fisher-Yates shuffle stops after k swaps, and a
+ * selection-sampling pass never copies the pool. The app now draws with
+ * WeightedLottery (Efraimidis–Spirakis keys in a k-bounded heap), weighted
+ * by each entrant's lost draws.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import com.example.duckduckgoose.WeightedLottery;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Winner selection at 1k, 100k and 1M entrants; capacity is 10% of the pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LotteryBenchmark {
+
+    /** Waitlist size. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Entrant uids. */
+    private List<String> pool;
+
+    /** Winners to draw. */
+    private int capacity;
+
+    /** Seeded per trial so every run draws the same sequence. */
+    private Random random;
+
+    /** Draw weights: about one entrant in five has lost one to four earlier draws. */
+    private double[] weights;
+
+    /** Builds the pool. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = Fixtures.uids(size);
+        capacity = Math.max(1, size / 10);
+        random = new Random(Fixtures.SEED);
+        weights = new double[size];
+        Random history = new Random(Fixtures.SEED + 1);
+        for (int i = 0; i < size; i++) {
+            weights[i] = history.nextInt(5) == 0 ? 2 + history.nextInt(4) : 1;
+        }
+    }
+
+    /**
+     * The old draw: shuffle a copy of the whole pool and keep a prefix.
+     *
+     * @return Winners
+     */
+    @Benchmark
+    public List<String> shuffleAll() {
+        List<String> copy = new ArrayList<>(pool);
+        Collections.shuffle(copy, random);
+        return copy.subList(0, capacity);
+    }
+
+    /**
+     * Fisher-Yates over a copy, stopping after capacity swaps.
+     *
+     * @return Winners
+     */
+    @Benchmark
+    public List<String> partialShuffle() {
+        List<String> copy = new ArrayList<>(pool);
+        for (int i = 0; i < capacity; i++) {
+            Collections.swap(copy, i, i + random.nextInt(copy.size() - i));
+        }
+        return copy.subList(0, capacity);
+    }
+
+    /**
+     * Selection sampling (Knuth's algorithm S): one pass, no copy of the pool,
+     * winners come out in waitlist order.
+     *
+     * @return Winners
+     */
+    @Benchmark
+    public List<String> selectionSample() {
+        List<String> winners = new ArrayList<>(capacity);
+        int needed = capacity;
+        int left = pool.size();
+        for (int i = 0; needed > 0; i++, left--) {
+            if (random.nextInt(left) < needed) {
+                winners.add(pool.get(i));
+                needed--;
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * The app's draw: one weighted pass keeping the capacity best keys.
+     *
+     * @return Winners, in draw order
+     */
+    @Benchmark
+    public List<String> weightedKeys() {
+        WeightedLottery<String> lottery = new WeightedLottery<>(capacity, random.nextLong());
+        for (int i = 0; i < pool.size(); i++) {
+            String uid = pool.get(i);
+            lottery.offer(uid, uid, weights[i]);
+        }
+        return lottery.winners();
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Admin event log grouping, as in AdminEventLogsActivity.
+ *
+ * Events whose sends predate notification_batches are shown by grouping every
+ * per-recipient notification by message and sender, de-duplicating
+ * recipients with List.contains. Each send here goes to 100 recipients, so a
+ * 1M-notification event has 10k sends. The summary variant is what the screen
+ * does once summaries exist: one document per send.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log grouping at 1k, 100k and 1M notifications.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NotificationGroupingBenchmark {
+
+    /** Recipients per send. */
+    private static final int RECIPIENTS_PER_SEND = 100;
+
+    /** Organizers sending for the event. */
+    private static final int SENDERS = 3;
+
+    /** Number of notification documents. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Fields of each notification document, in query order. */
+    private String[] messages, senders, userIds;
+
+    /** Send time of each notification. */
+    private long[] timestamps;
+
+    /** One summary per send: message, sender, count, time. */
+    private List<Map<String, Object>> summaries;
+
+    /** Generates notifications and the matching summaries. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        int sends = Math.max(1, size / RECIPIENTS_PER_SEND);
+        messages = new String[size];
+        senders = new String[size];
+        userIds = new String[size];
+        timestamps = new long[size];
+        summaries = new ArrayList<>(sends);
+        for (int s = 0; s < sends; s++) {
+            Map<String, Object> doc = new HashMap<>();
+            doc.put("message", "Update #" + s + ": the draw has been run");
+            doc.put("sentBy", Fixtures.uid(s % SENDERS));
+            doc.put("recipientCount", 0L);
+            doc.put("timestamp", 1_700_000_000_000L + s * 60_000L);
+            summaries.add(doc);
+        }
+        // Notifications arrive ordered by time, not grouped by send
+        for (int i = 0; i < size; i++) {
+            int s = Math.min(sends - 1, i / RECIPIENTS_PER_SEND);
+            if (random.nextInt(4) == 0) s = random.nextInt(sends);
+            Map<String, Object> doc = summaries.get(s);
+            messages[i] = (String) doc.get("message");
+            senders[i] = (String) doc.get("sentBy");
+            userIds[i] = Fixtures.uid(random.nextInt(Math.max(1, size)));
+            timestamps[i] = (Long) doc.get("timestamp");
+            doc.put("recipientCount", (Long) doc.get("recipientCount") + 1);
+        }
+    }
+
+    /** A grouped log row. */
+    private static final class Group {
+        /** Message text. */
+        final String message;
+        /** Sender uid. */
+        final String sentBy;
+        /** First-seen time. */
+        final long timestamp;
+        /** Distinct recipients. */
+        final Collection<String> recipients;
+
+        /**
+         * Creates a row.
+         *
+         * @param message - Message text
+         * @param sentBy - Sender uid
+         * @param timestamp - First-seen time
+         * @param recipients - Recipient collection to fill
+         */
+        Group(String message, String sentBy, long timestamp, Collection<String> recipients) {
+            this.message = message;
+            this.sentBy = sentBy;
+            this.timestamp = timestamp;
+            this.recipients = recipients;
+        }
+    }
+
+    /**
+     * The screen's legacy grouping: string-concatenated key, recipient
+     * de-duplication by List.contains, then newest first.
+     *
+     * @return Groups
+     */
+    @Benchmark
+    public List<Group> groupLegacy() {
+        Map<String, Group> grouped = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = messages[i] + "_" + (senders[i] != null ? senders[i] : "unknown");
+            Group g = grouped.get(key);
+            if (g == null) {
+                g = new Group(messages[i], senders[i], timestamps[i], new ArrayList<>());
+                grouped.put(key, g);
+            }
+            if (userIds[i] != null && !g.recipients.contains(userIds[i])) g.recipients.add(userIds[i]);
+        }
+        List<Group> out = new ArrayList<>(grouped.values());
+        out.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+        return out;
+    }
+
+    /**
+     * The same grouping with a hashed recipient set per group.
+     *
+     * @return Groups
+     */
+    @Benchmark
+    public List<Group> groupWithSets() {
+        Map<List<String>, Group> grouped = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            List<String> key = List.of(messages[i], Objects.toString(senders[i], "unknown"));
+            Group g = grouped.get(key);
+            if (g == null) {
+                g = new Group(messages[i], senders[i], timestamps[i], new LinkedHashSet<>());
+                grouped.put(key, g);
+            }
+            if (userIds[i] != null) g.recipients.add(userIds[i]);
+        }
+        List<Group> out = new ArrayList<>(grouped.values());
+        out.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+        return out;
+    }
+
+    /**
+     * The current path: one notification_batches summary per send, already
+     * carrying its recipient count.
+     *
+     * @return Groups
+     */
+    @Benchmark
+    public List<Group> fromSummaries() {
+        List<Group> out = new ArrayList<>(summaries.size());
+        for (Map<String, Object> doc : summaries) {
+            out.add(new Group((String) doc.get("message"), (String) doc.get("sentBy"),
+                    (Long) doc.get("timestamp"), Set.of()));
+        }
+        out.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+        return out;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * QR matrix encoding for the event share dialog.
+ *
+ * The element count here is pixels: sides of 32, 317 and 1000 give roughly
+ * 1k, 100k and 1M pixels. EventQr fills one ARGB array row by row; the
+ * column-major variant mirrors the previous per-pixel setPixel loop.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import com.example.duckduckgoose.EventQr;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QR encoding and rasterizing at about 1k, 100k and 1M pixels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QrEncodeBenchmark {
+
+    /** Side length in pixels. */
+    @Param({"32", "317", "1000"})
+    public int side;
+
+    /** Link encoded by the share dialog. */
+    private final String link = EventQr.deepLink("Xq3b9TzL0mW2kPdR7sVa");
+
+    /**
+     * Encodes and rasterizes with EventQr.
+     *
+     * @return Pixels
+     * @throws WriterException never for this input
+     */
+    @Benchmark
+    public int[] encodeRowMajor() throws WriterException {
+        return EventQr.encodePixels(link, side);
+    }
+
+    /**
+     * Encodes, then rasterizes column by column as the old dialog loop did.
+     *
+     * @return Pixels
+     * @throws WriterException never for this input
+     */
+    @Benchmark
+    public int[] encodeColumnMajor() throws WriterException {
+        BitMatrix matrix = new QRCodeWriter().encode(link, BarcodeFormat.QR_CODE, side, side);
+        int width = matrix.getWidth();
+        int[] pixels = new int[width * matrix.getHeight()];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                pixels[y * width + x] = matrix.get(x, y) ? EventQr.BLACK : EventQr.WHITE;
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Encodes only, to separate zxing's cost from rasterizing.
+     *
+     * @return Bit matrix
+     * @throws WriterException never for this input
+     */
+    @Benchmark
+    public BitMatrix encodeOnly() throws WriterException {
+        return new QRCodeWriter().encode(link, BarcodeFormat.QR_CODE, side, side);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Waitlist membership: join, leave and "am I on it" checks.
+ *
+ * Event keeps waitingList as a List and guards every join and leave with
+ * contains(), so each check scans the list. The set variants show what an
+ * indexed membership structure would cost at the same sizes.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List versus hash set membership at 1k, 100k and 1M entrants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WaitlistMembershipBenchmark {
+
+    /** Lookups per invocation; half hit, half miss. */
+    private static final int PROBES = 64;
+
+    /** Waitlist size. */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /** Waitlist as Event stores it. */
+    private List<String> list;
+
+    /** Same entrants in join order, hashed. */
+    private Set<String> set;
+
+    /** uids to look up. */
+    private String[] probes;
+
+    /** Builds the waitlist and the probe mix. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(Fixtures.uids(size));
+        set = new LinkedHashSet<>(list);
+        Random random = new Random(Fixtures.SEED);
+        probes = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = i % 2 == 0 ? Fixtures.uid(random.nextInt(size)) : Fixtures.uid(size + i);
+        }
+    }
+
+    /**
+     * isOnWaitingList() over a List.
+     *
+     * @return Hits, so the loop is not eliminated
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int containsList() {
+        int hits = 0;
+        for (String p : probes) if (list.contains(p)) hits++;
+        return hits;
+    }
+
+    /**
+     * isOnWaitingList() over a hash set.
+     *
+     * @return Hits, so the loop is not eliminated
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int containsSet() {
+        int hits = 0;
+        for (String p : probes) if (set.contains(p)) hits++;
+        return hits;
+    }
+
+    /**
+     * addToWaitingList() then removeFromWaitingList() for a new entrant over
+     * a List: a full scan to reject duplicates, then a scan to remove.
+     *
+     * @return Final size
+     */
+    @Benchmark
+    public int joinLeaveList() {
+        String uid = probes[1];
+        if (!list.contains(uid)) list.add(uid);
+        list.remove(uid);
+        return list.size();
+    }
+
+    /**
+     * The same join and leave over a hash set.
+     *
+     * @return Final size
+     */
+    @Benchmark
+    public int joinLeaveSet() {
+        String uid = probes[1];
+        set.add(uid);
+        set.remove(uid);
+        return set.size();
+    }
+}
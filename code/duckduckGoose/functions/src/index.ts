@@ -6,6 +6,13 @@ import {
   HttpsError,
   CallableRequest,
 } from "firebase-functions/v2/https";
+import { onSchedule } from "firebase-functions/v2/scheduler";
+import {
+  onDocumentCreated,
+  onDocumentDeleted,
+} from "firebase-functions/v2/firestore";
+import { logger } from "firebase-functions";
+import { createHash } from "crypto";
 
 admin.initializeApp();
 
@@ -60,3 +67,910 @@ export const deleteUserByEmail = onCall<DeleteUserData>(
     }
   },
 );
+
+// Notifications older than this are moved into monthly archive digests.
+// Keep in sync with NotificationRepository.ARCHIVE_AFTER_DAYS in the app.
+const ARCHIVE_AFTER_DAYS = 30;
+
+// Notifications per batch. Each needs one delete, and each digest touched
+// needs one head write and at most two page writes (the page being filled
+// and the next), which keeps a batch under Firestore's 500-operation limit.
+const COMPACT_PAGE_SIZE = 120;
+
+// Archived notifications per digest page, so a busy month never grows one
+// document toward the 1 MiB limit (an item is well under 1 KiB).
+const ARCHIVE_PAGE_ITEMS = 500;
+
+// Upper bound on batches per run; any backlog is picked up the next day.
+const COMPACT_MAX_PAGES = 50;
+
+interface ArchivedNotification {
+  id: string;
+  message: string | null;
+  eventId: string | null;
+  sentBy: string | null;
+  type: string | null;
+  timestamp: admin.firestore.Timestamp;
+}
+
+interface MonthDigest {
+  userId: string;
+  month: string;
+  items: ArchivedNotification[];
+}
+
+/**
+ * Returns the archive month ("yyyy-MM", UTC) a timestamp falls in.
+ * @param {admin.firestore.Timestamp} ts - Notification timestamp
+ * @return {string} Month key
+ */
+function monthKey(ts: admin.firestore.Timestamp): string {
+  const d = ts.toDate();
+  const month = String(d.getUTCMonth() + 1).padStart(2, "0");
+  return `${d.getUTCFullYear()}-${month}`;
+}
+
+/**
+ * Rolls notifications older than ARCHIVE_AFTER_DAYS into one digest per
+ * user per month, deleting the originals in the same batch. This keeps the
+ * hot collection and its indexes bounded to roughly one month of traffic.
+ * The expireAt TTL on each notification is a backstop if this job falls
+ * behind.
+ *
+ * A digest is a head document at notification_archives/{userId}_{yyyy-MM}
+ * (listed by the app, with the month's count) and the items themselves in
+ * its pages subcollection, ARCHIVE_PAGE_ITEMS per page. The head's paged
+ * field says how many items the pages hold, so the next item's page is
+ * known without reading them. Heads written before paging keep their items
+ * inline; the app reads both.
+ *
+ * Each batch is atomic (heads, pages and deletes commit together), so a
+ * retried run neither loses nor duplicates entries.
+ */
+export const compactNotifications = onSchedule(
+  { schedule: "every day 03:00", region: "us-central1", timeoutSeconds: 540 },
+  async () => {
+    const db = admin.firestore();
+    const cutoff = admin.firestore.Timestamp.fromMillis(
+      Date.now() - ARCHIVE_AFTER_DAYS * 24 * 60 * 60 * 1000,
+    );
+    let archived = 0;
+
+    for (let page = 0; page < COMPACT_MAX_PAGES; page++) {
+      const snap = await db
+        .collection("notifications")
+        .where("timestamp", "<", cutoff)
+        .orderBy("timestamp")
+        .limit(COMPACT_PAGE_SIZE)
+        .get();
+      if (snap.empty) break;
+
+      const digests = new Map<string, MonthDigest>();
+      const batch = db.batch();
+      snap.forEach((doc) => {
+        const d = doc.data();
+        batch.delete(doc.ref);
+        if (typeof d.userId !== "string") return;
+
+        const month = monthKey(d.timestamp);
+        const key = `${d.userId}_${month}`;
+        let digest = digests.get(key);
+        if (!digest) {
+          digest = { userId: d.userId, month, items: [] };
+          digests.set(key, digest);
+        }
+        digest.items.push({
+          id: doc.id,
+          message: d.message ?? null,
+          eventId: d.eventId ?? null,
+          sentBy: d.sentBy ?? null,
+          type: d.type ?? null,
+          timestamp: d.timestamp,
+        });
+      });
+
+      const keys = [...digests.keys()];
+      const heads = keys.length > 0 ? await db.getAll(
+        ...keys.map((key) => db.collection("notification_archives").doc(key)),
+      ) : [];
+      heads.forEach((head, i) => {
+        const digest = digests.get(keys[i]) as MonthDigest;
+        const paged = head.get("paged") ?? 0;
+        let index = Math.floor(paged / ARCHIVE_PAGE_ITEMS);
+        let room = ARCHIVE_PAGE_ITEMS - paged % ARCHIVE_PAGE_ITEMS;
+        for (let from = 0; from < digest.items.length; index++) {
+          const items = digest.items.slice(from, from + room);
+          batch.set(
+            head.ref.collection("pages").doc(String(index)),
+            {
+              userId: digest.userId,
+              month: digest.month,
+              index,
+              items: admin.firestore.FieldValue.arrayUnion(...items),
+            },
+            { merge: true },
+          );
+          from += items.length;
+          room = ARCHIVE_PAGE_ITEMS;
+        }
+        batch.set(
+          head.ref,
+          {
+            userId: digest.userId,
+            month: digest.month,
+            count: admin.firestore.FieldValue.increment(digest.items.length),
+            paged: admin.firestore.FieldValue.increment(digest.items.length),
+            updatedAt: admin.firestore.FieldValue.serverTimestamp(),
+          },
+          { merge: true },
+        );
+      });
+
+      await batch.commit();
+      archived += snap.size;
+      if (snap.size < COMPACT_PAGE_SIZE) break;
+    }
+
+    logger.info(`compactNotifications archived ${archived} notifications`);
+  },
+);
+
+// Waitlist entry statuses that keep an entrant in events.waitingList and
+// users.waitlistedEventIds. Accepted entrants move to the accepted arrays;
+// declined, cancelled and removed ones leave both. An entry without a
+// status counts as waiting, as EntrantStatus.of does in the app. Keep in
+// sync with EntrantStatus.isOnList.
+const ON_LIST_STATUSES = new Set(["waiting", "selected", "invited"]);
+
+// Every status an entry may store. The sweep rewrites a missing or
+// non-canonical status (e.g. "Waiting") to one of these, as EntrantStatus.of
+// reads it, so status queries in the app see every entry. Keep in sync with
+// EntrantStatus.
+const ENTRY_STATUSES = new Set([
+  "waiting", "selected", "invited", "accepted", "declined", "cancelled",
+  "removed",
+]);
+
+// Documents per page when streaming a collection in key order.
+const SWEEP_PAGE_SIZE = 500;
+
+// Repairs per transaction. Each repair re-reads its entry and owner, so a
+// chunk stays well under the transaction limits.
+const REPAIR_CHUNK = 200;
+
+// Mismatches listed by key in the drift report; the counts are complete.
+const REPORT_SAMPLE = 25;
+
+type Doc = admin.firestore.QueryDocumentSnapshot;
+
+/**
+ * One denormalized membership array, checked against the waitlist entries.
+ */
+interface Side {
+  // Collection holding the array ("events" or "users")
+  collection: string;
+  // Array field on the owner document
+  field: string;
+  // Entry field holding the owner document id
+  ownerKey: "eventId" | "userId";
+  // Entry field holding the array member
+  memberKey: "eventId" | "userId";
+}
+
+const EVENT_SIDE: Side = {
+  collection: "events",
+  field: "waitingList",
+  ownerKey: "eventId",
+  memberKey: "userId",
+};
+
+const USER_SIDE: Side = {
+  collection: "users",
+  field: "waitlistedEventIds",
+  ownerKey: "userId",
+  memberKey: "eventId",
+};
+
+/**
+ * A mismatch between an owner's array and the waitlist entries.
+ * "add": an entry on the list whose member the array lacks.
+ * "remove": an array member without an entry that is on the list.
+ * "orphan": an entry whose owner document no longer exists.
+ */
+interface Repair {
+  kind: "add" | "remove" | "orphan";
+  owner: string;
+  member: string;
+  // Entry seen by the sweep, or null if the array member had none
+  entryPath: string | null;
+}
+
+/** An entry reduced to what the join compares. */
+interface EntryKey {
+  member: string;
+  onList: boolean;
+  path: string;
+}
+
+/** Drift found and repaired for one side. */
+interface SideDrift {
+  owners: number;
+  entries: number;
+  add: number;
+  remove: number;
+  orphan: number;
+  repaired: number;
+  // Entries whose status was rewritten to its canonical value
+  normalized: number;
+  samples: string[];
+}
+
+/**
+ * Reads an ordered query page by page, one document at a time, holding
+ * one page in memory.
+ */
+class DocStream {
+  private page: Doc[] = [];
+  private index = 0;
+  private last: Doc | null = null;
+  private done = false;
+
+  /**
+   * @param {admin.firestore.Query} query - Query in the join's key order
+   */
+  constructor(private readonly query: admin.firestore.Query) {}
+
+  /**
+   * Returns the next document.
+   * @return {Promise<Doc | null>} Document, or null after the last one
+   */
+  async next(): Promise<Doc | null> {
+    if (this.index === this.page.length) {
+      if (this.done) return null;
+      let q = this.query.limit(SWEEP_PAGE_SIZE);
+      if (this.last) q = q.startAfter(this.last);
+      const snap = await q.get();
+      this.page = snap.docs;
+      this.index = 0;
+      this.done = snap.size < SWEEP_PAGE_SIZE;
+      if (snap.empty) return null;
+      this.last = snap.docs[snap.docs.length - 1];
+    }
+    return this.page[this.index++];
+  }
+}
+
+/**
+ * Returns the canonical value of an entry status.
+ * @param {unknown} status - The entry's status field
+ * @return {string} Lowercase status; "waiting" if missing or unknown
+ */
+function canonicalStatus(status: unknown): string {
+  const value = typeof status === "string" ? status.trim().toLowerCase() : "";
+  return ENTRY_STATUSES.has(value) ? value : "waiting";
+}
+
+/**
+ * Returns whether an entry status keeps the entrant in the arrays.
+ * @param {unknown} status - The entry's status field
+ * @return {boolean} True for waiting, selected and invited
+ */
+function isOnList(status: unknown): boolean {
+  return ON_LIST_STATUSES.has(canonicalStatus(status));
+}
+
+/**
+ * Rewrites entries' statuses to their canonical values in one transaction,
+ * deciding again from a fresh read so a status written since the sweep
+ * read the entry is kept.
+ * @param {admin.firestore.Firestore} db - Firestore
+ * @param {string[]} paths - At most REPAIR_CHUNK entry paths
+ * @return {Promise<number>} Writes made
+ */
+async function normalizeStatuses(
+  db: admin.firestore.Firestore,
+  paths: string[],
+): Promise<number> {
+  return db.runTransaction(async (tx) => {
+    let writes = 0;
+    for (const snap of await tx.getAll(...paths.map((p) => db.doc(p)))) {
+      const status = snap.get("status");
+      if (!snap.exists || status === canonicalStatus(status)) continue;
+      tx.update(snap.ref, { status: canonicalStatus(status) });
+      writes++;
+    }
+    return writes;
+  });
+}
+
+/**
+ * Reads an owner's array as sorted, distinct ids.
+ * @param {unknown} value - The array field
+ * @return {string[]} Members in key order
+ */
+function sortedMembers(value: unknown): string[] {
+  if (!Array.isArray(value)) return [];
+  const ids = value.filter((v): v is string => typeof v === "string");
+  return [...new Set(ids)].sort();
+}
+
+/**
+ * Compares one owner's array with that owner's entries. Both lists are in
+ * member order, so they are merged in a single pass.
+ * @param {string} owner - Owner document id
+ * @param {string[] | null} members - Sorted array, null if the owner is gone
+ * @param {EntryKey[]} entries - The owner's entries, sorted by member
+ * @return {Repair[]} Mismatches found
+ */
+function diffOwner(
+  owner: string,
+  members: string[] | null,
+  entries: EntryKey[],
+): Repair[] {
+  const repairs: Repair[] = [];
+  if (members === null) {
+    for (const e of entries) {
+      repairs.push({
+        kind: "orphan", owner, member: e.member, entryPath: e.path,
+      });
+    }
+    return repairs;
+  }
+  let i = 0;
+  let j = 0;
+  while (i < members.length || j < entries.length) {
+    const member = i < members.length ? members[i] : null;
+    const next = j < entries.length ? entries[j].member : null;
+    if (next !== null && (member === null || next <= member)) {
+      // Duplicate entries for one member count as on the list if any is
+      const path = entries[j].path;
+      let onList = false;
+      while (j < entries.length && entries[j].member === next) {
+        onList = entries[j++].onList || onList;
+      }
+      const inArray = next === member;
+      if (inArray) i++;
+      if (onList && !inArray) {
+        repairs.push({ kind: "add", owner, member: next, entryPath: path });
+      } else if (!onList && inArray) {
+        repairs.push({ kind: "remove", owner, member: next, entryPath: path });
+      }
+    } else if (member !== null) {
+      repairs.push({ kind: "remove", owner, member, entryPath: null });
+      i++;
+    }
+  }
+  return repairs;
+}
+
+/**
+ * Applies repairs in one transaction. Each repair is decided again from a
+ * fresh read of its entry and owner, so a join or leave that landed after
+ * the sweep read them is never undone: the array is made to agree with
+ * the entry as it is at commit time.
+ * @param {admin.firestore.Firestore} db - Firestore
+ * @param {Side} side - Array being repaired
+ * @param {Repair[]} repairs - At most REPAIR_CHUNK repairs
+ * @return {Promise<number>} Writes made
+ */
+async function applyRepairs(
+  db: admin.firestore.Firestore,
+  side: Side,
+  repairs: Repair[],
+): Promise<number> {
+  const entryPath = (r: Repair): string => r.entryPath ??
+    (side === EVENT_SIDE ?
+      `waitlist/${r.member}_${r.owner}` :
+      `waitlist/${r.owner}_${r.member}`);
+  const entryRefs = new Map<string, admin.firestore.DocumentReference>();
+  const ownerRefs = new Map<string, admin.firestore.DocumentReference>();
+  for (const r of repairs) {
+    entryRefs.set(entryPath(r), db.doc(entryPath(r)));
+    ownerRefs.set(r.owner, db.collection(side.collection).doc(r.owner));
+  }
+
+  return db.runTransaction(async (tx) => {
+    const entries = new Map<string, admin.firestore.DocumentSnapshot>();
+    for (const snap of await tx.getAll(...entryRefs.values())) {
+      entries.set(snap.ref.path, snap);
+    }
+    const owners = new Set<string>();
+    for (const snap of await tx.getAll(...ownerRefs.values())) {
+      if (snap.exists) owners.add(snap.id);
+    }
+
+    let writes = 0;
+    const add = new Map<string, string[]>();
+    const remove = new Map<string, string[]>();
+    for (const r of repairs) {
+      const entry = entries.get(entryPath(r));
+      if (!owners.has(r.owner)) {
+        if (entry?.exists) {
+          tx.delete(entry.ref);
+          writes++;
+        }
+        continue;
+      }
+      const onList = entry?.exists === true && isOnList(entry.get("status"));
+      const target = onList ? add : remove;
+      target.set(r.owner, [...(target.get(r.owner) ?? []), r.member]);
+    }
+    add.forEach((members, owner) => {
+      tx.update(ownerRefs.get(owner)!, {
+        [side.field]: admin.firestore.FieldValue.arrayUnion(...members),
+      });
+      writes++;
+    });
+    remove.forEach((members, owner) => {
+      tx.update(ownerRefs.get(owner)!, {
+        [side.field]: admin.firestore.FieldValue.arrayRemove(...members),
+      });
+      writes++;
+    });
+    return writes;
+  });
+}
+
+/**
+ * Sort-merge joins one side's owners (by document id) with the waitlist
+ * entries (by owner id, then member id) and repairs what differs, in
+ * chunks, while the streams continue.
+ * @param {admin.firestore.Firestore} db - Firestore
+ * @param {Side} side - Array to check
+ * @return {Promise<SideDrift>} Drift found and repaired
+ */
+async function sweepSide(
+  db: admin.firestore.Firestore,
+  side: Side,
+): Promise<SideDrift> {
+  const drift: SideDrift = {
+    owners: 0, entries: 0, add: 0, remove: 0, orphan: 0, repaired: 0,
+    normalized: 0, samples: [],
+  };
+  const owners = new DocStream(db.collection(side.collection)
+    .orderBy(admin.firestore.FieldPath.documentId()));
+  const entries = new DocStream(db.collection("waitlist")
+    .orderBy(side.ownerKey).orderBy(side.memberKey));
+  const pending: Repair[] = [];
+  const unnormalized: string[] = [];
+
+  // Entries with a non-string key cannot be placed in the key order
+  const nextEntry = async (): Promise<Doc | null> => {
+    for (let d = await entries.next(); d; d = await entries.next()) {
+      drift.entries++;
+      if (d.get("status") !== canonicalStatus(d.get("status"))) {
+        unnormalized.push(d.ref.path);
+        if (unnormalized.length >= REPAIR_CHUNK) {
+          drift.normalized += await normalizeStatuses(db,
+            unnormalized.splice(0, REPAIR_CHUNK));
+        }
+      }
+      if (typeof d.get(side.ownerKey) === "string" &&
+          typeof d.get(side.memberKey) === "string") return d;
+    }
+    return null;
+  };
+
+  let owner = await owners.next();
+  let entry = await nextEntry();
+  while (owner || entry) {
+    const entryOwner: string | null = entry ? entry.get(side.ownerKey) : null;
+    let key: string;
+    let members: string[] | null = null;
+    if (owner && (entryOwner === null || owner.id <= entryOwner)) {
+      key = owner.id;
+      members = sortedMembers(owner.get(side.field));
+      drift.owners++;
+      owner = await owners.next();
+    } else {
+      key = entryOwner as string;
+    }
+
+    const group: EntryKey[] = [];
+    while (entry && entry.get(side.ownerKey) === key) {
+      group.push({
+        member: entry.get(side.memberKey),
+        onList: isOnList(entry.get("status")),
+        path: entry.ref.path,
+      });
+      entry = await nextEntry();
+    }
+
+    for (const r of diffOwner(key, members, group)) {
+      drift[r.kind]++;
+      if (drift.samples.length < REPORT_SAMPLE) {
+        drift.samples.push(
+          `${r.kind} ${side.collection}/${r.owner} ${r.member}`);
+      }
+      pending.push(r);
+    }
+    while (pending.length >= REPAIR_CHUNK) {
+      drift.repaired += await applyRepairs(db, side,
+        pending.splice(0, REPAIR_CHUNK));
+    }
+  }
+  if (pending.length > 0) {
+    drift.repaired += await applyRepairs(db, side, pending);
+  }
+  if (unnormalized.length > 0) {
+    drift.normalized += await normalizeStatuses(db, unnormalized);
+  }
+  return drift;
+}
+
+/**
+ * Reconciles the three records of waiting-list membership: the waitlist
+ * entries (written transactionally on join and treated as the truth),
+ * events.waitingList and users.waitlistedEventIds. Each array is checked
+ * with a sort-merge join of two streams in the same key order, so the
+ * sweep reads every document once per pass and never looks one up per
+ * entrant. Missing members are added, stale ones removed, and entries whose
+ * event or user is gone are deleted. The events pass runs first, so an
+ * entry deleted there is already absent when users are checked. Entries
+ * written before statuses were canonical (missing, or differing in case)
+ * get their canonical status, so they are not left out of status queries;
+ * the rules only accept canonical statuses from then on.
+ *
+ * A report of the drift found is written to integrity_reports/{yyyy-MM-dd}
+ * and logged.
+ */
+export const sweepMembership = onSchedule(
+  { schedule: "every day 04:00", region: "us-central1", timeoutSeconds: 540 },
+  async () => {
+    const db = admin.firestore();
+    const startedAt = admin.firestore.Timestamp.now();
+    const events = await sweepSide(db, EVENT_SIDE);
+    const users = await sweepSide(db, USER_SIDE);
+
+    await db.collection("integrity_reports")
+      .doc(startedAt.toDate().toISOString().slice(0, 10))
+      .set({
+        startedAt,
+        finishedAt: admin.firestore.FieldValue.serverTimestamp(),
+        events,
+        users,
+      });
+    logger.info(
+      `sweepMembership events: +${events.add} -${events.remove} ` +
+      `orphans ${events.orphan}; users: +${users.add} -${users.remove} ` +
+      `orphans ${users.orphan}; ${events.repaired + users.repaired} writes; ` +
+      `${events.normalized + users.normalized} statuses normalized`,
+    );
+  },
+);
+
+// Type of the notice telling entrants an event was deleted; the cascade
+// keeps it. Keep in sync with EventDeletionPipeline.DELETION_NOTICE.
+const DELETION_NOTICE = "event_deleted";
+
+// Documents per page in the deletion cascade and the tags backfill; each
+// page is one batch.
+const CASCADE_PAGE_SIZE = 500;
+
+// users arrays the id of a deleted event is removed from.
+const EVENT_REFERENCE_FIELDS = [
+  "waitlistedEventIds",
+  "acceptedEventIds",
+  "ownedEvents",
+];
+
+interface DeleteEventData {
+  eventId: string;
+}
+
+export const deleteEvent = onCall<DeleteEventData>(
+  { region: "us-central1" },
+  async (request: CallableRequest<DeleteEventData>) => {
+    const uid = request.auth?.uid;
+    if (!uid) {
+      throw new HttpsError("unauthenticated", "Sign in to delete events.");
+    }
+    const eventId = request.data?.eventId;
+    if (!eventId || typeof eventId !== "string") {
+      throw new HttpsError(
+        "invalid-argument",
+        "A valid eventId must be provided.",
+      );
+    }
+
+    const db = admin.firestore();
+    const eventRef = db.collection("events").doc(eventId);
+    const [event, caller] = await db.getAll(
+      eventRef,
+      db.collection("users").doc(uid),
+    );
+    // Already deleted; cascadeEventDeletion has run or is running
+    if (!event.exists) return { deleted: false };
+
+    const accountType = String(caller.get("accountType") ?? "");
+    if (event.get("organizerId") !== uid &&
+        accountType.toLowerCase() !== "admin") {
+      throw new HttpsError(
+        "permission-denied",
+        "Only the organizer or an administrator can delete this event.",
+      );
+    }
+    await eventRef.delete();
+    return { deleted: true };
+  },
+);
+
+/**
+ * Goes through every document a query matches in document id order, a page
+ * at a time, committing each page's writes as one batch.
+ * @param {admin.firestore.Query} query - Documents to go through
+ * @param {function(Doc, admin.firestore.WriteBatch): boolean} write - Adds
+ *     a document's write to the batch; returns false to leave it alone
+ * @return {Promise<number>} Writes made
+ */
+async function cascadePages(
+  query: admin.firestore.Query,
+  write: (doc: Doc, batch: admin.firestore.WriteBatch) => boolean,
+): Promise<number> {
+  const db = admin.firestore();
+  let written = 0;
+  let last: Doc | null = null;
+  for (;;) {
+    let page = query
+      .orderBy(admin.firestore.FieldPath.documentId())
+      .limit(CASCADE_PAGE_SIZE);
+    if (last) page = page.startAfter(last);
+    const snap = await page.get();
+    if (snap.empty) break;
+
+    const batch = db.batch();
+    let writes = 0;
+    snap.forEach((doc) => {
+      if (write(doc, batch)) writes++;
+    });
+    if (writes > 0) await batch.commit();
+    written += writes;
+    last = snap.docs[snap.docs.length - 1];
+    if (snap.size < CASCADE_PAGE_SIZE) break;
+  }
+  return written;
+}
+
+/**
+ * Removes everything that refers to a deleted event: its waitlist entries,
+ * its notifications (except the deletion notice sent to entrants), its
+ * waiting list counter shards, and its id in users' waitlistedEventIds,
+ * acceptedEventIds and ownedEvents.
+ *
+ * Every write is a delete or an arrayRemove, so a failed run is simply
+ * retried from the top; pages finished earlier no longer match.
+ */
+export const cascadeEventDeletion = onDocumentDeleted(
+  {
+    document: "events/{eventId}",
+    region: "us-central1",
+    timeoutSeconds: 540,
+    retry: true,
+  },
+  async (event) => {
+    const eventId = event.params.eventId;
+    const db = admin.firestore();
+    const remove = (doc: Doc, batch: admin.firestore.WriteBatch): boolean => {
+      batch.delete(doc.ref);
+      return true;
+    };
+
+    let written = await cascadePages(
+      db.collection("waitlist").where("eventId", "==", eventId),
+      remove,
+    );
+    written += await cascadePages(
+      db.collection("notifications").where("eventId", "==", eventId),
+      (doc, batch) => doc.get("type") !== DELETION_NOTICE && remove(doc, batch),
+    );
+    written += await cascadePages(
+      db.collection("events").doc(eventId).collection("waitlistShards"),
+      remove,
+    );
+    for (const field of EVENT_REFERENCE_FIELDS) {
+      written += await cascadePages(
+        db.collection("users").where(field, "array-contains", eventId),
+        (doc, batch) => {
+          batch.update(doc.ref, {
+            [field]: admin.firestore.FieldValue.arrayRemove(eventId),
+          });
+          return true;
+        },
+      );
+    }
+
+    logger.info(`cascadeEventDeletion made ${written} writes for ${eventId}`);
+  },
+);
+
+/**
+ * Bumps the recipient's unread counter on inbox_meta for every new
+ * notification. Clients may only write their own inbox_meta, so senders
+ * cannot set another user's counter; the badge lags the notification by
+ * the trigger's latency.
+ */
+export const countNotification = onDocumentCreated(
+  { document: "notifications/{notificationId}", region: "us-central1" },
+  async (event) => {
+    const userId = event.data?.get("userId");
+    if (typeof userId !== "string" || userId === "") return;
+    await admin.firestore().collection("inbox_meta").doc(userId).set({
+      unreadCount: admin.firestore.FieldValue.increment(1),
+      lastNotificationAt: event.data?.get("timestamp") ??
+        admin.firestore.FieldValue.serverTimestamp(),
+    }, { merge: true });
+  },
+);
+
+/**
+ * Rejects a one-off backfill call unless the caller's account is an
+ * administrator's.
+ * @param {CallableRequest} request - The call
+ * @return {Promise<void>} Resolves if the caller may run backfills
+ */
+async function requireAdmin(request: CallableRequest): Promise<void> {
+  const uid = request.auth?.uid;
+  if (!uid) {
+    throw new HttpsError("unauthenticated", "Sign in to run backfills.");
+  }
+  const caller = await admin.firestore().collection("users").doc(uid).get();
+  if (String(caller.get("accountType") ?? "").toLowerCase() !== "admin") {
+    throw new HttpsError("permission-denied", "Administrators only.");
+  }
+}
+
+// Prefix of the summary ids backfillNotificationBatches writes; notifications
+// pointing at one are regrouped by every run.
+const LEGACY_BATCH_PREFIX = "legacy_";
+
+// Recipient ids per notification_batches recipients page. Keep in sync with
+// NotificationBatch.RECIPIENT_PAGE_SIZE.
+const RECIPIENT_PAGE_SIZE = 50;
+
+interface LegacySend {
+  eventId: string;
+  message: string | null;
+  sentBy: string | null;
+  timestamp: admin.firestore.Timestamp | null;
+  userIds: string[];
+  notifications: admin.firestore.DocumentReference[];
+}
+
+/**
+ * Gives sends made before notification_batches existed a summary, so the
+ * admin event logs, which may not list other users' notifications, show
+ * them. An event's notifications without a batchId are grouped by sender
+ * and message, as the logs used to group them; each group gets a summary
+ * with a deterministic id, its recipient pages and a batchId on each of its
+ * notifications. A rerun regroups everything it wrote before and rewrites
+ * the same documents, so a failed run is simply called again. One-off: call
+ * it once as an administrator after deploying.
+ */
+export const backfillNotificationBatches = onCall(
+  { region: "us-central1", timeoutSeconds: 540 },
+  async (request: CallableRequest) => {
+    await requireAdmin(request);
+    const db = admin.firestore();
+
+    const sends = new Map<string, LegacySend>();
+    await cascadePages(
+      db.collection("notifications")
+        .select("eventId", "message", "sentBy", "userId", "timestamp",
+          "batchId"),
+      (doc) => {
+        const batchId = doc.get("batchId");
+        const eventId = doc.get("eventId");
+        if (typeof batchId === "string" &&
+            !batchId.startsWith(LEGACY_BATCH_PREFIX)) return false;
+        if (typeof eventId !== "string" || eventId === "") return false;
+        const message = doc.get("message") ?? null;
+        const sentBy = doc.get("sentBy") ?? null;
+        const key = JSON.stringify([eventId, sentBy, message]);
+        let send = sends.get(key);
+        if (!send) {
+          send = { eventId, message, sentBy, timestamp: null, userIds: [],
+            notifications: [] };
+          sends.set(key, send);
+        }
+        const ts: admin.firestore.Timestamp | null =
+          doc.get("timestamp") ?? null;
+        const first = send.timestamp;
+        if (ts && (!first || ts.toMillis() < first.toMillis())) {
+          send.timestamp = ts;
+        }
+        const userId = doc.get("userId");
+        if (typeof userId === "string" && !send.userIds.includes(userId)) {
+          send.userIds.push(userId);
+        }
+        send.notifications.push(doc.ref);
+        return false;
+      },
+    );
+
+    const writer = db.bulkWriter();
+    for (const [key, send] of sends) {
+      const summary = db.collection("notification_batches").doc(
+        LEGACY_BATCH_PREFIX +
+          createHash("sha1").update(key).digest("hex").slice(0, 20),
+      );
+      const pages = Math.ceil(send.userIds.length / RECIPIENT_PAGE_SIZE);
+      for (let p = 0; p < pages; p++) {
+        writer.set(summary.collection("recipients").doc(String(p)), {
+          index: p,
+          userIds: send.userIds.slice(
+            p * RECIPIENT_PAGE_SIZE, (p + 1) * RECIPIENT_PAGE_SIZE),
+        });
+      }
+      writer.set(summary, {
+        eventId: send.eventId,
+        message: send.message,
+        sentBy: send.sentBy,
+        recipientCount: send.userIds.length,
+        pageCount: pages,
+        timestamp: send.timestamp ?? admin.firestore.Timestamp.now(),
+      });
+      for (const ref of send.notifications) {
+        writer.update(ref, { batchId: summary.id });
+      }
+    }
+    await writer.close();
+
+    logger.info(`backfillNotificationBatches wrote ${sends.size} summaries`);
+    return { summaries: sends.size };
+  },
+);
+
+// Interest labels events can be tagged with, less "All". Keep in sync with
+// R.array.interest_values.
+const INTEREST_TAGS = ["Sports", "Social Events", "Community", "Fitness",
+  "Arts"];
+
+/**
+ * Returns the interests an untagged event matches the way the client's
+ * old name-and-description filter did: every word of the label occurs,
+ * ignoring case, in the event's name or description.
+ *
+ * @param {unknown} name - The event's name
+ * @param {unknown} description - The event's description
+ * @return {string[]} Matching interest labels, possibly none
+ */
+function inferTags(name: unknown, description: unknown): string[] {
+  const text = [name, description]
+    .filter((s): s is string => typeof s === "string")
+    .join(" ")
+    .toLowerCase();
+  return INTEREST_TAGS.filter((label) => label.toLowerCase()
+    .split(/[^a-z0-9]+/)
+    .filter((word) => word !== "")
+    .every((word) => text.includes(word)));
+}
+
+/**
+ * Gives events created before interest tags existed a tags array, so the
+ * event list's array-contains filter does not drop them. Their tags are
+ * inferred from the name and description; an event matching no interest
+ * gets an empty array and, as before, shows only under "All". Events that
+ * already have tags, including ones an organizer cleared, are left alone,
+ * so a rerun only tags what an earlier failed run missed. One-off: call it
+ * once as an administrator after deploying; new events are created with
+ * tags.
+ */
+export const backfillEventTags = onCall(
+  { region: "us-central1", timeoutSeconds: 540 },
+  async (request: CallableRequest) => {
+    await requireAdmin(request);
+    const written = await cascadePages(
+      admin.firestore().collection("events")
+        .select("name", "description", "tags"),
+      (doc, batch) => {
+        if (Array.isArray(doc.get("tags"))) return false;
+        batch.update(doc.ref, {
+          tags: inferTags(doc.get("name"), doc.get("description")),
+        });
+        return true;
+      },
+    );
+    logger.info(`backfillEventTags tagged ${written} events`);
+    return { tagged: written };
+  },
+);
@@ -0,0 +1,31 @@
+// Load-test harness for the Firestore emulator, run on a plain JVM.
+//
+//   firebase emulators:start --only firestore
+//   ./gradlew :loadtest:run --args="--reset --users 20000 --events 50 --waitlist 100000 \
+//       --script join:5000,draw:20,broadcast:20,inbox:5000 --concurrency 64 --out build/load.json"
+//
+// Refuses to start unless FIRESTORE_EMULATOR_HOST (or --emulator) points at an emulator.
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+application {
+    mainClass.set("com.example.duckduckgoose.loadtest.LoadTest")
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = projectDir
+}
+
+dependencies {
+    implementation(libs.google.cloud.firestore)
+}
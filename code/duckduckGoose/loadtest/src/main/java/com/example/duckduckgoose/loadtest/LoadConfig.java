@@ -0,0 +1,147 @@
+/**
+ * Command-line options for the load-test harness.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed options with defaults sized for a laptop-run emulator.
+ */
+final class LoadConfig {
+
+    /** Emulator host:port; defaults to FIRESTORE_EMULATOR_HOST. */
+    String emulatorHost = System.getenv("FIRESTORE_EMULATOR_HOST");
+
+    /** Project id the emulator data lives under. */
+    String projectId = "demo-duckduckgoose";
+
+    /** Users to seed. */
+    int users = 2000;
+
+    /** Events to seed. */
+    int events = 20;
+
+    /** Waitlist entries to seed, spread round-robin across events. */
+    int waitlist = 10000;
+
+    /** Notifications to seed, spread round-robin across users. */
+    int notifications = 20000;
+
+    /** Events that registration-open joins target. */
+    int hotEvents = 1;
+
+    /** Winners per draw. */
+    int drawCapacity = 50;
+
+    /** Worker threads per workload. */
+    int concurrency = 32;
+
+    /** Seed for every random choice. */
+    long seed = 301L;
+
+    /** Delete all emulator data before seeding. */
+    boolean reset;
+
+    /** Skip seeding and reuse the emulator's current data. */
+    boolean skipSeed;
+
+    /** JSON report path, or null for console only. */
+    String out;
+
+    /** Workloads to replay, in order. */
+    final List<Step> script = new ArrayList<>();
+
+    /**
+     * One scripted workload and how many operations to run.
+     */
+    static final class Step {
+        /** Workload name. */
+        final String workload;
+        /** Operations to run. */
+        final int ops;
+
+        /**
+         * Creates a step.
+         *
+         * @param workload - Workload name
+         * @param ops - Operations to run
+         */
+        Step(String workload, int ops) {
+            this.workload = workload;
+            this.ops = ops;
+        }
+    }
+
+    /**
+     * Parses arguments of the form --name value (flags take no value).
+     *
+     * @param args - Command-line arguments
+     * @return Options
+     * @throws IllegalArgumentException on an unknown or malformed option
+     */
+    static LoadConfig parse(String[] args) {
+        LoadConfig c = new LoadConfig();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--reset": c.reset = true; continue;
+                case "--skip-seed": c.skipSeed = true; continue;
+                default: break;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+            String v = args[++i];
+            switch (a) {
+                case "--emulator": c.emulatorHost = v; break;
+                case "--project": c.projectId = v; break;
+                case "--users": c.users = positive(a, v); break;
+                case "--events": c.events = positive(a, v); break;
+                case "--waitlist": c.waitlist = Integer.parseInt(v); break;
+                case "--notifications": c.notifications = Integer.parseInt(v); break;
+                case "--hot-events": c.hotEvents = positive(a, v); break;
+                case "--draw-capacity": c.drawCapacity = positive(a, v); break;
+                case "--concurrency": c.concurrency = positive(a, v); break;
+                case "--seed": c.seed = Long.parseLong(v); break;
+                case "--out": c.out = v; break;
+                case "--script": c.script.addAll(parseScript(v)); break;
+                default: throw new IllegalArgumentException("Unknown option " + a);
+            }
+        }
+        if (c.script.isEmpty()) c.script.addAll(parseScript("join:1000,draw:5,broadcast:5,inbox:1000"));
+        c.hotEvents = Math.min(c.hotEvents, c.events);
+        return c;
+    }
+
+    /**
+     * Parses "name:ops,name:ops".
+     *
+     * @param spec - Script text
+     * @return Steps in order
+     */
+    static List<Step> parseScript(String spec) {
+        List<Step> steps = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad script step " + part);
+            steps.add(new Step(kv[0], positive(kv[0], kv[1])));
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Parses a positive integer option.
+     *
+     * @param name - Option name for the error message
+     * @param value - Text to parse
+     * @return The value
+     */
+    private static int positive(String name, String value) {
+        int n = Integer.parseInt(value);
+        if (n <= 0) throw new IllegalArgumentException(name + " must be positive");
+        return n;
+    }
+}
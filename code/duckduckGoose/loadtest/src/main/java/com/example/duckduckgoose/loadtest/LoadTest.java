@@ -0,0 +1,153 @@
+/**
+ * Load-test harness entry point.
+ *
+ * Seeds the local Firestore emulator in the app's schema, replays a script of
+ * workloads (registration-open joins, draws, organizer broadcasts, inbox
+ * reads) on a pool of worker threads, and reports throughput, latency
+ * percentiles and document reads/writes per operation for each workload.
+ * Never talks to a real project: it exits unless an emulator host is set.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command-line runner. See loadtest/build.gradle.kts for an example invocation.
+ */
+public final class LoadTest {
+
+    /** Prevents instantiation. */
+    private LoadTest() {}
+
+    /**
+     * Runs the harness.
+     *
+     * @param args - Options (see {@link LoadConfig#parse})
+     * @throws Exception if seeding, a workload or the report fails
+     */
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        if (config.emulatorHost == null || config.emulatorHost.isEmpty()) {
+            System.err.println("Set FIRESTORE_EMULATOR_HOST or pass --emulator host:port; "
+                    + "this tool only runs against the emulator.");
+            System.exit(2);
+        }
+
+        Firestore db = FirestoreOptions.newBuilder()
+                .setProjectId(config.projectId)
+                .setEmulatorHost(config.emulatorHost)
+                .build()
+                .getService();
+        try {
+            if (config.reset) {
+                Seeder.reset(config.emulatorHost, config.projectId);
+                System.out.println("Cleared emulator project " + config.projectId);
+            }
+            if (!config.skipSeed) {
+                long start = System.nanoTime();
+                long docs = new Seeder(db, config).seed();
+                System.out.printf(Locale.ROOT, "Seeded %d documents in %.1fs (%d users, %d events, "
+                                + "%d waitlist entries, %d notifications)%n",
+                        docs, (System.nanoTime() - start) / 1e9, config.users, config.events,
+                        config.waitlist, config.notifications);
+            }
+
+            List<Metrics> results = new ArrayList<>();
+            for (LoadConfig.Step step : config.script) {
+                Metrics m = replay(db, config, step);
+                System.out.println(m.summary());
+                results.add(m);
+            }
+            if (config.out != null) writeReport(config, results);
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Runs one workload step on config.concurrency threads.
+     *
+     * @param db - Database under test
+     * @param config - Options
+     * @param step - Workload and operation count
+     * @return Collected metrics
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    private static Metrics replay(Firestore db, LoadConfig config, LoadConfig.Step step)
+            throws InterruptedException {
+        Workloads.Workload workload = Workloads.create(step.workload, db, config);
+        Metrics metrics = new Metrics(step.workload);
+        AtomicInteger next = new AtomicInteger();
+        int threads = Math.min(config.concurrency, step.ops);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                int op;
+                while ((op = next.getAndIncrement()) < step.ops) {
+                    Meter meter = new Meter(db);
+                    long t0 = System.nanoTime();
+                    try {
+                        workload.run(op, meter);
+                        metrics.success(System.nanoTime() - t0, meter);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (ExecutionException e) {
+                        metrics.failure(meter, e.getCause());
+                    } catch (Exception e) {
+                        metrics.failure(meter, e);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        metrics.finish(System.nanoTime() - start);
+        return metrics;
+    }
+
+    /**
+     * Writes the run's options and per-workload metrics as JSON.
+     *
+     * @param config - Options
+     * @param results - Metrics in script order
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeReport(LoadConfig config, List<Metrics> results) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.ROOT,
+                "{\"seeded\":{\"users\":%d,\"events\":%d,\"waitlist\":%d,\"notifications\":%d},"
+                        + "\"concurrency\":%d,\"seed\":%d,\"workloads\":[",
+                config.users, config.events, config.waitlist, config.notifications,
+                config.concurrency, config.seed));
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append("\n  ").append(results.get(i).toJson());
+        }
+        json.append("\n]}\n");
+
+        Path path = Paths.get(config.out);
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Wrote " + path.toAbsolutePath());
+    }
+}
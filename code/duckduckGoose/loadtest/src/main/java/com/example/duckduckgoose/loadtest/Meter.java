@@ -0,0 +1,188 @@
+/**
+ * Read and write accounting for one load-test operation.
+ *
+ * Workloads go through these helpers instead of calling Firestore directly, so
+ * every document read and written is counted the way Firestore bills it: one
+ * read per returned document (at least one per query) and one write per
+ * batched operation.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Counts one operation's reads and writes. Not thread-safe; one per operation.
+ */
+final class Meter {
+
+    /** Firestore's per-batch operation limit. */
+    static final int MAX_BATCH_OPS = 500;
+
+    /** Database under test. */
+    private final Firestore db;
+
+    /** Documents read. */
+    private long reads;
+
+    /** Documents written. */
+    private long writes;
+
+    /**
+     * Creates a meter for one operation.
+     *
+     * @param db - Database under test
+     */
+    Meter(Firestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Reads one document.
+     *
+     * @param ref - Document to read
+     * @return Snapshot (may not exist)
+     * @throws ExecutionException if the read fails
+     * @throws InterruptedException if interrupted while waiting
+     */
+    DocumentSnapshot get(DocumentReference ref) throws ExecutionException, InterruptedException {
+        reads++;
+        return ref.get().get();
+    }
+
+    /**
+     * Runs a query.
+     *
+     * @param query - Query to run
+     * @return Matching documents
+     * @throws ExecutionException if the query fails
+     * @throws InterruptedException if interrupted while waiting
+     */
+    List<QueryDocumentSnapshot> query(Query query) throws ExecutionException, InterruptedException {
+        List<QueryDocumentSnapshot> docs = query.get().get().getDocuments();
+        reads += Math.max(1, docs.size());
+        return docs;
+    }
+
+    /**
+     * Returns a writer that commits in Firestore-sized chunks.
+     *
+     * @return New chunked writer; call {@link Writer#flush()} at the end
+     */
+    Writer writer() {
+        return new Writer();
+    }
+
+    /**
+     * Returns documents read so far.
+     *
+     * @return Read count
+     */
+    long reads() {
+        return reads;
+    }
+
+    /**
+     * Returns documents written so far.
+     *
+     * @return Write count
+     */
+    long writes() {
+        return writes;
+    }
+
+    /**
+     * Batches writes and commits every {@link #MAX_BATCH_OPS} operations, as
+     * the app's send and draw paths do.
+     */
+    final class Writer {
+        /** Open batch. */
+        private WriteBatch batch = db.batch();
+
+        /** Operations in the open batch. */
+        private int ops;
+
+        /**
+         * Adds a set.
+         *
+         * @param ref - Target document
+         * @param data - Document data
+         * @return This writer
+         * @throws ExecutionException if a full batch fails to commit
+         * @throws InterruptedException if interrupted while committing
+         */
+        Writer set(DocumentReference ref, Map<String, Object> data)
+                throws ExecutionException, InterruptedException {
+            batch.set(ref, data);
+            return added();
+        }
+
+        /**
+         * Adds a merge.
+         *
+         * @param ref - Target document
+         * @param data - Fields to merge
+         * @return This writer
+         * @throws ExecutionException if a full batch fails to commit
+         * @throws InterruptedException if interrupted while committing
+         */
+        Writer merge(DocumentReference ref, Map<String, Object> data)
+                throws ExecutionException, InterruptedException {
+            batch.set(ref, data, SetOptions.merge());
+            return added();
+        }
+
+        /**
+         * Adds a single-field update.
+         *
+         * @param ref - Target document
+         * @param field - Field path
+         * @param value - New value or transform
+         * @return This writer
+         * @throws ExecutionException if a full batch fails to commit
+         * @throws InterruptedException if interrupted while committing
+         */
+        Writer update(DocumentReference ref, String field, Object value)
+                throws ExecutionException, InterruptedException {
+            batch.update(ref, field, value);
+            return added();
+        }
+
+        /**
+         * Commits whatever is still open.
+         *
+         * @throws ExecutionException if the commit fails
+         * @throws InterruptedException if interrupted while committing
+         */
+        void flush() throws ExecutionException, InterruptedException {
+            if (ops == 0) return;
+            batch.commit().get();
+            writes += ops;
+            batch = db.batch();
+            ops = 0;
+        }
+
+        /**
+         * Counts one operation and commits if the batch is full.
+         *
+         * @return This writer
+         * @throws ExecutionException if the commit fails
+         * @throws InterruptedException if interrupted while committing
+         */
+        private Writer added() throws ExecutionException, InterruptedException {
+            if (++ops == MAX_BATCH_OPS) flush();
+            return this;
+        }
+    }
+}
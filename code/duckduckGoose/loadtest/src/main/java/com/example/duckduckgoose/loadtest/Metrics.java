@@ -0,0 +1,136 @@
+/**
+ * Aggregated results for one scripted workload.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latency samples and read/write totals, safe to record from worker threads.
+ */
+final class Metrics {
+
+    /** Workload name. */
+    final String workload;
+
+    /** Latency of each successful operation, in nanoseconds. */
+    private long[] latencies = new long[1024];
+
+    /** Samples recorded. */
+    private int count;
+
+    /** Failed operations. */
+    private int errors;
+
+    /** First error message, for the report. */
+    private String firstError;
+
+    /** Documents read across all operations. */
+    private long reads;
+
+    /** Documents written across all operations. */
+    private long writes;
+
+    /** Wall-clock time for the whole workload, in nanoseconds. */
+    private long wallNanos;
+
+    /**
+     * Creates empty metrics.
+     *
+     * @param workload - Workload name
+     */
+    Metrics(String workload) {
+        this.workload = workload;
+    }
+
+    /**
+     * Records a successful operation.
+     *
+     * @param nanos - Operation latency
+     * @param meter - The operation's read/write counts
+     */
+    synchronized void success(long nanos, Meter meter) {
+        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+        latencies[count++] = nanos;
+        reads += meter.reads();
+        writes += meter.writes();
+    }
+
+    /**
+     * Records a failed operation. Its reads and writes still count.
+     *
+     * @param meter - The operation's read/write counts
+     * @param error - Failure
+     */
+    synchronized void failure(Meter meter, Throwable error) {
+        errors++;
+        if (firstError == null) firstError = String.valueOf(error);
+        reads += meter.reads();
+        writes += meter.writes();
+    }
+
+    /**
+     * Sets the workload's wall-clock time.
+     *
+     * @param nanos - Elapsed time
+     */
+    synchronized void finish(long nanos) {
+        wallNanos = nanos;
+        Arrays.sort(latencies, 0, count);
+    }
+
+    /**
+     * Returns a latency percentile in milliseconds. Call after {@link #finish}.
+     *
+     * @param p - Percentile in [0, 100]
+     * @return Latency, or 0 with no samples
+     */
+    synchronized double percentileMillis(double p) {
+        if (count == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * count) - 1;
+        return latencies[Math.max(0, Math.min(count - 1, rank))] / 1e6;
+    }
+
+    /**
+     * Returns completed operations per second of wall-clock time.
+     *
+     * @return Throughput
+     */
+    synchronized double throughput() {
+        return wallNanos > 0 ? count / (wallNanos / 1e9) : 0;
+    }
+
+    /**
+     * Returns one console line.
+     *
+     * @return Formatted summary
+     */
+    synchronized String summary() {
+        int ops = Math.max(1, count + errors);
+        return String.format(Locale.ROOT,
+                "%-10s ops=%-6d err=%-4d %8.1f op/s  p50=%7.1fms p90=%7.1fms p99=%7.1fms max=%7.1fms"
+                        + "  reads/op=%.1f writes/op=%.1f",
+                workload, count, errors, throughput(), percentileMillis(50), percentileMillis(90),
+                percentileMillis(99), percentileMillis(100), reads / (double) ops, writes / (double) ops)
+                + (firstError != null ? "\n           first error: " + firstError : "");
+    }
+
+    /**
+     * Returns the metrics as a JSON object.
+     *
+     * @return JSON text
+     */
+    synchronized String toJson() {
+        int ops = Math.max(1, count + errors);
+        return String.format(Locale.ROOT,
+                "{\"workload\":\"%s\",\"ops\":%d,\"errors\":%d,\"wallMillis\":%.1f,\"opsPerSecond\":%.2f,"
+                        + "\"latencyMillis\":{\"p50\":%.2f,\"p90\":%.2f,\"p99\":%.2f,\"max\":%.2f},"
+                        + "\"reads\":%d,\"writes\":%d,\"readsPerOp\":%.2f,\"writesPerOp\":%.2f}",
+                workload, count, errors, wallNanos / 1e6, throughput(), percentileMillis(50),
+                percentileMillis(90), percentileMillis(99), percentileMillis(100),
+                reads, writes, reads / (double) ops, writes / (double) ops);
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Seeds the Firestore emulator with data in the app's schema.
+ *
+ * Writes users, events (with their waitingList arrays), waitlist entries,
+ * notifications and inbox_meta counters, using the same field names the app
+ * reads. Ids are derived from indices so workloads can address seeded
+ * documents without reading them first.
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.Firestore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk loader for one seeded data set.
+ */
+final class Seeder {
+
+    /** Organizer who owns every seeded event and sends every notification. */
+    static final String ORGANIZER_ID = "load_organizer";
+
+    /** Days a notification lives before TTL (mirrors NotificationRepository). */
+    private static final int EXPIRE_AFTER_DAYS = 90;
+
+    /** Database under test. */
+    private final Firestore db;
+
+    /** Sizes to seed. */
+    private final LoadConfig config;
+
+    /**
+     * Creates a seeder.
+     *
+     * @param db - Emulator-backed database
+     * @param config - Sizes to seed
+     */
+    Seeder(Firestore db, LoadConfig config) {
+        this.db = db;
+        this.config = config;
+    }
+
+    /**
+     * Returns the uid of the i-th seeded user.
+     *
+     * @param i - User index
+     * @return uid
+     */
+    static String userId(int i) {
+        return String.format(Locale.ROOT, "load_user_%07d", i);
+    }
+
+    /**
+     * Returns the id of the i-th seeded event.
+     *
+     * @param i - Event index
+     * @return Event id
+     */
+    static String eventId(int i) {
+        return String.format(Locale.ROOT, "load_event_%05d", i);
+    }
+
+    /**
+     * Deletes every document in the emulator's database for the project.
+     *
+     * @param host - Emulator host:port
+     * @param projectId - Project id
+     * @throws IOException if the emulator rejects the request
+     */
+    static void reset(String host, String projectId) throws IOException {
+        URL url = new URL("http://" + host + "/emulator/v1/projects/" + projectId
+                + "/databases/(default)/documents");
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("DELETE");
+        int code = conn.getResponseCode();
+        try (InputStream ignored = code < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+            if (code >= 400) throw new IOException("Emulator reset failed: HTTP " + code);
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Writes the whole data set and waits for it to land.
+     *
+     * @return Documents written
+     */
+    long seed() {
+        int users = config.users;
+        int events = config.events;
+        // Each (user, event) pair appears at most once
+        int waitlist = (int) Math.min(config.waitlist, (long) users * events);
+
+        List<List<String>> eventEntrants = new ArrayList<>(events);
+        for (int e = 0; e < events; e++) eventEntrants.add(new ArrayList<>());
+        List<List<String>> userEvents = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) userEvents.add(new ArrayList<>());
+
+        long written = 0;
+        long now = System.currentTimeMillis() / 1000;
+        BulkWriter writer = db.bulkWriter();
+
+        for (int k = 0; k < waitlist; k++) {
+            int e = k % events;
+            int u = (k / events) % users;
+            String uid = userId(u);
+            String eid = eventId(e);
+            eventEntrants.get(e).add(uid);
+            userEvents.get(u).add(eid);
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("userId", uid);
+            entry.put("eventId", eid);
+            entry.put("joinedAt", Timestamp.ofTimeSecondsAndNanos(now - k, 0));
+            entry.put("status", "waiting");
+            entry.put("notes", "");
+            entry.put("eventName", "Load event " + e);
+            entry.put("userName", "Load User " + u);
+            writer.set(db.collection("waitlist").document(uid + "_" + eid), entry);
+            written++;
+        }
+
+        for (int e = 0; e < events; e++) {
+            String eid = eventId(e);
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventId", eid);
+            event.put("name", "Load event " + e);
+            event.put("description", "Seeded by the load-test harness");
+            event.put("eventDate", "12/" + String.format(Locale.ROOT, "%02d", 1 + e % 28) + "/26");
+            event.put("registrationOpens", "01/01/26");
+            event.put("registrationCloses", "11/30/26");
+            event.put("maxSpots", String.valueOf(config.drawCapacity));
+            event.put("cost", e % 3 == 0 ? "Free" : "$" + (5 * (e % 20)));
+            event.put("geolocationEnabled", false);
+            event.put("organizerId", ORGANIZER_ID);
+            event.put("waitingList", eventEntrants.get(e));
+            event.put("acceptedFromWaitlist", new ArrayList<>());
+            event.put("registeredUsers", new ArrayList<>());
+            event.put("signupCount", eventEntrants.get(e).size());
+            event.put("redrawCount", 0);
+            writer.set(db.collection("events").document(eid), event);
+            written++;
+        }
+
+        long[] unread = new long[users];
+        for (int j = 0; j < config.notifications; j++) {
+            int u = j % users;
+            unread[u]++;
+            long sentAt = now - j * 30L;
+            Map<String, Object> notif = new HashMap<>();
+            notif.put("userId", userId(u));
+            notif.put("eventId", eventId(j % events));
+            notif.put("message", "Seeded notification " + j);
+            notif.put("sentBy", ORGANIZER_ID);
+            notif.put("timestamp", Timestamp.ofTimeSecondsAndNanos(sentAt, 0));
+            notif.put("expireAt", Timestamp.ofTimeSecondsAndNanos(sentAt + EXPIRE_AFTER_DAYS * 86400L, 0));
+            writer.set(db.collection("notifications").document(), notif);
+            written++;
+        }
+
+        writer.set(db.collection("users").document(ORGANIZER_ID), profile(ORGANIZER_ID, "Load Organizer",
+                "Organizer", new ArrayList<>()));
+        written++;
+        for (int u = 0; u < users; u++) {
+            String uid = userId(u);
+            writer.set(db.collection("users").document(uid),
+                    profile(uid, "Load User " + u, "Entrant", userEvents.get(u)));
+            Map<String, Object> meta = new HashMap<>();
+            meta.put("unreadCount", unread[u]);
+            meta.put("receive_notifications", true);
+            writer.set(db.collection("inbox_meta").document(uid), meta);
+            written += 2;
+        }
+
+        writer.close();
+        return written;
+    }
+
+    /**
+     * Builds a users document.
+     *
+     * @param uid - User id
+     * @param name - Full name
+     * @param accountType - "Entrant" or "Organizer"
+     * @param waitlisted - Event ids the user is waitlisted for
+     * @return Document data
+     */
+    private static Map<String, Object> profile(String uid, String name, String accountType,
+                                               List<String> waitlisted) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("userId", uid);
+        user.put("fullName", name);
+        user.put("email", uid + "@example.com");
+        user.put("accountType", accountType);
+        user.put("createdAt", System.currentTimeMillis());
+        user.put("receive_notifications", true);
+        user.put("waitlistedEventIds", waitlisted);
+        user.put("acceptedEventIds", new ArrayList<>());
+        return user;
+    }
+}
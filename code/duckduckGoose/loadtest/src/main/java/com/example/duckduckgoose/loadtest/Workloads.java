@@ -0,0 +1,230 @@
+/**
+ * Scripted workloads replayed against the seeded emulator.
+ *
+ * Each workload repeats what one app screen does for a single user action,
+ * with the same documents and write shapes:
+ * - join: Event.addToWaitingList at registration open (all joins hit the hot events)
+ * - draw: AttendeeManagerActivity's lottery (read the waiting pool, mark winners,
+ *   notify everyone through one notification_batches send per outcome)
+ * - broadcast: an organizer message to everyone on an event's waitlist
+ * - inbox: opening the inbox (inbox_meta, first page, mark seen)
+ *
+ * @author DuckDuckGoose Development Team
+ */
+package com.example.duckduckgoose.loadtest;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Factory for the named workloads.
+ */
+final class Workloads {
+
+    /** Notifications per inbox page (mirrors NotificationRepository.PAGE_SIZE). */
+    private static final int INBOX_PAGE_SIZE = 50;
+
+    /** Recipient ids per notification_batches page (mirrors NotificationBatch). */
+    private static final int RECIPIENT_PAGE_SIZE = 50;
+
+    /** Days a notification lives before TTL (mirrors NotificationRepository). */
+    private static final int EXPIRE_AFTER_DAYS = 90;
+
+    /**
+     * One user action, run once per operation index.
+     */
+    interface Workload {
+        /**
+         * Runs operation number op.
+         *
+         * @param op - Operation index, 0-based
+         * @param meter - Counts the operation's reads and writes
+         * @throws Exception if a Firestore call fails
+         */
+        void run(int op, Meter meter) throws Exception;
+    }
+
+    /** Prevents instantiation. */
+    private Workloads() {}
+
+    /**
+     * Returns the workload with the given name.
+     *
+     * @param name - join, draw, broadcast or inbox
+     * @param db - Database under test
+     * @param config - Seeded sizes
+     * @return Workload
+     * @throws IllegalArgumentException for an unknown name
+     */
+    static Workload create(String name, Firestore db, LoadConfig config) {
+        switch (name) {
+            case "join": return (op, meter) -> join(db, config, op, meter);
+            case "draw": return (op, meter) -> draw(db, config, op, meter);
+            case "broadcast": return (op, meter) -> broadcast(db, config, op, meter);
+            case "inbox": return (op, meter) -> inbox(db, config, op, meter);
+            default: throw new IllegalArgumentException("Unknown workload " + name);
+        }
+    }
+
+    /**
+     * Returns a random source that depends only on the seed and operation,
+     * so a replay makes the same choices whatever the thread interleaving.
+     *
+     * @param config - Options holding the seed
+     * @param op - Operation index
+     * @return Seeded random
+     */
+    private static Random random(LoadConfig config, int op) {
+        return new Random(config.seed * 31 + op);
+    }
+
+    /**
+     * A user joins a hot event's waitlist: one batch of three writes, no reads.
+     */
+    private static void join(Firestore db, LoadConfig config, int op, Meter meter)
+            throws ExecutionException, InterruptedException {
+        String uid = Seeder.userId(random(config, op).nextInt(config.users));
+        String eid = Seeder.eventId(op % config.hotEvents);
+
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("userId", uid);
+        entry.put("eventId", eid);
+        entry.put("joinedAt", Timestamp.now());
+        entry.put("status", "waiting");
+        entry.put("notes", "");
+
+        Meter.Writer w = meter.writer();
+        w.set(db.collection("waitlist").document(uid + "_" + eid), entry);
+        w.update(db.collection("events").document(eid), "waitingList", FieldValue.arrayUnion(uid));
+        w.update(db.collection("users").document(uid), "waitlistedEventIds", FieldValue.arrayUnion(eid));
+        w.flush();
+    }
+
+    /**
+     * An organizer runs the lottery for one event.
+     */
+    private static void draw(Firestore db, LoadConfig config, int op, Meter meter)
+            throws ExecutionException, InterruptedException {
+        String eid = Seeder.eventId(op % config.events);
+        List<QueryDocumentSnapshot> waiting = meter.query(db.collection("waitlist")
+                .whereEqualTo("eventId", eid)
+                .whereEqualTo("status", "waiting"));
+        if (waiting.isEmpty()) return;
+
+        List<QueryDocumentSnapshot> pool = new ArrayList<>(waiting);
+        Collections.shuffle(pool, random(config, op));
+        int capacity = Math.min(config.drawCapacity, pool.size());
+
+        Meter.Writer w = meter.writer();
+        List<String> winners = new ArrayList<>(capacity);
+        List<String> losers = new ArrayList<>(pool.size() - capacity);
+        for (int i = 0; i < pool.size(); i++) {
+            QueryDocumentSnapshot doc = pool.get(i);
+            String uid = doc.getString("userId");
+            if (i < capacity) {
+                w.update(doc.getReference(), "status", "selected");
+                winners.add(uid);
+            } else {
+                losers.add(uid);
+            }
+        }
+        send(db, w, eid, "congratulation! you are selected for Load event", "selected", winners);
+        send(db, w, eid, "Load event: L you were not selected", null, losers);
+        w.flush();
+    }
+
+    /**
+     * An organizer messages everyone on one event's waitlist.
+     */
+    private static void broadcast(Firestore db, LoadConfig config, int op, Meter meter)
+            throws ExecutionException, InterruptedException {
+        String eid = Seeder.eventId(op % config.events);
+        List<QueryDocumentSnapshot> entrants = meter.query(db.collection("waitlist")
+                .whereEqualTo("eventId", eid));
+        List<String> recipients = new ArrayList<>(entrants.size());
+        for (QueryDocumentSnapshot doc : entrants) recipients.add(doc.getString("userId"));
+
+        Meter.Writer w = meter.writer();
+        send(db, w, eid, "Load broadcast #" + op, null, recipients);
+        w.flush();
+    }
+
+    /**
+     * A user opens the inbox: badge document, first page, then mark seen.
+     */
+    private static void inbox(Firestore db, LoadConfig config, int op, Meter meter)
+            throws ExecutionException, InterruptedException {
+        String uid = Seeder.userId(random(config, op).nextInt(config.users));
+        DocumentReference meta = db.collection("inbox_meta").document(uid);
+        meter.get(meta);
+        meter.query(db.collection("notifications")
+                .whereEqualTo("userId", uid)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .limit(INBOX_PAGE_SIZE));
+
+        Map<String, Object> seen = new HashMap<>();
+        seen.put("unreadCount", 0);
+        seen.put("lastSeen", Timestamp.now());
+        Meter.Writer w = meter.writer();
+        w.merge(meta, seen);
+        w.flush();
+    }
+
+    /**
+     * Writes one send the way NotificationBatch does: a notification and an
+     * unread bump per recipient, recipient pages and a summary document.
+     */
+    private static void send(Firestore db, Meter.Writer w, String eventId, String message, String type,
+                             List<String> recipients) throws ExecutionException, InterruptedException {
+        if (recipients.isEmpty()) return;
+        DocumentReference summary = db.collection("notification_batches").document();
+        Timestamp now = Timestamp.now();
+        Timestamp expireAt = Timestamp.ofTimeSecondsAndNanos(now.getSeconds() + EXPIRE_AFTER_DAYS * 86400L, 0);
+
+        for (String uid : recipients) {
+            Map<String, Object> notif = new HashMap<>();
+            notif.put("userId", uid);
+            notif.put("eventId", eventId);
+            notif.put("message", message);
+            notif.put("sentBy", Seeder.ORGANIZER_ID);
+            notif.put("timestamp", now);
+            notif.put("expireAt", expireAt);
+            notif.put("batchId", summary.getId());
+            if (type != null) notif.put("type", type);
+            // The unread counter is bumped by the countNotification function
+            w.set(db.collection("notifications").document(), notif);
+        }
+
+        int pages = (recipients.size() + RECIPIENT_PAGE_SIZE - 1) / RECIPIENT_PAGE_SIZE;
+        for (int p = 0; p < pages; p++) {
+            int from = p * RECIPIENT_PAGE_SIZE;
+            Map<String, Object> page = new HashMap<>();
+            page.put("index", p);
+            page.put("userIds", new ArrayList<>(
+                    recipients.subList(from, Math.min(from + RECIPIENT_PAGE_SIZE, recipients.size()))));
+            w.set(summary.collection("recipients").document(String.valueOf(p)), page);
+        }
+
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("eventId", eventId);
+        doc.put("message", message);
+        doc.put("sentBy", Seeder.ORGANIZER_ID);
+        doc.put("recipientCount", recipients.size());
+        doc.put("pageCount", pages);
+        doc.put("timestamp", now);
+        if (type != null) doc.put("type", type);
+        w.set(summary, doc);
+    }
+}
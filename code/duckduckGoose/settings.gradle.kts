@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "duckduckGoose"
 include(":app")
+include(":benchmarks")
+include(":loadtest")